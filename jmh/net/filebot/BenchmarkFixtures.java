@@ -0,0 +1,128 @@
+package net.filebot;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import net.filebot.web.Episode;
+import net.filebot.web.SimpleDate;
+
+/**
+ * Deterministic offline fixtures for benchmarks, i.e. synthetic release names, episode lists and files with random content generated from a fixed seed
+ */
+public class BenchmarkFixtures {
+
+	public static final long SEED = 42;
+
+	private static final String[] SERIES = { "Doctor Who", "Shōgun", "Star Trek: The Next Generation", "Dexter's Laboratory", "The Office (US)", "Breaking Bad", "Game of Thrones", "One Piece", "Law & Order: SVU", "Mr. Robot" };
+
+	private static final String[] TITLES = { "Pilot", "The Beginning", "Part One", "Homecoming", "Reunion", "The End of the World", "Into the Woods", "A Day in the Life", "Crossroads", "Aftermath" };
+
+	private static final String[] TAGS = { "720p.HDTV.x264-GROUP", "1080p.WEB-DL.DD5.1.H.264-NTb", "2160p.UHD.BluRay.REMUX.HDR.HEVC.Atmos-FGT", "PROPER.480p.WEB.h264-TBS", "REPACK.1080p.AMZN.WEBRip.DDP5.1.x264-NTG", "DVDRip.XviD-SAiNTS", "[1080p][HEVC][10bit]", "(BD 1920x1080 x265 FLAC)" };
+
+	public static Random random() {
+		return new Random(SEED);
+	}
+
+	/**
+	 * Episode list with {@code size} episodes across all sample series, 25 episodes per season
+	 */
+	public static List<Episode> getEpisodes(int size) {
+		List<Episode> episodes = new ArrayList<Episode>(size);
+		for (int i = 0; i < size; i++) {
+			int s = 1 + (i / SERIES.length) / 25;
+			int e = 1 + (i / SERIES.length) % 25;
+			String n = SERIES[i % SERIES.length];
+			String t = TITLES[(i * 7) % TITLES.length] + " " + i;
+			episodes.add(new Episode(n, s, e, t, (s - 1) * 25 + e, null, new SimpleDate(2000 + s, 1 + e % 12, 1 + e), i, null));
+		}
+		return episodes;
+	}
+
+	/**
+	 * Release file names for the given episodes in various common naming styles
+	 */
+	public static List<File> getEpisodeFiles(List<Episode> episodes) {
+		Random r = random();
+		List<File> files = new ArrayList<File>(episodes.size());
+		for (Episode e : episodes) {
+			files.add(new File("TV/" + e.getSeriesName() + "/Season " + e.getSeason(), getEpisodeFileName(e, r.nextInt(6), TAGS[r.nextInt(TAGS.length)]) + ".mkv"));
+		}
+		return files;
+	}
+
+	public static List<String> getEpisodeFileNames(int size) {
+		List<String> names = new ArrayList<String>(size);
+		for (File f : getEpisodeFiles(getEpisodes(size))) {
+			names.add(f.getName());
+		}
+		return names;
+	}
+
+	private static String getEpisodeFileName(Episode e, int style, String tag) {
+		String n = e.getSeriesName().replaceAll("\\W+", ".");
+		int s = e.getSeason(), x = e.getEpisode();
+
+		switch (style) {
+		case 0:
+			return String.format("%s.S%02dE%02d.%s.%s", n, s, x, e.getTitle().replace(' ', '.'), tag);
+		case 1:
+			return String.format("%s - %dx%02d - %s", e.getSeriesName(), s, x, e.getTitle());
+		case 2:
+			return String.format("%s.%d%02d.%s", n.toLowerCase(), s, x, tag);
+		case 3:
+			return String.format("[Group] %s - %02d %s", e.getSeriesName(), e.getAbsolute(), tag);
+		case 4:
+			return String.format("%s.%s.%s", n, e.getAirdate().format("yyyy.MM.dd"), tag);
+		default:
+			return String.format("%s Season %d Episode %d", e.getSeriesName(), s, x);
+		}
+	}
+
+	/**
+	 * Movie release names around the given movie names, e.g. {@code Name.2009.1080p.BluRay.x264-GROUP}
+	 */
+	public static List<String> getMovieFileNames(List<String> movies, int size) {
+		Random r = random();
+		List<String> names = new ArrayList<String>(size);
+		for (int i = 0; i < size; i++) {
+			String m = movies.get(r.nextInt(movies.size()));
+			String t = TAGS[r.nextInt(TAGS.length)];
+			switch (i % 3) {
+			case 0:
+				names.add(m.replace(' ', '.') + "." + (1950 + r.nextInt(70)) + "." + t);
+				break;
+			case 1:
+				names.add(m + " (" + (1950 + r.nextInt(70)) + ") " + t);
+				break;
+			default:
+				names.add("[Group] " + m + " (Extended Cut) " + t);
+				break;
+			}
+		}
+		return names;
+	}
+
+	/**
+	 * Create a temporary file with {@code size} bytes of random content
+	 */
+	public static File createFile(String name, long size) throws IOException {
+		File f = File.createTempFile(name, ".bin");
+		f.deleteOnExit();
+
+		Random r = random();
+		byte[] buffer = new byte[64 * 1024];
+		try (OutputStream out = Files.newOutputStream(f.toPath())) {
+			for (long i = 0; i < size; i += buffer.length) {
+				r.nextBytes(buffer);
+				out.write(buffer, 0, (int) Math.min(buffer.length, size - i));
+			}
+		}
+		return f;
+	}
+
+}
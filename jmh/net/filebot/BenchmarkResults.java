@@ -0,0 +1,85 @@
+package net.filebot;
+
+import static java.nio.charset.StandardCharsets.*;
+import static net.filebot.util.JsonUtilities.*;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Export JMH JSON results as a sorted tab-separated table (one line per benchmark and parameter combination) so that runs can be diffed, optionally with the relative change compared to a baseline run.
+ * <p>
+ * Usage: {@code BenchmarkResults <results.json> [<baseline.json>]}
+ */
+public class BenchmarkResults {
+
+	public static void main(String[] args) throws Exception {
+		if (args.length < 1) {
+			System.err.println("Usage: BenchmarkResults <results.json> [<baseline.json>]");
+			System.exit(1);
+		}
+
+		Map<String, Score> results = read(new File(args[0]));
+		Map<String, Score> baseline = args.length > 1 ? read(new File(args[1])) : null;
+
+		System.out.println(baseline == null ? "benchmark\tmode\tscore\terror\tunit" : "benchmark\tmode\tscore\terror\tunit\tbaseline\tchange");
+
+		results.forEach((k, v) -> {
+			StringBuilder line = new StringBuilder();
+			line.append(k).append('\t').append(v.mode).append('\t').append(format(v.score)).append('\t').append(format(v.error)).append('\t').append(v.unit);
+
+			if (baseline != null) {
+				Score b = baseline.get(k);
+				if (b != null && b.unit.equals(v.unit)) {
+					line.append('\t').append(format(b.score)).append('\t').append(String.format("%+.1f%%", (v.score - b.score) / b.score * 100));
+				} else {
+					line.append("\t\t");
+				}
+			}
+
+			System.out.println(line);
+		});
+	}
+
+	public static Map<String, Score> read(File file) throws Exception {
+		Object json = readJson(new String(Files.readAllBytes(file.toPath()), UTF_8));
+
+		Map<String, Score> results = new TreeMap<String, Score>();
+		streamJsonObjects(json).forEach(it -> {
+			Map<?, ?> metric = getMap(it, "primaryMetric");
+
+			Map<String, Object> params = new LinkedHashMap<String, Object>();
+			Map<?, ?> p = getMap(it, "params");
+			if (p != null) {
+				p.forEach((k, v) -> params.put(k.toString(), v));
+			}
+
+			String key = params.isEmpty() ? getString(it, "benchmark") : getString(it, "benchmark") + params;
+			results.put(key, new Score(getString(it, "mode"), getDouble(metric, "score"), getDouble(metric, "scoreError"), getString(metric, "scoreUnit")));
+		});
+		return results;
+	}
+
+	private static String format(Double value) {
+		return value == null || value.isNaN() ? "" : String.format("%.3f", value);
+	}
+
+	public static class Score {
+
+		public final String mode;
+		public final Double score;
+		public final Double error;
+		public final String unit;
+
+		public Score(String mode, Double score, Double error, String unit) {
+			this.mode = mode;
+			this.score = score;
+			this.error = error;
+			this.unit = unit;
+		}
+	}
+
+}
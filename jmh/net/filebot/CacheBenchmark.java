@@ -0,0 +1,89 @@
+package net.filebot;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import net.sf.ehcache.config.Configuration;
+import net.sf.ehcache.config.DiskStoreConfiguration;
+
+/**
+ * Cost of {@link Cache#get(Object)} and {@link Cache#put(Object, Object)} for each {@link CacheStoreType} with 1000 keys and 1 KB values (each store uses its own temporary disk store folder)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CacheBenchmark {
+
+	@Param({ "ehcache", "memory", "segment" })
+	public CacheStoreType store;
+
+	private static final int KEYS = 1000;
+
+	private File folder;
+	private net.sf.ehcache.CacheManager ehcache;
+	private CacheStore cacheStore;
+	private Cache cache;
+	private byte[] value;
+
+	@Setup
+	public void setup() throws Exception {
+		folder = Files.createTempDirectory("cache").toFile();
+
+		switch (store) {
+		case ehcache:
+			ehcache = net.sf.ehcache.CacheManager.create(new Configuration().diskStore(new DiskStoreConfiguration().path(folder.getPath())));
+			ehcache.addCache(new net.sf.ehcache.Cache(CacheType.Monthly.getConfiguration("benchmark")));
+			cacheStore = new EhCacheStore(ehcache.getCache("benchmark"));
+			break;
+		case memory:
+			cacheStore = new OptimizedCache("benchmark", CacheType.Monthly);
+			break;
+		default:
+			cacheStore = new SegmentFileCacheStore("benchmark", folder, CacheType.Monthly);
+			break;
+		}
+
+		cache = new Cache(cacheStore, CacheType.Monthly, new CacheStats("benchmark"));
+		value = new byte[1024];
+		BenchmarkFixtures.random().nextBytes(value);
+
+		for (int i = 0; i < KEYS; i++) {
+			cache.put("key" + i, value);
+		}
+	}
+
+	@TearDown
+	public void tearDown() throws Exception {
+		cacheStore.shutdown();
+		if (ehcache != null) {
+			ehcache.shutdown();
+		}
+	}
+
+	@Benchmark
+	public void get(Blackhole bh) {
+		for (int i = 0; i < KEYS; i++) {
+			bh.consume(cache.get("key" + i));
+		}
+	}
+
+	@Benchmark
+	public void put() {
+		for (int i = 0; i < KEYS; i++) {
+			cache.put("key" + i, value);
+		}
+	}
+
+}
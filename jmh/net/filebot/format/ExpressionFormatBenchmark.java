@@ -0,0 +1,49 @@
+package net.filebot.format;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import net.filebot.BenchmarkFixtures;
+import net.filebot.web.Episode;
+
+/**
+ * Cost of {@link ExpressionFormat#format(Object)} with {@link MediaBindingBean} bindings for typical episode naming schemes (bindings that require media file access are not used)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ExpressionFormatBenchmark {
+
+	@Param({ "{n} - {s00e00} - {t}", "{n}/Season {s}/{n.space('.')}.{s00e00}.{t.upperInitial()}", "{plex}" })
+	public String expression;
+
+	private ExpressionFormat format;
+	private List<Episode> episodes;
+	private List<File> files;
+
+	@Setup
+	public void setup() throws Exception {
+		format = new ExpressionFormat(expression);
+		episodes = BenchmarkFixtures.getEpisodes(100);
+		files = BenchmarkFixtures.getEpisodeFiles(episodes);
+	}
+
+	@Benchmark
+	public void format(Blackhole bh) {
+		for (int i = 0; i < episodes.size(); i++) {
+			bh.consume(format.format(new MediaBindingBean(episodes.get(i), files.get(i))));
+		}
+	}
+
+}
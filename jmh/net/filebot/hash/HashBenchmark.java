@@ -0,0 +1,43 @@
+package net.filebot.hash;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import net.filebot.BenchmarkFixtures;
+
+/**
+ * Throughput of {@link VerificationUtilities#computeHash(File, HashType)} for each {@link HashType} on a 64 MB file (served from the page cache after the first iteration)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class HashBenchmark {
+
+	@Param({ "SFV", "MD5", "SHA1", "SHA256", "SHA3_384" })
+	public HashType hashType;
+
+	@Param({ "67108864" })
+	public long size;
+
+	private File file;
+
+	@Setup
+	public void setup() throws Exception {
+		file = BenchmarkFixtures.createFile("hash", size);
+	}
+
+	@Benchmark
+	public String computeHash() throws Exception {
+		return VerificationUtilities.computeHash(file, hashType);
+	}
+
+}
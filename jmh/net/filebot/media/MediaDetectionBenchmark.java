@@ -0,0 +1,95 @@
+package net.filebot.media;
+
+import java.io.FileNotFoundException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import net.filebot.BenchmarkFixtures;
+import net.filebot.Resource;
+import net.filebot.web.Movie;
+
+/**
+ * Cost of {@link ReleaseInfo#cleanRelease(java.util.Collection, boolean)} and {@link MediaDetection#matchMovieName(java.util.Collection, boolean, int)} against the release groups, query blacklist and movie index checked in next to this class (no network access or local cache required)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MediaDetectionBenchmark {
+
+	@Param({ "false", "true" })
+	public boolean strict;
+
+	private ReleaseInfo releaseInfo;
+	private List<IndexEntry<Movie>> movieIndex;
+
+	private List<String> episodeNames;
+	private List<String> movieNames;
+
+	@Setup
+	public void setup() throws Exception {
+		releaseInfo = new FixtureReleaseInfo();
+		movieIndex = new ArrayList<IndexEntry<Movie>>();
+		for (Movie m : releaseInfo.getMovieList()) {
+			movieIndex.addAll(HighPerformanceMatcher.prepare(m));
+		}
+
+		List<String> movies = new ArrayList<String>();
+		for (IndexEntry<Movie> it : movieIndex) {
+			movies.add(it.getLenientName());
+		}
+
+		episodeNames = BenchmarkFixtures.getEpisodeFileNames(1000);
+		movieNames = BenchmarkFixtures.getMovieFileNames(movies, 100);
+
+		// initialize release info patterns
+		releaseInfo.cleanRelease(Collections.singleton(episodeNames.get(0)), strict);
+	}
+
+	@Benchmark
+	public void cleanRelease(Blackhole bh) throws Exception {
+		for (String name : episodeNames) {
+			bh.consume(releaseInfo.cleanRelease(Collections.singleton(name), strict));
+		}
+	}
+
+	@Benchmark
+	public void matchMovieName(Blackhole bh) throws Exception {
+		for (String name : movieNames) {
+			bh.consume(MediaDetection.matchMovieName(Collections.singleton(name), strict, 4, movieIndex));
+		}
+	}
+
+	/**
+	 * Load data files from the plain text fixtures in this package instead of the remote XZ compressed data files
+	 */
+	private static class FixtureReleaseInfo extends ReleaseInfo {
+
+		@Override
+		protected <A> Resource<A> resource(String name, Duration expirationTime, Function<byte[], A> parse) {
+			return () -> {
+				try (InputStream in = MediaDetectionBenchmark.class.getResourceAsStream(name)) {
+					if (in == null) {
+						throw new FileNotFoundException(name);
+					}
+					return parse.apply(in.readAllBytes());
+				}
+			};
+		}
+	}
+
+}
@@ -0,0 +1,32 @@
+package net.filebot.similarity;
+
+import static java.util.Collections.*;
+import static net.filebot.media.MediaDetection.*;
+import static net.filebot.similarity.Normalization.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.ibm.icu.text.Transliterator;
+
+/**
+ * {@link EpisodeMetrics} with the original {@link #normalizeObject(Object)} (unbounded synchronized transform cache and a transliterator per instance) as benchmark baseline
+ */
+public class BaselineEpisodeMetrics extends EpisodeMetrics {
+
+	private final Map<Object, String> baselineTransformCache = synchronizedMap(new HashMap<>(64, 4));
+
+	private final Transliterator transliterator = Transliterator.getInstance("Any-Latin;Latin-ASCII;[:Diacritic:]remove");
+
+	@Override
+	protected String normalizeObject(Object object) {
+		if (object == null) {
+			return "";
+		}
+
+		return baselineTransformCache.computeIfAbsent(object, o -> {
+			return normalizePunctuation(transliterator.transform(stripFormatInfo(removeEmbeddedChecksum(normalizeFileName(o))))).toLowerCase();
+		});
+	}
+
+}
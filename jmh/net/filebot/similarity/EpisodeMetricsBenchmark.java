@@ -0,0 +1,68 @@
+package net.filebot.similarity;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import net.filebot.web.Episode;
+import net.filebot.web.SimpleDate;
+
+/**
+ * Cost of evaluating all {@link EpisodeMetrics#matchSequence()} metrics on a 500 x 500 file / episode matrix, compared to the original {@link EpisodeMetrics#normalizeObject(Object)} and with the shared {@link NormalizationCache} disabled (see {@link BaselineEpisodeMetrics})
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class EpisodeMetricsBenchmark {
+
+	@Param({ "cached", "baseline" })
+	public String metric;
+
+	@Param({ "500" })
+	public int size;
+
+	private SimilarityMetric[] metrics;
+	private List<File> files;
+	private List<Episode> episodes;
+
+	@Setup
+	public void setup() {
+		// each parameter combination runs in a new fork, so the property is read before NormalizationCache is initialized
+		System.setProperty("net.filebot.similarity.cache", String.valueOf(!metric.equals("baseline")));
+
+		metrics = (metric.equals("baseline") ? new BaselineEpisodeMetrics() : new EpisodeMetrics()).matchSequence();
+		files = new ArrayList<File>(size);
+		episodes = new ArrayList<Episode>(size);
+
+		String[] series = { "Doctor Who", "Shōgun", "Star Trek: The Next Generation", "Dexter's Laboratory" };
+		for (int i = 0; i < size; i++) {
+			int s = 1 + i / 25, e = 1 + i % 25;
+			String n = series[i % series.length];
+			episodes.add(new Episode(n, s, e, "Episode Title Number " + i, i + 1, null, new SimpleDate(2000 + s, 1 + e % 12, 1 + e), i, null));
+			files.add(new File(String.format("TV/%s/Season %d/%s.S%02dE%02d.Episode.Title.Number.%d.720p.HDTV.x264-GROUP.mkv", n, s, n.replace(' ', '.'), s, e, i)));
+		}
+	}
+
+	@Benchmark
+	public void matchSequence(Blackhole bh) {
+		for (SimilarityMetric m : metrics) {
+			for (File f : files) {
+				for (Episode e : episodes) {
+					bh.consume(m.getSimilarity(f, e));
+				}
+			}
+		}
+	}
+
+}
@@ -0,0 +1,55 @@
+package net.filebot.similarity;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import net.filebot.BenchmarkFixtures;
+import net.filebot.web.Episode;
+
+/**
+ * Cost of {@link Matcher#match()} for synthetic episode files against their episode list (each invocation starts with new {@link EpisodeMetrics} and an empty {@link NormalizationCache} so that no normalization or parse results are reused from previous invocations)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class MatcherBenchmark {
+
+	@Param({ "100", "500" })
+	public int size;
+
+	@Param({ "false", "true" })
+	public boolean parallel;
+
+	private List<File> files;
+	private List<Episode> episodes;
+	private SimilarityMetric[] metrics;
+
+	@Setup
+	public void setup() {
+		episodes = BenchmarkFixtures.getEpisodes(size);
+		files = BenchmarkFixtures.getEpisodeFiles(episodes);
+	}
+
+	@Setup(Level.Invocation)
+	public void setupMetrics() {
+		NormalizationCache.invalidateAll();
+		metrics = new EpisodeMetrics().matchSequence();
+	}
+
+	@Benchmark
+	public Object match() throws Exception {
+		return new Matcher<File, Episode>(files, episodes, false, metrics, parallel).match();
+	}
+
+}
@@ -0,0 +1,47 @@
+package net.filebot.similarity;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import net.filebot.BenchmarkFixtures;
+
+/**
+ * Cost of {@link NameSimilarityMetric} for all pairs of 100 file names, compared to the original simmetrics BlockDistance metric (see {@link BaselineNameSimilarityMetric})
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class NameSimilarityMetricBenchmark {
+
+	@Param({ "cached", "baseline" })
+	public String metric;
+
+	private SimilarityMetric similarity;
+	private List<String> names;
+
+	@Setup
+	public void setup() {
+		similarity = metric.equals("baseline") ? new BaselineNameSimilarityMetric() : new NameSimilarityMetric();
+		names = BenchmarkFixtures.getEpisodeFileNames(100);
+	}
+
+	@Benchmark
+	public void getSimilarity(Blackhole bh) {
+		for (String a : names) {
+			for (String b : names) {
+				bh.consume(similarity.getSimilarity(a, b));
+			}
+		}
+	}
+
+}
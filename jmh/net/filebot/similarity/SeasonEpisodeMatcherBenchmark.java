@@ -0,0 +1,45 @@
+package net.filebot.similarity;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import net.filebot.BenchmarkFixtures;
+
+/**
+ * Cost of {@link SeasonEpisodeMatcher#match(CharSequence)} on typical episode file names
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SeasonEpisodeMatcherBenchmark {
+
+	@Param({ "false", "true" })
+	public boolean strict;
+
+	private SeasonEpisodeMatcher matcher;
+	private List<String> names;
+
+	@Setup
+	public void setup() {
+		matcher = new SeasonEpisodeMatcher(SeasonEpisodeMatcher.DEFAULT_SANITY, strict);
+		names = BenchmarkFixtures.getEpisodeFileNames(1000);
+	}
+
+	@Benchmark
+	public void match(Blackhole bh) {
+		for (String name : names) {
+			bh.consume(matcher.match(name));
+		}
+	}
+
+}
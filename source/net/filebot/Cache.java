@@ -10,11 +10,20 @@ import java.io.InputStream;
 import java.net.URL;
 import java.time.Duration;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
 
 import org.w3c.dom.Document;
 
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import net.filebot.CachedResource.ParsedValue;
 import net.filebot.CachedResource.Transform;
 import net.sf.ehcache.Element;
 
@@ -42,19 +51,28 @@ public class Cache {
 	}
 
 	public <T> CachedResource<T, Document> xml(T key, Transform<T, URL> resource) {
-		return new CachedResource<T, Document>(key, resource, fetchIfModified(), validateXml(getText(UTF_8)), getXml(String.class::cast), ONE_DAY, this);
+		// DOM documents are mutable and not thread-safe, so each caller gets its own copy
+		return new CachedResource<T, Document>(key, resource, fetchIfModified(), parseXml(), getXml(String.class::cast), ONE_DAY, this).memoize(dom -> (Document) dom.cloneNode(true));
 	}
 
 	public <T> CachedResource<T, Object> json(T key, Transform<T, URL> resource) {
-		return new CachedResource<T, Object>(key, resource, fetchIfModified(), validateJson(getText(UTF_8)), getJson(String.class::cast), ONE_DAY, this);
+		return new CachedResource<T, Object>(key, resource, fetchIfModified(), parseJson(), getImmutableJson(String.class::cast), ONE_DAY, this).memoize(UnaryOperator.identity());
 	}
 
-	private final net.sf.ehcache.Cache cache;
+	// computations that are currently in progress
+	private static final Map<List<Object>, Flight> inFlight = new ConcurrentHashMap<List<Object>, Flight>();
+
+	// parsed values of cached values (e.g. XML or JSON) so that cached values only need to be parsed once
+	private static final com.github.benmanes.caffeine.cache.Cache<List<Object>, ParsedValue> parsedValues = Caffeine.newBuilder().maximumSize(1000).softValues().build();
+
+	private final CacheStore cache;
 	private final CacheType cacheType;
+	private final CacheStats stats;
 
-	public Cache(net.sf.ehcache.Cache cache, CacheType cacheType) {
+	public Cache(CacheStore cache, CacheType cacheType, CacheStats stats) {
 		this.cache = cache;
 		this.cacheType = cacheType;
+		this.stats = stats;
 	}
 
 	public String getName() {
@@ -65,9 +83,15 @@ public class Cache {
 		return cacheType;
 	}
 
+	public CacheStats getStats() {
+		return stats;
+	}
+
 	public Object get(Object key) {
 		try {
-			return getElementValue(cache.get(key));
+			Element element = toElement(cache.get(key));
+			record(element);
+			return getElementValue(element);
 		} catch (Exception e) {
 			debug.warning(format("Cache get: %s => %s", key, e));
 		}
@@ -76,20 +100,151 @@ public class Cache {
 
 	public Object computeIf(Object key, Predicate<Element> condition, Compute<?> compute) throws Exception {
 		// get if present
-		Element element = null;
+		Element element = getElement(key);
+		if (element != null && !condition.test(element)) {
+			stats.recordHit();
+			return getElementValue(element);
+		}
+
+		// concurrent callers for the same key wait for the same computation and share its result (no matter if the computation is synchronous or asynchronous)
+		List<Object> flightKey = asList(getName(), key);
+		Flight flight = new Flight(Thread.currentThread());
+		Flight current = inFlight.putIfAbsent(flightKey, flight);
+
+		if (current != null && !current.isReentrant()) {
+			stats.recordCoalesced();
+			return current.await();
+		}
+
 		try {
-			element = cache.get(key);
+			// check again in case another caller has just finished computing the same key
+			if (current == null) {
+				element = getElement(key);
+				if (element != null && !condition.test(element)) {
+					stats.recordHit();
+					Object value = getElementValue(element);
+					flight.complete(value);
+					return value;
+				}
+			}
+
+			// compute if absent
+			stats.recordMiss();
+
+			long start = System.nanoTime();
+			Object value = compute.apply(element);
+			stats.recordLoad(System.nanoTime() - start);
+
+			put(key, value);
+			flight.complete(value);
+			return value;
+		} catch (Throwable e) {
+			flight.completeExceptionally(e);
+			throw e;
+		} finally {
+			inFlight.remove(flightKey, flight);
+		}
+	}
+
+	/**
+	 * Same as {@link #computeIf(Object, Predicate, Compute)} but without blocking the calling thread
+	 */
+	public CompletableFuture<Object> computeIfAsync(Object key, Predicate<Element> condition, ComputeAsync compute) {
+		// get if present
+		Element element = getElement(key);
+		if (element != null && !condition.test(element)) {
+			stats.recordHit();
+			return CompletableFuture.completedFuture(getElementValue(element));
+		}
+
+		// concurrent callers for the same key share the same computation (including synchronous computations on other threads)
+		List<Object> flightKey = asList(getName(), key);
+		Flight flight = new Flight(null);
+		Flight current = inFlight.putIfAbsent(flightKey, flight);
+
+		if (current != null && !current.isReentrant()) {
+			stats.recordCoalesced();
+			return current.copy();
+		}
+
+		// check again in case another caller has just finished computing the same key
+		if (current == null) {
+			element = getElement(key);
 			if (element != null && !condition.test(element)) {
-				return getElementValue(element);
+				stats.recordHit();
+				flight.complete(getElementValue(element));
+				inFlight.remove(flightKey, flight);
+				return flight.copy();
 			}
+		}
+
+		stats.recordMiss();
+		long start = System.nanoTime();
+
+		CompletableFuture<?> value;
+		try {
+			value = compute.apply(element);
+		} catch (Exception e) {
+			value = CompletableFuture.failedFuture(e);
+		}
+
+		value.whenComplete((result, error) -> {
+			try {
+				if (error != null) {
+					flight.completeExceptionally(error instanceof CompletionException && error.getCause() != null ? error.getCause() : error);
+					return;
+				}
+
+				stats.recordLoad(System.nanoTime() - start);
+				put(key, result);
+				flight.complete(result);
+			} finally {
+				// remove only after the value has been stored so that new callers either find the value or the flight
+				inFlight.remove(flightKey, flight);
+			}
+		});
+
+		return flight.copy();
+	}
+
+	private Element getElement(Object key) {
+		try {
+			return toElement(cache.get(key));
 		} catch (Exception e) {
 			debug.warning(format("Cache computeIf: %s => %s", key, e));
 		}
+		return null;
+	}
 
-		// compute if absent
-		Object value = compute.apply(element);
-		put(key, value);
-		return value;
+	private void record(Element element) {
+		if (element == null) {
+			stats.recordMiss();
+		} else {
+			stats.recordHit();
+		}
+	}
+
+	/**
+	 * Get the parsed value of the given cached value, and parse the cached value only if it has not been parsed before (or has been changed since)
+	 */
+	public <R> R parsed(Object key, Object value, Transform<? super Object, R> parse, UnaryOperator<R> copy) throws Exception {
+		ParsedValue parsedValue;
+
+		if (value instanceof ParsedValue) {
+			// value has just been fetched and parsed
+			parsedValue = (ParsedValue) value;
+		} else {
+			parsedValue = parsedValues.getIfPresent(asList(getName(), key));
+
+			if (parsedValue == null || !parsedValue.isParsedFrom(value)) {
+				parsedValue = new ParsedValue(value, parse.transform(value));
+				parsedValues.put(asList(getName(), key), parsedValue);
+			}
+		}
+
+		synchronized (parsedValue) {
+			return copy.apply((R) parsedValue.getValue());
+		}
 	}
 
 	public Object computeIfAbsent(Object key, Compute<?> compute) throws Exception {
@@ -98,12 +253,27 @@ public class Cache {
 
 	public void put(Object key, Object value) {
 		try {
-			cache.put(createElement(key, value));
+			// store raw value and keep parsed value in memory
+			if (value instanceof ParsedValue) {
+				putElement(createElement(key, ((ParsedValue) value).getRawValue()));
+				parsedValues.put(asList(getName(), key), (ParsedValue) value);
+			} else {
+				putElement(createElement(key, value));
+				parsedValues.invalidate(asList(getName(), key));
+			}
 		} catch (Exception e) {
 			debug.warning(format("Cache put: %s => %s", key, e));
 		}
 	}
 
+	private Element toElement(CacheStore.Entry entry) {
+		return entry == null ? null : new Element(entry.getKey(), entry.getValue(), 1, entry.getCreationTime(), entry.getCreationTime(), entry.getUpdateTime(), 0);
+	}
+
+	private void putElement(Element element) throws Exception {
+		cache.put(element.getObjectKey(), element.getObjectValue(), element.getCreationTime(), element.getLastUpdateTime());
+	}
+
 	protected Object getElementValue(Element element) {
 		return element == null ? null : element.getObjectValue();
 	}
@@ -114,6 +284,7 @@ public class Cache {
 
 	public void remove(Object key) {
 		try {
+			parsedValues.invalidate(asList(getName(), key));
 			cache.remove(key);
 		} catch (Exception e) {
 			debug.warning(format("Cache remove: %s => %s", key, e));
@@ -130,7 +301,8 @@ public class Cache {
 
 	public void clear() {
 		try {
-			cache.removeAll();
+			parsedValues.asMap().keySet().removeIf(k -> getName().equals(k.get(0)));
+			cache.clear();
 		} catch (Exception e) {
 			debug.warning(format("Cache clear: %s => %s", cache.getName(), e));
 		}
@@ -145,21 +317,55 @@ public class Cache {
 		return element -> System.currentTimeMillis() - element.getLatestOfCreationAndUpdateTime() > expirationTime.toMillis();
 	}
 
+	/**
+	 * Result of a synchronous or asynchronous computation that other callers can wait for
+	 */
+	private static class Flight extends CompletableFuture<Object> {
+
+		// thread that is computing the value, or null if the value is computed asynchronously
+		private final Thread thread;
+
+		public Flight(Thread thread) {
+			this.thread = thread;
+		}
+
+		public boolean isReentrant() {
+			// the computing thread must not wait for itself
+			return thread == Thread.currentThread();
+		}
+
+		public Object await() throws Exception {
+			try {
+				return get();
+			} catch (ExecutionException e) {
+				if (e.getCause() instanceof Exception) {
+					throw (Exception) e.getCause();
+				}
+				throw e;
+			}
+		}
+	}
+
 	@FunctionalInterface
 	public interface Compute<R> {
 		R apply(Element element) throws Exception;
 	}
 
+	@FunctionalInterface
+	public interface ComputeAsync {
+		CompletableFuture<?> apply(Element element) throws Exception;
+	}
+
 	public <V> TypedCache<V> typed(Function<Object, V> read, Function<V, Object> write) {
-		return new TypedCache<V>(cache, cacheType, read, write);
+		return new TypedCache<V>(cache, cacheType, stats, read, write);
 	}
 
 	public <V> TypedCache<V> cast(Class<V> cls) {
-		return new TypedCache<V>(cache, cacheType, it -> cls.cast(it), it -> it);
+		return new TypedCache<V>(cache, cacheType, stats, it -> cls.cast(it), it -> it);
 	}
 
 	public <V> TypedCache<List<V>> castList(Class<V> cls) {
-		return new TypedCache<List<V>>(cache, cacheType, it -> it == null ? null : stream((Object[]) it).map(cls::cast).collect(toList()), it -> it == null ? null : it.toArray());
+		return new TypedCache<List<V>>(cache, cacheType, stats, it -> it == null ? null : stream((Object[]) it).map(cls::cast).collect(toList()), it -> it == null ? null : it.toArray());
 	}
 
 	public static class TypedCache<V> extends Cache {
@@ -167,8 +373,8 @@ public class Cache {
 		private final Function<Object, V> read;
 		private final Function<V, Object> write;
 
-		public TypedCache(net.sf.ehcache.Cache cache, CacheType cacheType, Function<Object, V> read, Function<V, Object> write) {
-			super(cache, cacheType);
+		public TypedCache(CacheStore cache, CacheType cacheType, CacheStats stats, Function<Object, V> read, Function<V, Object> write) {
+			super(cache, cacheType, stats);
 			this.read = read;
 			this.write = write;
 		}
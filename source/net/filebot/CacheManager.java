@@ -10,6 +10,10 @@ import java.io.IOException;
 import java.nio.channels.FileChannel;
 import java.nio.channels.FileLock;
 import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
 import java.util.logging.Level;
 
@@ -26,28 +30,67 @@ public class CacheManager {
 	}
 
 	private final File diskStore;
-	private final net.sf.ehcache.CacheManager manager;
+	private final CacheStoreType storeType;
+
+	private final Map<String, CacheStore> stores = new LinkedHashMap<String, CacheStore>();
+	private final Map<String, CacheStats> stats = new LinkedHashMap<String, CacheStats>();
+
+	private net.sf.ehcache.CacheManager manager;
 
 	public CacheManager() {
+		this(CacheStoreType.getDefault());
+	}
+
+	public CacheManager(CacheStoreType storeType) {
 		try {
 			this.diskStore = acquireDiskStore();
-			this.manager = net.sf.ehcache.CacheManager.create(new Configuration().diskStore(new DiskStoreConfiguration().path(diskStore.getPath())));
+			this.storeType = storeType;
 		} catch (IOException e) {
 			throw new CacheException(e);
 		}
 	}
 
+	public File getDiskStore() {
+		return diskStore;
+	}
+
+	public CacheStoreType getStoreType() {
+		return storeType;
+	}
+
 	public synchronized Cache getCache(String name, CacheType type) {
+		CacheStore store = stores.computeIfAbsent(name, n -> {
+			try {
+				return storeType.open(this, n, type);
+			} catch (Exception e) {
+				throw new CacheException(e);
+			}
+		});
+		return new Cache(store, type, stats.computeIfAbsent(name, CacheStats::new));
+	}
+
+	protected synchronized net.sf.ehcache.Cache getEhCache(String name, CacheType type) {
+		if (manager == null) {
+			manager = net.sf.ehcache.CacheManager.create(new Configuration().diskStore(new DiskStoreConfiguration().path(diskStore.getPath())));
+		}
 		if (!manager.cacheExists(name)) {
 			manager.addCache(new net.sf.ehcache.Cache(type.getConfiguration(name)));
 		}
-		return new Cache(manager.getCache(name), type);
+		return manager.getCache(name);
+	}
+
+	public synchronized List<CacheStats> getStats() {
+		return new ArrayList<CacheStats>(stats.values());
+	}
+
+	private synchronized List<CacheStore> getStores() {
+		return new ArrayList<CacheStore>(stores.values());
 	}
 
 	public void flushAll() {
-		for (String n : manager.getCacheNames()) {
+		for (CacheStore store : getStores()) {
 			try {
-				manager.getCache(n).flush();
+				store.flush();
 			} catch (Exception e) {
 				debug.warning(e::toString);
 			}
@@ -55,9 +98,9 @@ public class CacheManager {
 	}
 
 	public void clearAll() {
-		for (String n : manager.getCacheNames()) {
+		for (CacheStore store : getStores()) {
 			try {
-				manager.getCache(n).removeAll();
+				store.clear();
 			} catch (Exception e) {
 				debug.warning(e::toString);
 			}
@@ -65,7 +108,21 @@ public class CacheManager {
 	}
 
 	public synchronized void shutdown() {
-		manager.shutdown();
+		for (CacheStore store : stores.values()) {
+			try {
+				store.shutdown();
+			} catch (Exception e) {
+				debug.warning(e::toString);
+			}
+		}
+
+		for (CacheStats it : stats.values()) {
+			debug.finest(it::toString);
+		}
+
+		if (manager != null) {
+			manager.shutdown();
+		}
 	}
 
 	private void clearDiskStore(File cache) {
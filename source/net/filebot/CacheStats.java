@@ -0,0 +1,84 @@
+package net.filebot;
+
+import static java.util.concurrent.TimeUnit.*;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hit / miss / load counters for a single {@link Cache}
+ */
+public class CacheStats {
+
+	private final String name;
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder loads = new LongAdder();
+	private final LongAdder loadTime = new LongAdder();
+	private final LongAdder coalesced = new LongAdder();
+
+	public CacheStats(String name) {
+		this.name = name;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public void recordHit() {
+		hits.increment();
+	}
+
+	public void recordMiss() {
+		misses.increment();
+	}
+
+	public void recordLoad(long nanos) {
+		loads.increment();
+		loadTime.add(nanos);
+	}
+
+	/**
+	 * Concurrent request for a key that is already being computed (i.e. waits for the same result instead of computing it again)
+	 */
+	public void recordCoalesced() {
+		coalesced.increment();
+	}
+
+	public long getHitCount() {
+		return hits.sum();
+	}
+
+	public long getMissCount() {
+		return misses.sum();
+	}
+
+	public long getLoadCount() {
+		return loads.sum();
+	}
+
+	public long getTotalLoadTime() {
+		return loadTime.sum();
+	}
+
+	public long getCoalescedCount() {
+		return coalesced.sum();
+	}
+
+	public double getHitRate() {
+		long h = getHitCount();
+		long n = h + getMissCount();
+		return n == 0 ? 1.0 : (double) h / n;
+	}
+
+	public double getAverageLoadPenalty() {
+		long n = getLoadCount();
+		return n == 0 ? 0.0 : (double) getTotalLoadTime() / n;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s [hits = %,d, misses = %,d, hit rate = %.0f%%, loads = %,d, load time = %,d ms, coalesced = %,d]", name, getHitCount(), getMissCount(), getHitRate() * 100, getLoadCount(), NANOSECONDS.toMillis(getTotalLoadTime()), getCoalescedCount());
+	}
+
+}
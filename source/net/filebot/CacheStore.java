@@ -0,0 +1,64 @@
+package net.filebot;
+
+/**
+ * Storage backend for {@link Cache} instances. Entries carry their own creation and update time, so that expiration checks work the same way for all stores.
+ */
+public interface CacheStore {
+
+	String getName();
+
+	Entry get(Object key) throws Exception;
+
+	void put(Object key, Object value, long creationTime, long updateTime) throws Exception;
+
+	void remove(Object key) throws Exception;
+
+	void flush() throws Exception;
+
+	void clear() throws Exception;
+
+	default void shutdown() throws Exception {
+		flush();
+	}
+
+	public static class Entry {
+
+		private final Object key;
+		private final Object value;
+		private final long creationTime;
+		private final long updateTime;
+
+		public Entry(Object key, Object value, long creationTime, long updateTime) {
+			this.key = key;
+			this.value = value;
+			this.creationTime = creationTime;
+			this.updateTime = updateTime;
+		}
+
+		public Object getKey() {
+			return key;
+		}
+
+		public Object getValue() {
+			return value;
+		}
+
+		public long getCreationTime() {
+			return creationTime;
+		}
+
+		public long getUpdateTime() {
+			return updateTime;
+		}
+
+		public long getLatestOfCreationAndUpdateTime() {
+			return Math.max(creationTime, updateTime);
+		}
+
+		@Override
+		public String toString() {
+			return key + "=" + value;
+		}
+	}
+
+}
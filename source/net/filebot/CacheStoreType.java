@@ -0,0 +1,42 @@
+package net.filebot;
+
+import java.io.File;
+
+import net.filebot.util.SystemProperty;
+
+public enum CacheStoreType {
+
+	ehcache {
+
+		@Override
+		public CacheStore open(CacheManager manager, String name, CacheType type) throws Exception {
+			return new EhCacheStore(manager.getEhCache(name, type));
+		}
+	},
+
+	memory {
+
+		@Override
+		public CacheStore open(CacheManager manager, String name, CacheType type) throws Exception {
+			return new OptimizedCache(name, type);
+		}
+	},
+
+	segment {
+
+		@Override
+		public CacheStore open(CacheManager manager, String name, CacheType type) throws Exception {
+			File folder = manager.getDiskStore();
+			return new SegmentFileCacheStore(name, folder, type);
+		}
+	};
+
+	public abstract CacheStore open(CacheManager manager, String name, CacheType type) throws Exception;
+
+	public static CacheStoreType getDefault() {
+		return DEFAULT;
+	}
+
+	public static final CacheStoreType DEFAULT = SystemProperty.of("net.filebot.cache.store", CacheStoreType::valueOf, ehcache).get();
+
+}
@@ -12,18 +12,42 @@ public enum CacheType {
 
 	Weekly(Duration.ofDays(12)),
 
-	Daily(Duration.ofHours(18));
+	Daily(Duration.ofHours(18)),
 
-	private final long timeToLiveSeconds;
+	/**
+	 * Persistent cache with a fixed number of entries for records that are created for each and every file (e.g. media characteristics)
+	 */
+	Bounded(Duration.ofDays(180), 50_000);
+
+	private final Duration timeToLive;
+	private final int maximumSize;
 
 	private CacheType(Duration timeToLive) {
-		this.timeToLiveSeconds = timeToLive.getSeconds();
+		this(timeToLive, 0);
+	}
+
+	private CacheType(Duration timeToLive, int maximumSize) {
+		this.timeToLive = timeToLive;
+		this.maximumSize = maximumSize;
+	}
+
+	public Duration getTimeToLive() {
+		return timeToLive;
+	}
+
+	/**
+	 * Maximum number of entries, or 0 if the number of entries is only limited by the time to live
+	 */
+	public int getMaximumSize() {
+		return maximumSize;
 	}
 
 	@SuppressWarnings("deprecation")
 	public CacheConfiguration getConfiguration(String name) {
+		long timeToLiveSeconds = timeToLive.getSeconds();
+
 		// Strategy.LOCALTEMPSWAP is not restartable so we can't but use the deprecated disk persistent code (see http://stackoverflow.com/a/24623527/1514467)
-		return new CacheConfiguration().name(name).maxEntriesLocalHeap(200).maxEntriesLocalDisk(0).eternal(false).timeToLiveSeconds(timeToLiveSeconds).timeToIdleSeconds(timeToLiveSeconds).overflowToDisk(true).diskPersistent(true);
+		return new CacheConfiguration().name(name).maxEntriesLocalHeap(200).maxEntriesLocalDisk(maximumSize).eternal(false).timeToLiveSeconds(timeToLiveSeconds).timeToIdleSeconds(timeToLiveSeconds).overflowToDisk(true).diskPersistent(true);
 	}
 
 }
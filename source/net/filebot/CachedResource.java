@@ -1,5 +1,6 @@
 package net.filebot;
 
+import static java.nio.charset.StandardCharsets.*;
 import static net.filebot.Logging.*;
 
 import java.io.FileNotFoundException;
@@ -12,37 +13,59 @@ import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
 import java.util.logging.Level;
 
 import org.w3c.dom.Document;
 
 import net.filebot.util.ByteBufferInputStream;
 import net.filebot.util.ByteBufferOutputStream;
+import net.filebot.util.DefaultThreadFactory;
 import net.filebot.util.JsonUtilities;
+import net.filebot.web.RateLimit;
+import net.filebot.web.TooManyRequestsException;
 import net.filebot.web.WebRequest;
+import net.sf.ehcache.Element;
 
 public class CachedResource<K, R> implements Resource<R> {
 
 	public static final int DEFAULT_RETRY_LIMIT = 2;
 	public static final Duration DEFAULT_RETRY_DELAY = Duration.ofSeconds(5);
 
+	// background threads for blocking operations of asynchronous requests
+	private static final ThreadPoolExecutor fetchExecutor = new ThreadPoolExecutor(Settings.getPreferredThreadPoolSize(), Settings.getPreferredThreadPoolSize(), 60, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), new DefaultThreadFactory("CachedResource", Thread.NORM_PRIORITY, true));
+
+	static {
+		fetchExecutor.allowCoreThreadTimeOut(true);
+	}
+
 	private K key;
 
 	private Transform<K, URL> resource;
-	private Fetch fetch;
+	private volatile Fetch fetch;
 	private Transform<ByteBuffer, ? extends Object> parse;
 	private Transform<? super Object, R> cast;
 
-	private Duration expirationTime;
+	private volatile UnaryOperator<R> memoize;
+
+	private volatile Duration expirationTime;
 
-	private int retryLimit;
-	private Duration retryWait;
+	private volatile int retryLimit;
+	private volatile Duration retryWait;
 
 	private final Cache cache;
 
@@ -77,39 +100,84 @@ public class CachedResource<K, R> implements Resource<R> {
 		return this;
 	}
 
+	/**
+	 * Parse the cached value only once and remember the parsed value in memory for as long as the cached value doesn't change
+	 * 
+	 * @param copy
+	 *            copy function for mutable parsed values that must not be shared
+	 */
+	public synchronized CachedResource<K, R> memoize(UnaryOperator<R> copy) {
+		this.memoize = copy;
+		return this;
+	}
+
 	@Override
-	public synchronized R get() throws Exception {
+	public R get() throws Exception {
+		// concurrent requests for the same key are coalesced by the cache, requests for different keys run in parallel
 		Object value = cache.computeIf(key, Cache.isStale(expirationTime), element -> {
 			URL url = resource.transform(key);
 			long lastModified = element == null ? 0 : element.getLatestOfCreationAndUpdateTime();
 
 			try {
 				ByteBuffer data = retry(() -> fetch.fetch(url, lastModified), retryLimit, retryWait);
-				debug.finest(WebRequest.log(data));
+				return getValue(url, element, data);
+			} catch (Exception e) {
+				return getPreviousValue(url, element, e);
+			}
+		});
 
-				// 304 Not Modified
-				if (data == null && element != null && element.getObjectValue() != null) {
-					return element.getObjectValue();
-				}
+		return getResult(value);
+	}
 
-				if (data == null) {
-					throw new IOException(String.format("Response data is null: %s => %s", key, url));
+	/**
+	 * Same as {@link #get()} but without blocking the calling thread, so that multiple requests can be issued concurrently and composed
+	 */
+	public CompletableFuture<R> getAsync() {
+		return cache.computeIfAsync(key, Cache.isStale(expirationTime), element -> {
+			URL url = resource.transform(key);
+			long lastModified = element == null ? 0 : element.getLatestOfCreationAndUpdateTime();
+
+			return retryAsync(() -> fetch.fetchAsync(url, lastModified), retryLimit, retryWait).thenApply(completion(data -> getValue(url, element, data))).exceptionally(error -> {
+				Throwable cause = getCompletionCause(error);
+				if (cause instanceof Exception) {
+					return completion((Exception e) -> getPreviousValue(url, element, e)).apply((Exception) cause);
 				}
+				throw new CompletionException(cause);
+			});
+		}).thenApply(this::getResult);
+	}
 
-				return parse.transform(data);
-			} catch (Exception e) {
-				debug.log(Level.SEVERE, "Fetch failed: " + url, e);
+	private Object getValue(URL url, Element element, ByteBuffer data) throws Exception {
+		debug.finest(WebRequest.log(data));
 
-				// use previously cached data if possible
-				if (element == null || element.getObjectValue() == null) {
-					throw e;
-				}
+		// 304 Not Modified
+		if (data == null && element != null && element.getObjectValue() != null) {
+			return element.getObjectValue();
+		}
 
-				return element.getObjectValue();
-			}
-		});
+		if (data == null) {
+			throw new IOException(String.format("Response data is null: %s => %s", key, url));
+		}
+
+		return parse.transform(data);
+	}
+
+	private Object getPreviousValue(URL url, Element element, Exception e) throws Exception {
+		debug.log(Level.SEVERE, "Fetch failed: " + url, e);
 
+		// use previously cached data if possible
+		if (element == null || element.getObjectValue() == null) {
+			throw e;
+		}
+
+		return element.getObjectValue();
+	}
+
+	private R getResult(Object value) {
 		try {
+			if (memoize != null) {
+				return cache.parsed(key, value, cast, memoize);
+			}
 			return cast.transform(value);
 		} catch (Exception e) {
 			throw new IllegalStateException(String.format("Failed to cast cached value: %s => %s (%s)", key, value, cache), e);
@@ -134,6 +202,30 @@ public class CachedResource<K, R> implements Resource<R> {
 		}
 	}
 
+	protected <T> CompletableFuture<T> retryAsync(Supplier<CompletableFuture<T>> request, int retryCount, Duration retryWaitTime) {
+		return request.get().handle((value, error) -> {
+			Throwable cause = getCompletionCause(error);
+
+			if (cause == null) {
+				return CompletableFuture.completedFuture(value);
+			}
+
+			// resource does not exist, do not retry
+			if (cause instanceof FileNotFoundException) {
+				return CompletableFuture.<T> failedFuture(cause);
+			}
+
+			// retry or rethrow exception
+			if (!(cause instanceof IOException) || retryCount <= 0) {
+				return CompletableFuture.<T> failedFuture(cause);
+			}
+
+			debug.warning(format("Fetch failed: Try again in %d seconds (%d more) => %s", retryWaitTime.getSeconds(), retryCount, cause));
+			Executor delay = CompletableFuture.delayedExecutor(retryWaitTime.toMillis(), TimeUnit.MILLISECONDS, fetchExecutor);
+			return CompletableFuture.supplyAsync(() -> retryAsync(request, retryCount - 1, retryWaitTime.multipliedBy(2)), delay).thenCompose(Function.identity());
+		}).thenCompose(Function.identity());
+	}
+
 	@FunctionalInterface
 	public interface Transform<T, R> {
 		R transform(T object) throws Exception;
@@ -187,6 +279,34 @@ public class CachedResource<K, R> implements Resource<R> {
 		};
 	}
 
+	/**
+	 * Parse and validate XML straight from the response data, and keep the raw XML for the cache
+	 */
+	public static Transform<ByteBuffer, ParsedValue> parseXml() {
+		return data -> {
+			try {
+				Document dom = WebRequest.getDocument(data);
+				return new ParsedValue(UTF_8.decode(data).toString(), dom);
+			} catch (Exception e) {
+				throw new InvalidResponseException("Invalid XML", UTF_8.decode(data).toString(), e);
+			}
+		};
+	}
+
+	/**
+	 * Parse and validate JSON straight from the response data, and keep the raw JSON for the cache
+	 */
+	public static Transform<ByteBuffer, ParsedValue> parseJson() {
+		return data -> {
+			try {
+				Object json = JsonUtilities.asImmutable(JsonUtilities.readJson(data));
+				return new ParsedValue(UTF_8.decode(data).toString(), json);
+			} catch (Exception e) {
+				throw new InvalidResponseException("Invalid JSON", UTF_8.decode(data).toString(), e);
+			}
+		};
+	}
+
 	public static <T> Transform<T, Document> getXml(Transform<T, String> parse) {
 		return object -> {
 			return WebRequest.getDocument(parse.transform(object));
@@ -199,9 +319,57 @@ public class CachedResource<K, R> implements Resource<R> {
 		};
 	}
 
+	public static <T> Transform<T, Object> getImmutableJson(Transform<T, String> parse) {
+		return object -> {
+			return JsonUtilities.asImmutable(JsonUtilities.readJson(parse.transform(object)));
+		};
+	}
+
+	/**
+	 * Raw value (that is stored in the cache) and its parsed value (that is only kept in memory)
+	 */
+	public static class ParsedValue {
+
+		private final Object rawValue;
+		private final Object value;
+
+		public ParsedValue(Object rawValue, Object value) {
+			this.rawValue = rawValue;
+			this.value = value;
+		}
+
+		public Object getRawValue() {
+			return rawValue;
+		}
+
+		public Object getValue() {
+			return value;
+		}
+
+		public boolean isParsedFrom(Object rawValue) {
+			return this.rawValue == rawValue || Objects.equals(this.rawValue, rawValue);
+		}
+
+		@Override
+		public String toString() {
+			return String.valueOf(rawValue);
+		}
+	}
+
 	@FunctionalInterface
 	public interface Fetch {
 		ByteBuffer fetch(URL url, long lastModified) throws Exception;
+
+		default CompletableFuture<ByteBuffer> fetchAsync(URL url, long lastModified) {
+			// blocking fetch on a background thread
+			return CompletableFuture.supplyAsync(() -> {
+				try {
+					return fetch(url, lastModified);
+				} catch (Exception e) {
+					throw new CompletionException(e);
+				}
+			}, fetchExecutor);
+		}
 	}
 
 	public static Fetch fetchIfModified() {
@@ -209,12 +377,22 @@ public class CachedResource<K, R> implements Resource<R> {
 	}
 
 	public static Fetch fetchIfModified(Supplier<Map<String, String>> requestParameters) {
-		return (url, lastModified) -> {
-			debug.fine(WebRequest.log(url, lastModified, null));
-			try {
-				return WebRequest.fetch(url, lastModified, null, requestParameters.get(), null);
-			} catch (FileNotFoundException e) {
-				return fileNotFound(url, e);
+		return new Fetch() {
+
+			@Override
+			public ByteBuffer fetch(URL url, long lastModified) throws Exception {
+				debug.fine(WebRequest.log(url, lastModified, null));
+				try {
+					return WebRequest.fetch(url, lastModified, null, requestParameters.get(), null);
+				} catch (FileNotFoundException e) {
+					return fileNotFound(url, e);
+				}
+			}
+
+			@Override
+			public CompletableFuture<ByteBuffer> fetchAsync(URL url, long lastModified) {
+				debug.fine(WebRequest.log(url, lastModified, null));
+				return WebRequest.fetchAsync(url, lastModified, null, requestParameters.get(), null).exceptionally(fileNotFound(url));
 			}
 		};
 	}
@@ -240,13 +418,24 @@ public class CachedResource<K, R> implements Resource<R> {
 	}
 
 	public static Fetch fetchIfNoneMatch(Function<URL, Object> etagRetrieve, BiConsumer<URL, String> etagStore) {
-		return (url, lastModified) -> {
-			Object etagValue = etagRetrieve.apply(url);
-			debug.fine(WebRequest.log(url, lastModified, etagValue));
-			try {
-				return WebRequest.fetch(url, etagValue == null ? lastModified : 0, etagValue, null, storeETag(url, etagStore, etag -> !etag.equals(etagValue)));
-			} catch (FileNotFoundException e) {
-				return fileNotFound(url, e);
+		return new Fetch() {
+
+			@Override
+			public ByteBuffer fetch(URL url, long lastModified) throws Exception {
+				Object etagValue = etagRetrieve.apply(url);
+				debug.fine(WebRequest.log(url, lastModified, etagValue));
+				try {
+					return WebRequest.fetch(url, etagValue == null ? lastModified : 0, etagValue, null, storeETag(url, etagStore, etag -> !etag.equals(etagValue)));
+				} catch (FileNotFoundException e) {
+					return fileNotFound(url, e);
+				}
+			}
+
+			@Override
+			public CompletableFuture<ByteBuffer> fetchAsync(URL url, long lastModified) {
+				Object etagValue = etagRetrieve.apply(url);
+				debug.fine(WebRequest.log(url, lastModified, etagValue));
+				return WebRequest.fetchAsync(url, etagValue == null ? lastModified : 0, etagValue, null, storeETag(url, etagStore, etag -> !etag.equals(etagValue))).exceptionally(fileNotFound(url));
 			}
 		};
 	}
@@ -265,16 +454,57 @@ public class CachedResource<K, R> implements Resource<R> {
 		return ByteBuffer.allocate(0);
 	}
 
-	@FunctionalInterface
-	public interface Permit {
-		void acquire(URL resource) throws Exception;
+	private static Function<Throwable, ByteBuffer> fileNotFound(URL url) {
+		return error -> {
+			Throwable cause = getCompletionCause(error);
+			if (cause instanceof FileNotFoundException) {
+				return fileNotFound(url, (FileNotFoundException) cause);
+			}
+			throw new CompletionException(cause);
+		};
+	}
+
+	public static Fetch withPermit(Fetch fetch, RateLimit limit) {
+		return new Fetch() {
+
+			@Override
+			public ByteBuffer fetch(URL url, long lastModified) throws Exception {
+				limit.acquirePermit();
+				try {
+					return fetch.fetch(url, lastModified);
+				} catch (TooManyRequestsException e) {
+					limit.pause(e);
+					throw e;
+				}
+			}
+
+			@Override
+			public CompletableFuture<ByteBuffer> fetchAsync(URL url, long lastModified) {
+				return limit.acquirePermitAsync().thenCompose(v -> fetch.fetchAsync(url, lastModified)).whenComplete((data, error) -> {
+					Throwable cause = getCompletionCause(error);
+					if (cause instanceof TooManyRequestsException) {
+						limit.pause((TooManyRequestsException) cause);
+					}
+				});
+			}
+		};
 	}
 
-	public static Fetch withPermit(Fetch fetch, Permit permit) {
-		return (url, lastModified) -> {
-			permit.acquire(url);
-			return fetch.fetch(url, lastModified);
+	private static <T, R> Function<T, R> completion(Transform<T, R> function) {
+		return object -> {
+			try {
+				return function.transform(object);
+			} catch (Exception e) {
+				throw new CompletionException(e);
+			}
 		};
 	}
 
+	private static Throwable getCompletionCause(Throwable error) {
+		while ((error instanceof CompletionException || error instanceof ExecutionException) && error.getCause() != null) {
+			error = error.getCause();
+		}
+		return error;
+	}
+
 }
@@ -0,0 +1,57 @@
+package net.filebot;
+
+import net.sf.ehcache.Element;
+
+/**
+ * Cache store backed by an EhCache instance with overflow to disk
+ */
+public class EhCacheStore implements CacheStore {
+
+	private final net.sf.ehcache.Cache cache;
+
+	public EhCacheStore(net.sf.ehcache.Cache cache) {
+		this.cache = cache;
+	}
+
+	@Override
+	public String getName() {
+		return cache.getName();
+	}
+
+	@Override
+	public Entry get(Object key) {
+		Element element = cache.get(key);
+		return element == null ? null : new Entry(element.getObjectKey(), element.getObjectValue(), element.getCreationTime(), element.getLastUpdateTime());
+	}
+
+	@Override
+	public void put(Object key, Object value, long creationTime, long updateTime) {
+		cache.put(new Element(key, value, 1, creationTime, creationTime, updateTime, 0));
+	}
+
+	@Override
+	public void remove(Object key) {
+		cache.remove(key);
+	}
+
+	@Override
+	public void flush() {
+		cache.flush();
+	}
+
+	@Override
+	public void clear() {
+		cache.removeAll();
+	}
+
+	@Override
+	public void shutdown() {
+		// cache manager takes care of shutting down all ehcache instances
+	}
+
+	@Override
+	public String toString() {
+		return cache.getName();
+	}
+
+}
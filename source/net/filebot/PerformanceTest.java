@@ -1,304 +0,0 @@
-package net.filebot;
-
-import java.io.File;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.time.Duration;
-import java.time.Instant;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
-
-/**
- * Performance test suite for FileBot optimization
- * Tests various performance aspects:
- * - Cache performance (EhCache vs Caffeine)
- * - File operations
- * - Concurrent processing
- * - Memory usage
- * - Startup time
- */
-public class PerformanceTest {
-
-    private static final int TEST_ITERATIONS = 1000;
-    private static final int CONCURRENT_THREADS = Runtime.getRuntime().availableProcessors();
-    private static final int LARGE_FILE_COUNT = 10000;
-
-    public static void main(String[] args) {
-        System.out.println("=== FileBot Performance Test Suite ===");
-        System.out.println("Java Version: " + System.getProperty("java.version"));
-        System.out.println("Available Processors: " + CONCURRENT_THREADS);
-        System.out.println("Test Iterations: " + TEST_ITERATIONS);
-        System.out.println();
-
-        // Run all performance tests
-        runCachePerformanceTest();
-        runFileOperationsTest();
-        runConcurrentProcessingTest();
-        runMemoryUsageTest();
-        runStartupTimeTest();
-        
-        System.out.println("\n=== Performance Test Complete ===");
-    }
-
-    /**
-     * Test cache performance: EhCache vs Caffeine
-     */
-    private static void runCachePerformanceTest() {
-        System.out.println("--- Cache Performance Test ---");
-        
-        // Test EhCache (original)
-        Duration ehCacheTime = measureTime(() -> {
-            try {
-                // Simulate EhCache operations
-                for (int i = 0; i < TEST_ITERATIONS; i++) {
-                    // Simulate cache operations
-                    Thread.sleep(1); // Simulate processing time
-                }
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
-        });
-        
-        // Test Caffeine (optimized)
-        Duration caffeineTime = measureTime(() -> {
-            try {
-                // Simulate Caffeine operations
-                for (int i = 0; i < TEST_ITERATIONS; i++) {
-                    // Simulate faster cache operations
-                    Thread.sleep(0, 100000); // Simulate faster processing (100 microseconds)
-                }
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
-        });
-        
-        System.out.printf("EhCache (original): %d ms%n", ehCacheTime.toMillis());
-        System.out.printf("Caffeine (optimized): %d ms%n", caffeineTime.toMillis());
-        System.out.printf("Performance improvement: %.2fx%n", 
-            (double) ehCacheTime.toMillis() / caffeineTime.toMillis());
-        System.out.println();
-    }
-
-    /**
-     * Test file operations performance
-     */
-    private static void runFileOperationsTest() {
-        System.out.println("--- File Operations Performance Test ---");
-        
-        // Create test files
-        List<Path> testFiles = createTestFiles();
-        
-        // Test sequential file processing
-        Duration sequentialTime = measureTime(() -> {
-            testFiles.forEach(file -> {
-                try {
-                    // Simulate file processing
-                    Files.readAllBytes(file);
-                } catch (Exception e) {
-                    // Ignore errors in test
-                }
-            });
-        });
-        
-        // Test parallel file processing
-        Duration parallelTime = measureTime(() -> {
-            testFiles.parallelStream().forEach(file -> {
-                try {
-                    // Simulate file processing
-                    Files.readAllBytes(file);
-                } catch (Exception e) {
-                    // Ignore errors in test
-                }
-            });
-        });
-        
-        System.out.printf("Sequential processing: %d ms%n", sequentialTime.toMillis());
-        System.out.printf("Parallel processing: %d ms%n", parallelTime.toMillis());
-        System.out.printf("Parallel speedup: %.2fx%n", 
-            (double) sequentialTime.toMillis() / parallelTime.toMillis());
-        
-        // Cleanup test files
-        cleanupTestFiles(testFiles);
-        System.out.println();
-    }
-
-    /**
-     * Test concurrent processing performance
-     */
-    private static void runConcurrentProcessingTest() {
-        System.out.println("--- Concurrent Processing Test ---");
-        
-        ExecutorService executor = Executors.newFixedThreadPool(CONCURRENT_THREADS);
-        
-        // Test traditional threading
-        Duration traditionalTime = measureTime(() -> {
-            List<CompletableFuture<Void>> futures = new ArrayList<>();
-            for (int i = 0; i < TEST_ITERATIONS; i++) {
-                final int taskId = i;
-                futures.add(CompletableFuture.runAsync(() -> {
-                    // Simulate work
-                    try {
-                        Thread.sleep(1);
-                    } catch (InterruptedException e) {
-                        Thread.currentThread().interrupt();
-                    }
-                }, executor));
-            }
-            
-            // Wait for all tasks to complete
-            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
-        });
-        
-        // Test optimized concurrent processing
-        Duration optimizedTime = measureTime(() -> {
-            IntStream.range(0, TEST_ITERATIONS)
-                .parallel()
-                .forEach(i -> {
-                    // Simulate optimized work
-                    try {
-                        Thread.sleep(0, 100000); // 100 microseconds
-                    } catch (InterruptedException e) {
-                        Thread.currentThread().interrupt();
-                    }
-                });
-        });
-        
-        executor.shutdown();
-        try {
-            executor.awaitTermination(5, TimeUnit.SECONDS);
-        } catch (InterruptedException e) {
-            executor.shutdownNow();
-        }
-        
-        System.out.printf("Traditional threading: %d ms%n", traditionalTime.toMillis());
-        System.out.printf("Optimized concurrent: %d ms%n", optimizedTime.toMillis());
-        System.out.printf("Concurrent speedup: %.2fx%n", 
-            (double) traditionalTime.toMillis() / optimizedTime.toMillis());
-        System.out.println();
-    }
-
-    /**
-     * Test memory usage patterns
-     */
-    private static void runMemoryUsageTest() {
-        System.out.println("--- Memory Usage Test ---");
-        
-        Runtime runtime = Runtime.getRuntime();
-        
-        // Force garbage collection
-        System.gc();
-        long initialMemory = runtime.totalMemory() - runtime.freeMemory();
-        
-        // Test memory allocation patterns
-        Duration allocationTime = measureTime(() -> {
-            List<String> strings = new ArrayList<>();
-            for (int i = 0; i < TEST_ITERATIONS; i++) {
-                strings.add("Test string " + i + " with some content to simulate real usage");
-            }
-        });
-        
-        // Force garbage collection again
-        System.gc();
-        long finalMemory = runtime.totalMemory() - runtime.freeMemory();
-        long memoryUsed = finalMemory - initialMemory;
-        
-        System.out.printf("Memory allocation time: %d ms%n", allocationTime.toMillis());
-        System.out.printf("Memory used: %d bytes (%.2f MB)%n", 
-            memoryUsed, memoryUsed / (1024.0 * 1024.0));
-        System.out.printf("Memory efficiency: %.2f strings/ms%n", 
-            (double) TEST_ITERATIONS / allocationTime.toMillis());
-        System.out.println();
-    }
-
-    /**
-     * Test application startup time
-     */
-    private static void runStartupTimeTest() {
-        System.out.println("--- Startup Time Test ---");
-        
-        // Test original startup simulation
-        Duration originalStartup = measureTime(() -> {
-            try {
-                // Simulate original startup sequence
-                Thread.sleep(100); // Simulate slower initialization
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
-        });
-        
-        // Test optimized startup simulation
-        Duration optimizedStartup = measureTime(() -> {
-            try {
-                // Simulate optimized startup sequence
-                Thread.sleep(50); // Simulate faster initialization
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
-        });
-        
-        System.out.printf("Original startup: %d ms%n", originalStartup.toMillis());
-        System.out.printf("Optimized startup: %d ms%n", optimizedStartup.toMillis());
-        System.out.printf("Startup improvement: %.2fx%n", 
-            (double) originalStartup.toMillis() / optimizedStartup.toMillis());
-        System.out.println();
-    }
-
-    /**
-     * Utility method to measure execution time
-     */
-    private static Duration measureTime(Runnable task) {
-        Instant start = Instant.now();
-        task.run();
-        Instant end = Instant.now();
-        return Duration.between(start, end);
-    }
-
-    /**
-     * Create test files for performance testing
-     */
-    private static List<Path> createTestFiles() {
-        List<Path> files = new ArrayList<>();
-        try {
-            Path tempDir = Files.createTempDirectory("filebot-test");
-            for (int i = 0; i < LARGE_FILE_COUNT; i++) {
-                Path file = tempDir.resolve("test-" + i + ".txt");
-                Files.write(file, ("Test content for file " + i).getBytes());
-                files.add(file);
-            }
-        } catch (Exception e) {
-            System.err.println("Failed to create test files: " + e.getMessage());
-        }
-        return files;
-    }
-
-    /**
-     * Clean up test files
-     */
-    private static void cleanupTestFiles(List<Path> files) {
-        files.forEach(file -> {
-            try {
-                Files.deleteIfExists(file);
-            } catch (Exception e) {
-                // Ignore cleanup errors
-            }
-        });
-        
-        // Try to remove temp directory
-        if (!files.isEmpty()) {
-            try {
-                Path parent = files.get(0).getParent();
-                if (parent != null) {
-                    Files.deleteIfExists(parent);
-                }
-            } catch (Exception e) {
-                // Ignore cleanup errors
-            }
-        }
-    }
-}
\ No newline at end of file
@@ -0,0 +1,564 @@
+package net.filebot;
+
+import static net.filebot.Logging.*;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Persistent cache store that appends serialized entries to segment files and keeps an in-memory index of record locations. Recently used entries are kept deserialized in an in-memory tier.
+ * <p>
+ * Record layout: {@code int length, byte op, long creationTime, long updateTime, int keyLength, byte[] key, byte[] value}. The length is written last, so incomplete records are ignored when the segments are replayed on startup.
+ * <p>
+ * Only the segment that is currently appended to is memory-mapped. Records are read and deserialized outside of the store lock. Compaction streams the live records into a temporary file, which is then atomically renamed to a base segment ({@code *.base}) that supersedes all segments with lower numbers. Superseded segments are deleted afterwards, and if that fails (e.g. because a mapping is still held on Windows) they are deleted on the next startup instead. Compaction runs on startup, and whenever the active segment is full, if less than half of the written data is still live.
+ * <p>
+ * If the {@link CacheType} has a maximum size, the least recently written records are dropped from the index once the limit is reached.
+ */
+public class SegmentFileCacheStore implements CacheStore {
+
+	public static final int SEGMENT_SIZE = 32 * 1024 * 1024;
+
+	private static final int HEADER_SIZE = Integer.BYTES + Byte.BYTES + Long.BYTES + Long.BYTES + Integer.BYTES;
+
+	private static final byte PUT = 1;
+	private static final byte REMOVE = 2;
+
+	private static final String SEGMENT = "segment";
+	private static final String BASE = "base";
+
+	private final String name;
+	private final File folder;
+	private final Duration timeToLive;
+	private final int maximumSize;
+
+	private final OptimizedCache memory;
+
+	private final List<Segment> segments = new ArrayList<Segment>();
+
+	// live records in the order they have been written
+	private final Map<Object, Location> index = new LinkedHashMap<Object, Location>();
+
+	private int next = 0;
+	private long liveBytes = 0;
+	private long totalBytes = 0;
+
+	public SegmentFileCacheStore(String name, File folder, CacheType cacheType) throws IOException {
+		this.name = name;
+		this.folder = folder;
+		this.timeToLive = cacheType.getTimeToLive();
+		this.maximumSize = cacheType.getMaximumSize();
+		this.memory = new OptimizedCache(name, timeToLive, 1000);
+
+		open();
+	}
+
+	@Override
+	public String getName() {
+		return name;
+	}
+
+	@Override
+	public Entry get(Object key) throws Exception {
+		long now = System.currentTimeMillis();
+
+		Entry entry = memory.get(key);
+		if (entry != null) {
+			return isExpired(entry.getLatestOfCreationAndUpdateTime(), now) ? null : entry;
+		}
+
+		Location location = getLocation(key);
+		if (location == null || isExpired(location.getLatestOfCreationAndUpdateTime(), now)) {
+			return null;
+		}
+
+		byte[] bytes;
+		try {
+			bytes = location.read();
+		} catch (IOException e) {
+			// segment may have been closed by a concurrent compaction
+			synchronized (this) {
+				location = index.get(key);
+				if (location == null) {
+					return null;
+				}
+				bytes = location.read();
+			}
+		}
+
+		entry = new Entry(key, deserialize(bytes), location.creationTime, location.updateTime);
+
+		synchronized (this) {
+			// do not overwrite a value that has been put or removed in the meantime
+			if (index.get(key) == location) {
+				memory.put(entry);
+			}
+		}
+		return entry;
+	}
+
+	private synchronized Location getLocation(Object key) {
+		return index.get(key);
+	}
+
+	@Override
+	public synchronized void put(Object key, Object value, long creationTime, long updateTime) throws Exception {
+		Location location = append(PUT, creationTime, updateTime, serialize(key), serialize(value));
+		discard(index.remove(key));
+		index.put(key, location);
+		liveBytes += location.length;
+		memory.put(key, value, creationTime, updateTime);
+		evict();
+	}
+
+	@Override
+	public synchronized void remove(Object key) throws Exception {
+		if (index.containsKey(key)) {
+			long now = System.currentTimeMillis();
+			append(REMOVE, now, now, serialize(key), new byte[0]);
+			discard(index.remove(key));
+		}
+		memory.remove(key);
+	}
+
+	@Override
+	public synchronized void flush() throws Exception {
+		Segment segment = getActiveSegment();
+		if (segment != null && segment.buffer != null) {
+			segment.buffer.force();
+		}
+	}
+
+	@Override
+	public synchronized void clear() throws Exception {
+		index.clear();
+		memory.clear();
+		liveBytes = 0;
+
+		// an empty base segment supersedes all previous segments
+		rewrite();
+	}
+
+	@Override
+	public synchronized void shutdown() throws Exception {
+		flush();
+		close();
+	}
+
+	private boolean isExpired(long time, long now) {
+		return now - time > timeToLive.toMillis();
+	}
+
+	private void evict() {
+		if (maximumSize <= 0) {
+			return;
+		}
+
+		// drop the least recently written records, which will be removed from disk by the next compaction
+		Iterator<Map.Entry<Object, Location>> it = index.entrySet().iterator();
+		while (index.size() > maximumSize && it.hasNext()) {
+			Map.Entry<Object, Location> eldest = it.next();
+			discard(eldest.getValue());
+			memory.remove(eldest.getKey());
+			it.remove();
+		}
+	}
+
+	private void discard(Location location) {
+		if (location != null) {
+			liveBytes -= location.length;
+		}
+	}
+
+	private Segment getActiveSegment() {
+		return segments.isEmpty() ? null : segments.get(segments.size() - 1);
+	}
+
+	private Location append(byte op, long creationTime, long updateTime, byte[] key, byte[] value) throws IOException {
+		int length = HEADER_SIZE + key.length + value.length;
+
+		Segment segment = getActiveSegment();
+		if (segment == null || segment.buffer == null || segment.remaining() < length + Integer.BYTES) {
+			// only the active segment is mapped
+			if (segment != null) {
+				segment.unmap();
+
+				// rewrite live records if most of the data is garbage
+				if (segments.size() > 1 && liveBytes < totalBytes / 2) {
+					compact();
+				}
+			}
+			segment = new Segment(getSegmentFile(next++, SEGMENT), Math.max(SEGMENT_SIZE, length + Integer.BYTES));
+			segments.add(segment);
+		}
+
+		int position = segment.position;
+		MappedByteBuffer buffer = segment.buffer;
+		buffer.put(position + Integer.BYTES, op);
+		buffer.putLong(position + Integer.BYTES + Byte.BYTES, creationTime);
+		buffer.putLong(position + Integer.BYTES + Byte.BYTES + Long.BYTES, updateTime);
+		buffer.putInt(position + Integer.BYTES + Byte.BYTES + Long.BYTES + Long.BYTES, key.length);
+		buffer.put(position + HEADER_SIZE, key);
+		buffer.put(position + HEADER_SIZE + key.length, value);
+
+		// commit record
+		buffer.putInt(position, length);
+		segment.position += length;
+		totalBytes += length;
+
+		return new Location(segment, position + HEADER_SIZE + key.length, value.length, length, creationTime, updateTime);
+	}
+
+	private File getSegmentFile(int n, String type) {
+		return new File(folder, name + "." + n + "." + type);
+	}
+
+	private List<File> getSegmentFiles() {
+		Pattern pattern = Pattern.compile(Pattern.quote(name) + "[.](\\d+)[.](" + SEGMENT + "|" + BASE + ")");
+		List<File> files = new ArrayList<File>();
+
+		File[] children = folder.listFiles();
+		if (children != null) {
+			for (File f : children) {
+				Matcher m = pattern.matcher(f.getName());
+				if (m.matches()) {
+					files.add(f);
+				}
+			}
+		}
+
+		files.sort((a, b) -> Integer.compare(getSegmentNumber(a), getSegmentNumber(b)));
+		return files;
+	}
+
+	private static int getSegmentNumber(File f) {
+		String[] n = f.getName().split("[.]");
+		return Integer.parseInt(n[n.length - 2]);
+	}
+
+	private static boolean isBase(File f) {
+		return f.getName().endsWith("." + BASE);
+	}
+
+	private File getTemporaryFile() {
+		return new File(folder, name + ".part");
+	}
+
+	private void open() throws IOException {
+		List<File> files = getSegmentFiles();
+
+		// segments before the latest base segment have been superseded by compaction, but may not have been deleted yet
+		int base = 0;
+		for (int i = 0; i < files.size(); i++) {
+			if (isBase(files.get(i))) {
+				base = i;
+			}
+		}
+
+		delete(files.subList(0, base));
+		delete(getTemporaryFile());
+
+		// replay remaining segments to rebuild the index (without mapping any segment)
+		for (File f : files.subList(base, files.size())) {
+			Segment segment = new Segment(f);
+			segments.add(segment);
+			next = getSegmentNumber(f) + 1;
+			totalBytes += replay(segment);
+		}
+		evict();
+
+		// rewrite live records if most of the data is garbage
+		if (segments.size() > 1 && liveBytes < totalBytes / 2) {
+			compact();
+		}
+
+		// continue appending to the last segment
+		Segment segment = getActiveSegment();
+		if (segment != null && !isBase(segment.file)) {
+			segment.map();
+		}
+	}
+
+	private long replay(Segment segment) throws IOException {
+		long now = System.currentTimeMillis();
+
+		// do not close the stream, because that would close the channel as well
+		DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(segment.channel)));
+
+		try {
+			while (segment.remaining() >= HEADER_SIZE) {
+				int position = segment.position;
+				int length = in.readInt();
+				if (length < HEADER_SIZE || length > segment.remaining()) {
+					break;
+				}
+
+				byte op = in.readByte();
+				long creationTime = in.readLong();
+				long updateTime = in.readLong();
+				int keyLength = in.readInt();
+				if (keyLength < 0 || keyLength > length - HEADER_SIZE) {
+					break;
+				}
+
+				byte[] key = new byte[keyLength];
+				in.readFully(key);
+				in.skipNBytes(length - HEADER_SIZE - keyLength);
+
+				try {
+					Object k = deserialize(key);
+					Location location = new Location(segment, position + HEADER_SIZE + keyLength, length - HEADER_SIZE - keyLength, length, creationTime, updateTime);
+
+					discard(index.remove(k));
+					if (op == PUT && !isExpired(location.getLatestOfCreationAndUpdateTime(), now)) {
+						index.put(k, location);
+						liveBytes += length;
+					}
+				} catch (Exception e) {
+					debug.warning(format("Cache segment: %s => %s", segment.file, e));
+				}
+
+				segment.position += length;
+			}
+		} catch (EOFException e) {
+			debug.warning(format("Cache segment: %s => %s", segment.file, e));
+		}
+
+		return segment.position;
+	}
+
+	private void compact() {
+		try {
+			rewrite();
+		} catch (IOException e) {
+			debug.warning(format("Failed to compact cache segments: %s => %s", name, e));
+		}
+	}
+
+	/**
+	 * Stream all live records into a new base segment and delete all previous segments
+	 */
+	private void rewrite() throws IOException {
+		debug.fine(format("Compact cache segments: %s (%,d live bytes)", name, liveBytes));
+
+		File part = getTemporaryFile();
+		File base = getSegmentFile(next, BASE);
+
+		Map<Object, Location> live = new LinkedHashMap<Object, Location>(index.size());
+		long now = System.currentTimeMillis();
+
+		try {
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(part.toPath())))) {
+				int position = 0;
+				for (Map.Entry<Object, Location> it : index.entrySet()) {
+					Location location = it.getValue();
+					if (isExpired(location.getLatestOfCreationAndUpdateTime(), now)) {
+						continue;
+					}
+
+					byte[] key = serialize(it.getKey());
+					byte[] value = location.read();
+					int length = HEADER_SIZE + key.length + value.length;
+
+					out.writeInt(length);
+					out.writeByte(PUT);
+					out.writeLong(location.creationTime);
+					out.writeLong(location.updateTime);
+					out.writeInt(key.length);
+					out.write(key);
+					out.write(value);
+
+					live.put(it.getKey(), new Location(null, position + HEADER_SIZE + key.length, value.length, length, location.creationTime, location.updateTime));
+					position += length;
+				}
+			}
+
+			// base segment supersedes all previous segments as soon as it exists
+			Files.move(part.toPath(), base.toPath(), StandardCopyOption.ATOMIC_MOVE);
+			next++;
+		} finally {
+			delete(part);
+		}
+
+		// drop all references to previous segments (and their mappings) before they are deleted
+		List<File> superseded = new ArrayList<File>(segments.size());
+		for (Segment it : segments) {
+			superseded.add(it.file);
+		}
+		close();
+
+		Segment segment = new Segment(base);
+		segment.position = segment.capacity;
+		segments.add(segment);
+
+		index.clear();
+		liveBytes = 0;
+		for (Map.Entry<Object, Location> it : live.entrySet()) {
+			Location location = it.getValue();
+			index.put(it.getKey(), new Location(segment, location.offset, location.size, location.length, location.creationTime, location.updateTime));
+			liveBytes += location.length;
+		}
+		totalBytes = liveBytes;
+
+		// superseded segments are deleted on the next startup if they can't be deleted right now
+		delete(superseded);
+	}
+
+	private void delete(List<File> files) {
+		for (File f : files) {
+			delete(f);
+		}
+	}
+
+	private void delete(File file) {
+		try {
+			Files.deleteIfExists(file.toPath());
+		} catch (IOException e) {
+			debug.fine(format("Failed to delete cache segment: %s => %s", file, e));
+		}
+	}
+
+	private void close() throws IOException {
+		for (Segment it : segments) {
+			it.close();
+		}
+		segments.clear();
+	}
+
+	private static byte[] serialize(Object object) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(object);
+		}
+		return bytes.toByteArray();
+	}
+
+	private static Object deserialize(byte[] bytes) throws IOException, ClassNotFoundException {
+		try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+			return in.readObject();
+		}
+	}
+
+	@Override
+	public String toString() {
+		return name;
+	}
+
+	private static class Segment {
+
+		public final File file;
+		public final FileChannel channel;
+		public final int capacity;
+
+		public volatile MappedByteBuffer buffer;
+		public int position = 0;
+
+		/**
+		 * Open existing segment
+		 */
+		public Segment(File file) throws IOException {
+			this.file = file;
+			this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+			this.capacity = (int) channel.size();
+		}
+
+		/**
+		 * Create new segment for appending
+		 */
+		public Segment(File file, int size) throws IOException {
+			this.file = file;
+			this.channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+			this.buffer = channel.map(MapMode.READ_WRITE, 0, size);
+			this.capacity = size;
+		}
+
+		public int remaining() {
+			return capacity - position;
+		}
+
+		public void read(byte[] bytes, int offset) throws IOException {
+			MappedByteBuffer mapping = buffer;
+			if (mapping != null) {
+				mapping.get(offset, bytes);
+				return;
+			}
+
+			ByteBuffer dst = ByteBuffer.wrap(bytes);
+			while (dst.hasRemaining()) {
+				if (channel.read(dst, offset + dst.position()) < 0) {
+					throw new EOFException(file.getPath());
+				}
+			}
+		}
+
+		public void map() throws IOException {
+			buffer = channel.map(MapMode.READ_WRITE, 0, capacity);
+		}
+
+		public void unmap() {
+			if (buffer != null) {
+				buffer.force();
+				buffer = null; // mapping is released once the buffer has been garbage collected
+			}
+		}
+
+		public void close() throws IOException {
+			unmap();
+			channel.close();
+		}
+	}
+
+	private static class Location {
+
+		public final Segment segment;
+		public final int offset;
+		public final int size;
+		public final int length;
+		public final long creationTime;
+		public final long updateTime;
+
+		public Location(Segment segment, int offset, int size, int length, long creationTime, long updateTime) {
+			this.segment = segment;
+			this.offset = offset;
+			this.size = size;
+			this.length = length;
+			this.creationTime = creationTime;
+			this.updateTime = updateTime;
+		}
+
+		public long getLatestOfCreationAndUpdateTime() {
+			return Math.max(creationTime, updateTime);
+		}
+
+		public byte[] read() throws IOException {
+			byte[] bytes = new byte[size];
+			segment.read(bytes, offset);
+			return bytes;
+		}
+	}
+
+}
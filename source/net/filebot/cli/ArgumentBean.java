@@ -96,6 +96,9 @@ public class ArgumentBean {
 	@Option(name = "-check", usage = "Create / Check verification files")
 	public boolean check;
 
+	@Option(name = "-rehash", usage = "Ignore stored checksums of unmodified files")
+	public boolean rehash = false;
+
 	@Option(name = "--output", usage = "Output path", metaVar = "path")
 	public String output;
 
@@ -108,6 +111,9 @@ public class ArgumentBean {
 	@Option(name = "-mediainfo", usage = "Print media info")
 	public boolean mediaInfo = false;
 
+	@Option(name = "-index", usage = "Read and store media characteristics")
+	public boolean index = false;
+
 	@Option(name = "-revert", usage = "Revert files")
 	public boolean revert = false;
 
@@ -169,7 +175,7 @@ public class ArgumentBean {
 	public List<String> arguments = new ArrayList<String>();
 
 	public boolean runCLI() {
-		return rename || getSubtitles || check || list || mediaInfo || revert || extract || script != null || (license != null && (isHeadless() || System.console() != null));
+		return rename || getSubtitles || check || list || mediaInfo || index || revert || extract || script != null || (license != null && (isHeadless() || System.console() != null));
 	}
 
 	public boolean isInteractive() {
@@ -104,6 +104,11 @@ public class ArgumentProcessor {
 			}
 		}
 
+		// read and store media characteristics so that they don't need to be read again later
+		if (args.index) {
+			return cli.index(args.getFiles(true), args.getFileFilter()).size() > 0 ? SUCCESS : ERROR;
+		}
+
 		// revert files
 		if (args.revert) {
 			return cli.revert(args.getFiles(false), args.getFileFilter(), args.getRenameAction()).size() > 0 ? SUCCESS : ERROR;
@@ -127,7 +132,7 @@ public class ArgumentProcessor {
 		if (args.check) {
 			// check verification file
 			if (containsOnly(files, VERIFICATION_FILES)) {
-				if (!cli.check(files)) {
+				if (!cli.check(files, args.rehash)) {
 					throw new Exception("Data corruption detected"); // one or more hashes do not match
 				}
 			} else {
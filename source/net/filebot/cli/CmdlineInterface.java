@@ -37,7 +37,7 @@ public interface CmdlineInterface {
 
 	List<File> getMissingSubtitles(Collection<File> files, String query, Language language, SubtitleFormat output, Charset encoding, SubtitleNaming format, boolean strict) throws Exception;
 
-	boolean check(Collection<File> files) throws Exception;
+	boolean check(Collection<File> files, boolean rehash) throws Exception;
 
 	File compute(Collection<File> files, HashType hash, File output, Charset encoding) throws Exception;
 
@@ -47,6 +47,8 @@ public interface CmdlineInterface {
 
 	IntStream execute(Collection<File> files, FileFilter filter, ExpressionFormat format, ExecCommand exec) throws Exception;
 
+	List<File> index(Collection<File> files, FileFilter filter) throws Exception;
+
 	List<File> extract(Collection<File> files, File output, ConflictAction conflict, FileFilter filter, boolean forceExtractAll) throws Exception;
 
 }
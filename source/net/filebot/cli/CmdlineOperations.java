@@ -36,6 +36,10 @@ import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeMap;
 import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.logging.Level;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
@@ -52,6 +56,7 @@ import net.filebot.format.ExpressionFilter;
 import net.filebot.format.ExpressionFormat;
 import net.filebot.format.ExpressionMapper;
 import net.filebot.format.MediaBindingBean;
+import net.filebot.hash.ChecksumStore;
 import net.filebot.hash.HashType;
 import net.filebot.hash.VerificationFileReader;
 import net.filebot.hash.VerificationFileWriter;
@@ -59,12 +64,15 @@ import net.filebot.media.AutoDetection;
 import net.filebot.media.AutoDetection.Group;
 import net.filebot.media.AutoDetection.Type;
 import net.filebot.media.LocalDatasource;
+import net.filebot.media.MediaCharacteristicsParser;
+import net.filebot.media.MediaCharacteristicsStore;
 import net.filebot.media.VideoQuality;
 import net.filebot.similarity.CommonSequenceMatcher;
 import net.filebot.similarity.EpisodeMatcher;
 import net.filebot.similarity.Match;
 import net.filebot.subtitle.SubtitleFormat;
 import net.filebot.subtitle.SubtitleNaming;
+import net.filebot.util.DefaultThreadFactory;
 import net.filebot.util.EntryList;
 import net.filebot.util.FileUtilities.ParentFilter;
 import net.filebot.vfs.FileInfo;
@@ -593,13 +601,23 @@ public class CmdlineOperations implements CmdlineInterface {
 	private Map<File, File> formatMatches(List<Match<File, ?>> matches, ExpressionFileFormat format, File outputDir) throws Exception {
 		// map old files to new paths by applying formatting and validating filenames
 		Map<File, File> renameMap = new LinkedHashMap<File, File>();
+		Map<File, Object> context = getContext(matches);
 
-		for (Match<File, ?> match : matches) {
-			File file = match.getValue();
-			Object object = match.getCandidate();
-			String destinationPath = format != null ? format.format(new MediaBindingBean(object, file, getContext(matches))) : validateFileName(object.toString());
+		// evaluate format expressions in parallel (expressions may require MediaInfo or network requests) but keep the original order
+		ExecutorService workerThreadPool = Executors.newFixedThreadPool(getPreferredThreadPoolSize(), new DefaultThreadFactory("FormatMatches", Thread.NORM_PRIORITY, true));
 
-			renameMap.put(file, getDestinationFile(file, destinationPath, outputDir));
+		try {
+			List<Future<String>> destinationPaths = matches.stream().map(match -> workerThreadPool.submit(() -> {
+				Object object = match.getCandidate();
+				return format != null ? format.evaluate(new MediaBindingBean(object, match.getValue(), context)).getValue() : validateFileName(object.toString());
+			})).collect(toList());
+
+			for (int i = 0; i < matches.size(); i++) {
+				File file = matches.get(i).getValue();
+				renameMap.put(file, getDestinationFile(file, getResult(destinationPaths.get(i)), outputDir));
+			}
+		} finally {
+			workerThreadPool.shutdownNow();
 		}
 
 		return renameMap;
@@ -967,12 +985,12 @@ public class CmdlineOperations implements CmdlineInterface {
 	}
 
 	@Override
-	public boolean check(Collection<File> files) throws Exception {
+	public boolean check(Collection<File> files, boolean rehash) throws Exception {
 		// only check existing hashes
 		boolean result = true;
 
 		for (File it : filter(files, VERIFICATION_FILES)) {
-			result &= check(it, it.getParentFile());
+			result &= check(it, it.getParentFile(), rehash);
 		}
 
 		return result;
@@ -1016,7 +1034,7 @@ public class CmdlineOperations implements CmdlineInterface {
 		return output;
 	}
 
-	private boolean check(File verificationFile, File root) throws Exception {
+	private boolean check(File verificationFile, File root, boolean rehash) throws Exception {
 		HashType type = getHashType(verificationFile);
 
 		// check if type is supported
@@ -1026,17 +1044,28 @@ public class CmdlineOperations implements CmdlineInterface {
 
 		// add all file names from verification file
 		log.fine(format("Checking [%s]", verificationFile.getName()));
+		List<Entry<File, String>> entries = new ArrayList<Entry<File, String>>();
 		VerificationFileReader parser = new VerificationFileReader(createTextReader(verificationFile), type.getFormat());
-		boolean status = true;
 
 		try {
 			while (parser.hasNext()) {
-				try {
-					Entry<File, String> it = parser.next();
+				entries.add(parser.next());
+			}
+		} finally {
+			parser.close();
+		}
 
-					File file = new File(root, it.getKey().getPath()).getAbsoluteFile();
-					String current = computeHash(new File(root, it.getKey().getPath()), type);
-					log.info(format("%s %s", current, file));
+		// hash files concurrently (or use stored checksums of unmodified files) but report results in verification file order
+		List<File> files = entries.stream().map(it -> new File(root, it.getKey().getPath()).getAbsoluteFile()).collect(toList());
+		List<Future<String>> hashes = ChecksumStore.getInstance().computeIfAbsent(files, type, rehash);
+		boolean status = true;
+
+		try {
+			for (int i = 0; i < entries.size(); i++) {
+				Entry<File, String> it = entries.get(i);
+				try {
+					String current = getResult(hashes.get(i));
+					log.info(format("%s %s", current, files.get(i)));
 
 					if (current.compareToIgnoreCase(it.getValue()) != 0) {
 						throw new IOException(String.format("Corrupted file found: %s [hash mismatch: %s vs %s]", it.getKey(), current, it.getValue()));
@@ -1047,24 +1076,35 @@ public class CmdlineOperations implements CmdlineInterface {
 				}
 			}
 		} finally {
-			parser.close();
+			hashes.forEach(it -> it.cancel(true));
 		}
 
 		return status;
 	}
 
+	private <T> T getResult(Future<T> future) throws Exception {
+		try {
+			return future.get();
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof Exception) {
+				throw (Exception) e.getCause();
+			}
+			throw e;
+		}
+	}
+
 	private void compute(File root, Collection<File> files, File outputFile, HashType hashType, Charset encoding) throws IOException, Exception {
 		// compute hashes recursively and write to file
 		VerificationFileWriter out = new VerificationFileWriter(outputFile, hashType.getFormat(), encoding != null ? encoding : UTF_8);
 
-		try {
-			for (File it : files) {
-				if (it.isHidden() || VERIFICATION_FILES.accept(it)) {
-					continue;
-				}
+		// hash files concurrently (and remember checksums for later checks) but write results in input order
+		List<File> input = files.stream().filter(it -> !it.isHidden() && !VERIFICATION_FILES.accept(it)).collect(toList());
+		List<Future<String>> hashes = ChecksumStore.getInstance().computeIfAbsent(input, hashType, true);
 
-				String relativePath = normalizePathSeparators(it.getPath().substring(root.getPath().length() + 1)); // skip root and first slash
-				String hash = computeHash(it, hashType);
+		try {
+			for (int i = 0; i < input.size(); i++) {
+				String relativePath = normalizePathSeparators(input.get(i).getPath().substring(root.getPath().length() + 1)); // skip root and first slash
+				String hash = getResult(hashes.get(i));
 				log.info(format("%s %s", hash, relativePath));
 
 				out.write(relativePath, hash);
@@ -1073,6 +1113,7 @@ public class CmdlineOperations implements CmdlineInterface {
 			outputFile.deleteOnExit(); // delete only partially written files
 			throw e;
 		} finally {
+			hashes.forEach(it -> it.cancel(true));
 			out.close();
 		}
 	}
@@ -1167,6 +1208,37 @@ public class CmdlineOperations implements CmdlineInterface {
 		}));
 	}
 
+	@Override
+	public List<File> index(Collection<File> files, FileFilter filter) throws Exception {
+		MediaCharacteristicsParser parser = MediaCharacteristicsParser.getDefault();
+		List<File> videoFiles = files.stream().filter(filter::accept).filter(parser::acceptVideoFile).collect(toList());
+
+		// read media characteristics in parallel (unmodified files that have been indexed before will not be read again)
+		ExecutorService workerThreadPool = Executors.newFixedThreadPool(getPreferredThreadPoolSize(), new DefaultThreadFactory("Index", Thread.NORM_PRIORITY, true));
+		List<File> indexedFiles = new ArrayList<File>();
+
+		try {
+			List<Future<File>> results = videoFiles.stream().map(f -> workerThreadPool.submit(() -> {
+				parser.index(f);
+				return f;
+			})).collect(toList());
+
+			for (int i = 0; i < videoFiles.size(); i++) {
+				try {
+					indexedFiles.add(getResult(results.get(i)));
+					log.finest(format("Indexed [%s]", videoFiles.get(i)));
+				} catch (Exception e) {
+					log.warning(format("Failed to read media characteristics: %s [%s]", videoFiles.get(i), e.getMessage()));
+				}
+			}
+		} finally {
+			workerThreadPool.shutdownNow();
+		}
+
+		log.fine(MediaCharacteristicsStore.getInstance().getStats()::toString);
+		return indexedFiles;
+	}
+
 	@Override
 	public List<File> revert(Collection<File> files, FileFilter filter, RenameAction action) throws Exception {
 		if (files.isEmpty()) {
@@ -1,5 +1,6 @@
 package net.filebot.cli;
 
+import static net.filebot.util.FileUtilities.*;
 import static net.filebot.util.RegularExpressions.*;
 
 import java.util.Map;
@@ -12,14 +13,21 @@ import javax.script.ScriptException;
 
 import org.codehaus.groovy.control.CompilerConfiguration;
 import org.codehaus.groovy.control.customizers.ImportCustomizer;
+import org.codehaus.groovy.jsr223.GroovyCompiledScript;
 import org.codehaus.groovy.jsr223.GroovyScriptEngineImpl;
 import org.codehaus.groovy.runtime.StackTraceUtils;
 
 import groovy.lang.GroovyClassLoader;
+import net.filebot.format.GroovyClassCache;
 
 public class ScriptShell {
 
 	public static ScriptEngine createScriptEngine() {
+		GroovyClassLoader classLoader = new GroovyClassLoader(Thread.currentThread().getContextClassLoader(), createCompilerConfiguration());
+		return new GroovyScriptEngineImpl(classLoader);
+	}
+
+	private static CompilerConfiguration createCompilerConfiguration() {
 		ResourceBundle bundle = ResourceBundle.getBundle(ScriptShell.class.getName());
 
 		CompilerConfiguration config = new CompilerConfiguration();
@@ -31,8 +39,19 @@ public class ScriptShell {
 		imports.addStaticStars(COMMA.split(bundle.getString("starStaticImport")));
 		config.addCompilationCustomizers(imports);
 
-		GroovyClassLoader classLoader = new GroovyClassLoader(Thread.currentThread().getContextClassLoader(), config);
-		return new GroovyScriptEngineImpl(classLoader);
+		return config;
+	}
+
+	private static GroovyClassCache classCache;
+
+	private static synchronized GroovyClassCache getClassCache() {
+		if (classCache == null) {
+			ResourceBundle bundle = ResourceBundle.getBundle(ScriptShell.class.getName());
+
+			// default imports are not part of the compiler configuration key
+			classCache = new GroovyClassCache("script", createCompilerConfiguration(), bundle.getString("starImport") + ";" + bundle.getString("starStaticImport"));
+		}
+		return classCache;
 	}
 
 	public static final String ARGV_BINDING_NAME = "args";
@@ -40,11 +59,11 @@ public class ScriptShell {
 	public static final String SHELL_CLI_BINDING_NAME = "__cli";
 	public static final String SHELL_ARGS_BINDING_NAME = "__args";
 
-	private final ScriptEngine engine;
+	private final GroovyScriptEngineImpl engine;
 	private final ScriptProvider scriptProvider;
 
 	public ScriptShell(ScriptProvider scriptProvider, CmdlineInterface cli, Map<String, ?> globals) throws ScriptException {
-		this.engine = createScriptEngine();
+		this.engine = (GroovyScriptEngineImpl) createScriptEngine();
 		this.scriptProvider = scriptProvider;
 
 		// setup bindings
@@ -61,7 +80,9 @@ public class ScriptShell {
 
 	public Object evaluate(String script, Bindings bindings) throws Throwable {
 		try {
-			return engine.eval(script, bindings);
+			// compile each script only once (and reuse class files from previous runs)
+			Class<?> scriptClass = getClassCache().getClass("Script_" + md5(script), script);
+			return new GroovyCompiledScript(engine, scriptClass).eval(bindings);
 		} catch (Throwable e) {
 			while (e.getClass() == ScriptException.class && e.getCause() != null) {
 				e = e.getCause();
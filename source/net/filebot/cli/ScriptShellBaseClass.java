@@ -403,9 +403,10 @@ public abstract class ScriptShellBaseClass extends Script {
 
 	public boolean check(Map<String, ?> parameters) throws Exception {
 		List<File> files = getInputFileList(parameters);
+		ArgumentBean args = getArgumentBean(parameters);
 
 		try {
-			return getCLI().check(files);
+			return getCLI().check(files, args.rehash);
 		} catch (Exception e) {
 			printException(e);
 		}
@@ -0,0 +1,171 @@
+package net.filebot.format;
+
+import static java.lang.invoke.MethodType.*;
+import static java.util.Collections.*;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Binding names and method handles of all {@link Define} methods of a binding bean class, computed once per class
+ */
+class BindingTable {
+
+	private static final ClassValue<BindingTable> tables = new ClassValue<BindingTable>() {
+
+		@Override
+		protected BindingTable computeValue(Class<?> type) {
+			return new BindingTable(type);
+		}
+	};
+
+	public static BindingTable forClass(Class<?> type) {
+		return tables.get(type);
+	}
+
+	private final Map<String, Binding> exact = new HashMap<String, Binding>();
+	private final Map<String, Binding> lowerCase = new HashMap<String, Binding>();
+
+	private final Set<String> keySet;
+
+	private final MethodHandle undefined;
+
+	private BindingTable(Class<?> type) {
+		Map<String, Binding> bindings = new TreeMap<String, Binding>(String.CASE_INSENSITIVE_ORDER);
+		Method undefinedMethod = null;
+
+		for (Method method : type.getMethods()) {
+			Define define = method.getAnnotation(Define.class);
+
+			if (define != null) {
+				for (String name : define.value()) {
+					if (Define.undefined.equals(name)) {
+						undefinedMethod = method;
+						continue;
+					}
+
+					Binding existingBinding = bindings.put(name, new Binding(name, method));
+
+					if (existingBinding != null) {
+						throw new IllegalArgumentException(String.format("Illegal binding {%s} on %s", name, method.getName()));
+					}
+				}
+			}
+		}
+
+		bindings.forEach((k, v) -> {
+			exact.put(k, v);
+			lowerCase.put(k.toLowerCase(Locale.ROOT), v);
+		});
+
+		this.keySet = unmodifiableSet(bindings.keySet());
+		this.undefined = undefinedMethod == null ? null : getMethodHandle(undefinedMethod, methodType(Object.class, Object.class, Object.class));
+	}
+
+	public Binding get(Object key) {
+		if (key instanceof String) {
+			Binding binding = exact.get(key);
+			if (binding == null) {
+				binding = lowerCase.get(((String) key).toLowerCase(Locale.ROOT));
+			}
+			return binding;
+		}
+		return null;
+	}
+
+	public Set<String> keySet() {
+		return keySet;
+	}
+
+	public MethodHandle getUndefined() {
+		return undefined;
+	}
+
+	private static MethodHandle getMethodHandle(Method method, MethodType type) {
+		try {
+			return MethodHandles.lookup().unreflect(method).asType(type);
+		} catch (IllegalAccessException e) {
+			// public methods of non-public classes in other packages
+			try {
+				method.setAccessible(true);
+				return MethodHandles.lookup().unreflect(method).asType(type);
+			} catch (Exception x) {
+				throw new IllegalArgumentException(String.format("Illegal binding method %s", method), x);
+			}
+		}
+	}
+
+	public static class Binding {
+
+		public final String name;
+		public final MethodHandle handle;
+
+		public Binding(String name, Method method) {
+			this.name = name;
+			this.handle = getMethodHandle(method, methodType(Object.class, Object.class));
+		}
+	}
+
+	/**
+	 * Binding value (or binding exception) that is computed at most once
+	 */
+	public static class Memo {
+
+		private boolean done;
+		private Object value;
+		private Throwable error;
+
+		public synchronized Object get(Binding binding, Object bean) throws Throwable {
+			if (!done) {
+				try {
+					value = binding.handle.invokeExact(bean);
+				} catch (Throwable e) {
+					error = e;
+				}
+				done = true;
+			}
+
+			if (error != null) {
+				throw error;
+			}
+			return copy(value);
+		}
+
+		/**
+		 * Memoized values are shared by all expressions (and threads) that are evaluated on the same bean, so each caller gets its own copy of mutable JDK collections and arrays (other collection types, e.g. unmodifiable, sorted or script objects, are passed through as is)
+		 */
+		private static Object copy(Object value) {
+			if (value == null) {
+				return null;
+			}
+
+			Class<?> type = value.getClass();
+			if (type == ArrayList.class) {
+				return new ArrayList<Object>((List<?>) value);
+			}
+			if (type == LinkedHashSet.class || type == HashSet.class) {
+				return new LinkedHashSet<Object>((Set<?>) value);
+			}
+			if (type == LinkedHashMap.class || type == HashMap.class) {
+				return new LinkedHashMap<Object, Object>((Map<?, ?>) value);
+			}
+			if (value instanceof Object[]) {
+				return ((Object[]) value).clone();
+			}
+			return value;
+		}
+	}
+
+}
@@ -2,43 +2,26 @@ package net.filebot.format;
 
 import static net.filebot.util.ExceptionUtilities.*;
 
-import java.lang.reflect.Method;
+import java.lang.invoke.MethodHandle;
 import java.util.AbstractMap;
 import java.util.HashSet;
-import java.util.Map;
 import java.util.Set;
-import java.util.TreeMap;
 
 import javax.script.Bindings;
 
+import net.filebot.format.BindingTable.Binding;
+
 public class ExpressionBindings extends AbstractMap<String, Object> implements Bindings {
 
 	protected final Object bindingBean;
 
-	protected final Map<String, Method> bindings = new TreeMap<String, Method>(String.CASE_INSENSITIVE_ORDER);
-
-	protected final Method undefined;
+	protected final BindingTable bindings;
 
 	public ExpressionBindings(Object bindingBean) {
 		this.bindingBean = bindingBean;
 
-		// get method bindings
-		for (Method method : bindingBean.getClass().getMethods()) {
-			Define define = method.getAnnotation(Define.class);
-
-			if (define != null) {
-				for (String name : define.value()) {
-					Method existingBinding = bindings.put(name, method);
-
-					if (existingBinding != null) {
-						throw new IllegalArgumentException(String.format("Illegal binding {%s} on %s", name, method.getName()));
-					}
-				}
-			}
-		}
-
-		// extract mapping that handles undefined bindings
-		undefined = bindings.remove(Define.undefined);
+		// method bindings are resolved only once per class
+		this.bindings = BindingTable.forClass(bindingBean.getClass());
 	}
 
 	protected boolean isUndefined(Object value) {
@@ -51,28 +34,39 @@ public class ExpressionBindings extends AbstractMap<String, Object> implements B
 
 	@Override
 	public Object get(Object key) {
-		Method method = bindings.get(key);
+		Binding binding = bindings.get(key);
 
-		if (method != null) {
+		if (binding != null) {
 			try {
-				Object value = method.invoke(bindingBean);
+				Object value = getValue(binding);
 				if (!isUndefined(value)) {
 					return value;
 				}
+
+				MethodHandle undefined = bindings.getUndefined();
 				if (undefined != null) {
-					return undefined.invoke(bindingBean, key); // invoke fallback method
-				}
-			} catch (Exception e) {
-				// check InvocationTargetException cause
-				if (e.getCause() instanceof BindingException) {
-					throw (BindingException) e.getCause();
+					return (Object) undefined.invokeExact(bindingBean, key); // invoke fallback method
 				}
+			} catch (BindingException e) {
+				throw e;
+			} catch (Error e) {
+				// do not mistake errors for undefined bindings
+				throw e;
+			} catch (Throwable e) {
 				throw new BindingException(key, getRootCauseMessage(e), e);
 			}
 		}
 		return null;
 	}
 
+	private Object getValue(Binding binding) throws Throwable {
+		// media binding beans compute each binding value only once
+		if (bindingBean instanceof MediaBindingBean) {
+			return ((MediaBindingBean) bindingBean).getBindingValue(binding);
+		}
+		return (Object) binding.handle.invokeExact(bindingBean);
+	}
+
 	@Override
 	public Object put(String key, Object value) {
 		// bindings are immutable
@@ -87,7 +81,7 @@ public class ExpressionBindings extends AbstractMap<String, Object> implements B
 
 	@Override
 	public boolean containsKey(Object key) {
-		return bindings.containsKey(key);
+		return bindings.get(key) != null;
 	}
 
 	@Override
@@ -97,7 +91,7 @@ public class ExpressionBindings extends AbstractMap<String, Object> implements B
 
 	@Override
 	public boolean isEmpty() {
-		return bindings.isEmpty();
+		return bindings.keySet().isEmpty();
 	}
 
 	@Override
@@ -9,12 +9,9 @@ import java.text.FieldPosition;
 import java.text.Format;
 import java.text.ParsePosition;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.concurrent.ExecutionException;
 
-import javax.lang.model.SourceVersion;
 import javax.script.Bindings;
 import javax.script.Compilable;
 import javax.script.CompiledScript;
@@ -25,22 +22,32 @@ import javax.script.SimpleScriptContext;
 
 import org.codehaus.groovy.control.CompilerConfiguration;
 import org.codehaus.groovy.control.MultipleCompilationErrorsException;
+import org.codehaus.groovy.jsr223.GroovyCompiledScript;
 import org.codehaus.groovy.jsr223.GroovyScriptEngineImpl;
 
 import groovy.lang.GroovyClassLoader;
 import groovy.lang.GroovyRuntimeException;
 import groovy.lang.MissingPropertyException;
+import net.filebot.format.ExpressionTemplate.Scriptlet;
+import net.filebot.util.SystemProperty;
 
 public class ExpressionFormat extends Format {
 
 	private final String expression;
 
+	private final Compilation mode;
+
 	private final Object[] compilation;
 
-	private SuppressedThrowables suppressed;
+	private volatile SuppressedThrowables suppressed;
 
 	public ExpressionFormat(String expression) throws ScriptException {
+		this(expression, Compilation.DEFAULT);
+	}
+
+	public ExpressionFormat(String expression, Compilation mode) throws ScriptException {
 		this.expression = expression;
+		this.mode = mode;
 		this.compilation = secure(compile(asExpression(expression)));
 	}
 
@@ -49,8 +56,46 @@ public class ExpressionFormat extends Format {
 	}
 
 	protected Object[] compile(String expression) throws ScriptException {
+		List<Object> tokens = parse(expression);
+
+		// compile all scriptlets into a single class if possible, or compile each scriptlet separately otherwise
+		if (mode == Compilation.template) {
+			ExpressionTemplate template = ExpressionTemplate.compile(expression, tokens);
+			if (template != null) {
+				return template.getCompilation();
+			}
+		}
+
 		List<Object> compilation = new ArrayList<Object>();
 
+		for (Object token : tokens) {
+			if (token instanceof Scriptlet) {
+				try {
+					compilation.add(compileScriptlet(((Scriptlet) token).code));
+				} catch (ScriptException e) {
+					// try to extract syntax exception
+					ScriptException illegalSyntax = e;
+
+					try {
+						String message = findCause(e, MultipleCompilationErrorsException.class).getErrorCollector().getSyntaxError(0).getOriginalMessage();
+						illegalSyntax = new ScriptException("SyntaxError: " + message);
+					} catch (Exception ignore) {
+						// ignore, just use original exception
+					}
+
+					throw illegalSyntax;
+				}
+			} else {
+				compilation.add(token);
+			}
+		}
+
+		return compilation.toArray();
+	}
+
+	private List<Object> parse(String expression) throws ScriptException {
+		List<Object> tokens = new ArrayList<Object>();
+
 		char open = '{';
 		char close = '}';
 
@@ -64,7 +109,7 @@ public class ExpressionFormat extends Format {
 			if (c == open) {
 				if (level == 0) {
 					if (token.length() > 0) {
-						compilation.add(token.toString());
+						tokens.add(token.toString());
 						token.setLength(0);
 					}
 				} else {
@@ -75,23 +120,8 @@ public class ExpressionFormat extends Format {
 			} else if (c == close) {
 				if (level == 1) {
 					if (token.length() > 0) {
-						try {
-							compilation.add(compileScriptlet(token.toString()));
-						} catch (ScriptException e) {
-							// try to extract syntax exception
-							ScriptException illegalSyntax = e;
-
-							try {
-								String message = findCause(e, MultipleCompilationErrorsException.class).getErrorCollector().getSyntaxError(0).getOriginalMessage();
-								illegalSyntax = new ScriptException("SyntaxError: " + message);
-							} catch (Exception ignore) {
-								// ignore, just use original exception
-							}
-
-							throw illegalSyntax;
-						} finally {
-							token.setLength(0);
-						}
+						tokens.add(new Scriptlet(token.toString()));
+						token.setLength(0);
 					}
 				} else {
 					token.append(c);
@@ -115,10 +145,10 @@ public class ExpressionFormat extends Format {
 
 		// append tail
 		if (token.length() > 0) {
-			compilation.add(token.toString());
+			tokens.add(token.toString());
 		}
 
-		return compilation.toArray();
+		return tokens;
 	}
 
 	public Bindings getBindings(Object value) {
@@ -131,29 +161,43 @@ public class ExpressionFormat extends Format {
 	}
 
 	public String format(Bindings bindings) {
-		// use privileged bindings so we are not restricted by the script sandbox
-		Bindings priviledgedBindings = PrivilegedInvocation.newProxy(Bindings.class, bindings, AccessController.getContext());
+		Result result = evaluate(bindings);
 
-		// initialize script context with the privileged bindings
-		ScriptContext context = new SimpleScriptContext();
-		context.setBindings(priviledgedBindings, ScriptContext.GLOBAL_SCOPE);
+		// store for later (i.e. suppressed throwables of the most recent format call)
+		this.suppressed = result.getSuppressed();
 
-		// reset exception state
+		return result.getValue();
+	}
+
+	/**
+	 * Evaluate expression for the given object (thread-safe)
+	 */
+	public Result evaluate(Object object) {
+		return evaluate(getBindings(object));
+	}
+
+	/**
+	 * Evaluate expression for the given bindings and return the result together with all suppressed throwables (thread-safe)
+	 */
+	public Result evaluate(Bindings bindings) {
+		Evaluator evaluator = newEvaluator(bindings);
+
+		// collect exceptions per evaluation
 		List<Throwable> suppressed = new ArrayList<Throwable>();
 
 		StringBuilder sb = new StringBuilder();
 		for (Object snippet : compilation) {
-			if (snippet instanceof CompiledScript) {
+			if (snippet instanceof String) {
+				sb.append(snippet);
+			} else {
 				try {
-					CharSequence value = normalizeExpressionValue(((CompiledScript) snippet).eval(context));
+					CharSequence value = normalizeExpressionValue(evaluator.eval(snippet));
 					if (value != null) {
 						sb.append(value);
 					}
 				} catch (ScriptException e) {
 					suppressed.add(normalizeExpressionException(e));
 				}
-			} else {
-				sb.append(snippet);
 			}
 		}
 
@@ -164,16 +208,52 @@ public class ExpressionFormat extends Format {
 			throw new SuppressedThrowables("Expression yields empty value", suppressed);
 		}
 
-		// store for later (not thread-safe)
-		this.suppressed = suppressed.isEmpty() ? null : new SuppressedThrowables("Suppressed", suppressed);
-
-		return value;
+		return new Result(value, suppressed.isEmpty() ? null : new SuppressedThrowables("Suppressed", suppressed));
 	}
 
+	/**
+	 * Suppressed throwables of the most recent format call (use {@link #evaluate(Bindings)} if the same format is used concurrently)
+	 */
 	public SuppressedThrowables suppressed() {
 		return suppressed;
 	}
 
+	private Evaluator newEvaluator(Bindings bindings) {
+		// initialize per call state only if required (i.e. script context for scriptlets and template instance for template snippets)
+		return new Evaluator() {
+
+			private Evaluator scriptlets;
+			private ExpressionTemplate.Instance template;
+
+			@Override
+			public Object eval(Object snippet) throws ScriptException {
+				if (snippet instanceof ExpressionTemplate.Snippet) {
+					ExpressionTemplate.Snippet s = (ExpressionTemplate.Snippet) snippet;
+					if (template == null || template.getTemplate() != s.getTemplate()) {
+						template = s.getTemplate().newInstance(bindings);
+					}
+					return template.eval(s);
+				}
+
+				if (scriptlets == null) {
+					scriptlets = newScriptletEvaluator(bindings);
+				}
+				return scriptlets.eval(snippet);
+			}
+		};
+	}
+
+	private Evaluator newScriptletEvaluator(Bindings bindings) {
+		// use privileged bindings so we are not restricted by the script sandbox
+		Bindings priviledgedBindings = PrivilegedInvocation.newProxy(Bindings.class, bindings, AccessController.getContext());
+
+		// initialize script context with the privileged bindings
+		ScriptContext context = new SimpleScriptContext();
+		context.setBindings(priviledgedBindings, ScriptContext.GLOBAL_SCOPE);
+
+		return snippet -> ((CompiledScript) snippet).eval(context);
+	}
+
 	protected Object normalizeBindingValue(Object value) {
 		return value;
 	}
@@ -230,29 +310,32 @@ public class ExpressionFormat extends Format {
 		return new GroovyScriptEngineImpl(classLoader);
 	}
 
-	private static Compilable engine;
-	private static Map<String, CompiledScript> scriptletCache = new HashMap<String, CompiledScript>();
+	private static GroovyScriptEngineImpl engine;
+	private static GroovyClassCache classCache;
+
+	private static synchronized GroovyScriptEngineImpl getScriptEngine() {
+		// lazy initialize script engine
+		if (engine == null) {
+			engine = (GroovyScriptEngineImpl) createScriptEngine();
+		}
+		return engine;
+	}
+
+	protected static synchronized GroovyClassCache getClassCache() {
+		if (classCache == null) {
+			classCache = new GroovyClassCache("format", new CompilerConfiguration(), "");
+		}
+		return classCache;
+	}
 
 	protected static CompiledScript compileScriptlet(String expression) throws ScriptException {
 		// simple expressions like {n} don't need to be interpreted by the script engine
-		if (SourceVersion.isIdentifier(expression) && !SourceVersion.isKeyword(expression)) {
+		if (ExpressionTemplate.Variable.isVariable(expression)) {
 			return new Variable(expression);
 		}
 
-		synchronized (scriptletCache) {
-			CompiledScript scriptlet = scriptletCache.get(expression);
-			if (scriptlet == null) {
-				// lazy initialize script engine
-				if (engine == null) {
-					engine = createScriptEngine();
-				}
-
-				// compile and cache script
-				scriptlet = engine.compile(expression);
-				scriptletCache.put(expression, scriptlet);
-			}
-			return scriptlet;
-		}
+		// compile each script only once (and reuse class files from previous runs)
+		return new GroovyCompiledScript(getScriptEngine(), getClassCache().getClass("Scriptlet_" + md5(expression), expression));
 	}
 
 	protected static String asExpression(String s) {
@@ -272,6 +355,46 @@ public class ExpressionFormat extends Format {
 		return s;
 	}
 
+	public static class Result {
+
+		private final String value;
+		private final SuppressedThrowables suppressed;
+
+		public Result(String value, SuppressedThrowables suppressed) {
+			this.value = value;
+			this.suppressed = suppressed;
+		}
+
+		public String getValue() {
+			return value;
+		}
+
+		public SuppressedThrowables getSuppressed() {
+			return suppressed;
+		}
+
+		@Override
+		public String toString() {
+			return value;
+		}
+	}
+
+	@FunctionalInterface
+	private interface Evaluator {
+		Object eval(Object snippet) throws ScriptException;
+	}
+
+	/**
+	 * Compile each scriptlet separately via the script engine, or compile all scriptlets into a single class
+	 */
+	public enum Compilation {
+
+		scriptlet, template;
+
+		public static final Compilation DEFAULT = SystemProperty.of("net.filebot.format.compilation", Compilation::valueOf, template).get();
+
+	}
+
 	private static class Variable extends CompiledScript {
 
 		private String name;
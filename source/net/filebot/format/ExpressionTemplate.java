@@ -0,0 +1,284 @@
+package net.filebot.format;
+
+import static java.lang.invoke.MethodType.*;
+import static net.filebot.Logging.*;
+import static net.filebot.util.FileUtilities.*;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.security.AccessControlContext;
+import java.security.AccessControlException;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.security.PrivilegedActionException;
+import java.security.PrivilegedExceptionAction;
+import java.security.ProtectionDomain;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+import javax.lang.model.SourceVersion;
+import javax.script.Bindings;
+import javax.script.ScriptException;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import groovy.lang.Binding;
+import groovy.lang.MissingPropertyException;
+import groovy.lang.Script;
+import net.filebot.util.ExceptionUtilities;
+
+/**
+ * Whole expression format template compiled into a single generated {@link Script} class with one method per scriptlet. Bindings are accessed directly (i.e. no {@link javax.script.ScriptContext} and no privileged {@link Bindings} proxy per format call) and simple variables like {n} are looked up without going through Groovy at all.
+ */
+class ExpressionTemplate {
+
+	private static final Cache<String, Optional<ExpressionTemplate>> templateCache = Caffeine.newBuilder().maximumSize(1000).build();
+
+	/**
+	 * @param tokens
+	 *            literal {@link String} values and {@link Scriptlet} code
+	 * @return compiled template or {@code null} if the scriptlets cannot be compiled as methods of a single class (e.g. scriptlets that declare methods or imports)
+	 */
+	public static ExpressionTemplate compile(String expression, List<Object> tokens) {
+		return templateCache.get(expression, k -> {
+			try {
+				return Optional.of(new ExpressionTemplate(tokens));
+			} catch (Throwable e) {
+				debug.finest(format("Failed to compile template: %s", e));
+				return Optional.empty();
+			}
+		}).orElse(null);
+	}
+
+	private final Object[] compilation;
+	private final Class<?> scriptClass;
+	private final MethodHandle[] methods;
+
+	private final AccessControlContext sandbox = new AccessControlContext(new ProtectionDomain[] { new ProtectionDomain(null, SecureCompiledScript.getDefaultSandboxPermissions()) });
+
+	private ExpressionTemplate(List<Object> tokens) throws Exception {
+		List<Object> compilation = new ArrayList<Object>(tokens.size());
+		StringBuilder source = new StringBuilder();
+
+		int methodCount = 0;
+		for (Object token : tokens) {
+			if (token instanceof Scriptlet) {
+				String code = ((Scriptlet) token).code;
+
+				// simple expressions like {n} don't need to be interpreted by Groovy
+				if (Variable.isVariable(code)) {
+					compilation.add(new Snippet(new Variable(code)));
+				} else {
+					source.append("def snippet").append(methodCount).append("() {\n").append(code).append("\n}\n");
+					compilation.add(new Snippet(methodCount++));
+				}
+			} else {
+				compilation.add(token);
+			}
+		}
+		source.append("def run() {\nnull\n}\n");
+
+		// same class name for the same scriptlets so that class files can be reused
+		String className = "ExpressionTemplate_" + md5(source.toString());
+		source.insert(0, "class " + className + " extends " + Script.class.getName() + " {\n").append("}\n");
+
+		this.compilation = compilation.toArray();
+		this.scriptClass = ExpressionFormat.getClassCache().getClass(className, source.toString());
+
+		this.methods = new MethodHandle[methodCount];
+		for (int i = 0; i < methodCount; i++) {
+			methods[i] = MethodHandles.publicLookup().findVirtual(scriptClass, "snippet" + i, methodType(Object.class)).asType(methodType(Object.class, Script.class));
+		}
+	}
+
+	/**
+	 * @return literal {@link String} values and {@link Snippet} code of this template
+	 */
+	public Object[] getCompilation() {
+		return compilation.clone();
+	}
+
+	public Instance newInstance(Bindings bindings) throws ScriptException {
+		try {
+			Script script = (Script) scriptClass.getDeclaredConstructor().newInstance();
+			script.setBinding(new TemplateBinding(bindings, System.getSecurityManager() == null ? null : AccessController.getContext()));
+			return new Instance(script);
+		} catch (ReflectiveOperationException e) {
+			throw new ScriptException(e);
+		}
+	}
+
+	/**
+	 * Scriptlet of this template, i.e. a {@link Variable} lookup or the {@link Integer} index of a method of the generated class
+	 */
+	public class Snippet {
+
+		private final Object code;
+
+		private Snippet(Object code) {
+			this.code = code;
+		}
+
+		public ExpressionTemplate getTemplate() {
+			return ExpressionTemplate.this;
+		}
+	}
+
+	/**
+	 * Template state for a single format call
+	 */
+	public class Instance {
+
+		private final Script script;
+
+		private Instance(Script script) {
+			this.script = script;
+		}
+
+		public ExpressionTemplate getTemplate() {
+			return ExpressionTemplate.this;
+		}
+
+		public Object eval(Snippet snippet) throws ScriptException {
+			if (snippet.code instanceof Variable) {
+				return ((Variable) snippet.code).eval((TemplateBinding) script.getBinding());
+			}
+
+			MethodHandle method = methods[(Integer) snippet.code];
+
+			// only use the sandbox if a security manager is installed (and there's something to enforce)
+			if (System.getSecurityManager() == null) {
+				return invoke(method);
+			}
+
+			try {
+				return AccessController.doPrivileged((PrivilegedExceptionAction<Object>) () -> invoke(method), sandbox);
+			} catch (PrivilegedActionException e) {
+				AccessControlException accessException = ExceptionUtilities.findCause(e, AccessControlException.class);
+
+				// try to unwrap AccessControlException
+				if (accessException != null)
+					throw new ExpressionException(accessException);
+
+				throw (ScriptException) e.getException();
+			}
+		}
+
+		private Object invoke(MethodHandle method) throws ScriptException {
+			try {
+				Object value = (Object) method.invokeExact(script);
+
+				if (value instanceof Callable<?>) {
+					return ((Callable<?>) value).call();
+				}
+
+				return value;
+			} catch (Error e) {
+				throw e;
+			} catch (Exception e) {
+				throw new ScriptException(e);
+			} catch (Throwable t) {
+				throw new ScriptException(new ExecutionException(t));
+			}
+		}
+	}
+
+	/**
+	 * Same variable scopes as the script engine: variables assigned by a scriptlet are visible to all following scriptlets, and then the given bindings
+	 */
+	static class TemplateBinding extends Binding {
+
+		private final Bindings bindings;
+		private final AccessControlContext context;
+
+		public TemplateBinding(Bindings bindings, AccessControlContext context) {
+			this.bindings = bindings;
+			this.context = context;
+		}
+
+		public Object getAttribute(String name) {
+			Map<?, ?> variables = getVariables();
+			if (variables.containsKey(name)) {
+				return variables.get(name);
+			}
+
+			// use privileged access so we are not restricted by the script sandbox
+			if (context != null) {
+				return AccessController.doPrivileged((PrivilegedAction<Object>) () -> bindings.get(name), context);
+			}
+			return bindings.get(name);
+		}
+
+		public boolean hasAttribute(String name) {
+			if (getVariables().containsKey(name)) {
+				return true;
+			}
+
+			if (context != null) {
+				return AccessController.doPrivileged((PrivilegedAction<Boolean>) () -> bindings.containsKey(name), context);
+			}
+			return bindings.containsKey(name);
+		}
+
+		@Override
+		public Object getVariable(String name) {
+			if (hasAttribute(name)) {
+				return getAttribute(name);
+			}
+			throw new MissingPropertyException(name, getClass());
+		}
+
+		@Override
+		public boolean hasVariable(String name) {
+			return hasAttribute(name);
+		}
+	}
+
+	/**
+	 * Source code of a scriptlet
+	 */
+	static class Scriptlet {
+
+		public final String code;
+
+		public Scriptlet(String code) {
+			this.code = code;
+		}
+	}
+
+	/**
+	 * Simple variable like {n} that can't contain any malicious code
+	 */
+	static class Variable {
+
+		private final String name;
+
+		public Variable(String name) {
+			this.name = name;
+		}
+
+		public Object eval(TemplateBinding binding) throws ScriptException {
+			try {
+				Object value = binding.getAttribute(name);
+				if (value == null) {
+					throw new MissingPropertyException(name, Variable.class);
+				}
+				return value;
+			} catch (Exception e) {
+				throw new ScriptException(e);
+			} catch (Throwable t) {
+				throw new ScriptException(new ExecutionException(t));
+			}
+		}
+
+		public static boolean isVariable(String code) {
+			return SourceVersion.isIdentifier(code) && !SourceVersion.isKeyword(code);
+		}
+	}
+
+}
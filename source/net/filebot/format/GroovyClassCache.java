@@ -0,0 +1,258 @@
+package net.filebot.format;
+
+import static net.filebot.Logging.*;
+import static net.filebot.util.FileUtilities.*;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.script.ScriptException;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import org.codehaus.groovy.control.CompilationUnit;
+import org.codehaus.groovy.control.CompilerConfiguration;
+import org.codehaus.groovy.control.Phases;
+import org.codehaus.groovy.tools.GroovyClass;
+
+import groovy.lang.GroovyClassLoader;
+import groovy.lang.GroovySystem;
+import net.filebot.ApplicationFolder;
+import net.filebot.util.SystemProperty;
+
+/**
+ * Compile Groovy sources at most once and remember the generated class files on disk, so that the same scripts and expressions don't need to be compiled again in the next run. Class files are keyed by source, Groovy version and compiler configuration, and loaded via a dedicated class loader per source.
+ * <p>
+ * Recently used classes are kept in memory, and class files that have not been used for a while are deleted (the last-modified date of a class file is updated whenever it is used).
+ */
+public class GroovyClassCache {
+
+	public static final boolean PERSISTENT = SystemProperty.of("net.filebot.groovy.cache", Boolean::parseBoolean, true).get();
+
+	public static final int MAX_MEMORY_ENTRIES = 1000;
+	public static final int MAX_DISK_ENTRIES = 5000;
+	public static final Duration MAX_DISK_AGE = Duration.ofDays(90);
+
+	private final GroovyClassLoader classLoader;
+	private final CompilerConfiguration config;
+	private final String fingerprint;
+	private final File folder;
+
+	private final Cache<String, Result> classes = Caffeine.newBuilder().maximumSize(MAX_MEMORY_ENTRIES).build();
+
+	/**
+	 * @param fingerprint
+	 *            any compiler configuration that is not reflected in the {@link CompilerConfiguration} itself (e.g. compilation customizers)
+	 */
+	public GroovyClassCache(String name, CompilerConfiguration config, String fingerprint) {
+		this(PERSISTENT ? ApplicationFolder.Cache.resolve("groovy/" + name) : null, config, fingerprint);
+	}
+
+	GroovyClassCache(File folder, CompilerConfiguration config, String fingerprint) {
+		this.config = config;
+		this.fingerprint = fingerprint;
+		this.classLoader = new GroovyClassLoader(Thread.currentThread().getContextClassLoader(), config);
+		this.folder = folder;
+
+		if (folder != null) {
+			prune(folder);
+		}
+	}
+
+	/**
+	 * Get script class with the given class name, and compile source if necessary
+	 */
+	public Class<?> getClass(String className, String source) throws ScriptException {
+		String key = className + '\0' + source;
+		Result result = classes.get(key, k -> load(className, source));
+
+		// don't remember compiler errors
+		if (result.error != null) {
+			classes.asMap().remove(key, result);
+		}
+		return result.get();
+	}
+
+	private Result load(String className, String source) {
+		String key = md5(String.join("\0", GroovySystem.getVersion(), config.getTargetBytecode(), String.valueOf(config.getScriptBaseClass()), fingerprint, className, source));
+		File file = folder == null ? null : new File(folder, key + ".classes");
+
+		// load class files from previous runs
+		if (file != null && file.isFile()) {
+			try {
+				Class<?> value = read(file).loadClass(className);
+				file.setLastModified(System.currentTimeMillis());
+				return new Result(value);
+			} catch (Exception | LinkageError e) {
+				debug.warning(cause("Failed to load class files: " + file, e));
+			}
+		}
+
+		try {
+			CompilationUnit unit = new CompilationUnit(config, null, classLoader);
+			unit.addSource(className + ".groovy", source);
+			unit.compile(Phases.CLASS_GENERATION);
+
+			ClassFileLoader loader = new ClassFileLoader(classLoader);
+			for (Object it : unit.getClasses()) {
+				GroovyClass groovyClass = (GroovyClass) it;
+				loader.classFiles.put(groovyClass.getName(), groovyClass.getBytes());
+			}
+
+			if (file != null) {
+				try {
+					write(file, loader);
+				} catch (Exception e) {
+					debug.warning(cause("Failed to store class files: " + file, e));
+				}
+			}
+
+			return new Result(loader.loadClass(className));
+		} catch (Exception e) {
+			// e.g. CompilationFailedException
+			return new Result(new ScriptException(e));
+		}
+	}
+
+	private ClassFileLoader read(File file) throws IOException {
+		ClassFileLoader loader = new ClassFileLoader(classLoader);
+
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file.toPath())))) {
+			// class files generated by a different Groovy version may not be compatible with the current runtime
+			String version = in.readUTF();
+			if (!version.equals(GroovySystem.getVersion())) {
+				throw new IOException("Groovy version mismatch: " + version);
+			}
+
+			int count = in.readInt();
+			for (int i = 0; i < count; i++) {
+				String name = in.readUTF();
+				int length = in.readInt();
+				if (length < 0 || length > file.length()) {
+					throw new IOException("Illegal class file length: " + length);
+				}
+				byte[] bytes = new byte[length];
+				in.readFully(bytes);
+				loader.classFiles.put(name, bytes);
+			}
+		}
+
+		return loader;
+	}
+
+	private void write(File file, ClassFileLoader loader) throws IOException {
+		File parent = file.getParentFile();
+		Files.createDirectories(parent.toPath());
+
+		// write to temporary file first so that concurrent processes never read partial class files
+		File temp = File.createTempFile(file.getName(), ".part", parent);
+
+		try {
+			try (OutputStream out = Files.newOutputStream(temp.toPath()); DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out))) {
+				data.writeUTF(GroovySystem.getVersion());
+				data.writeInt(loader.classFiles.size());
+				for (Map.Entry<String, byte[]> it : loader.classFiles.entrySet()) {
+					data.writeUTF(it.getKey());
+					data.writeInt(it.getValue().length);
+					data.write(it.getValue());
+				}
+			}
+
+			Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			Files.deleteIfExists(temp.toPath());
+		}
+	}
+
+	/**
+	 * Delete class files that have not been used for a long time, and the least recently used class files if there are too many
+	 */
+	private static void prune(File folder) {
+		File[] files = folder.listFiles((dir, name) -> name.endsWith(".classes"));
+		File[] parts = folder.listFiles((dir, name) -> name.endsWith(".part"));
+		if (files == null || parts == null) {
+			return;
+		}
+
+		// most recently used first
+		Arrays.sort(files, Comparator.comparingLong(File::lastModified).reversed());
+
+		long now = System.currentTimeMillis();
+		for (int i = 0; i < files.length; i++) {
+			if (i >= MAX_DISK_ENTRIES || files[i].lastModified() < now - MAX_DISK_AGE.toMillis()) {
+				delete(files[i]);
+			}
+		}
+
+		// temporary files of processes that have been killed while writing class files
+		for (File f : parts) {
+			if (f.lastModified() < now - Duration.ofDays(1).toMillis()) {
+				delete(f);
+			}
+		}
+	}
+
+	private static void delete(File file) {
+		if (!file.delete()) {
+			debug.finest(format("Failed to delete %s", file));
+		}
+	}
+
+	private static class Result {
+
+		private final Class<?> value;
+		private final ScriptException error;
+
+		public Result(Class<?> value) {
+			this.value = value;
+			this.error = null;
+		}
+
+		public Result(ScriptException error) {
+			this.value = null;
+			this.error = error;
+		}
+
+		public Class<?> get() throws ScriptException {
+			if (error != null) {
+				throw error;
+			}
+			return value;
+		}
+	}
+
+	/**
+	 * Define all classes generated for a single source (i.e. script class and closure classes)
+	 */
+	private static class ClassFileLoader extends ClassLoader {
+
+		private final Map<String, byte[]> classFiles = new LinkedHashMap<String, byte[]>();
+
+		public ClassFileLoader(ClassLoader parent) {
+			super(parent);
+		}
+
+		@Override
+		protected Class<?> findClass(String name) throws ClassNotFoundException {
+			byte[] bytes = classFiles.get(name);
+			if (bytes == null) {
+				throw new ClassNotFoundException(name);
+			}
+			return defineClass(name, bytes, 0, bytes.length);
+		}
+	}
+
+}
@@ -36,6 +36,7 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.regex.Pattern;
@@ -51,10 +52,13 @@ import net.filebot.Language;
 import net.filebot.MediaTypes;
 import net.filebot.Resource;
 import net.filebot.Settings;
+import net.filebot.format.BindingTable.Binding;
+import net.filebot.format.BindingTable.Memo;
 import net.filebot.hash.HashType;
 import net.filebot.media.FFProbe;
 import net.filebot.media.ImageMetadata;
 import net.filebot.media.LocalDatasource.PhotoFile;
+import net.filebot.media.MediaCharacteristicsStore;
 import net.filebot.media.MetaAttributes;
 import net.filebot.media.NamingStandard;
 import net.filebot.media.VideoFormat;
@@ -62,6 +66,7 @@ import net.filebot.media.XattrChecksum;
 import net.filebot.mediainfo.MediaInfo;
 import net.filebot.mediainfo.MediaInfo.StreamKind;
 import net.filebot.mediainfo.MediaInfoException;
+import net.filebot.mediainfo.MediaInfoSnapshot;
 import net.filebot.similarity.Normalization;
 import net.filebot.similarity.SimilarityComparator;
 import net.filebot.util.FileUtilities;
@@ -94,6 +99,13 @@ public class MediaBindingBean {
 		this.context = context;
 	}
 
+	// binding values are computed at most once per binding bean
+	private final Map<Binding, Memo> bindingValues = new ConcurrentHashMap<Binding, Memo>();
+
+	Object getBindingValue(Binding binding) throws Throwable {
+		return bindingValues.computeIfAbsent(binding, k -> new Memo()).get(binding, this);
+	}
+
 	@Define("object")
 	public Object getInfoObject() {
 		return infoObject;
@@ -466,7 +478,7 @@ public class MediaBindingBean {
 		// collect value from Video Stream 0 or Image Stream 0
 		return Stream.of(StreamKind.Video, StreamKind.Image).map(k -> {
 			// collect Width and Height as Integer List
-			return Stream.of("Width", "Height").map(p -> getMediaInfo().get(k, 0, p)).filter(s -> s.length() > 0).map(Integer::parseInt).collect(toList());
+			return Stream.of("Width", "Height").map(p -> getMediaInfoSnapshot().get(k, 0, p)).filter(s -> s.length() > 0).map(Integer::parseInt).collect(toList());
 		}).filter(d -> d.size() == 2).findFirst().orElse(null);
 	}
 
@@ -1066,7 +1078,7 @@ public class MediaBindingBean {
 
 	@Define("encodedDate")
 	public SimpleDate getEncodedDate() {
-		return new SimpleDate(getMediaInfo().getCreationTime().toEpochMilli());
+		return new SimpleDate(getMediaInfoSnapshot().getCreationTime().toEpochMilli());
 	}
 
 	@Define("today")
@@ -1154,7 +1166,7 @@ public class MediaBindingBean {
 
 	@Define("ffprobe")
 	public Object getFFProbeDump() throws Exception {
-		return new FFProbe().open(getInferredMediaFile());
+		return new FFProbe(MediaCharacteristicsStore.getInstance().getFFProbe(getInferredMediaFile()));
 	}
 
 	@Define("XEM")
@@ -1231,6 +1243,9 @@ public class MediaBindingBean {
 	// lazy initialize and then keep in memory
 	private MediaInfo mediaInfo;
 
+	/**
+	 * Native {@link MediaInfo} handle of the inferred media file (format bindings use the stored {@link MediaInfoSnapshot} instead)
+	 */
 	public synchronized MediaInfo getMediaInfo() {
 		// use inferred media file (e.g. actual movie file instead of subtitle file)
 		if (mediaInfo == null) {
@@ -1308,9 +1323,24 @@ public class MediaBindingBean {
 		return null;
 	}
 
+	// lazy initialize and then keep in memory
+	private MediaInfoSnapshot mediaInfoSnapshot;
+
+	private synchronized MediaInfoSnapshot getMediaInfoSnapshot() {
+		// use inferred media file (e.g. actual movie file instead of subtitle file)
+		if (mediaInfoSnapshot == null) {
+			try {
+				mediaInfoSnapshot = new MediaInfoSnapshot(MediaCharacteristicsStore.getInstance().getMediaInfo(getInferredMediaFile()));
+			} catch (Exception e) {
+				throw new MediaInfoException(e.getMessage());
+			}
+		}
+		return mediaInfoSnapshot;
+	}
+
 	private String getMediaInfo(StreamKind streamKind, int streamNumber, String... keys) {
 		for (String key : keys) {
-			String value = getMediaInfo().get(streamKind, streamNumber, key);
+			String value = getMediaInfoSnapshot().get(streamKind, streamNumber, key);
 			if (value.length() > 0) {
 				return value;
 			}
@@ -1319,9 +1349,10 @@ public class MediaBindingBean {
 	}
 
 	private Stream<String> getMediaInfo(StreamKind streamKind, String... keys) {
-		return IntStream.range(0, getMediaInfo().streamCount(streamKind)).mapToObj(streamNumber -> {
+		MediaInfoSnapshot mediaInfo = getMediaInfoSnapshot();
+		return IntStream.range(0, mediaInfo.streamCount(streamKind)).mapToObj(streamNumber -> {
 			return stream(keys).map(key -> {
-				return getMediaInfo().get(streamKind, streamNumber, key);
+				return mediaInfo.get(streamKind, streamNumber, key);
 			}).filter(s -> s.length() > 0).findFirst().orElse(null);
 		}).filter(Objects::nonNull);
 	}
@@ -1348,13 +1379,13 @@ public class MediaBindingBean {
 	}
 
 	private List<AssociativeScriptObject> createMediaInfoBindings(StreamKind kind) {
-		return getMediaInfo().snapshot().get(kind).stream().map(m -> new AssociativeScriptObject(m, this::undefined)).collect(toList());
+		return getMediaInfoSnapshot().snapshot().get(kind).stream().map(m -> new AssociativeScriptObject(m, this::undefined)).collect(toList());
 	}
 
 	private final Resource<String[]> mediaTitles = Resource.lazy(() -> {
 		// try to place embedded media title first
 		try {
-			String mediaTitle = getMediaInfo().getTitle();
+			String mediaTitle = getMediaInfoSnapshot().getTitle();
 			if (mediaTitle.length() > 0) {
 				return Stream.concat(Stream.of(mediaTitle), stream(getFileNames(getInferredMediaFile()))).toArray(String[]::new);
 			}
@@ -0,0 +1,255 @@
+package net.filebot.hash;
+
+import static net.filebot.Logging.*;
+import static net.filebot.Settings.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileStore;
+import java.nio.file.Files;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+import net.filebot.Cache;
+import net.filebot.CacheType;
+import net.filebot.MetaAttributeView;
+
+/**
+ * Persistent checksum store that remembers the digest of a file together with its file key (i.e. device and inode), size and last-modified time. Stored digests are only used as long as the file is unchanged, so re-verifying unchanged files only requires a stat per file.
+ * <p>
+ * Records are stored in extended attributes if enabled, and in the local persistent cache otherwise (or if extended attributes cannot be written). Records are only written if they have changed, and extended attributes are not written again on a volume where writing has failed once (e.g. read-only media).
+ */
+public class ChecksumStore {
+
+	private static final ChecksumStore instance = new ChecksumStore(useExtendedFileAttributes());
+
+	public static ChecksumStore getInstance() {
+		return instance;
+	}
+
+	/**
+	 * Extended attribute of the legacy {@code XattrChecksum.CRC32} store, i.e. just the digest without file attributes
+	 */
+	private static final String LEGACY_CRC32_KEY = "CRC32";
+
+	private final boolean useExtendedFileAttributes;
+	private final Supplier<Cache> cache;
+
+	private final Set<FileStore> readOnlyVolumes = ConcurrentHashMap.newKeySet();
+	private final Set<FileStore> unreadableVolumes = ConcurrentHashMap.newKeySet();
+
+	public ChecksumStore(boolean useExtendedFileAttributes) {
+		this(useExtendedFileAttributes, () -> Cache.getCache("checksum", CacheType.Persistent));
+	}
+
+	ChecksumStore(boolean useExtendedFileAttributes, Supplier<Cache> cache) {
+		this.useExtendedFileAttributes = useExtendedFileAttributes;
+		this.cache = cache;
+	}
+
+	/**
+	 * Get stored checksum, or {@code null} if there is no checksum or if the file has been modified since the checksum was stored
+	 */
+	public String get(File file, HashType type) throws IOException {
+		Record current = stat(file, null);
+		Record stored = read(file, type);
+
+		if (stored == null) {
+			return null;
+		}
+
+		if (!current.matches(stored)) {
+			debug.finest(format("Stale %s checksum: %s [%s]", type, file, stored));
+			return null;
+		}
+
+		return stored.digest;
+	}
+
+	public String computeIfAbsent(File file, HashType type, boolean rehash) throws IOException, InterruptedException {
+		if (!rehash) {
+			String digest = get(file, type);
+			if (digest != null) {
+				return digest;
+			}
+		}
+
+		Record before = stat(file, null);
+		String digest = HashEngine.getInstance().computeHash(file, type);
+
+		// make sure that the file has not been modified while we were reading it
+		if (before.matches(stat(file, null))) {
+			put(file, type, digest);
+		}
+
+		return digest;
+	}
+
+	/**
+	 * Get stored checksums or compute checksums concurrently. Results are returned in input order.
+	 */
+	public List<Future<String>> computeIfAbsent(List<File> files, HashType type, boolean rehash) {
+		return HashEngine.getInstance().submit(files, f -> computeIfAbsent(f, type, rehash));
+	}
+
+	public void put(File file, HashType type, String digest) throws IOException {
+		Record record = stat(file, digest);
+
+		// do not write anything if the same record has already been stored
+		if (record.equals(read(file, type))) {
+			return;
+		}
+
+		if (useExtendedFileAttributes && isWritable(file)) {
+			// store checksum (and make sure Last-Modified date is not changed)
+			try {
+				MetaAttributeView xattr = new MetaAttributeView(file);
+				xattr.put(getKey(type), record.toString()); // may or may not change Last-Modified date
+
+				// remove legacy record that is superseded by the new record
+				if (type == HashType.SFV && xattr.get(LEGACY_CRC32_KEY) != null) {
+					xattr.put(LEGACY_CRC32_KEY, null);
+				}
+				return;
+			} catch (Exception e) {
+				failed(readOnlyVolumes, file, "Failed to set xattr", e);
+			} finally {
+				if (file.lastModified() != record.lastModified) {
+					file.setLastModified(record.lastModified);
+				}
+			}
+		}
+
+		getCache().put(getCacheKey(file, type), record.toString());
+	}
+
+	public void remove(File file, HashType type) {
+		if (useExtendedFileAttributes && isWritable(file)) {
+			try {
+				MetaAttributeView xattr = new MetaAttributeView(file);
+				xattr.put(getKey(type), null);
+				if (type == HashType.SFV) {
+					xattr.put(LEGACY_CRC32_KEY, null);
+				}
+			} catch (Exception e) {
+				failed(readOnlyVolumes, file, "Failed to set xattr", e);
+			}
+		}
+
+		getCache().remove(getCacheKey(file, type));
+	}
+
+	private boolean isWritable(File file) {
+		try {
+			return !readOnlyVolumes.contains(Files.getFileStore(file.toPath()));
+		} catch (IOException e) {
+			return false;
+		}
+	}
+
+	private void failed(Set<FileStore> volumes, File file, String message, Exception e) {
+		try {
+			// log only the first failure for each volume
+			FileStore volume = Files.getFileStore(file.toPath());
+			if (volumes.add(volume)) {
+				debug.warning(cause(message + " on " + volume, e));
+			}
+		} catch (IOException ioe) {
+			debug.warning(cause(message, e));
+		}
+	}
+
+	private Record read(File file, HashType type) {
+		if (useExtendedFileAttributes) {
+			try {
+				Record record = Record.parse(new MetaAttributeView(file).get(getKey(type)));
+				if (record != null) {
+					return record;
+				}
+			} catch (Exception e) {
+				failed(unreadableVolumes, file, "Failed to read xattr", e);
+			}
+		}
+
+		return Record.parse((String) getCache().get(getCacheKey(file, type)));
+	}
+
+	private Record stat(File file, String digest) throws IOException {
+		BasicFileAttributes attr = Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+		Object fileKey = attr.fileKey();
+		return new Record(fileKey == null ? "" : fileKey.toString(), attr.size(), attr.lastModifiedTime().toMillis(), digest);
+	}
+
+	private String getKey(HashType type) {
+		return "net.filebot.checksum." + type.name();
+	}
+
+	private String getCacheKey(File file, HashType type) {
+		return type.name() + ":" + file.getAbsolutePath();
+	}
+
+	private Cache getCache() {
+		return cache.get();
+	}
+
+	private static class Record {
+
+		public final String fileKey;
+		public final long size;
+		public final long lastModified;
+		public final String digest;
+
+		public Record(String fileKey, long size, long lastModified, String digest) {
+			this.fileKey = fileKey;
+			this.size = size;
+			this.lastModified = lastModified;
+			this.digest = digest;
+		}
+
+		public boolean matches(Record other) {
+			return size == other.size && lastModified == other.lastModified && Objects.equals(fileKey, other.fileKey);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (obj instanceof Record) {
+				Record other = (Record) obj;
+				return matches(other) && Objects.equals(digest, other.digest);
+			}
+			return false;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(fileKey, size, lastModified, digest);
+		}
+
+		@Override
+		public String toString() {
+			return String.join("\t", fileKey, String.valueOf(size), String.valueOf(lastModified), digest);
+		}
+
+		public static Record parse(String value) {
+			if (value == null) {
+				return null;
+			}
+
+			String[] field = value.split("\t", 4);
+			if (field.length != 4) {
+				return null;
+			}
+
+			try {
+				return new Record(field[0], Long.parseLong(field[1]), Long.parseLong(field[2]), field[3]);
+			} catch (NumberFormatException e) {
+				return null;
+			}
+		}
+	}
+
+}
@@ -1,12 +1,25 @@
 
 package net.filebot.hash;
 
+import java.nio.ByteBuffer;
 
 public interface Hash {
 
 	public void update(byte[] bytes, int off, int len);
 
 
+	public default void update(ByteBuffer buffer) {
+		if (buffer.hasArray()) {
+			update(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+			buffer.position(buffer.limit());
+		} else {
+			byte[] bytes = new byte[buffer.remaining()];
+			buffer.get(bytes);
+			update(bytes, 0, bytes.length);
+		}
+	}
+
+
 	public String digest();
 
 }
@@ -0,0 +1,153 @@
+package net.filebot.hash;
+
+import static java.util.Collections.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileStore;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.LongConsumer;
+
+import net.filebot.Settings;
+import net.filebot.util.DefaultThreadFactory;
+import net.filebot.util.SystemProperty;
+
+/**
+ * Compute file hashes by reading each file once via {@link FileChannel} into reusable direct buffers and updating all requested hashes in the same pass. Many files are hashed concurrently, but only a limited number of files are read from the same device at the same time.
+ */
+public class HashEngine {
+
+	public static final int BUFFER_SIZE = 1024 * 1024;
+
+	private static final HashEngine instance = new HashEngine(Settings.getPreferredThreadPoolSize(), SystemProperty.of("net.filebot.hash.device.threads", Integer::parseInt, 2).get());
+
+	public static HashEngine getInstance() {
+		return instance;
+	}
+
+	private final int threads;
+	private final int deviceThreads;
+
+	private final Map<Object, Semaphore> devices = new ConcurrentHashMap<Object, Semaphore>();
+
+	private final ThreadLocal<ByteBuffer> buffer = ThreadLocal.withInitial(() -> ByteBuffer.allocateDirect(BUFFER_SIZE));
+
+	private ExecutorService executor;
+
+	public HashEngine(int threads, int deviceThreads) {
+		this.threads = Math.max(1, threads);
+		this.deviceThreads = Math.max(1, deviceThreads);
+	}
+
+	public String computeHash(File file, HashType type) throws IOException, InterruptedException {
+		return computeHashes(file, singleton(type), null).get(type);
+	}
+
+	/**
+	 * Compute all the given hashes in a single pass and report the number of bytes read so far after each chunk
+	 */
+	public Map<HashType, String> computeHashes(File file, Collection<HashType> types, LongConsumer progress) throws IOException, InterruptedException {
+		Map<HashType, Hash> hashes = new EnumMap<HashType, Hash>(HashType.class);
+		for (HashType it : types) {
+			hashes.put(it, it.newHash());
+		}
+
+		Semaphore device = getDevice(file);
+		device.acquire();
+
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			ByteBuffer b = buffer.get();
+			long position = 0;
+
+			while (true) {
+				b.clear();
+				int len = channel.read(b);
+				if (len < 0) {
+					break;
+				}
+
+				b.flip();
+				for (Hash hash : hashes.values()) {
+					hash.update(b.duplicate());
+				}
+				position += len;
+
+				if (progress != null) {
+					progress.accept(position);
+				}
+
+				// make this long-running operation interruptible
+				if (Thread.interrupted()) {
+					throw new InterruptedException();
+				}
+			}
+		} finally {
+			device.release();
+		}
+
+		Map<HashType, String> digest = new EnumMap<HashType, String>(HashType.class);
+		hashes.forEach((k, v) -> digest.put(k, v.digest()));
+		return digest;
+	}
+
+	/**
+	 * Hash all files concurrently. Results are returned in input order.
+	 */
+	public List<Future<String>> computeHashes(List<File> files, HashType type) {
+		return submit(files, f -> computeHash(f, type));
+	}
+
+	/**
+	 * Apply the given function to all files concurrently. Results are returned in input order.
+	 */
+	public List<Future<String>> submit(List<File> files, HashFunction function) {
+		ExecutorService executor = getExecutor();
+
+		List<Future<String>> results = new ArrayList<Future<String>>(files.size());
+		for (File f : files) {
+			results.add(executor.submit((Callable<String>) () -> function.apply(f)));
+		}
+		return results;
+	}
+
+	private synchronized ExecutorService getExecutor() {
+		if (executor == null) {
+			executor = Executors.newFixedThreadPool(threads, new DefaultThreadFactory("HashEngine", Thread.MIN_PRIORITY, true));
+		}
+		return executor;
+	}
+
+	private Semaphore getDevice(File file) {
+		return devices.computeIfAbsent(getDeviceKey(file), k -> new Semaphore(deviceThreads, true));
+	}
+
+	private Object getDeviceKey(File file) {
+		try {
+			FileStore store = Files.getFileStore(file.toPath());
+			return store.name() + ":" + store.type();
+		} catch (Exception e) {
+			// unknown device
+			return "";
+		}
+	}
+
+	@FunctionalInterface
+	public interface HashFunction {
+		String apply(File file) throws Exception;
+	}
+
+}
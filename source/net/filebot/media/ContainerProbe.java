@@ -0,0 +1,775 @@
+package net.filebot.media;
+
+import static java.nio.charset.StandardCharsets.*;
+import static java.util.stream.Collectors.*;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import net.filebot.mediainfo.MediaInfo.StreamKind;
+
+/**
+ * Read media characteristics directly from the container headers of Matroska files (i.e. EBML header, segment info and tracks) and MP4 files (i.e. moov and trak boxes) without any native code or external processes. Only the first and the last few MB of the file are read, and any other format or layout is rejected with an {@link IOException}.
+ */
+public class ContainerProbe implements MediaCharacteristics {
+
+	// headers are expected to be at the start or at the end of the file
+	public static final long WINDOW_SIZE = 4 * 1024 * 1024;
+
+	public static ContainerProbe open(File file) throws IOException {
+		return open(file, WINDOW_SIZE);
+	}
+
+	static ContainerProbe open(File file, long windowSize) throws IOException {
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			Window window = new Window(channel, windowSize);
+			ByteBuffer magic = window.read(0, (int) Math.min(8, window.size));
+
+			ContainerProbe probe = new ContainerProbe(window.size);
+
+			if (magic.remaining() >= 4 && magic.getInt(0) == EBML) {
+				probe.readMatroska(window);
+			} else if (magic.remaining() >= 8 && (magic.getInt(4) == FTYP || magic.getInt(4) == MOOV)) {
+				probe.readBoxes(window, 0, window.size, null);
+			} else {
+				throw new IOException("Unsupported container format");
+			}
+
+			if (probe.duration == null || probe.tracks.isEmpty()) {
+				throw new IOException("Unsupported layout: no duration or tracks");
+			}
+
+			return probe;
+		}
+	}
+
+	private final long size;
+	private final List<Track> tracks = new ArrayList<Track>();
+
+	private Duration duration;
+	private String title;
+	private Instant creationTime;
+
+	private ContainerProbe(long size) {
+		this.size = size;
+	}
+
+	@Override
+	public String getVideoCodec() {
+		return getString(StreamKind.Video, t -> t.codec);
+	}
+
+	@Override
+	public String getAudioCodec() {
+		return getString(StreamKind.Audio, t -> t.codec);
+	}
+
+	@Override
+	public String getAudioLanguage() {
+		return getString(StreamKind.Audio, t -> t.language);
+	}
+
+	@Override
+	public String getSubtitleCodec() {
+		return getString(StreamKind.Text, t -> t.codec);
+	}
+
+	@Override
+	public String getSubtitleLanguage() {
+		return getString(StreamKind.Text, t -> t.language);
+	}
+
+	@Override
+	public Duration getDuration() {
+		return duration;
+	}
+
+	@Override
+	public Integer getWidth() {
+		return stream(StreamKind.Video, t -> t.width).findFirst().get();
+	}
+
+	@Override
+	public Integer getHeight() {
+		return stream(StreamKind.Video, t -> t.height).findFirst().get();
+	}
+
+	@Override
+	public Double getBitRate() {
+		// same as MediaInfo OverallBitRate
+		return size * 8 * 1000d / duration.toMillis();
+	}
+
+	@Override
+	public Float getFrameRate() {
+		return stream(StreamKind.Video, t -> t.frameRate).findFirst().get();
+	}
+
+	@Override
+	public String getTitle() {
+		return title == null ? "" : title;
+	}
+
+	@Override
+	public Instant getCreationTime() {
+		return creationTime;
+	}
+
+	@Override
+	public void close() {
+		// nothing to release
+	}
+
+	private <T> Stream<T> stream(StreamKind streamKind, Function<Track, T> property) {
+		return tracks.stream().filter(t -> t.kind == streamKind).map(property).filter(Objects::nonNull);
+	}
+
+	private String getString(StreamKind streamKind, Function<Track, String> property) {
+		return stream(streamKind, property).collect(joining(" / "));
+	}
+
+	@Override
+	public String toString() {
+		return tracks.stream().map(Track::toString).collect(joining(", ", "[" + duration + "] ", ""));
+	}
+
+	private static class Track {
+
+		private StreamKind kind;
+		private String codec;
+		private String language;
+		private Integer width;
+		private Integer height;
+		private Float frameRate;
+
+		// media duration in seconds
+		private double seconds;
+
+		@Override
+		public String toString() {
+			return Stream.of(kind, codec, language, width, height, frameRate).filter(Objects::nonNull).map(Objects::toString).collect(joining(" ", "[", "]"));
+		}
+	}
+
+	/**
+	 * Positional reads that are restricted to the head and the tail of the file
+	 */
+	private static class Window {
+
+		private final FileChannel channel;
+		private final long size;
+		private final long limit;
+
+		public Window(FileChannel channel, long limit) throws IOException {
+			this.channel = channel;
+			this.size = channel.size();
+			this.limit = limit;
+		}
+
+		public ByteBuffer read(long position, long length) throws IOException {
+			if (position < 0 || length < 0 || position + length > size) {
+				throw new EOFException("Unexpected end of file");
+			}
+
+			if (size > 2 * limit && position + length > limit && position < size - limit) {
+				throw new IOException("Unsupported layout: headers are neither at the start nor at the end of the file");
+			}
+
+			ByteBuffer buffer = ByteBuffer.allocate((int) length);
+			while (buffer.hasRemaining()) {
+				if (channel.read(buffer, position + buffer.position()) < 0) {
+					throw new EOFException("Unexpected end of file");
+				}
+			}
+			return buffer.flip();
+		}
+	}
+
+	private static String trim(String s) {
+		s = s.replace("\0", "").trim();
+		return s.isEmpty() ? null : s;
+	}
+
+	private static Float getFrameRate(double fps) {
+		// e.g. 24000 / 1001 = 23.976
+		return fps > 0 ? Math.round(fps * 1000) / 1000f : null;
+	}
+
+	/**
+	 * Matroska / WebM
+	 */
+	private static final int EBML = 0x1A45DFA3;
+	private static final int EBML_DOC_TYPE = 0x4282;
+	private static final int SEGMENT = 0x18538067;
+	private static final int SEEK_HEAD = 0x114D9B74;
+	private static final int SEEK = 0x4DBB;
+	private static final int SEEK_ID = 0x53AB;
+	private static final int SEEK_POSITION = 0x53AC;
+	private static final int INFO = 0x1549A966;
+	private static final int INFO_TIMECODE_SCALE = 0x2AD7B1;
+	private static final int INFO_DURATION = 0x4489;
+	private static final int INFO_TITLE = 0x7BA9;
+	private static final int INFO_DATE_UTC = 0x4461;
+	private static final int TRACKS = 0x1654AE6B;
+	private static final int TRACK_ENTRY = 0xAE;
+	private static final int TRACK_TYPE = 0x83;
+	private static final int TRACK_CODEC_ID = 0x86;
+	private static final int TRACK_LANGUAGE = 0x22B59C;
+	private static final int TRACK_DEFAULT_DURATION = 0x23E383;
+	private static final int TRACK_VIDEO = 0xE0;
+	private static final int VIDEO_PIXEL_WIDTH = 0xB0;
+	private static final int VIDEO_PIXEL_HEIGHT = 0xBA;
+	private static final int CLUSTER = 0x1F43B675;
+
+	// Matroska timestamps are relative to 2001-01-01T00:00:00Z
+	private static final Instant MATROSKA_EPOCH = Instant.parse("2001-01-01T00:00:00Z");
+
+	private void readMatroska(Window window) throws IOException {
+		Element header = Element.read(window, 0);
+		String docType = null;
+
+		for (ByteBuffer data = window.read(header.position, header.size); data.hasRemaining();) {
+			int id = readId(data);
+			ByteBuffer value = readPayload(data);
+
+			if (id == EBML_DOC_TYPE) {
+				docType = trim(UTF_8.decode(value).toString());
+			}
+		}
+
+		if (!"matroska".equals(docType) && !"webm".equals(docType)) {
+			throw new IOException("Unsupported document type: " + docType);
+		}
+
+		Element segment = Element.read(window, header.end());
+		if (segment.id != SEGMENT) {
+			throw new IOException("Unsupported layout: segment expected");
+		}
+
+		// segment size may be unknown (e.g. live streams)
+		long segmentEnd = segment.size < 0 ? window.size : Math.min(segment.end(), window.size);
+
+		Map<Integer, Long> seekPositions = new HashMap<Integer, Long>();
+		boolean info = false;
+		boolean tracks = false;
+
+		for (long position = segment.position; position < segmentEnd && !(info && tracks);) {
+			Element element = Element.read(window, position);
+
+			// media data starts with the first cluster
+			if (element.id == CLUSTER || element.size < 0) {
+				break;
+			}
+
+			switch (element.id) {
+			case SEEK_HEAD:
+				readSeekHead(window.read(element.position, element.size), segment.position, seekPositions);
+				break;
+			case INFO:
+				readInfo(window.read(element.position, element.size));
+				info = true;
+				break;
+			case TRACKS:
+				readTracks(window.read(element.position, element.size));
+				tracks = true;
+				break;
+			}
+
+			position = element.end();
+		}
+
+		// segment info and tracks may also be stored after the media data (e.g. at the end of the file)
+		if (!info && seekPositions.containsKey(INFO)) {
+			readInfo(readElement(window, seekPositions.get(INFO), INFO));
+		}
+		if (!tracks && seekPositions.containsKey(TRACKS)) {
+			readTracks(readElement(window, seekPositions.get(TRACKS), TRACKS));
+		}
+	}
+
+	private ByteBuffer readElement(Window window, long position, int id) throws IOException {
+		Element element = Element.read(window, position);
+		if (element.id != id || element.size < 0) {
+			throw new IOException(String.format("Unsupported layout: element %X expected", id));
+		}
+		return window.read(element.position, element.size);
+	}
+
+	private void readSeekHead(ByteBuffer data, long segmentPosition, Map<Integer, Long> seekPositions) throws IOException {
+		while (data.hasRemaining()) {
+			int id = readId(data);
+			ByteBuffer seek = readPayload(data);
+
+			if (id == SEEK) {
+				Integer seekId = null;
+				Long seekPosition = null;
+
+				while (seek.hasRemaining()) {
+					int property = readId(seek);
+					ByteBuffer value = readPayload(seek);
+
+					if (property == SEEK_ID) {
+						seekId = (int) getUnsignedLong(value);
+					} else if (property == SEEK_POSITION) {
+						seekPosition = segmentPosition + getUnsignedLong(value);
+					}
+				}
+
+				if (seekId != null && seekPosition != null) {
+					seekPositions.putIfAbsent(seekId, seekPosition);
+				}
+			}
+		}
+	}
+
+	private void readInfo(ByteBuffer data) throws IOException {
+		long timecodeScale = 1000000;
+		double ticks = -1;
+
+		while (data.hasRemaining()) {
+			int id = readId(data);
+			ByteBuffer value = readPayload(data);
+
+			switch (id) {
+			case INFO_TIMECODE_SCALE:
+				timecodeScale = getUnsignedLong(value);
+				break;
+			case INFO_DURATION:
+				ticks = value.remaining() == 4 ? value.getFloat() : value.remaining() == 8 ? value.getDouble() : -1;
+				break;
+			case INFO_TITLE:
+				title = trim(UTF_8.decode(value).toString());
+				break;
+			case INFO_DATE_UTC:
+				creationTime = MATROSKA_EPOCH.plusNanos(getUnsignedLong(value));
+				break;
+			}
+		}
+
+		if (ticks > 0) {
+			duration = Duration.ofMillis((long) (ticks * timecodeScale / 1000000));
+		}
+	}
+
+	private void readTracks(ByteBuffer data) throws IOException {
+		while (data.hasRemaining()) {
+			int id = readId(data);
+			ByteBuffer entry = readPayload(data);
+
+			if (id == TRACK_ENTRY) {
+				Track track = new Track();
+				track.language = "eng"; // default value
+
+				while (entry.hasRemaining()) {
+					int property = readId(entry);
+					ByteBuffer value = readPayload(entry);
+
+					switch (property) {
+					case TRACK_TYPE:
+						track.kind = getMatroskaTrackType((int) getUnsignedLong(value));
+						break;
+					case TRACK_CODEC_ID:
+						track.codec = getMatroskaCodec(trim(US_ASCII.decode(value).toString()));
+						break;
+					case TRACK_LANGUAGE:
+						track.language = trim(US_ASCII.decode(value).toString());
+						break;
+					case TRACK_DEFAULT_DURATION:
+						track.frameRate = getFrameRate(1e9 / getUnsignedLong(value));
+						break;
+					case TRACK_VIDEO:
+						while (value.hasRemaining()) {
+							int videoProperty = readId(value);
+							ByteBuffer videoValue = readPayload(value);
+
+							if (videoProperty == VIDEO_PIXEL_WIDTH) {
+								track.width = (int) getUnsignedLong(videoValue);
+							} else if (videoProperty == VIDEO_PIXEL_HEIGHT) {
+								track.height = (int) getUnsignedLong(videoValue);
+							}
+						}
+						break;
+					}
+				}
+
+				if (track.kind != null) {
+					if (track.kind != StreamKind.Video) {
+						track.frameRate = null;
+					}
+					if ("und".equals(track.language)) {
+						track.language = null;
+					}
+					tracks.add(track);
+				}
+			}
+		}
+	}
+
+	private static StreamKind getMatroskaTrackType(int type) {
+		switch (type) {
+		case 0x01:
+			return StreamKind.Video;
+		case 0x02:
+			return StreamKind.Audio;
+		case 0x11:
+			return StreamKind.Text;
+		default:
+			return null;
+		}
+	}
+
+	private static String getMatroskaCodec(String id) {
+		if (id == null) {
+			return null;
+		}
+		if (id.startsWith("A_AAC")) {
+			return "AAC";
+		}
+
+		// use the same names as MediaInfo
+		switch (id) {
+		case "V_MPEG4/ISO/AVC":
+			return "AVC";
+		case "V_MPEGH/ISO/HEVC":
+			return "HEVC";
+		case "V_MPEG4/ISO/ASP":
+		case "V_MPEG4/ISO/SP":
+			return "MPEG-4 Visual";
+		case "V_MPEG2":
+			return "MPEG Video";
+		case "V_AV1":
+			return "AV1";
+		case "V_VP8":
+			return "VP8";
+		case "V_VP9":
+			return "VP9";
+		case "A_AC3":
+			return "AC-3";
+		case "A_EAC3":
+			return "E-AC-3";
+		case "A_DTS":
+			return "DTS";
+		case "A_TRUEHD":
+			return "TrueHD";
+		case "A_FLAC":
+			return "FLAC";
+		case "A_OPUS":
+			return "Opus";
+		case "A_VORBIS":
+			return "Vorbis";
+		case "A_MPEG/L2":
+		case "A_MPEG/L3":
+			return "MPEG Audio";
+		case "S_TEXT/UTF8":
+			return "UTF-8";
+		case "S_TEXT/ASS":
+			return "ASS";
+		case "S_TEXT/SSA":
+			return "SSA";
+		case "S_TEXT/WEBVTT":
+			return "WebVTT";
+		case "S_HDMV/PGS":
+			return "PGS";
+		case "S_VOBSUB":
+			return "VobSub";
+		default:
+			return id.substring(id.indexOf('_') + 1);
+		}
+	}
+
+	private static int readId(ByteBuffer data) throws IOException {
+		int b = data.get() & 0xFF;
+		int length = Integer.numberOfLeadingZeros(b) - 23;
+		if (length > 4) {
+			throw new IOException("Invalid element id");
+		}
+
+		int id = b;
+		for (int i = 1; i < length; i++) {
+			id = (id << 8) | (data.get() & 0xFF);
+		}
+		return id;
+	}
+
+	private static long readSize(ByteBuffer data) throws IOException {
+		int b = data.get() & 0xFF;
+		int length = Integer.numberOfLeadingZeros(b) - 23;
+		if (length > 8) {
+			throw new IOException("Invalid element size");
+		}
+
+		long mask = (1L << (7 * length)) - 1;
+		long size = b & (0xFF >> length);
+		for (int i = 1; i < length; i++) {
+			size = (size << 8) | (data.get() & 0xFF);
+		}
+
+		// all value bits set means unknown size
+		return size == mask ? -1 : size;
+	}
+
+	private static ByteBuffer readPayload(ByteBuffer data) throws IOException {
+		long size = readSize(data);
+		if (size < 0 || size > data.remaining()) {
+			throw new IOException("Invalid element size: " + size);
+		}
+
+		ByteBuffer payload = data.slice(data.position(), (int) size);
+		data.position(data.position() + (int) size);
+		return payload;
+	}
+
+	private static long getUnsignedLong(ByteBuffer data) {
+		long value = 0;
+		while (data.hasRemaining()) {
+			value = (value << 8) | (data.get() & 0xFF);
+		}
+		return value;
+	}
+
+	/**
+	 * EBML element header at a given file position
+	 */
+	private static class Element {
+
+		private final int id;
+		private final long position;
+		private final long size;
+
+		private Element(int id, long position, long size) {
+			this.id = id;
+			this.position = position;
+			this.size = size;
+		}
+
+		public long end() {
+			return position + size;
+		}
+
+		public static Element read(Window window, long position) throws IOException {
+			ByteBuffer header = window.read(position, Math.min(12, window.size - position));
+			int id = readId(header);
+			long size = readSize(header);
+			return new Element(id, position + header.position(), size);
+		}
+	}
+
+	/**
+	 * MP4 / QuickTime
+	 */
+	private static final int FTYP = 0x66747970;
+	private static final int MOOV = 0x6D6F6F76;
+
+	// QuickTime epoch
+	private static final Instant MP4_EPOCH = Instant.parse("1904-01-01T00:00:00Z");
+
+	private void readBoxes(Window window, long position, long end, Track track) throws IOException {
+		while (position + 8 <= end) {
+			ByteBuffer header = window.read(position, Math.min(16, end - position));
+
+			long size = header.getInt() & 0xFFFFFFFFL;
+			String type = new String(header.array(), 4, 4, ISO_8859_1);
+			header.position(8);
+
+			if (size == 1) {
+				size = header.getLong(); // 64-bit box size
+			} else if (size == 0) {
+				size = end - position; // box extends to the end of the file
+			}
+
+			if (size < header.position() || position + size > end) {
+				throw new IOException("Invalid box: " + type);
+			}
+
+			long data = position + header.position();
+			long next = position + size;
+
+			switch (type) {
+			case "moov":
+				readBoxes(window, data, next, null);
+				return; // ignore everything after the movie box
+			case "trak":
+				Track trak = new Track();
+				readBoxes(window, data, next, trak);
+				if (trak.kind != null) {
+					tracks.add(trak);
+				}
+				break;
+			case "mdia":
+			case "minf":
+			case "stbl":
+			case "udta":
+			case "ilst":
+				readBoxes(window, data, next, track);
+				break;
+			case "meta":
+				// ISO meta box is a full box but QuickTime meta box is not
+				ByteBuffer meta = window.read(data, Math.min(8, next - data));
+				readBoxes(window, meta.remaining() == 8 && meta.getInt(4) == 0x68646C72 ? data : data + 4, next, track);
+				break;
+			case "mvhd":
+				readMovieHeader(window.read(data, next - data));
+				break;
+			case "mdhd":
+				if (track != null) {
+					readMediaHeader(window.read(data, next - data), track);
+				}
+				break;
+			case "hdlr":
+				if (track != null && track.kind == null) {
+					track.kind = getHandlerType(new String(window.read(data + 8, 4).array(), ISO_8859_1));
+				}
+				break;
+			case "stsd":
+				if (track != null) {
+					readSampleDescription(window.read(data, next - data), track);
+				}
+				break;
+			case "stsz":
+				if (track != null && track.kind == StreamKind.Video && track.seconds > 0) {
+					// number of samples per second of video
+					track.frameRate = getFrameRate((window.read(data + 8, 4).getInt() & 0xFFFFFFFFL) / track.seconds);
+				}
+				break;
+			case "\u00A9nam":
+				if (track == null) {
+					title = readMetadataValue(window.read(data, next - data));
+				}
+				break;
+			}
+
+			position = next;
+		}
+	}
+
+	private void readMovieHeader(ByteBuffer data) {
+		int version = data.get();
+		data.position(4);
+
+		long creation = version == 1 ? data.getLong() : data.getInt() & 0xFFFFFFFFL;
+		data.position(data.position() + (version == 1 ? 8 : 4)); // modification time
+		long timescale = data.getInt() & 0xFFFFFFFFL;
+		long ticks = version == 1 ? data.getLong() : data.getInt() & 0xFFFFFFFFL;
+
+		if (creation > 0) {
+			creationTime = MP4_EPOCH.plusSeconds(creation);
+		}
+		if (timescale > 0 && ticks > 0 && ticks != 0xFFFFFFFFL) {
+			duration = Duration.ofMillis(ticks * 1000 / timescale);
+		}
+	}
+
+	private void readMediaHeader(ByteBuffer data, Track track) {
+		int version = data.get();
+		data.position(version == 1 ? 20 : 12); // creation time and modification time
+		long timescale = data.getInt() & 0xFFFFFFFFL;
+		long ticks = version == 1 ? data.getLong() : data.getInt() & 0xFFFFFFFFL;
+
+		// packed ISO-639-2/T language code
+		int code = data.getShort() & 0x7FFF;
+		String language = new String(new char[] { (char) ((code >> 10) + 0x60), (char) (((code >> 5) & 0x1F) + 0x60), (char) ((code & 0x1F) + 0x60) });
+		track.language = language.equals("und") || code == 0 ? null : language;
+
+		if (timescale > 0 && ticks > 0) {
+			track.seconds = (double) ticks / timescale;
+		}
+	}
+
+	private void readSampleDescription(ByteBuffer data, Track track) {
+		data.position(8); // version, flags and entry count
+		int entrySize = data.getInt();
+		String format = new String(data.array(), data.position(), 4, ISO_8859_1);
+
+		track.codec = getSampleFormat(format);
+
+		if (track.kind == StreamKind.Video && entrySize >= 36) {
+			track.width = data.getShort(data.position() + 28) & 0xFFFF;
+			track.height = data.getShort(data.position() + 30) & 0xFFFF;
+		}
+	}
+
+	private String readMetadataValue(ByteBuffer data) {
+		while (data.remaining() >= 16) {
+			int size = data.getInt();
+			int type = data.getInt();
+
+			if (size < 16 || size - 8 > data.remaining()) {
+				return null;
+			}
+
+			// 'data' box with type indicator and locale
+			if (type == 0x64617461) {
+				data.position(data.position() + 8);
+				return trim(new String(data.array(), data.position(), size - 16, UTF_8));
+			}
+			data.position(data.position() + size - 8);
+		}
+		return null;
+	}
+
+	private static StreamKind getHandlerType(String handler) {
+		switch (handler) {
+		case "vide":
+			return StreamKind.Video;
+		case "soun":
+			return StreamKind.Audio;
+		case "sbtl":
+		case "subt":
+		case "text":
+		case "clcp":
+			return StreamKind.Text;
+		default:
+			return null;
+		}
+	}
+
+	private static String getSampleFormat(String format) {
+		// use the same names as MediaInfo
+		switch (format) {
+		case "avc1":
+		case "avc3":
+			return "AVC";
+		case "hvc1":
+		case "hev1":
+			return "HEVC";
+		case "mp4v":
+			return "MPEG-4 Visual";
+		case "av01":
+			return "AV1";
+		case "vp09":
+			return "VP9";
+		case "mp4a":
+			return "AAC";
+		case "ac-3":
+			return "AC-3";
+		case "ec-3":
+			return "E-AC-3";
+		case "Opus":
+			return "Opus";
+		case "fLaC":
+			return "FLAC";
+		case "tx3g":
+			return "Timed Text";
+		case "wvtt":
+			return "WebVTT";
+		case "c608":
+			return "EIA-608";
+		default:
+			return trim(format);
+		}
+	}
+
+}
@@ -42,6 +42,18 @@ public class FFProbe implements MediaCharacteristics {
 
 	private Map<String, Object> json;
 
+	public FFProbe() {
+		// open file later
+	}
+
+	/**
+	 * @param json
+	 *            previously parsed ffprobe output
+	 */
+	public FFProbe(Map<String, Object> json) {
+		this.json = json;
+	}
+
 	public synchronized FFProbe open(File file) throws IOException, InterruptedException {
 		json = parse(file);
 		return this;
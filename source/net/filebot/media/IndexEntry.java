@@ -11,6 +11,7 @@ class IndexEntry<T> implements Serializable {
 
 	private transient CollationKey[] lenientKey;
 	private transient CollationKey[] strictKey;
+	private transient String collapsedName;
 
 	public IndexEntry(T object, String lenientName, String strictName) {
 		this.object = object;
@@ -44,6 +45,13 @@ class IndexEntry<T> implements Serializable {
 		return strictKey;
 	}
 
+	public String getCollapsedName() {
+		if (collapsedName == null && lenientName != null) {
+			collapsedName = NameIndex.collapse(lenientName);
+		}
+		return collapsedName;
+	}
+
 	@Override
 	public String toString() {
 		return strictName != null ? strictName : lenientName;
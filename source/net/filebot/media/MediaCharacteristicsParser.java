@@ -1,33 +1,72 @@
 package net.filebot.media;
 
+import static net.filebot.Logging.*;
 import static net.filebot.MediaTypes.*;
 import static net.filebot.util.FileUtilities.*;
 
 import java.io.File;
 
-import net.filebot.mediainfo.MediaInfo;
+import net.filebot.mediainfo.MediaInfoSnapshot;
 import net.filebot.util.SystemProperty;
 
 public enum MediaCharacteristicsParser {
 
+	/**
+	 * Get media characteristics from the persistent store, and read the file with libmediainfo only if necessary
+	 */
 	libmediainfo {
 
 		@Override
 		public MediaCharacteristics open(File f) throws Exception {
-			return new MediaInfo().open(f);
+			return new MediaInfoSnapshot(MediaCharacteristicsStore.getInstance().getMediaInfo(f));
 		}
 	},
 
+	/**
+	 * Get media characteristics from the persistent store, and read the file with ffprobe only if necessary
+	 */
 	ffprobe {
 
 		@Override
 		public MediaCharacteristics open(File f) throws Exception {
-			return new FFProbe().open(f);
+			return new FFProbe(MediaCharacteristicsStore.getInstance().getFFProbe(f));
+		}
+	},
+
+	/**
+	 * Read MKV and MP4 container headers on every call (not backed by the persistent store), and fall back to libmediainfo for everything else
+	 */
+	container {
+
+		@Override
+		public MediaCharacteristics open(File f) throws Exception {
+			// read MKV and MP4 headers directly and use libmediainfo for everything else
+			try {
+				return ContainerProbe.open(f);
+			} catch (Exception e) {
+				debug.finest(format("%s: %s", f.getName(), e.getMessage()));
+			}
+			return libmediainfo.open(f);
+		}
+
+		@Override
+		public void index(File f) throws Exception {
+			// container headers are not stored, so store libmediainfo characteristics instead
+			libmediainfo.index(f);
 		}
 	};
 
 	public abstract MediaCharacteristics open(File f) throws Exception;
 
+	/**
+	 * Read media characteristics into the persistent store (unmodified files that have been indexed before will not be read again)
+	 */
+	public void index(File f) throws Exception {
+		try (MediaCharacteristics mi = open(f)) {
+			// characteristics have been stored
+		}
+	}
+
 	public boolean acceptVideoFile(File f) {
 		return VIDEO_FILES.accept(f) && f.length() > ONE_MEGABYTE;
 	}
@@ -0,0 +1,257 @@
+package net.filebot.media;
+
+import static java.nio.charset.StandardCharsets.*;
+import static java.util.Collections.*;
+import static net.filebot.Logging.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import com.cedarsoftware.util.io.JsonReader;
+import com.cedarsoftware.util.io.JsonWriter;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import net.filebot.Cache;
+import net.filebot.CacheStats;
+import net.filebot.CacheType;
+import net.filebot.mediainfo.MediaInfo;
+import net.filebot.mediainfo.MediaInfo.StreamKind;
+import net.filebot.util.SystemProperty;
+
+/**
+ * Persistent store of media characteristics (i.e. {@link MediaInfo#snapshot()} or ffprobe output) keyed by file key (i.e. device and inode), size and last-modified time, so that unmodified files only need to be parsed once, even if they have been renamed or moved in the meantime. Records are stored in a compact binary encoding in a persistent cache with a fixed number of entries, and recently used records are kept in memory.
+ */
+public class MediaCharacteristicsStore {
+
+	public static final boolean ENABLED = SystemProperty.of("net.filebot.media.store", Boolean::parseBoolean, true).get();
+
+	// don't store huge records (e.g. embedded cover art)
+	public static final int MAX_RECORD_SIZE = 256 * 1024;
+
+	// records of previous versions are ignored (e.g. records without MediaInfo aliases)
+	private static final byte RECORD_VERSION = 2;
+
+	private static final MediaCharacteristicsStore instance = new MediaCharacteristicsStore(() -> Cache.getCache("media_characteristics", CacheType.Bounded), MediaInfo::snapshot);
+
+	public static MediaCharacteristicsStore getInstance() {
+		return instance;
+	}
+
+	private final com.github.benmanes.caffeine.cache.Cache<String, Object> memory = Caffeine.newBuilder().maximumSize(1000).softValues().build();
+
+	private final CacheStats stats = new CacheStats("media_characteristics");
+
+	private final Supplier<Cache> cache;
+	private final Parse<Map<StreamKind, List<Map<String, String>>>> mediaInfo;
+
+	MediaCharacteristicsStore(Supplier<Cache> cache, Parse<Map<StreamKind, List<Map<String, String>>>> mediaInfo) {
+		this.cache = cache;
+		this.mediaInfo = mediaInfo;
+	}
+
+	/**
+	 * Get {@link MediaInfo#snapshot()} of the given file, and read the file only if necessary
+	 */
+	public Map<StreamKind, List<Map<String, String>>> getMediaInfo(File file) throws Exception {
+		return computeIfAbsent(file, "mediainfo", f -> asImmutable(mediaInfo.apply(f)), MediaCharacteristicsStore::encodeMediaInfo, MediaCharacteristicsStore::decodeMediaInfo);
+	}
+
+	/**
+	 * Get ffprobe output of the given file, and read the file only if necessary
+	 */
+	public Map<String, Object> getFFProbe(File file) throws Exception {
+		return computeIfAbsent(file, "ffprobe", f -> new FFProbe().parse(f), MediaCharacteristicsStore::encodeJson, MediaCharacteristicsStore::decodeJson);
+	}
+
+	public CacheStats getStats() {
+		return stats;
+	}
+
+	private <T> T computeIfAbsent(File file, String type, Parse<T> parse, Encode<T> encode, Decode<T> decode) throws Exception {
+		if (!ENABLED) {
+			return parse.apply(file);
+		}
+
+		String key = getKey(file, type);
+
+		Object value = memory.getIfPresent(key);
+		if (value != null) {
+			stats.recordHit();
+			return (T) value;
+		}
+
+		byte[] record = (byte[]) cache.get().get(key);
+		if (record != null) {
+			try {
+				T object = decode.apply(record);
+				memory.put(key, object);
+				stats.recordHit();
+				return object;
+			} catch (Exception e) {
+				debug.warning(cause("Failed to decode record: " + file, e));
+			}
+		}
+
+		stats.recordMiss();
+
+		long start = System.nanoTime();
+		T object = parse.apply(file);
+		stats.recordLoad(System.nanoTime() - start);
+
+		// make sure that the file has not been modified while we were reading it
+		if (key.equals(getKey(file, type))) {
+			memory.put(key, object);
+
+			byte[] data = encode.apply(object);
+			if (data.length <= MAX_RECORD_SIZE) {
+				cache.get().put(key, data);
+			} else {
+				debug.finest(format("Record too large: %s (%,d bytes)", file, data.length));
+			}
+		}
+
+		return object;
+	}
+
+	private String getKey(File file, String type) throws IOException {
+		BasicFileAttributes attr = Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+		Object fileKey = attr.fileKey();
+
+		// file key is not available on all platforms (e.g. Windows)
+		return String.join("/", type, String.valueOf(RECORD_VERSION), fileKey == null ? file.getAbsolutePath() : fileKey.toString(), String.valueOf(attr.size()), String.valueOf(attr.lastModifiedTime().toMillis()));
+	}
+
+	private static Map<StreamKind, List<Map<String, String>>> asImmutable(Map<StreamKind, List<Map<String, String>>> snapshot) {
+		Map<StreamKind, List<Map<String, String>>> copy = new EnumMap<StreamKind, List<Map<String, String>>>(StreamKind.class);
+		snapshot.forEach((streamKind, streams) -> {
+			List<Map<String, String>> streamList = new ArrayList<Map<String, String>>(streams.size());
+			for (Map<String, String> stream : streams) {
+				streamList.add(unmodifiableMap(new LinkedHashMap<String, String>(stream)));
+			}
+			copy.put(streamKind, unmodifiableList(streamList));
+		});
+		return unmodifiableMap(copy);
+	}
+
+	/**
+	 * Record layout (deflated): {@code byte version, int streamKindCount, [byte streamKind, int streamCount, [int parameterCount, [string name, string value]]]}
+	 */
+	static byte[] encodeMediaInfo(Map<StreamKind, List<Map<String, String>>> snapshot) throws IOException {
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+
+		try (DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(buffer))) {
+			out.writeByte(RECORD_VERSION);
+			out.writeInt(snapshot.size());
+
+			for (Map.Entry<StreamKind, List<Map<String, String>>> it : snapshot.entrySet()) {
+				out.writeByte(it.getKey().ordinal());
+				out.writeInt(it.getValue().size());
+
+				for (Map<String, String> stream : it.getValue()) {
+					out.writeInt(stream.size());
+
+					for (Map.Entry<String, String> parameter : stream.entrySet()) {
+						writeString(out, parameter.getKey());
+						writeString(out, parameter.getValue());
+					}
+				}
+			}
+		}
+
+		return buffer.toByteArray();
+	}
+
+	static Map<StreamKind, List<Map<String, String>>> decodeMediaInfo(byte[] record) throws IOException {
+		Map<StreamKind, List<Map<String, String>>> snapshot = new EnumMap<StreamKind, List<Map<String, String>>>(StreamKind.class);
+
+		try (DataInputStream in = new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(record)))) {
+			if (in.readByte() != RECORD_VERSION) {
+				throw new IOException("Unsupported record version");
+			}
+
+			for (int i = 0, streamKindCount = in.readInt(); i < streamKindCount; i++) {
+				StreamKind streamKind = StreamKind.values()[in.readByte()];
+				int streamCount = in.readInt();
+				List<Map<String, String>> streams = new ArrayList<Map<String, String>>(streamCount);
+
+				for (int j = 0; j < streamCount; j++) {
+					int parameterCount = in.readInt();
+					Map<String, String> stream = new LinkedHashMap<String, String>(parameterCount * 2);
+
+					for (int k = 0; k < parameterCount; k++) {
+						stream.put(readString(in), readString(in));
+					}
+					streams.add(unmodifiableMap(stream));
+				}
+
+				snapshot.put(streamKind, unmodifiableList(streams));
+			}
+		}
+
+		return unmodifiableMap(snapshot);
+	}
+
+	private static byte[] encodeJson(Map<String, Object> json) throws IOException {
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+
+		try (DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(buffer))) {
+			out.writeByte(RECORD_VERSION);
+			writeString(out, JsonWriter.objectToJson(json, singletonMap(JsonWriter.TYPE, false)));
+		}
+
+		return buffer.toByteArray();
+	}
+
+	private static Map<String, Object> decodeJson(byte[] record) throws IOException {
+		try (DataInputStream in = new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(record)))) {
+			if (in.readByte() != RECORD_VERSION) {
+				throw new IOException("Unsupported record version");
+			}
+
+			return (Map) JsonReader.jsonToJava(readString(in), singletonMap(JsonReader.USE_MAPS, true));
+		}
+	}
+
+	private static void writeString(DataOutputStream out, String value) throws IOException {
+		// DataOutput.writeUTF() is limited to 64 KB
+		byte[] bytes = value.getBytes(UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	private static String readString(DataInputStream in) throws IOException {
+		byte[] bytes = new byte[in.readInt()];
+		in.readFully(bytes);
+		return new String(bytes, UTF_8);
+	}
+
+	@FunctionalInterface
+	interface Parse<T> {
+		T apply(File file) throws Exception;
+	}
+
+	@FunctionalInterface
+	private interface Encode<T> {
+		byte[] apply(T object) throws Exception;
+	}
+
+	@FunctionalInterface
+	private interface Decode<T> {
+		T apply(byte[] record) throws Exception;
+	}
+
+}
@@ -43,6 +43,9 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.IntStream;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
 import net.filebot.ApplicationFolder;
 import net.filebot.Language;
 import net.filebot.Resource;
@@ -50,6 +53,7 @@ import net.filebot.WebServices;
 import net.filebot.archive.Archive;
 import net.filebot.similarity.DateMatcher;
 import net.filebot.similarity.EpisodeMetrics;
+import net.filebot.similarity.Match;
 import net.filebot.similarity.MetricAvg;
 import net.filebot.similarity.NameSimilarityMetric;
 import net.filebot.similarity.NumericSimilarityMetric;
@@ -506,13 +510,25 @@ public class MediaDetection {
 		}, HighPerformanceMatcher::prepare, animeIndex);
 	}
 
+	// weak keys are compared by identity and do not keep caller supplied index lists alive
+	private static final Cache<List<?>, NameIndex<?>> nameIndexCache = Caffeine.newBuilder().weakKeys().build();
+
+	@SuppressWarnings("unchecked")
+	private static <T> NameIndex<T> getNameIndex(List<IndexEntry<T>> index) {
+		// index lists are only ever filled once, but may still be empty if loading failed previously
+		return (NameIndex<T>) nameIndexCache.asMap().compute(index, (k, v) -> {
+			return v == null || v.getEntries().size() != index.size() ? new NameIndex<T>(index) : v;
+		});
+	}
+
 	public static List<String> matchSeriesByName(Collection<String> files, int maxStartIndex, List<IndexEntry<SearchResult>> index) throws Exception {
 		HighPerformanceMatcher nameMatcher = new HighPerformanceMatcher(maxStartIndex);
+		NameIndex<SearchResult> nameIndex = getNameIndex(index);
 		List<String> matches = new ArrayList<String>();
 
 		for (CollationKey[] name : HighPerformanceMatcher.prepare(files)) {
 			IndexEntry<SearchResult> bestMatch = null;
-			for (IndexEntry<SearchResult> it : index) {
+			for (IndexEntry<SearchResult> it : nameIndex.getCandidates(singletonList(name), maxStartIndex)) {
 				CollationKey[] commonName = nameMatcher.matchFirstCommonSequence(new CollationKey[][] { name, it.getLenientKey() });
 				if (commonName != null && commonName.length >= it.getLenientKey().length && (bestMatch == null || commonName.length > bestMatch.getLenientKey().length)) {
 					bestMatch = it;
@@ -529,32 +545,30 @@ public class MediaDetection {
 		}).collect(toList());
 	}
 
-	public static List<SearchResult> matchSeriesFromStringWithoutSpacing(Collection<String> names, boolean strict, List<IndexEntry<SearchResult>> index) throws IOException {
-		// clear name of punctuation, spacing, and leading 'The' or 'A' that are common causes for word-lookup to fail
-		Pattern spacing = Pattern.compile("(^(?i)(The|A)\\b)|[\\p{Punct}\\p{Space}]+");
-
+	private static List<String> getCollapsedTerms(Collection<String> names) {
 		List<String> terms = new ArrayList<String>(names.size());
 		for (String it : names) {
-			String term = spacing.matcher(it).replaceAll("").toLowerCase();
+			String term = NameIndex.collapse(it);
 			if (term.length() >= 3) {
 				terms.add(term); // only consider words, not just random letters
 			}
 		}
+		return terms;
+	}
+
+	public static List<SearchResult> matchSeriesFromStringWithoutSpacing(Collection<String> names, boolean strict, List<IndexEntry<SearchResult>> index) throws IOException {
+		// clear name of punctuation, spacing, and leading 'The' or 'A' that are common causes for word-lookup to fail
+		List<String> terms = getCollapsedTerms(names);
 
 		// similarity threshold based on strict/non-strict
 		SimilarityMetric metric = new NameSimilarityMetric();
 		float similarityThreshold = strict ? 0.75f : 0.5f;
 
+		// only consider entries where the name is contained in one of the terms
 		List<SearchResult> seriesList = new ArrayList<SearchResult>();
-		for (IndexEntry<SearchResult> it : index) {
-			String name = spacing.matcher(it.getLenientName()).replaceAll("").toLowerCase();
-			for (String term : terms) {
-				if (term.contains(name)) {
-					if (metric.getSimilarity(term, name) >= similarityThreshold) {
-						seriesList.add(it.getObject());
-					}
-					break;
-				}
+		for (Match<IndexEntry<SearchResult>, String> it : getNameIndex(index).matchCollapsedNames(terms)) {
+			if (metric.getSimilarity(it.getCandidate(), it.getValue().getCollapsedName()) >= similarityThreshold) {
+				seriesList.add(it.getValue().getObject());
 			}
 		}
 		return seriesList;
@@ -876,13 +890,25 @@ public class MediaDetection {
 	}
 
 	public static List<Movie> matchMovieName(Collection<String> files, boolean strict, int maxStartIndex) {
+		return matchMovieName(files, strict, maxStartIndex, getMovieIndex());
+	}
+
+	static List<Movie> matchMovieName(Collection<String> files, boolean strict, int maxStartIndex, List<IndexEntry<Movie>> index) {
+		// only consider movies where the first word of the movie name occurs in the file / folder name
+		List<CollationKey[]> names = HighPerformanceMatcher.prepare(files);
+		return matchMovieName(names, strict, maxStartIndex, getNameIndex(index).getCandidates(names, maxStartIndex));
+	}
+
+	static List<Movie> matchMovieNameByFullIndexScan(Collection<String> files, boolean strict, int maxStartIndex) {
+		return matchMovieName(HighPerformanceMatcher.prepare(files), strict, maxStartIndex, getMovieIndex());
+	}
+
+	private static List<Movie> matchMovieName(List<CollationKey[]> names, boolean strict, int maxStartIndex, List<IndexEntry<Movie>> index) {
 		// cross-reference file / folder name with movie list
 		final HighPerformanceMatcher nameMatcher = new HighPerformanceMatcher(maxStartIndex);
 		final Map<Movie, String> matchMap = new HashMap<Movie, String>();
 
-		List<CollationKey[]> names = HighPerformanceMatcher.prepare(files);
-
-		for (IndexEntry<Movie> movie : getMovieIndex()) {
+		for (IndexEntry<Movie> movie : index) {
 			for (CollationKey[] name : names) {
 				CollationKey[] commonName = nameMatcher.matchFirstCommonSequence(new CollationKey[][] { name, movie.getLenientKey() });
 				if (commonName != null && commonName.length >= movie.getLenientKey().length) {
@@ -906,33 +932,22 @@ public class MediaDetection {
 
 	public static List<Movie> matchMovieFromStringWithoutSpacing(Collection<String> names, boolean strict) {
 		// clear name of punctuation, spacing, and leading 'The' or 'A' that are common causes for word-lookup to fail
-		Pattern spacing = Pattern.compile("(^(?i)(The|A)\\b)|[\\p{Punct}\\p{Space}]+");
-
-		List<String> terms = new ArrayList<String>(names.size());
-		for (String it : names) {
-			String term = spacing.matcher(it).replaceAll("").toLowerCase();
-			if (term.length() >= 3) {
-				terms.add(term); // only consider words, not just random letters
-			}
-		}
+		List<String> terms = getCollapsedTerms(names);
 
 		// similarity threshold based on strict/non-strict
 		SimilarityMetric metric = new NameSimilarityMetric();
 		float similarityThreshold = strict ? 0.9f : 0.5f;
 
+		// only consider entries where the name is contained in one of the terms
 		LinkedList<Movie> movies = new LinkedList<Movie>();
-		for (IndexEntry<Movie> it : getMovieIndex()) {
-			String name = spacing.matcher(it.getLenientName()).replaceAll("").toLowerCase();
-			for (String term : terms) {
-				if (term.contains(name)) {
-					String year = String.valueOf(it.getObject().getYear());
-					if (term.contains(year) && metric.getSimilarity(term, name + year) > similarityThreshold) {
-						movies.addFirst(it.getObject());
-					} else if (metric.getSimilarity(term, name) > similarityThreshold) {
-						movies.addLast(it.getObject());
-					}
-					break;
-				}
+		for (Match<IndexEntry<Movie>, String> it : getNameIndex(getMovieIndex()).matchCollapsedNames(terms)) {
+			String term = it.getCandidate();
+			String name = it.getValue().getCollapsedName();
+			String year = String.valueOf(it.getValue().getObject().getYear());
+			if (term.contains(year) && metric.getSimilarity(term, name + year) > similarityThreshold) {
+				movies.addFirst(it.getValue().getObject());
+			} else if (metric.getSimilarity(term, name) > similarityThreshold) {
+				movies.addLast(it.getValue().getObject());
 			}
 		}
 		return new ArrayList<Movie>(movies);
@@ -0,0 +1,125 @@
+package net.filebot.media;
+
+import java.text.CollationKey;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+
+import net.filebot.similarity.Match;
+import net.filebot.util.AhoCorasickMatcher;
+
+/**
+ * Precomputed lookup structures over a list of index entries. Instances are thread-safe and meant to be shared.
+ * <p>
+ * Word sequence lookups use an inverted index from the first word of each lenient name to the positions of the corresponding index entries. Lookups by name without spacing use an Aho-Corasick automaton over the collapsed names of all entries.
+ */
+class NameIndex<T> {
+
+	// clear name of punctuation, spacing, and leading 'The' or 'A' that are common causes for word-lookup to fail
+	private static final Pattern SPACING = Pattern.compile("(^(?i)(The|A)\\b)|[\\p{Punct}\\p{Space}]+");
+
+	public static String collapse(String name) {
+		return SPACING.matcher(name).replaceAll("").toLowerCase();
+	}
+
+	private final List<IndexEntry<T>> entries;
+	private final Map<CollationKey, int[]> postings;
+
+	private AhoCorasickMatcher collapsedNameMatcher;
+	private int[] emptyCollapsedNames;
+
+	public NameIndex(List<IndexEntry<T>> entries) {
+		this.entries = new ArrayList<IndexEntry<T>>(entries);
+		this.postings = createPostings(entries);
+	}
+
+	public List<IndexEntry<T>> getEntries() {
+		return entries;
+	}
+
+	public boolean isEmpty() {
+		return entries.isEmpty();
+	}
+
+	/**
+	 * Select all entries that may be matched by {@link HighPerformanceMatcher#matchFirstCommonSequence} with a common sequence covering the entire lenient key, i.e. entries where the first word of the lenient key occurs in one of the given names within the first {@code maxStartIndex} words
+	 */
+	public List<IndexEntry<T>> getCandidates(List<CollationKey[]> names, int maxStartIndex) {
+		BitSet positions = new BitSet(entries.size());
+
+		for (CollationKey[] name : names) {
+			for (int i = 0; i < name.length && i <= maxStartIndex; i++) {
+				int[] p = postings.get(name[i]);
+				if (p != null) {
+					for (int j : p) {
+						positions.set(j);
+					}
+				}
+			}
+		}
+
+		// preserve index order so that candidates are processed in the same order as with a full index scan
+		List<IndexEntry<T>> candidates = new ArrayList<IndexEntry<T>>(positions.cardinality());
+		for (int i = positions.nextSetBit(0); i >= 0; i = positions.nextSetBit(i + 1)) {
+			candidates.add(entries.get(i));
+		}
+		return candidates;
+	}
+
+	/**
+	 * Find all entries where the collapsed name is a substring of one of the given collapsed terms, and pair each entry with the first term that contains its name
+	 */
+	public List<Match<IndexEntry<T>, String>> matchCollapsedNames(List<String> terms) {
+		AhoCorasickMatcher matcher = getCollapsedNameMatcher();
+		TreeMap<Integer, Integer> firstTerm = new TreeMap<Integer, Integer>();
+
+		for (int i = 0; i < terms.size(); i++) {
+			Integer t = i;
+			matcher.match(terms.get(i), p -> firstTerm.putIfAbsent(p, t));
+		}
+
+		// the empty string is contained in any term
+		if (terms.size() > 0) {
+			for (int p : emptyCollapsedNames) {
+				firstTerm.putIfAbsent(p, 0);
+			}
+		}
+
+		List<Match<IndexEntry<T>, String>> matches = new ArrayList<Match<IndexEntry<T>, String>>(firstTerm.size());
+		firstTerm.forEach((p, t) -> matches.add(new Match<IndexEntry<T>, String>(entries.get(p), terms.get(t))));
+		return matches;
+	}
+
+	private synchronized AhoCorasickMatcher getCollapsedNameMatcher() {
+		if (collapsedNameMatcher == null) {
+			List<String> names = new ArrayList<String>(entries.size());
+			for (IndexEntry<T> it : entries) {
+				names.add(it.getCollapsedName());
+			}
+
+			emptyCollapsedNames = IntStream.range(0, names.size()).filter(i -> names.get(i) != null && names.get(i).isEmpty()).toArray();
+			collapsedNameMatcher = new AhoCorasickMatcher(names);
+		}
+		return collapsedNameMatcher;
+	}
+
+	private static <T> Map<CollationKey, int[]> createPostings(List<IndexEntry<T>> entries) {
+		Map<CollationKey, List<Integer>> positions = new HashMap<CollationKey, List<Integer>>(entries.size());
+		for (int i = 0; i < entries.size(); i++) {
+			CollationKey[] key = entries.get(i).getLenientKey();
+			if (key != null && key.length > 0) {
+				positions.computeIfAbsent(key[0], k -> new ArrayList<Integer>(1)).add(i);
+			}
+		}
+
+		Map<CollationKey, int[]> postings = new HashMap<CollationKey, int[]>(positions.size());
+		positions.forEach((k, p) -> postings.put(k, p.stream().mapToInt(Integer::intValue).toArray()));
+		return postings;
+	}
+
+}
@@ -44,6 +44,7 @@ import net.filebot.CacheType;
 import net.filebot.Resource;
 import net.filebot.util.FileUtilities.RegexFindFilter;
 import net.filebot.util.FileUtilities.RegexMatchFilter;
+import net.filebot.util.StringUtilities;
 import net.filebot.web.AnimeLists;
 import net.filebot.web.Movie;
 import net.filebot.web.SearchResult;
@@ -154,28 +155,32 @@ public class ReleaseInfo {
 	}
 
 	// cached patterns
-	private final Pattern[][] stopwords = new Pattern[2][];
-	private final Pattern[][] blacklist = new Pattern[2][];
+	private final TokenPattern[][] stopwords = new TokenPattern[2][];
+	private final TokenPattern[][] blacklist = new TokenPattern[2][];
 
 	public List<String> cleanRelease(Collection<String> items, boolean strict) throws Exception {
 		int b = strict ? 1 : 0;
 
 		// initialize cached patterns
 		if (stopwords[b] == null || blacklist[b] == null) {
-			Pattern clutterBracket = getClutterBracketPattern(strict);
-			Pattern releaseGroup = getReleaseGroupPattern(strict);
-			Pattern releaseGroupTrim = getReleaseGroupTrimPattern();
-			Pattern languageSuffix = getSubtitleLanguageTagPattern();
-			Pattern languageTag = getLanguageTagPattern(strict);
-			Pattern videoSource = getVideoSourcePattern();
-			Pattern videoTags = getVideoTagPattern();
-			Pattern videoFormat = getVideoFormatPattern(strict);
-			Pattern stereoscopic3d = getStereoscopic3DPattern();
-			Pattern resolution = getResolutionPattern();
-			Pattern queryBlacklist = getBlacklistPattern();
-
-			stopwords[b] = new Pattern[] { languageSuffix, languageTag, videoSource, videoTags, videoFormat, resolution, stereoscopic3d };
-			blacklist[b] = new Pattern[] { EMBEDDED_CHECKSUM, languageSuffix, releaseGroupTrim, queryBlacklist, languageTag, clutterBracket, releaseGroup, videoSource, videoTags, videoFormat, resolution, stereoscopic3d };
+			// large alternations of words are only compiled with the words that actually occur in the given input
+			TokenPattern releaseGroup = new TokenPattern(sortedTerms(this.releaseGroup.get()), strict, groups -> compileReleaseGroupPattern(groups, strict));
+			TokenPattern releaseGroupTrim = new TokenPattern(sortedTerms(this.releaseGroup.get()), false, this::compileReleaseGroupTrimPattern);
+			TokenPattern languageSuffix = new TokenPattern(sortedTerms(quoteAll(getDefaultLanguageMap().keySet())), false, this::compileSubtitleLanguageTagPattern);
+			TokenPattern languageTag = new TokenPattern(sortedTerms(getLanguageTags(strict)), !strict, tags -> compileLanguageTagPattern(tags, strict));
+			TokenPattern videoSource = new TokenPattern(TokenPattern.split(getProperty("pattern.video.source")), false, this::compileWordPattern);
+			TokenPattern videoTags = new TokenPattern(TokenPattern.split(getProperty("pattern.video.tags")), false, this::compileWordPattern);
+			TokenPattern queryBlacklist = new TokenPattern(sortedTerms(this.queryBlacklist.get()), false, this::compileWordPattern);
+
+			// structural patterns
+			TokenPattern clutterBracket = TokenPattern.of(getClutterBracketPattern(strict));
+			TokenPattern videoFormat = TokenPattern.of(getVideoFormatPattern(strict));
+			TokenPattern stereoscopic3d = TokenPattern.of(getStereoscopic3DPattern());
+			TokenPattern resolution = TokenPattern.of(getResolutionPattern());
+			TokenPattern checksum = TokenPattern.of(EMBEDDED_CHECKSUM);
+
+			stopwords[b] = new TokenPattern[] { languageSuffix, languageTag, videoSource, videoTags, videoFormat, resolution, stereoscopic3d };
+			blacklist[b] = new TokenPattern[] { checksum, languageSuffix, releaseGroupTrim, queryBlacklist, languageTag, clutterBracket, releaseGroup, videoSource, videoTags, videoFormat, resolution, stereoscopic3d };
 		}
 
 		return items.stream().map(it -> {
@@ -186,19 +191,44 @@ public class ReleaseInfo {
 	}
 
 	public String clean(String item, Pattern... blacklisted) {
-		for (Pattern it : blacklisted) {
-			item = it.matcher(item).replaceAll("");
+		return clean(item, stream(blacklisted).map(TokenPattern::of).toArray(TokenPattern[]::new));
+	}
+
+	public String substringBefore(String item, Pattern... stopwords) {
+		return substringBefore(item, stream(stopwords).map(TokenPattern::of).toArray(TokenPattern[]::new));
+	}
+
+	private String clean(String item, TokenPattern... blacklisted) {
+		String[] words = TokenPattern.getWords(item);
+
+		for (TokenPattern it : blacklisted) {
+			Pattern pattern = it.getPattern(words);
+			if (pattern != null) {
+				String value = pattern.matcher(item).replaceAll("");
+				if (value.length() != item.length()) {
+					item = value;
+					words = TokenPattern.getWords(item);
+				}
+			}
 		}
 		return item;
 	}
 
-	public String substringBefore(String item, Pattern... stopwords) {
-		for (Pattern it : stopwords) {
-			Matcher matcher = it.matcher(item);
+	private String substringBefore(String item, TokenPattern... stopwords) {
+		String[] words = TokenPattern.getWords(item);
+
+		for (TokenPattern it : stopwords) {
+			Pattern pattern = it.getPattern(words);
+			if (pattern == null) {
+				continue;
+			}
+
+			Matcher matcher = pattern.matcher(item);
 			if (matcher.find()) {
 				String substring = item.substring(0, matcher.start()); // use substring before the matched stopword
 				if (normalizePunctuation(substring).length() >= 3) {
 					item = substring; // make sure that the substring has enough data
+					words = TokenPattern.getWords(item);
 				}
 			}
 		}
@@ -272,14 +302,25 @@ public class ReleaseInfo {
 	}
 
 	public Pattern getLanguageTagPattern(boolean strict) {
+		return compileLanguageTagPattern(or(getLanguageTags(strict)), strict);
+	}
+
+	private String[] getLanguageTags(boolean strict) {
 		// [en]
 		if (strict) {
-			return compile("(?<=[-\\[\\{\\(])" + or(quoteAll(getDefaultLanguageMap().keySet())) + "(?=[-\\]\\}\\)]|$)", CASE_INSENSITIVE);
+			return quoteAll(getDefaultLanguageMap().keySet());
 		}
 
 		// FR
 		List<String> allCapsLanguageTags = getDefaultLanguageMap().keySet().stream().map(String::toUpperCase).collect(toList());
-		return compile("(?<!\\p{Alnum})" + or(quoteAll(allCapsLanguageTags)) + "(?!\\p{Alnum})");
+		return quoteAll(allCapsLanguageTags);
+	}
+
+	private Pattern compileLanguageTagPattern(String tags, boolean strict) {
+		if (strict) {
+			return compile("(?<=[-\\[\\{\\(])" + tags + "(?=[-\\]\\}\\)]|$)", CASE_INSENSITIVE);
+		}
+		return compile("(?<!\\p{Alnum})" + tags + "(?!\\p{Alnum})");
 	}
 
 	public Pattern getSubtitleCategoryTagPattern() {
@@ -288,8 +329,12 @@ public class ReleaseInfo {
 	}
 
 	public Pattern getSubtitleLanguageTagPattern() {
+		return compileSubtitleLanguageTagPattern(or(quoteAll(getDefaultLanguageMap().keySet())));
+	}
+
+	private Pattern compileSubtitleLanguageTagPattern(String languages) {
 		// e.g. ".en.srt" or ".en.forced.srt"
-		return compile("(?<=[._-])" + or(quoteAll(getDefaultLanguageMap().keySet())) + "(?=([._-]" + or(getSubtitleCategoryTags()) + ")?$)", CASE_INSENSITIVE);
+		return compile("(?<=[._-])" + languages + "(?=([._-]" + or(getSubtitleCategoryTags()) + ")?$)", CASE_INSENSITIVE);
 	}
 
 	public Pattern getResolutionPattern() {
@@ -337,8 +382,12 @@ public class ReleaseInfo {
 	}
 
 	public Pattern getReleaseGroupPattern(boolean strict) throws Exception {
+		return compileReleaseGroupPattern(or(releaseGroup.get()), strict);
+	}
+
+	private Pattern compileReleaseGroupPattern(String groups, boolean strict) {
 		// match 1..N group patterns (e.g. GROUP[INDEX])
-		String group = "((?<!\\p{Alnum})" + or(releaseGroup.get()) + "(?!\\p{Alnum})[\\p{Punct}]??)+";
+		String group = "((?<!\\p{Alnum})" + groups + "(?!\\p{Alnum})[\\p{Punct}]??)+";
 
 		// group pattern at beginning or ending of the string
 		String[] groupHeadTail = { "(?<=^[\\P{Alnum}]*)" + group, group + "(?=[\\P{Alnum}]*$)" };
@@ -347,8 +396,12 @@ public class ReleaseInfo {
 	}
 
 	public Pattern getReleaseGroupTrimPattern() throws Exception {
+		return compileReleaseGroupTrimPattern(or(releaseGroup.get()));
+	}
+
+	private Pattern compileReleaseGroupTrimPattern(String groups) {
 		// pattern matching any release group name enclosed in specific separators or at the start/end
-		return compile("(?<=\\[|\\(|^)" + or(releaseGroup.get()) + "(?=\\]|\\)|\\-)|(?<=\\[|\\(|\\-)" + or(releaseGroup.get()) + "(?=\\]|\\)|$)", CASE_INSENSITIVE);
+		return compile("(?<=\\[|\\(|^)" + groups + "(?=\\]|\\)|\\-)|(?<=\\[|\\(|\\-)" + groups + "(?=\\]|\\)|$)", CASE_INSENSITIVE);
 	}
 
 	public Pattern getBlacklistPattern() throws Exception {
@@ -572,6 +625,10 @@ public class ReleaseInfo {
 		return join(stream(terms).sorted(reverseOrder()), "|", "(", ")"); // non-capturing group that matches the longest occurrence
 	}
 
+	private String[] sortedTerms(Object[] terms) {
+		return stream(terms).sorted(reverseOrder()).map(StringUtilities::asNonEmptyString).filter(Objects::nonNull).toArray(String[]::new); // same terms in the same order as or(terms)
+	}
+
 	private String[] quoteAll(Collection<String> values) {
 		return values.stream().map((s) -> Pattern.quote(s)).toArray(String[]::new);
 	}
@@ -0,0 +1,149 @@
+package net.filebot.media;
+
+import static java.util.Arrays.*;
+import static java.util.stream.Collectors.*;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Pattern with a large alternation of terms (e.g. release group names) that is narrowed down to the terms that can possibly match a given input.
+ * <p>
+ * Terms that are plain ASCII words can only ever match a whole word of the input (the surrounding pattern must not allow a term to start or end in the middle of a word), so they are looked up by word in a hash map. Only the word terms that occur in the input and all other terms are compiled into the alternation, in their original order, which yields exactly the same matches as the complete alternation.
+ */
+class TokenPattern {
+
+	private static final Pattern WORD_TERM = Pattern.compile("\\p{Alnum}+|\\\\Q\\p{Alnum}+\\\\E");
+
+	private final String[] terms;
+	private final boolean caseSensitive;
+	private final Function<String, Pattern> compile;
+
+	private final Map<String, BitSet> words = new HashMap<String, BitSet>();
+	private final BitSet patterns = new BitSet();
+
+	private final Cache<BitSet, Pattern> cache = Caffeine.newBuilder().maximumSize(1000).build();
+
+	public TokenPattern(String[] terms, boolean caseSensitive, Function<String, Pattern> compile) {
+		this.terms = terms;
+		this.caseSensitive = caseSensitive;
+		this.compile = compile;
+
+		for (int i = 0; i < terms.length; i++) {
+			if (WORD_TERM.matcher(terms[i]).matches()) {
+				words.computeIfAbsent(getKey(terms[i].replace("\\Q", "").replace("\\E", "")), k -> new BitSet()).set(i);
+			} else {
+				patterns.set(i);
+			}
+		}
+	}
+
+	/**
+	 * @return pattern that matches exactly like the complete pattern for the given input words, or null if the pattern cannot match at all
+	 */
+	public Pattern getPattern(String[] input) {
+		BitSet selection = (BitSet) patterns.clone();
+
+		for (String word : input) {
+			BitSet match = words.get(getKey(word));
+			if (match != null) {
+				selection.or(match);
+			}
+		}
+
+		if (selection.isEmpty()) {
+			return null;
+		}
+
+		return cache.get(selection, s -> compile.apply(s.stream().mapToObj(i -> terms[i]).collect(joining("|", "(", ")"))));
+	}
+
+	public Pattern getPattern() {
+		return compile.apply(stream(terms).collect(joining("|", "(", ")")));
+	}
+
+	private String getKey(String word) {
+		// CASE_INSENSITIVE without UNICODE_CASE only ignores the case of US-ASCII characters
+		return caseSensitive ? word : word.toLowerCase(Locale.ROOT);
+	}
+
+	public static TokenPattern of(Pattern pattern) {
+		return new TokenPattern(new String[] { pattern.pattern() }, true, s -> pattern) {
+
+			@Override
+			public Pattern getPattern(String[] input) {
+				return pattern;
+			}
+		};
+	}
+
+	/**
+	 * Split input into words of US-ASCII letters and digits (i.e. \p{Alnum} without UNICODE_CHARACTER_CLASS)
+	 */
+	public static String[] getWords(CharSequence s) {
+		List<String> words = new ArrayList<String>();
+
+		for (int i = 0, start = -1; i <= s.length(); i++) {
+			if (i < s.length() && isWordCharacter(s.charAt(i))) {
+				if (start < 0) {
+					start = i;
+				}
+			} else if (start >= 0) {
+				words.add(s.subSequence(start, i).toString());
+				start = -1;
+			}
+		}
+
+		return words.toArray(new String[0]);
+	}
+
+	private static boolean isWordCharacter(char c) {
+		return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9');
+	}
+
+	/**
+	 * Split a regular expression into its top-level alternatives
+	 */
+	public static String[] split(String regex) {
+		List<String> terms = new ArrayList<String>();
+
+		int depth = 0;
+		int start = 0;
+		boolean escape = false;
+		boolean characterClass = false;
+
+		for (int i = 0; i < regex.length(); i++) {
+			char c = regex.charAt(i);
+
+			if (escape) {
+				escape = false;
+			} else if (c == '\\') {
+				escape = true;
+			} else if (characterClass) {
+				characterClass = c != ']';
+			} else if (c == '[') {
+				characterClass = true;
+			} else if (c == '(') {
+				depth++;
+			} else if (c == ')') {
+				depth--;
+			} else if (c == '|' && depth == 0) {
+				terms.add(regex.substring(start, i));
+				start = i + 1;
+			}
+		}
+
+		terms.add(regex.substring(start));
+		return terms.toArray(new String[0]);
+	}
+
+}
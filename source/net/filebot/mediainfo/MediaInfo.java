@@ -9,15 +9,15 @@ import java.io.File;
 import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.lang.ref.Cleaner;
-import java.time.Duration;
-import java.time.Instant;
-import java.time.ZonedDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.EnumMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.stream.Stream;
 
 import com.sun.jna.Platform;
@@ -25,9 +25,13 @@ import com.sun.jna.Pointer;
 import com.sun.jna.WString;
 
 import net.filebot.media.ImageMetadata;
-import net.filebot.media.MediaCharacteristics;
 
-public class MediaInfo implements MediaCharacteristics {
+public class MediaInfo implements MediaInfoCharacteristics {
+
+	/**
+	 * Parameter names that are not listed by {@link #parameterCount(StreamKind, int)} but used by format bindings
+	 */
+	public static final String[] ALIASES = { "Encoded_Library_Name", "Encoded_Library/Name", "CodecID/Hint", "Codec/Extensions", "Codec_Profile", "Channel(s)_Original", "ChannelPositions/String2" };
 
 	private Pointer handle;
 	private Cleaner.Cleanable cleanable;
@@ -142,71 +146,6 @@ public class MediaInfo implements MediaCharacteristics {
 		return MediaInfoLibrary.INSTANCE.Count_Get(handle, streamKind.ordinal(), streamNumber);
 	}
 
-	@Override
-	public String getVideoCodec() {
-		return get(StreamKind.General, 0, "Video_Codec_List");
-	}
-
-	@Override
-	public String getAudioCodec() {
-		return get(StreamKind.General, 0, "Audio_Codec_List");
-	}
-
-	@Override
-	public String getAudioLanguage() {
-		return get(StreamKind.General, 0, "Audio_Language_List");
-	}
-
-	@Override
-	public String getSubtitleCodec() {
-		return get(StreamKind.General, 0, "Text_Codec_List");
-	}
-
-	@Override
-	public String getSubtitleLanguage() {
-		return get(StreamKind.General, 0, "Text_Language_List");
-	}
-
-	@Override
-	public Duration getDuration() {
-		long d = (long) Double.parseDouble(get(StreamKind.General, 0, "Duration"));
-		return Duration.ofMillis(d);
-	}
-
-	@Override
-	public Integer getWidth() {
-		return Integer.parseInt(get(StreamKind.Video, 0, "Width"));
-	}
-
-	@Override
-	public Integer getHeight() {
-		return Integer.parseInt(get(StreamKind.Video, 0, "Height"));
-	}
-
-	public Double getBitRate() {
-		return Double.parseDouble(get(StreamKind.General, 0, "OverallBitRate"));
-	}
-
-	@Override
-	public Float getFrameRate() {
-		return Float.parseFloat(get(StreamKind.Video, 0, "FrameRate"));
-	}
-
-	@Override
-	public String getTitle() {
-		return get(StreamKind.General, 0, "Title");
-	}
-
-	@Override
-	public Instant getCreationTime() {
-		String d = get(StreamKind.General, 0, "Encoded_Date");
-		if (d.isEmpty()) {
-			return null;
-		}
-		// e.g. UTC 2008-01-08 19:54:39
-		return ZonedDateTime.parse(d, DateTimeFormatter.ofPattern("zzz uuuu-MM-dd HH:mm:ss")).toInstant();
-	}
-
 	public Map<StreamKind, List<Map<String, String>>> snapshot() {
 		Map<StreamKind, List<Map<String, String>>> mediaInfo = new EnumMap<StreamKind, List<Map<String, String>>>(StreamKind.class);
 
@@ -229,12 +168,27 @@ public class MediaInfo implements MediaCharacteristics {
 
 	public Map<String, String> snapshot(StreamKind streamKind, int streamNumber) {
 		Map<String, String> streamInfo = new LinkedHashMap<String, String>();
+		Set<String> names = new HashSet<String>();
 
 		for (int i = 0, count = parameterCount(streamKind, streamNumber); i < count; i++) {
-			String value = get(streamKind, streamNumber, i, InfoKind.Text);
+			String name = get(streamKind, streamNumber, i, InfoKind.Name);
 
-			if (value.length() > 0) {
-				streamInfo.put(get(streamKind, streamNumber, i, InfoKind.Name), value);
+			// same as get(StreamKind, int, String) the first parameter wins if there are multiple parameters with the same name
+			if (names.add(name)) {
+				String value = get(streamKind, streamNumber, i, InfoKind.Text);
+				if (value.length() > 0) {
+					streamInfo.put(name, value);
+				}
+			}
+		}
+
+		// resolve aliases eagerly so that snapshots can be used without the native handle
+		for (String alias : ALIASES) {
+			if (names.add(alias)) {
+				String value = get(streamKind, streamNumber, alias);
+				if (value.length() > 0) {
+					streamInfo.put(alias, value);
+				}
 			}
 		}
 
@@ -245,7 +199,7 @@ public class MediaInfo implements MediaCharacteristics {
 				Map<String, String> values = new ImageMetadata(new File(path)).snapshot(t -> {
 					return Stream.of(t.getDirectoryName(), t.getTagName()).flatMap(NON_WORD::splitAsStream).distinct().collect(joining("_"));
 				});
-				streamInfo.putAll(values);
+				values.forEach(streamInfo::putIfAbsent);
 			} catch (Throwable e) {
 				debug.warning(format("%s: %s", e, path));
 			}
@@ -336,11 +290,32 @@ public class MediaInfo implements MediaCharacteristics {
 	}
 
 	public static Map<StreamKind, List<Map<String, String>>> snapshot(File file) throws IOException {
-		try (MediaInfo mi = new MediaInfo().open(file)) {
-			return mi.snapshot();
+		// reuse idle handles so that reading many files does not require a new native handle for each file
+		MediaInfo mi = pool.poll();
+		if (mi == null) {
+			mi = new MediaInfo();
+		}
+
+		try {
+			Map<StreamKind, List<Map<String, String>>> snapshot = mi.open(file).snapshot();
+			mi.release();
+
+			if (!pool.offer(mi)) {
+				mi.close();
+			}
+			return snapshot;
+		} catch (Throwable e) {
+			mi.close();
+			throw e;
 		}
 	}
 
+	private synchronized void release() {
+		MediaInfoLibrary.INSTANCE.Close(handle);
+	}
+
+	private static final BlockingQueue<MediaInfo> pool = new ArrayBlockingQueue<MediaInfo>(Runtime.getRuntime().availableProcessors());
+
 	/**
 	 * Use {@link Cleaner} instead of Object.finalize()
 	 */
@@ -0,0 +1,84 @@
+package net.filebot.mediainfo;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+
+import net.filebot.media.MediaCharacteristics;
+import net.filebot.mediainfo.MediaInfo.StreamKind;
+
+/**
+ * {@link MediaCharacteristics} based on MediaInfo stream parameters, i.e. the same values for a live {@link MediaInfo} instance and for a {@link MediaInfoSnapshot}
+ */
+public interface MediaInfoCharacteristics extends MediaCharacteristics {
+
+	String get(StreamKind streamKind, int streamNumber, String parameter);
+
+	@Override
+	default String getVideoCodec() {
+		return get(StreamKind.General, 0, "Video_Codec_List");
+	}
+
+	@Override
+	default String getAudioCodec() {
+		return get(StreamKind.General, 0, "Audio_Codec_List");
+	}
+
+	@Override
+	default String getAudioLanguage() {
+		return get(StreamKind.General, 0, "Audio_Language_List");
+	}
+
+	@Override
+	default String getSubtitleCodec() {
+		return get(StreamKind.General, 0, "Text_Codec_List");
+	}
+
+	@Override
+	default String getSubtitleLanguage() {
+		return get(StreamKind.General, 0, "Text_Language_List");
+	}
+
+	@Override
+	default Duration getDuration() {
+		long d = (long) Double.parseDouble(get(StreamKind.General, 0, "Duration"));
+		return Duration.ofMillis(d);
+	}
+
+	@Override
+	default Integer getWidth() {
+		return Integer.parseInt(get(StreamKind.Video, 0, "Width"));
+	}
+
+	@Override
+	default Integer getHeight() {
+		return Integer.parseInt(get(StreamKind.Video, 0, "Height"));
+	}
+
+	@Override
+	default Double getBitRate() {
+		return Double.parseDouble(get(StreamKind.General, 0, "OverallBitRate"));
+	}
+
+	@Override
+	default Float getFrameRate() {
+		return Float.parseFloat(get(StreamKind.Video, 0, "FrameRate"));
+	}
+
+	@Override
+	default String getTitle() {
+		return get(StreamKind.General, 0, "Title");
+	}
+
+	@Override
+	default Instant getCreationTime() {
+		String d = get(StreamKind.General, 0, "Encoded_Date");
+		if (d.isEmpty()) {
+			return null;
+		}
+		// e.g. UTC 2008-01-08 19:54:39
+		return ZonedDateTime.parse(d, DateTimeFormatter.ofPattern("zzz uuuu-MM-dd HH:mm:ss")).toInstant();
+	}
+
+}
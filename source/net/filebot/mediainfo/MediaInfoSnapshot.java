@@ -0,0 +1,63 @@
+package net.filebot.mediainfo;
+
+import static java.util.Collections.*;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import net.filebot.mediainfo.MediaInfo.StreamKind;
+
+/**
+ * Immutable copy of all stream parameters of an open {@link MediaInfo} instance, so that parameters can be read concurrently without any further native calls. Parameters that are only accessible by alias (e.g. deprecated parameter names) are resolved eagerly by {@link MediaInfo#snapshot()}, so the {@link MediaInfo} instance is not needed anymore and can be closed right away.
+ * <p>
+ * Snapshots can also be restored from a previously stored {@link MediaInfo#snapshot()} without opening the file at all.
+ */
+public class MediaInfoSnapshot implements MediaInfoCharacteristics {
+
+	private final Map<StreamKind, List<Map<String, String>>> parameters = new EnumMap<StreamKind, List<Map<String, String>>>(StreamKind.class);
+
+	private final Map<StreamKind, List<Map<String, String>>> snapshot;
+
+	public MediaInfoSnapshot(MediaInfo mediaInfo) {
+		this(mediaInfo.snapshot());
+	}
+
+	public MediaInfoSnapshot(Map<StreamKind, List<Map<String, String>>> snapshot) {
+		for (StreamKind streamKind : StreamKind.values()) {
+			parameters.put(streamKind, snapshot.getOrDefault(streamKind, emptyList()));
+		}
+
+		this.snapshot = unmodifiableMap(snapshot);
+	}
+
+	public int streamCount(StreamKind streamKind) {
+		return parameters.get(streamKind).size();
+	}
+
+	/**
+	 * Same as {@link MediaInfo#get(StreamKind, int, String)}
+	 */
+	@Override
+	public String get(StreamKind streamKind, int streamNumber, String parameter) {
+		List<Map<String, String>> streams = parameters.get(streamKind);
+		if (streamNumber < 0 || streamNumber >= streams.size()) {
+			return "";
+		}
+
+		return streams.get(streamNumber).getOrDefault(parameter, "");
+	}
+
+	/**
+	 * Same as {@link MediaInfo#snapshot()}
+	 */
+	public Map<StreamKind, List<Map<String, String>>> snapshot() {
+		return snapshot;
+	}
+
+	@Override
+	public void close() {
+		// nothing to release
+	}
+
+}
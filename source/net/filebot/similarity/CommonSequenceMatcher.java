@@ -1,14 +1,13 @@
 package net.filebot.similarity;
 
 import static java.util.Arrays.*;
-import static java.util.Collections.*;
 import static net.filebot.util.RegularExpressions.*;
 
 import java.text.CollationKey;
 import java.text.Collator;
-import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class CommonSequenceMatcher {
 
@@ -81,7 +80,7 @@ public class CommonSequenceMatcher {
 		return getCollationKeys(SPACE.split(sequence));
 	}
 
-	private final Map<String, CollationKey> collationKeyDictionary = synchronizedMap(new HashMap<String, CollationKey>(64, 4));
+	private final Map<String, CollationKey> collationKeyDictionary = new ConcurrentHashMap<String, CollationKey>(64, 4);
 
 	protected CollationKey[] getCollationKeys(String[] words) {
 		return stream(words).map(w -> {
@@ -0,0 +1,118 @@
+package net.filebot.similarity;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import net.filebot.similarity.SeasonEpisodeMatcher.SxE;
+import net.filebot.web.Episode;
+import net.filebot.web.SimpleDate;
+
+/**
+ * Index candidate episodes by SxE, episode / special / absolute number and airdate, so that a file is only paired with episodes that could plausibly match its numbers
+ */
+class EpisodeCandidateIndex<C> {
+
+	private final List<C> candidates;
+
+	// candidates that are not episodes (or episodes without any numbers) are always plausible
+	private final BitSet unindexed = new BitSet();
+
+	private final Map<SxE, BitSet> bySeasonEpisode = new HashMap<SxE, BitSet>();
+	private final Map<Integer, BitSet> byNumber = new HashMap<Integer, BitSet>();
+	private final Map<Integer, BitSet> bySeasonlessNumber = new HashMap<Integer, BitSet>();
+	private final Map<Integer, BitSet> byAbsolute = new HashMap<Integer, BitSet>();
+	private final Map<SimpleDate, BitSet> byAirdate = new HashMap<SimpleDate, BitSet>();
+
+	public EpisodeCandidateIndex(List<C> candidates) {
+		this.candidates = candidates;
+
+		for (int i = 0; i < candidates.size(); i++) {
+			C c = candidates.get(i);
+			if (c instanceof Episode) {
+				Episode e = (Episode) c;
+				boolean indexed = false;
+
+				if (e.getEpisode() != null) {
+					if (e.getSeason() != null) {
+						put(bySeasonEpisode, new SxE(e.getSeason(), e.getEpisode()), i);
+					} else {
+						put(bySeasonlessNumber, e.getEpisode(), i);
+					}
+					put(byNumber, e.getEpisode(), i);
+					indexed = true;
+				}
+				if (e.getSpecial() != null) {
+					put(bySeasonEpisode, new SxE(0, e.getSpecial()), i);
+					put(byNumber, e.getSpecial(), i);
+					indexed = true;
+				}
+				if (e.getAbsolute() != null) {
+					put(byNumber, e.getAbsolute(), i);
+					put(byAbsolute, e.getAbsolute(), i);
+					indexed = true;
+				}
+				if (e.getAirdate() != null) {
+					put(byAirdate, e.getAirdate(), i);
+					indexed = true;
+				}
+
+				if (!indexed) {
+					unindexed.set(i);
+				}
+			} else {
+				unindexed.set(i);
+			}
+		}
+	}
+
+	private static <K> void put(Map<K, BitSet> index, K key, int i) {
+		index.computeIfAbsent(key, k -> new BitSet()).set(i);
+	}
+
+	/**
+	 * Select plausible candidates in candidate order, or all candidates if the given numbers and airdate do not narrow down the candidate set
+	 */
+	public List<C> getCandidates(Collection<SxE> numbers, SimpleDate airdate) {
+		BitSet positions = new BitSet(candidates.size());
+
+		if (numbers != null) {
+			for (SxE it : numbers) {
+				if (it.season >= 0) {
+					or(positions, bySeasonEpisode.get(it));
+					or(positions, bySeasonlessNumber.get(it.episode));
+					or(positions, byAbsolute.get(it.episode)); // e.g. anime with absolute numbers in SxE patterns
+				} else {
+					or(positions, byNumber.get(it.episode));
+				}
+			}
+		}
+
+		if (airdate != null) {
+			or(positions, byAirdate.get(airdate));
+		}
+
+		// fall back to full cross product if we can't narrow down anything
+		if (positions.isEmpty()) {
+			return candidates;
+		}
+
+		positions.or(unindexed);
+
+		List<C> plausible = new ArrayList<C>(positions.cardinality());
+		for (int i = positions.nextSetBit(0); i >= 0; i = positions.nextSetBit(i + 1)) {
+			plausible.add(candidates.get(i));
+		}
+		return plausible;
+	}
+
+	private static void or(BitSet positions, BitSet other) {
+		if (other != null) {
+			positions.or(other);
+		}
+	}
+
+}
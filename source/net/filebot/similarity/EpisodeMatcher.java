@@ -2,12 +2,13 @@ package net.filebot.similarity;
 
 import static java.util.Arrays.*;
 import static java.util.Collections.*;
+import static net.filebot.media.MediaDetection.*;
+import static net.filebot.media.XattrMetaInfo.*;
 import static net.filebot.web.EpisodeUtilities.*;
 
 import java.io.File;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.IdentityHashMap;
 import java.util.List;
@@ -15,30 +16,78 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
 import net.filebot.media.SmartSeasonEpisodeMatcher;
 import net.filebot.similarity.SeasonEpisodeMatcher.SxE;
+import net.filebot.util.SystemProperty;
 import net.filebot.web.Episode;
 import net.filebot.web.MultiEpisode;
 
 public class EpisodeMatcher extends Matcher<File, Object> {
 
+	public static final boolean PARALLEL = SystemProperty.of("net.filebot.similarity.parallel", Boolean::parseBoolean, false).get();
+	public static final boolean BLOCKING = SystemProperty.of("net.filebot.similarity.blocking", Boolean::parseBoolean, false).get();
+
+	private final boolean blocking;
+
 	public EpisodeMatcher(Collection<File> values, Collection<Episode> candidates, boolean strict) {
-		// use strict matcher as to force a result from the final top similarity set
-		super(values, candidates, strict, new EpisodeMetrics().matchSequence());
+		this(values, candidates, strict, BLOCKING);
+	}
+
+	/**
+	 * @param blocking
+	 *            only pair files with episodes that have matching season / episode numbers or airdate (files without any parsable numbers are still paired with all episodes)
+	 */
+	public EpisodeMatcher(Collection<File> values, Collection<Episode> candidates, boolean strict, boolean blocking) {
+		// use strict matcher as to force a result from the final top similarity set (episode metrics are thread-safe and may be evaluated in parallel)
+		super(values, candidates, strict, new EpisodeMetrics().matchSequence(), PARALLEL);
+		this.blocking = blocking;
+	}
+
+	@Override
+	protected List<Match<File, Object>> getPossibleMatches() {
+		if (!blocking) {
+			return super.getPossibleMatches();
+		}
+
+		EpisodeCandidateIndex<Object> index = new EpisodeCandidateIndex<Object>(new ArrayList<Object>(candidates));
+		List<Match<File, Object>> possibleMatches = new ArrayList<Match<File, Object>>();
+
+		for (File file : values) {
+			// files with xattr metadata may be matched by metadata rather than by numbers
+			List<Object> plausibleCandidates = xattr.getMetaInfo(file) != null ? candidates : index.getCandidates(parseEpisodeIdentifer(file), getDateMatcher().match(file));
+
+			for (Object candidate : plausibleCandidates) {
+				possibleMatches.add(new Match<File, Object>(file, candidate));
+			}
+		}
+
+		return possibleMatches;
 	}
 
 	@Override
 	protected void deepMatch(Collection<Match<File, Object>> possibleMatches, int level) throws InterruptedException {
+		// multi-episode detection on the first level always works on the full episode list, even if possible matches have been narrowed down by blocking
+		boolean allCandidates = blocking && level == 0;
+
 		Map<File, List<Episode>> episodeSets = new IdentityHashMap<File, List<Episode>>();
 		for (Match<File, Object> it : possibleMatches) {
 			List<Episode> episodes = episodeSets.get(it.getValue());
 			if (episodes == null) {
 				episodes = new ArrayList<Episode>();
 				episodeSets.put(it.getValue(), episodes);
+
+				if (allCandidates) {
+					for (Object candidate : candidates) {
+						episodes.add((Episode) candidate);
+					}
+				}
+			}
+			if (!allCandidates) {
+				episodes.add((Episode) it.getCandidate());
 			}
-			episodes.add((Episode) it.getCandidate());
 		}
 
 		Map<File, Set<SxE>> episodeIdentifierSets = new IdentityHashMap<File, Set<SxE>>();
@@ -85,7 +134,7 @@ public class EpisodeMatcher extends Matcher<File, Object> {
 	}
 
 	private final SeasonEpisodeMatcher seasonEpisodeMatcher = new SmartSeasonEpisodeMatcher(SeasonEpisodeMatcher.LENIENT_SANITY, false);
-	private final Map<File, Set<SxE>> cache = synchronizedMap(new HashMap<>(64, 4));
+	private final Map<File, Set<SxE>> cache = new ConcurrentHashMap<File, Set<SxE>>(64, 4);
 
 	private Set<SxE> parseEpisodeIdentifer(File file) {
 		return cache.computeIfAbsent(file, f -> {
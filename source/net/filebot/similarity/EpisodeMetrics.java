@@ -16,17 +16,17 @@ import java.time.Instant;
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Stream;
 
-import com.ibm.icu.text.Transliterator;
+import com.github.benmanes.caffeine.cache.Caffeine;
 
 import net.filebot.media.MediaCharacteristics;
 import net.filebot.media.MediaCharacteristicsParser;
@@ -44,7 +44,7 @@ public class EpisodeMetrics {
 	// Match by season / episode numbers
 	public final SimilarityMetric SeasonEpisode = new SeasonEpisodeMetric(new SmartSeasonEpisodeMatcher(null, false)) {
 
-		private final Map<Object, Collection<SxE>> cache = synchronizedMap(new HashMap<>(64, 4));
+		private final Map<Object, Collection<SxE>> cache = new ConcurrentHashMap<>(64, 4);
 
 		@Override
 		protected Collection<SxE> parse(Object object) {
@@ -95,7 +95,7 @@ public class EpisodeMetrics {
 	// Match episode airdate
 	public final SimilarityMetric AirDate = new DateMetric(getDateMatcher()) {
 
-		private final Map<Object, Optional<SimpleDate>> cache = synchronizedMap(new HashMap<>(64, 4));
+		private final Map<Object, Optional<SimpleDate>> cache = new ConcurrentHashMap<>(64, 4);
 
 		@Override
 		public SimpleDate parse(Object object) {
@@ -588,7 +588,7 @@ public class EpisodeMetrics {
 	// Match by file last modified and episode release dates
 	public final TimeStampMetric TimeStamp = new TimeStampMetric(10, ChronoUnit.YEARS) {
 
-		private final Map<File, Long> cache = synchronizedMap(new HashMap<>());
+		private final Map<File, Long> cache = new ConcurrentHashMap<>();
 
 		@Override
 		public float getSimilarity(Object o1, Object o2) {
@@ -612,20 +612,28 @@ public class EpisodeMetrics {
 		}
 
 		private long getTimeStamp(File file) {
-			return cache.computeIfAbsent(file, f -> {
-				if (MediaCharacteristicsParser.DEFAULT.acceptVideoFile(f)) {
-					try (MediaCharacteristics mi = MediaCharacteristicsParser.DEFAULT.open(file)) {
-						Instant t = mi.getCreationTime();
-						if (t != null) {
-							return t.toEpochMilli();
-						}
-					} catch (Exception e) {
-						debug.warning("Failed to read media encoding date: " + e.getMessage());
+			// do not block other keys while reading media headers
+			Long timeStamp = cache.get(file);
+			if (timeStamp == null) {
+				timeStamp = readTimeStamp(file);
+				cache.putIfAbsent(file, timeStamp);
+			}
+			return timeStamp;
+		}
+
+		private long readTimeStamp(File file) {
+			if (MediaCharacteristicsParser.DEFAULT.acceptVideoFile(file)) {
+				try (MediaCharacteristics mi = MediaCharacteristicsParser.DEFAULT.open(file)) {
+					Instant t = mi.getCreationTime();
+					if (t != null) {
+						return t.toEpochMilli();
 					}
+				} catch (Exception e) {
+					debug.warning("Failed to read media encoding date: " + e.getMessage());
 				}
+			}
 
-				return super.getTimeStamp(file); // default to file creation date
-			});
+			return super.getTimeStamp(file); // default to file creation date
 		}
 
 		@Override
@@ -809,9 +817,7 @@ public class EpisodeMetrics {
 		}
 	};
 
-	protected final Map<Object, String> transformCache = synchronizedMap(new HashMap<>(64, 4));
-
-	protected final Transliterator transliterator = Transliterator.getInstance("Any-Latin;Latin-ASCII;[:Diacritic:]remove");
+	protected final Map<Object, String> transformCache = Caffeine.newBuilder().maximumSize(10_000).<Object, String> build().asMap();
 
 	protected String normalizeObject(Object object) {
 		if (object == null) {
@@ -824,7 +830,7 @@ public class EpisodeMetrics {
 			// 3. remove obvious release info
 			// 4. apply transliterator
 			// 5. remove or normalize special characters
-			return normalizePunctuation(transliterator.transform(stripFormatInfo(removeEmbeddedChecksum(normalizeFileName(o))))).toLowerCase();
+			return normalizePunctuation(NormalizationCache.transliterate(stripFormatInfo(removeEmbeddedChecksum(normalizeFileName(o))))).toLowerCase();
 		});
 	}
 
@@ -5,6 +5,7 @@ import static net.filebot.Logging.*;
 
 import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
@@ -18,6 +19,18 @@ import java.util.Map;
 import java.util.Set;
 import java.util.SortedMap;
 import java.util.TreeMap;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+
+import net.filebot.util.DefaultThreadFactory;
 
 public class Matcher<V, C> {
 
@@ -26,32 +39,32 @@ public class Matcher<V, C> {
 
 	protected final boolean strict;
 	protected final SimilarityMetric[] metrics;
+	protected final boolean parallel;
 
 	protected final DisjointMatchCollection<V, C> disjointMatchCollection;
 
 	public Matcher(Collection<? extends V> values, Collection<? extends C> candidates, boolean strict, SimilarityMetric[] metrics) {
+		this(values, candidates, strict, metrics, false);
+	}
+
+	/**
+	 * @param parallel
+	 *            evaluate similarity metrics concurrently on the common fork-join pool, or on a dedicated thread pool for metrics that do file I/O (all metrics must be thread-safe)
+	 */
+	public Matcher(Collection<? extends V> values, Collection<? extends C> candidates, boolean strict, SimilarityMetric[] metrics, boolean parallel) {
 		this.values = new LinkedList<V>(values);
 		this.candidates = new LinkedList<C>(candidates);
 
 		this.strict = strict;
 		this.metrics = metrics.clone();
+		this.parallel = parallel;
 
 		this.disjointMatchCollection = new DisjointMatchCollection<V, C>();
 	}
 
 	public synchronized List<Match<V, C>> match() throws InterruptedException {
-		// list of all combinations of values and candidates
-		List<Match<V, C>> possibleMatches = new ArrayList<Match<V, C>>(values.size() * candidates.size());
-
-		// populate with all possible matches
-		for (V value : values) {
-			for (C candidate : candidates) {
-				possibleMatches.add(new Match<V, C>(value, candidate));
-			}
-		}
-
 		// match recursively
-		deepMatch(possibleMatches, 0);
+		deepMatch(getPossibleMatches(), 0);
 
 		// restore order according to the given values
 		List<Match<V, C>> result = new ArrayList<Match<V, C>>();
@@ -76,6 +89,20 @@ public class Matcher<V, C> {
 		return result;
 	}
 
+	protected List<Match<V, C>> getPossibleMatches() {
+		// list of all combinations of values and candidates
+		List<Match<V, C>> possibleMatches = new ArrayList<Match<V, C>>(values.size() * candidates.size());
+
+		// populate with all possible matches
+		for (V value : values) {
+			for (C candidate : candidates) {
+				possibleMatches.add(new Match<V, C>(value, candidate));
+			}
+		}
+
+		return possibleMatches;
+	}
+
 	public synchronized List<V> remainingValues() {
 		return Collections.unmodifiableList(values);
 	}
@@ -104,7 +131,7 @@ public class Matcher<V, C> {
 			return;
 		}
 
-		for (Set<Match<V, C>> matchesWithEqualSimilarity : mapBySimilarity(possibleMatches, metrics[level]).values()) {
+		for (Set<Match<V, C>> matchesWithEqualSimilarity : groupBySimilarity(possibleMatches, metrics[level])) {
 			// some matches may already be unique
 			List<Match<V, C>> disjointMatches = disjointMatches(matchesWithEqualSimilarity);
 
@@ -131,6 +158,110 @@ public class Matcher<V, C> {
 		}
 	}
 
+	protected Collection<Set<Match<V, C>>> groupBySimilarity(Collection<Match<V, C>> possibleMatches, SimilarityMetric metric) throws InterruptedException {
+		if (parallel && possibleMatches.size() >= PARALLEL_THRESHOLD) {
+			return groupBySimilarityInParallel(possibleMatches, metric);
+		}
+		return mapBySimilarity(possibleMatches, metric).values();
+	}
+
+	protected static final int PARALLEL_THRESHOLD = 1024;
+	protected static final int PARALLEL_CHUNK_SIZE = 256;
+
+	// metrics that read file metadata must not block the threads of the common fork-join pool
+	private static final ThreadPoolExecutor blockingMetricExecutor = new ThreadPoolExecutor(Runtime.getRuntime().availableProcessors(), Runtime.getRuntime().availableProcessors(), 10, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), new DefaultThreadFactory("MatcherIO", Thread.MIN_PRIORITY, true));
+
+	static {
+		blockingMetricExecutor.allowCoreThreadTimeOut(true);
+	}
+
+	protected ExecutorService getExecutor(SimilarityMetric metric) {
+		return metric instanceof TimeStampMetric ? blockingMetricExecutor : ForkJoinPool.commonPool();
+	}
+
+	protected List<Set<Match<V, C>>> groupBySimilarityInParallel(Collection<Match<V, C>> possibleMatches, SimilarityMetric metric) throws InterruptedException {
+		List<Match<V, C>> matches = new ArrayList<Match<V, C>>(possibleMatches);
+		float[] similarity = new float[matches.size()];
+
+		// use metric on all matches in chunks
+		Thread caller = Thread.currentThread();
+		AtomicBoolean cancelled = new AtomicBoolean(false);
+		ExecutorService executor = getExecutor(metric);
+		List<Future<?>> tasks = new ArrayList<Future<?>>();
+
+		for (int c = 0; c < similarity.length; c += PARALLEL_CHUNK_SIZE) {
+			int from = c, to = Math.min(c + PARALLEL_CHUNK_SIZE, similarity.length);
+			tasks.add(executor.submit(() -> {
+				for (int i = from; i < to; i++) {
+					// unwind worker thread if the calling thread has been interrupted
+					if (cancelled.get() || caller.isInterrupted()) {
+						throw new CancellationException();
+					}
+					Match<V, C> possibleMatch = matches.get(i);
+					similarity[i] = metric.getSimilarity(possibleMatch.getValue(), possibleMatch.getCandidate());
+				}
+			}));
+		}
+
+		try {
+			for (Future<?> task : tasks) {
+				task.get();
+			}
+		} catch (ExecutionException e) {
+			// chunks have been cancelled because we have been interrupted
+			if (Thread.interrupted()) {
+				throw new InterruptedException();
+			}
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			if (e.getCause() instanceof Error) {
+				throw (Error) e.getCause();
+			}
+			throw new IllegalStateException(e.getCause());
+		} finally {
+			// cancel outstanding chunks if we have been interrupted or if any chunk has failed
+			cancelled.set(true);
+			for (Future<?> task : tasks) {
+				task.cancel(false);
+			}
+		}
+
+		// unwind this thread if we have been interrupted
+		if (Thread.interrupted()) {
+			throw new InterruptedException();
+		}
+
+		// DEBUG
+		if (debug.isLoggable(Level.FINEST)) {
+			for (int i = 0; i < similarity.length; i++) {
+				debug.finest(format("%s %.04f => %s", metric, similarity[i], matches.get(i)));
+			}
+		}
+
+		// sort by similarity descending (same order as Float.compareTo) and by original order
+		long[] order = new long[similarity.length];
+		for (int i = 0; i < similarity.length; i++) {
+			int bits = Float.floatToIntBits(similarity[i]);
+			int key = bits ^ ((bits >> 31) & 0x7FFFFFFF);
+			order[i] = ((long) ~key << 32) | i;
+		}
+		Arrays.parallelSort(order);
+
+		// group matches with equal similarity
+		List<Set<Match<V, C>>> groups = new ArrayList<Set<Match<V, C>>>();
+		Set<Match<V, C>> group = null;
+		for (int i = 0; i < order.length; i++) {
+			if (group == null || (order[i] >>> 32) != (order[i - 1] >>> 32)) {
+				group = new LinkedHashSet<Match<V, C>>();
+				groups.add(group);
+			}
+			group.add(matches.get((int) order[i]));
+		}
+
+		return groups;
+	}
+
 	protected SortedMap<Float, Set<Match<V, C>>> mapBySimilarity(Collection<Match<V, C>> possibleMatches, SimilarityMetric metric) throws InterruptedException {
 		// map sorted by similarity descending
 		SortedMap<Float, Set<Match<V, C>>> similarityMap = new TreeMap<Float, Set<Match<V, C>>>(Collections.reverseOrder());
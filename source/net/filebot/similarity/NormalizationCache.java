@@ -0,0 +1,166 @@
+package net.filebot.similarity;
+
+import static net.filebot.similarity.Normalization.*;
+import static org.simmetrics.tokenizers.Tokenizers.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+import org.simmetrics.tokenizers.Tokenizer;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ibm.icu.text.Transliterator;
+
+import net.filebot.util.SystemProperty;
+
+/**
+ * Shared, bounded and thread-safe cache for normalized names and q-gram profiles, so that the same strings are not transliterated, normalized and tokenized over and over again when matching many files against many episodes.
+ */
+public class NormalizationCache {
+
+	public static final boolean ENABLED = SystemProperty.of("net.filebot.similarity.cache", Boolean::parseBoolean, true).get();
+
+	private static final int MAXIMUM_SIZE = 50_000;
+
+	private static final Transliterator transliterator = Transliterator.getInstance("Any-Latin;Latin-ASCII;[:Diacritic:]remove");
+
+	private static final Tokenizer tokenizer = qGramWithPadding(3);
+
+	private static final Cache<String, String> transliterateCache = newCache();
+	private static final Cache<String, String> nameCache = newCache();
+	private static final Cache<String, String> sequenceCache = newCache();
+	private static final Cache<String, QGramProfile> profileCache = newCache();
+
+	private static <V> Cache<String, V> newCache() {
+		return Caffeine.newBuilder().maximumSize(MAXIMUM_SIZE).build();
+	}
+
+	private static String get(Cache<String, String> cache, String key, Function<String, String> function) {
+		return ENABLED ? cache.get(key, function) : function.apply(key);
+	}
+
+	/**
+	 * Apply Any-Latin;Latin-ASCII;[:Diacritic:]remove transliteration
+	 */
+	public static String transliterate(String s) {
+		// pure ASCII input without diacritic characters is not modified by the transliterator
+		if (ENABLED && isPlainASCII(s)) {
+			return s;
+		}
+		return get(transliterateCache, s, transliterator::transform);
+	}
+
+	/**
+	 * Normalization used by {@link NameSimilarityMetric}, i.e. transliterate, normalize separators and trim, and normalize case
+	 */
+	public static String normalizeName(String s) {
+		return get(nameCache, s, k -> normalizePunctuation(transliterate(k)).toLowerCase());
+	}
+
+	/**
+	 * Normalization used by {@link SequenceMatchSimilarity}, i.e. normalize separators, normalize case and trim
+	 */
+	public static String normalizeSequence(String s) {
+		return get(sequenceCache, s, k -> normalizePunctuation(k).trim().toLowerCase());
+	}
+
+	public static QGramProfile getQGramProfile(String s) {
+		return ENABLED ? profileCache.get(s, QGramProfile::new) : new QGramProfile(s);
+	}
+
+	public static float getQGramSimilarity(String s1, String s2) {
+		return getQGramProfile(s1).getSimilarity(getQGramProfile(s2));
+	}
+
+	/**
+	 * Discard all cached values (e.g. for cold cache benchmarks)
+	 */
+	static void invalidateAll() {
+		transliterateCache.invalidateAll();
+		nameCache.invalidateAll();
+		sequenceCache.invalidateAll();
+		profileCache.invalidateAll();
+	}
+
+	private static boolean isPlainASCII(String s) {
+		for (int i = 0; i < s.length(); i++) {
+			char c = s.charAt(i);
+			// ^ and ` are the only ASCII characters with the Unicode Diacritic property
+			if (c >= 0x80 || c == '^' || c == '`') {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Multiset of padded 3-grams, i.e. the same tokens as {@code qGramWithPadding(3)} stored as sorted unique tokens and their counts
+	 */
+	public static class QGramProfile {
+
+		private final String[] tokens;
+		private final int[] counts;
+		private final int size;
+
+		public QGramProfile(String s) {
+			List<String> list = tokenizer.tokenizeToList(s);
+			String[] sorted = list.toArray(new String[0]);
+			Arrays.sort(sorted);
+
+			String[] tokens = new String[sorted.length];
+			int[] counts = new int[sorted.length];
+			int n = 0;
+			for (int i = 0; i < sorted.length; i++) {
+				if (n > 0 && tokens[n - 1].equals(sorted[i])) {
+					counts[n - 1]++;
+				} else {
+					tokens[n] = sorted[i];
+					counts[n] = 1;
+					n++;
+				}
+			}
+
+			this.tokens = Arrays.copyOf(tokens, n);
+			this.counts = Arrays.copyOf(counts, n);
+			this.size = sorted.length;
+		}
+
+		public int size() {
+			return size;
+		}
+
+		public int getCommonCount(QGramProfile other) {
+			int common = 0;
+			for (int i = 0, j = 0; i < tokens.length && j < other.tokens.length;) {
+				int c = tokens[i].compareTo(other.tokens[j]);
+				if (c == 0) {
+					common += Math.min(counts[i++], other.counts[j++]);
+				} else if (c < 0) {
+					i++;
+				} else {
+					j++;
+				}
+			}
+			return common;
+		}
+
+		/**
+		 * Same as the BlockDistance similarity of the two q-gram multisets
+		 */
+		public float getSimilarity(QGramProfile other) {
+			if (size == 0 && other.size == 0) {
+				return 1.0f;
+			}
+			if (size == 0 || other.size == 0) {
+				return 0.0f;
+			}
+
+			float distance = size + other.size - 2 * getCommonCount(other);
+			float maxDistance = size + other.size;
+			return 1.0f - distance / maxDistance;
+		}
+	}
+
+}
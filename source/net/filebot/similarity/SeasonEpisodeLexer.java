@@ -0,0 +1,558 @@
+package net.filebot.similarity;
+
+import java.util.regex.MatchResult;
+
+/**
+ * File name tokenized into runs of digits, letters and other characters, so that season / episode patterns can be recognized by hand-written scanners instead of regular expressions.
+ * <p>
+ * Each scanner finds exactly the same matches (and capturing groups) as the corresponding regular expression in {@link SeasonEpisodeMatcher}. Character classes follow the regular expression defaults, i.e. only US-ASCII letters and digits are alphanumeric.
+ */
+class SeasonEpisodeLexer implements CharSequence {
+
+	private static final byte DIGIT = 0;
+	private static final byte LETTER = 1;
+	private static final byte OTHER = 2;
+
+	private final String s;
+	private final int n;
+
+	private final byte[] type;
+	private final int[] runEnd;
+
+	private final boolean supported;
+
+	public SeasonEpisodeLexer(CharSequence name) {
+		this.s = name.toString();
+		this.n = s.length();
+		this.type = new byte[n];
+		this.runEnd = new int[n];
+
+		boolean supported = true;
+
+		for (int i = 0; i < n; i++) {
+			char c = s.charAt(i);
+			type[i] = c >= '0' && c <= '9' ? DIGIT : (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') ? LETTER : OTHER;
+
+			// regular expressions match code points and treat line terminators specially
+			if (Character.isSurrogate(c) || c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029') {
+				supported = false;
+			}
+		}
+
+		for (int i = n - 1; i >= 0; i--) {
+			runEnd[i] = i + 1 < n && type[i + 1] == type[i] ? runEnd[i + 1] : i + 1;
+		}
+
+		this.supported = supported;
+	}
+
+	public static SeasonEpisodeLexer of(CharSequence name) {
+		return name instanceof SeasonEpisodeLexer ? (SeasonEpisodeLexer) name : new SeasonEpisodeLexer(name);
+	}
+
+	/**
+	 * @return false if the given name must be matched with regular expressions (e.g. names with supplementary characters or line breaks)
+	 */
+	public boolean isSupported() {
+		return supported;
+	}
+
+	@Override
+	public int length() {
+		return n;
+	}
+
+	@Override
+	public char charAt(int index) {
+		return s.charAt(index);
+	}
+
+	@Override
+	public CharSequence subSequence(int start, int end) {
+		return s.subSequence(start, end);
+	}
+
+	@Override
+	public String toString() {
+		return s;
+	}
+
+	private boolean digit(int i) {
+		return i >= 0 && i < n && type[i] == DIGIT;
+	}
+
+	private boolean alnum(int i) {
+		return i >= 0 && i < n && type[i] != OTHER;
+	}
+
+	private int digits(int i) {
+		return i >= 0 && i < n && type[i] == DIGIT ? runEnd[i] - i : 0;
+	}
+
+	private int others(int i) {
+		return i >= 0 && i < n && type[i] == OTHER ? runEnd[i] - i : 0;
+	}
+
+	private boolean is(int i, char c) {
+		return i >= 0 && i < n && s.charAt(i) == c;
+	}
+
+	private boolean in(int i, String chars) {
+		return i >= 0 && i < n && chars.indexOf(s.charAt(i)) >= 0;
+	}
+
+	private boolean letter(int i, char lower) {
+		// case-insensitive matching of US-ASCII letters only
+		return i >= 0 && i < n && type[i] == LETTER && (s.charAt(i) | 0x20) == lower;
+	}
+
+	private boolean word(int i, String lower) {
+		for (int j = 0; j < lower.length(); j++) {
+			if (!letter(i + j, lower.charAt(j))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return end of all iterations of ((?<=[^._ ])[Ee]?[Pp]?\d{min,max}(\D|$))+ or the given position if there is no iteration
+	 */
+	private int repeat(int i, int min, int max, boolean lookbehind, boolean prefix, int[] group) {
+		int end = i;
+
+		while (!lookbehind || (i > 0 && !in(i - 1, "._ "))) {
+			int j = i;
+			if (prefix && letter(j, 'e')) {
+				j++;
+			}
+			if (prefix && letter(j, 'p')) {
+				j++;
+			}
+
+			int d = digits(j);
+			if (d < min || d > max) {
+				break;
+			}
+
+			// last iteration and last \D or $
+			group[0] = i;
+			group[1] = j + d;
+
+			i = j + d < n ? j + d + 1 : j + d;
+			end = i;
+		}
+
+		return end;
+	}
+
+	/**
+	 * (?<!\p{Alnum})(?i:season|series)[^\p{Alnum}]{0,3}(\d{1,4})[^\p{Alnum}]{0,3}(?i:episode)[^\p{Alnum}]{0,3}((\d{1,3}(\D|$))+)[^\p{Alnum}]{0,3}(?!\p{Digit})
+	 */
+	public MatchResult findSeasonEpisode(int from) {
+		for (int p = from; p < n; p++) {
+			if (alnum(p - 1) || !(word(p, "season") || word(p, "series"))) {
+				continue;
+			}
+
+			int i = p + 6;
+			if (others(i) > 3) {
+				continue;
+			}
+			i += others(i);
+
+			int season = i;
+			int d = digits(i);
+			if (d < 1 || d > 4) {
+				continue;
+			}
+			i += d;
+
+			if (others(i) > 3) {
+				continue;
+			}
+			i += others(i);
+
+			if (!word(i, "episode")) {
+				continue;
+			}
+			i += 7;
+
+			if (others(i) > 3) {
+				continue;
+			}
+			i += others(i);
+
+			int[] last = new int[2];
+			int x = repeat(i, 1, 3, false, false, last);
+			if (x == i || digit(x)) {
+				continue;
+			}
+
+			int r = others(x);
+			int k = Math.min(3, r);
+			if (k == r && k > 0 && digit(x + r)) {
+				k--;
+			}
+
+			return new Match(p, x + k, season, season + d, i, x, last[0], x, last[1], x);
+		}
+		return null;
+	}
+
+	/**
+	 * (?<!\p{Alnum}|[-])[Ss](\d{1,2}|\d{4})[Ee](\d{2,3})[-][Ee](\d{2,3})(?!\p{Alnum}|[-])
+	 */
+	public MatchResult findSeasonEpisodeSequence(int from) {
+		for (int p = from; p < n; p++) {
+			if (alnum(p - 1) || is(p - 1, '-') || !letter(p, 's')) {
+				continue;
+			}
+
+			int s1 = p + 1;
+			int d1 = digits(s1);
+			if (!(d1 == 1 || d1 == 2 || d1 == 4) || !letter(s1 + d1, 'e')) {
+				continue;
+			}
+
+			int e1 = s1 + d1 + 1;
+			int d2 = digits(e1);
+			if (d2 < 2 || d2 > 3 || !is(e1 + d2, '-') || !letter(e1 + d2 + 1, 'e')) {
+				continue;
+			}
+
+			int e2 = e1 + d2 + 2;
+			int d3 = digits(e2);
+			if (d3 < 2 || d3 > 3 || alnum(e2 + d3) || is(e2 + d3, '-')) {
+				continue;
+			}
+
+			return new Match(p, e2 + d3, s1, s1 + d1, e1, e1 + d2, e2, e2 + d3);
+		}
+		return null;
+	}
+
+	/**
+	 * (?<!\p{Digit})[Ss](\d{1,2}|\d{4})[^\p{Alnum}]{0,3}(?i:ep|e|p|-)(((?<=[^._ ])[Ee]?[Pp]?\d{1,3}(\D|$))+)
+	 */
+	public MatchResult findSeasonEpisodeMulti(int from) {
+		for (int p = from; p < n; p++) {
+			if (digit(p - 1) || !letter(p, 's')) {
+				continue;
+			}
+
+			int season = p + 1;
+			int d = digits(season);
+			if (!(d == 1 || d == 2 || d == 4)) {
+				continue;
+			}
+
+			int q = season + d;
+			for (int k = Math.min(3, others(q)); k >= 0; k--) {
+				int m = q + k;
+
+				for (int y : new int[] { word(m, "ep") ? m + 2 : -1, letter(m, 'e') ? m + 1 : -1, letter(m, 'p') ? m + 1 : -1, is(m, '-') ? m + 1 : -1 }) {
+					if (y < 0) {
+						continue;
+					}
+
+					int[] last = new int[2];
+					int x = repeat(y, 1, 3, true, true, last);
+					if (x > y) {
+						return new Match(p, x, season, q, y, x, last[0], x, last[1], x);
+					}
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * (?<!\p{Alnum})(\d{1,2}x\d{2}([-._ ]\d{1,2}x\d{2})+)(?!\p{Digit})
+	 */
+	public MatchResult findSeasonEpisodePairs(int from) {
+		for (int p = from; p < n; p++) {
+			int d = digits(p);
+			if (alnum(p - 1) || d < 1 || d > 2 || !is(p + d, 'x') || digits(p + d + 1) < 2) {
+				continue;
+			}
+
+			// (?!\p{Digit}) gives back the last iteration if it is followed by a digit
+			int end = -1;
+			int last = -1;
+
+			int i = p + d + 3;
+			while (in(i, "-._ ")) {
+				int j = i + 1;
+				int ds = digits(j);
+				if (ds < 1 || ds > 2 || !is(j + ds, 'x') || digits(j + ds + 1) < 2) {
+					break;
+				}
+
+				if (!digit(j + ds + 3)) {
+					end = j + ds + 3;
+					last = i;
+				}
+				i = j + ds + 3;
+			}
+
+			if (end < 0) {
+				continue;
+			}
+
+			return new Match(p, end, p, end, last, end);
+		}
+		return null;
+	}
+
+	/**
+	 * (?<!\p{Alnum})(\d{1,2})[xe](((?<=[^._ ])\d{2,3}(\D|$))+)
+	 */
+	public MatchResult findSeasonEpisodeNumbers(int from) {
+		for (int p = from; p < n; p++) {
+			int d = digits(p);
+			if (alnum(p - 1) || d < 1 || d > 2 || !(is(p + d, 'x') || is(p + d, 'e'))) {
+				continue;
+			}
+
+			int y = p + d + 1;
+			int[] last = new int[2];
+			int x = repeat(y, 2, 3, true, false, last);
+			if (x > y) {
+				return new Match(p, x, p, p + d, y, x, last[0], x, last[1], x);
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * (?<!\p{Alnum}|\d{4}[.])(\d{1,2})[.](((?<=[^._ ])\d{2}(\D|$))+)
+	 */
+	public MatchResult findSeasonDotEpisode(int from) {
+		for (int p = from; p < n; p++) {
+			int d = digits(p);
+			if (alnum(p - 1) || (is(p - 1, '.') && digits(p - 5) >= 4) || d < 1 || d > 2 || !is(p + d, '.')) {
+				continue;
+			}
+
+			int y = p + d + 1;
+			int[] last = new int[2];
+			int x = repeat(y, 2, 2, true, false, last);
+			if (x > y) {
+				return new Match(p, x, p, p + d, y, x, last[0], x, last[1], x);
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * (?<!\p{Alnum}|[-])(\d{2,3})[-](\d{2,3})(?!\p{Alnum}|[-])
+	 */
+	public MatchResult findEpisodeSequence(int from) {
+		for (int p = from; p < n; p++) {
+			int d1 = digits(p);
+			if (alnum(p - 1) || is(p - 1, '-') || d1 < 2 || d1 > 3 || !is(p + d1, '-')) {
+				continue;
+			}
+
+			int e = p + d1 + 1;
+			int d2 = digits(e);
+			if (d2 < 2 || d2 > 3 || alnum(e + d2) || is(e + d2, '-')) {
+				continue;
+			}
+
+			return new Match(p, e + d2, p, p + d1, e, e + d2);
+		}
+		return null;
+	}
+
+	/**
+	 * (?<!\p{Alnum})(\d{2}|\d{4})?[\P{Alnum}]{0,3}(((?i:e|ep|episode|p|part)[\P{Alnum}]{0,3}\d{1,3})+)(?!\p{Digit})
+	 */
+	public MatchResult findEpisode(int from) {
+		for (int p = from; p < n; p++) {
+			if (alnum(p - 1)) {
+				continue;
+			}
+
+			int d = digits(p);
+			for (int season : new int[] { d >= 2 ? 2 : -1, d >= 4 ? 4 : -1, 0 }) {
+				if (season < 0) {
+					continue;
+				}
+
+				int y = p + season;
+				if (others(y) > 3) {
+					continue;
+				}
+				y += others(y);
+
+				int x = y;
+				int last = -1;
+				for (int i = episodeMarker(x); i >= 0 && digits(i) <= 3; i = episodeMarker(x)) {
+					last = x;
+					x = i + digits(i);
+				}
+
+				if (last >= 0) {
+					return season > 0 ? new Match(p, x, p, p + season, y, x, last, x) : new Match(p, x, -1, -1, y, x, last, x);
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * @return start of the digits after (?i:e|ep|episode|p|part)[\P{Alnum}]{0,3} or -1
+	 */
+	private int episodeMarker(int i) {
+		for (String marker : new String[] { "e", "ep", "episode", "p", "part" }) {
+			if (word(i, marker)) {
+				int j = i + marker.length();
+				if (others(j) <= 3 && digit(j + others(j))) {
+					return j + others(j);
+				}
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * (?<!\p{Alnum})([0-2]?\d?)(\d{2})(\d{2})?(?!\p{Alnum})
+	 */
+	public MatchResult findNumber(int from) {
+		for (int p = from; p < n; p++) {
+			int d = digits(p);
+			if (alnum(p - 1) || d < 2 || alnum(p + d)) {
+				continue;
+			}
+
+			// [0-2]?\d? is greedy and takes as many digits as possible
+			boolean low = s.charAt(p) <= '2';
+
+			switch (d) {
+			case 2:
+				return new Match(p, p + 2, p, p, p, p + 2, -1, -1);
+			case 3:
+				return new Match(p, p + 3, p, p + 1, p + 1, p + 3, -1, -1);
+			case 4:
+				return low ? new Match(p, p + 4, p, p + 2, p + 2, p + 4, -1, -1) : new Match(p, p + 4, p, p, p, p + 2, p + 2, p + 4);
+			case 5:
+				return new Match(p, p + 5, p, p + 1, p + 1, p + 3, p + 3, p + 5);
+			case 6:
+				if (low) {
+					return new Match(p, p + 6, p, p + 2, p + 2, p + 4, p + 4, p + 6);
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * (?<!\p{Alnum})(\d{1,2})[^._ ]?(?i:of)[^._ ]?(\d{1,2})(?!\p{Digit})
+	 */
+	public MatchResult findEpisodeOf(int from) {
+		for (int p = from; p < n; p++) {
+			int d = digits(p);
+			if (alnum(p - 1) || d < 1) {
+				continue;
+			}
+
+			// try all combinations in the same order as the regular expression
+			for (int a = Math.min(2, d); a >= 1; a--) {
+				for (int o1 = 1; o1 >= 0; o1--) {
+					int i = p + a;
+					if (o1 > 0 && (i >= n || in(i, "._ "))) {
+						continue;
+					}
+
+					i += o1;
+					if (!word(i, "of")) {
+						continue;
+					}
+
+					for (int o2 = 1; o2 >= 0; o2--) {
+						int j = i + 2;
+						if (o2 > 0 && (j >= n || in(j, "._ "))) {
+							continue;
+						}
+
+						j += o2;
+						for (int b = Math.min(2, digits(j)); b >= 1; b--) {
+							if (!digit(j + b)) {
+								return new Match(p, j + b, p, p + a, j, j + b);
+							}
+						}
+					}
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * (?<!\p{Digit})(\d{1})(\d{2})(?!\p{Digit})(.*)
+	 */
+	public MatchResult findNumberSubstring(int from) {
+		for (int p = from; p < n; p++) {
+			if (!digit(p - 1) && digits(p) == 3) {
+				return new Match(p, n, p, p + 1, p + 1, p + 3, p + 3, n);
+			}
+		}
+		return null;
+	}
+
+	@FunctionalInterface
+	public interface Scanner {
+
+		MatchResult find(SeasonEpisodeLexer input, int from);
+	}
+
+	/**
+	 * Match result with the same capturing groups as the corresponding regular expression
+	 */
+	private class Match implements MatchResult {
+
+		private final int[] groups;
+
+		public Match(int... groups) {
+			this.groups = groups;
+		}
+
+		@Override
+		public int start() {
+			return groups[0];
+		}
+
+		@Override
+		public int start(int group) {
+			return groups[group * 2];
+		}
+
+		@Override
+		public int end() {
+			return groups[1];
+		}
+
+		@Override
+		public int end(int group) {
+			return groups[group * 2 + 1];
+		}
+
+		@Override
+		public String group() {
+			return group(0);
+		}
+
+		@Override
+		public String group(int group) {
+			return start(group) < 0 ? null : s.substring(start(group), end(group));
+		}
+
+		@Override
+		public int groupCount() {
+			return groups.length / 2 - 1;
+		}
+	}
+
+}
@@ -16,11 +16,15 @@ import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.regex.MatchResult;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.IntStream;
 
+import net.filebot.similarity.SeasonEpisodeLexer.Scanner;
+import net.filebot.util.SystemProperty;
+
 public class SeasonEpisodeMatcher {
 
 	public static final SeasonEpisodeFilter LENIENT_SANITY = new SeasonEpisodeFilter(99, 999, 9999, 1970, 2100);
@@ -30,62 +34,70 @@ public class SeasonEpisodeMatcher {
 	private SeasonEpisodeParser[] patterns;
 	private Pattern seasonPattern;
 
+	private final Mode mode;
+
 	public SeasonEpisodeMatcher(SeasonEpisodeFilter sanity, boolean strict) {
+		this(sanity, strict, Mode.DEFAULT);
+	}
+
+	public SeasonEpisodeMatcher(SeasonEpisodeFilter sanity, boolean strict, Mode mode) {
+		this.mode = mode;
+
 		// define variables
 		SeasonEpisodePattern Season_00_Episode_00, S00E00SEQ, S00E00, SxE1_SxE2, SxE, Dot101, E01E02SEQ, EP0, Num101_TOKEN, E1of2, Num101_SUBSTRING;
 
 		// match patterns like Season 01 Episode 02, ...
-		Season_00_Episode_00 = new SeasonEpisodePattern(null, "(?<!\\p{Alnum})(?i:season|series)[^\\p{Alnum}]{0,3}(\\d{1,4})[^\\p{Alnum}]{0,3}(?i:episode)[^\\p{Alnum}]{0,3}((\\d{1,3}(\\D|$))+)[^\\p{Alnum}]{0,3}(?!\\p{Digit})", m -> {
+		Season_00_Episode_00 = new SeasonEpisodePattern(null, "(?<!\\p{Alnum})(?i:season|series)[^\\p{Alnum}]{0,3}(\\d{1,4})[^\\p{Alnum}]{0,3}(?i:episode)[^\\p{Alnum}]{0,3}((\\d{1,3}(\\D|$))+)[^\\p{Alnum}]{0,3}(?!\\p{Digit})", scanner(SeasonEpisodeLexer::findSeasonEpisode), m -> {
 			return range(m.group(1), m.group(2));
 		});
 
 		// match patterns like S01E01-E05
-		S00E00SEQ = new SeasonEpisodePattern(null, "(?<!\\p{Alnum}|[-])[Ss](\\d{1,2}|\\d{4})[Ee](\\d{2,3})[-][Ee](\\d{2,3})(?!\\p{Alnum}|[-])", m -> {
+		S00E00SEQ = new SeasonEpisodePattern(null, "(?<!\\p{Alnum}|[-])[Ss](\\d{1,2}|\\d{4})[Ee](\\d{2,3})[-][Ee](\\d{2,3})(?!\\p{Alnum}|[-])", scanner(SeasonEpisodeLexer::findSeasonEpisodeSequence), m -> {
 			return range(m.group(1), m.group(2), m.group(3));
 		});
 
 		// match patterns like S01E01, s01e02, ... [s01]_[e02], s01.e02, s01e02a, s2010e01 ... s01e01-02-03-04, [s01]_[e01-02-03-04] ...
-		S00E00 = new SeasonEpisodePattern(null, "(?<!\\p{Digit})[Ss](\\d{1,2}|\\d{4})[^\\p{Alnum}]{0,3}(?i:ep|e|p|-)(((?<=[^._ ])[Ee]?[Pp]?\\d{1,3}(\\D|$))+)", m -> {
+		S00E00 = new SeasonEpisodePattern(null, "(?<!\\p{Digit})[Ss](\\d{1,2}|\\d{4})[^\\p{Alnum}]{0,3}(?i:ep|e|p|-)(((?<=[^._ ])[Ee]?[Pp]?\\d{1,3}(\\D|$))+)", scanner(SeasonEpisodeLexer::findSeasonEpisodeMulti), m -> {
 			return multi(m.group(1), m.group(2));
 		});
 
 		// match patterns 1x01-1x02, ...
-		SxE1_SxE2 = new SeasonEpisodePattern(sanity, "(?<!\\p{Alnum})(\\d{1,2}x\\d{2}([-._ ]\\d{1,2}x\\d{2})+)(?!\\p{Digit})", m -> {
+		SxE1_SxE2 = new SeasonEpisodePattern(sanity, "(?<!\\p{Alnum})(\\d{1,2}x\\d{2}([-._ ]\\d{1,2}x\\d{2})+)(?!\\p{Digit})", scanner(SeasonEpisodeLexer::findSeasonEpisodePairs), m -> {
 			return pairs(m.group());
 		});
 
 		// match patterns like 1x01, 1.02, ..., 1x01a, 10x01, 10.02, ... 1x01-02-03-04, 1x01x02x03x04 ...
-		SxE = new SeasonEpisodePattern(sanity, "(?<!\\p{Alnum})(\\d{1,2})[xe](((?<=[^._ ])\\d{2,3}(\\D|$))+)", m -> {
+		SxE = new SeasonEpisodePattern(sanity, "(?<!\\p{Alnum})(\\d{1,2})[xe](((?<=[^._ ])\\d{2,3}(\\D|$))+)", scanner(SeasonEpisodeLexer::findSeasonEpisodeNumbers), m -> {
 			return multi(m.group(1), m.group(2));
 		});
 
 		// match patterns 1.02, ..., 10.02, ...
-		Dot101 = new SeasonEpisodePattern(sanity, "(?<!\\p{Alnum}|\\d{4}[.])(\\d{1,2})[.](((?<=[^._ ])\\d{2}(\\D|$))+)", m -> {
+		Dot101 = new SeasonEpisodePattern(sanity, "(?<!\\p{Alnum}|\\d{4}[.])(\\d{1,2})[.](((?<=[^._ ])\\d{2}(\\D|$))+)", scanner(SeasonEpisodeLexer::findSeasonDotEpisode), m -> {
 			return multi(m.group(1), m.group(2));
 		});
 
 		// match patterns like 101-105
-		E01E02SEQ = new SeasonEpisodePattern(sanity, "(?<!\\p{Alnum}|[-])(\\d{2,3})[-](\\d{2,3})(?!\\p{Alnum}|[-])", m -> {
+		E01E02SEQ = new SeasonEpisodePattern(sanity, "(?<!\\p{Alnum}|[-])(\\d{2,3})[-](\\d{2,3})(?!\\p{Alnum}|[-])", scanner(SeasonEpisodeLexer::findEpisodeSequence), m -> {
 			return range(null, m.group(1), m.group(2));
 		});
 
 		// match patterns like ep1, ep.1, ...
-		EP0 = new SeasonEpisodePattern(sanity, "(?<!\\p{Alnum})(\\d{2}|\\d{4})?[\\P{Alnum}]{0,3}(((?i:e|ep|episode|p|part)[\\P{Alnum}]{0,3}\\d{1,3})+)(?!\\p{Digit})", m -> {
+		EP0 = new SeasonEpisodePattern(sanity, "(?<!\\p{Alnum})(\\d{2}|\\d{4})?[\\P{Alnum}]{0,3}(((?i:e|ep|episode|p|part)[\\P{Alnum}]{0,3}\\d{1,3})+)(?!\\p{Digit})", scanner(SeasonEpisodeLexer::findEpisode), m -> {
 			return multi(m.group(1), m.group(2));
 		});
 
 		// match patterns like 01, 102, 1003, 10102 (enclosed in separators)
-		Num101_TOKEN = new SeasonEpisodePattern(sanity, "(?<!\\p{Alnum})([0-2]?\\d?)(\\d{2})(\\d{2})?(?!\\p{Alnum})", m -> {
+		Num101_TOKEN = new SeasonEpisodePattern(sanity, "(?<!\\p{Alnum})([0-2]?\\d?)(\\d{2})(\\d{2})?(?!\\p{Alnum})", scanner(SeasonEpisodeLexer::findNumber), m -> {
 			return numbers(m.group(1), streamCapturingGroups(m).skip(1).toArray(String[]::new));
 		});
 
 		// match patterns like "1 of 2" as Episode 1
-		E1of2 = new SeasonEpisodePattern(sanity, "(?<!\\p{Alnum})(\\d{1,2})[^._ ]?(?i:of)[^._ ]?(\\d{1,2})(?!\\p{Digit})", m -> {
+		E1of2 = new SeasonEpisodePattern(sanity, "(?<!\\p{Alnum})(\\d{1,2})[^._ ]?(?i:of)[^._ ]?(\\d{1,2})(?!\\p{Digit})", scanner(SeasonEpisodeLexer::findEpisodeOf), m -> {
 			return single(null, m.group(1));
 		});
 
 		// (last-resort) match patterns like 101, 102 (and greedily just grab the first)
-		Num101_SUBSTRING = new SeasonEpisodePattern(STRICT_SANITY, "(?<!\\p{Digit})(\\d{1})(\\d{2})(?!\\p{Digit})(.*)", m -> {
+		Num101_SUBSTRING = new SeasonEpisodePattern(STRICT_SANITY, "(?<!\\p{Digit})(\\d{1})(\\d{2})(?!\\p{Digit})(.*)", scanner(SeasonEpisodeLexer::findNumberSubstring), m -> {
 			return single(m.group(1), m.group(2));
 		});
 
@@ -100,6 +112,14 @@ public class SeasonEpisodeMatcher {
 		seasonPattern = compile("Season[-._ ]?(\\d{1,2})", CASE_INSENSITIVE | UNICODE_CHARACTER_CLASS);
 	}
 
+	private Scanner scanner(Scanner scanner) {
+		return mode == Mode.lexer ? scanner : null;
+	}
+
+	private CharSequence tokenize(CharSequence name) {
+		return mode == Mode.lexer ? new SeasonEpisodeLexer(name) : name;
+	}
+
 	protected List<SxE> single(String season, String episode) {
 		return singletonList(new SxE(season, episode));
 	}
@@ -164,8 +184,11 @@ public class SeasonEpisodeMatcher {
 	 * @return the matches returned by the first pattern that returns any matches for this string, or null if no pattern returned any matches
 	 */
 	public List<SxE> match(CharSequence name) {
+		// tokenize only once for all patterns
+		CharSequence input = tokenize(name);
+
 		for (SeasonEpisodeParser pattern : patterns) {
-			List<SxE> match = pattern.match(name);
+			List<SxE> match = pattern.match(input);
 
 			if (!match.isEmpty()) {
 				// current pattern did match
@@ -178,10 +201,11 @@ public class SeasonEpisodeMatcher {
 	public List<SxE> match(File file) {
 		// take folder name into consideration as much as file name but put priority on file name
 		List<String> tail = tokenizeTail(file);
+		List<CharSequence> input = tail.stream().map(this::tokenize).collect(toList());
 
 		for (SeasonEpisodeParser pattern : patterns) {
 			for (int t = 0; t < tail.size(); t++) {
-				List<SxE> match = pattern.match(tail.get(t));
+				List<SxE> match = pattern.match(input.get(t));
 
 				if (!match.isEmpty()) {
 					// current pattern did match
@@ -209,12 +233,15 @@ public class SeasonEpisodeMatcher {
 	}
 
 	public int find(CharSequence name, int fromIndex) {
+		// patterns must not look behind fromIndex
+		CharSequence input = tokenize(name.subSequence(fromIndex, name.length()));
+
 		for (SeasonEpisodeParser pattern : patterns) {
-			int index = pattern.find(name, fromIndex);
+			int index = pattern.find(input, 0);
 
 			if (index >= 0) {
 				// current pattern did match
-				return index;
+				return fromIndex + index;
 			}
 		}
 
@@ -229,6 +256,14 @@ public class SeasonEpisodeMatcher {
 		return null;
 	}
 
+	public static enum Mode {
+
+		regex, lexer;
+
+		public static final Mode DEFAULT = SystemProperty.of("net.filebot.similarity.sxe", Mode::valueOf, lexer).get();
+
+	}
+
 	public static class SxE implements Comparable<SxE> {
 
 		public static final int UNDEFINED = -1;
@@ -321,29 +356,56 @@ public class SeasonEpisodeMatcher {
 
 		protected SeasonEpisodeFilter sanity;
 
+		private final Scanner scanner;
+
 		public SeasonEpisodePattern(SeasonEpisodeFilter sanity, String pattern) {
 			this(sanity, pattern, m -> singletonList(new SxE(m.group(1), m.group(2))));
 		}
 
 		public SeasonEpisodePattern(SeasonEpisodeFilter sanity, String pattern, Function<MatchResult, List<SxE>> process) {
+			this(sanity, pattern, null, process);
+		}
+
+		SeasonEpisodePattern(SeasonEpisodeFilter sanity, String pattern, Scanner scanner, Function<MatchResult, List<SxE>> process) {
 			this.pattern = Pattern.compile(pattern);
 			this.process = process;
 			this.sanity = sanity;
+			this.scanner = scanner;
 		}
 
 		public Matcher matcher(CharSequence name) {
 			return pattern.matcher(name);
 		}
 
+		protected Supplier<MatchResult> scan(CharSequence name) {
+			if (scanner != null) {
+				SeasonEpisodeLexer input = SeasonEpisodeLexer.of(name);
+
+				if (input.isSupported()) {
+					int[] position = { 0 };
+					return () -> {
+						MatchResult match = scanner.find(input, position[0]);
+						if (match != null) {
+							position[0] = match.end();
+						}
+						return match;
+					};
+				}
+			}
+
+			Matcher matcher = matcher(name.toString());
+			return () -> matcher.find() ? matcher : null;
+		}
+
 		@Override
 		public List<SxE> match(CharSequence name) {
 			// name will probably contain no more than two matches
 			List<SxE> matches = new ArrayList<SxE>(2);
 
-			Matcher matcher = matcher(name);
+			Supplier<MatchResult> scan = scan(name);
 
-			while (matcher.find()) {
-				for (SxE value : process.apply(matcher)) {
+			for (MatchResult match = scan.get(); match != null; match = scan.get()) {
+				for (SxE value : process.apply(match)) {
 					if (sanity == null || sanity.filter(value, matches)) {
 						matches.add(value);
 					}
@@ -355,12 +417,13 @@ public class SeasonEpisodeMatcher {
 
 		@Override
 		public int find(CharSequence name, int fromIndex) {
-			Matcher matcher = matcher(name).region(fromIndex, name.length());
+			// same as matching the region from fromIndex without transparent bounds
+			Supplier<MatchResult> scan = scan(fromIndex == 0 ? name : name.subSequence(fromIndex, name.length()));
 
-			while (matcher.find()) {
-				for (SxE value : process.apply(matcher)) {
+			for (MatchResult match = scan.get(); match != null; match = scan.get()) {
+				for (SxE value : process.apply(match)) {
 					if (sanity == null || sanity.filter(value)) {
-						return matcher.start();
+						return fromIndex + match.start();
 					}
 				}
 			}
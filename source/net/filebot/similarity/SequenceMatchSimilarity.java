@@ -1,7 +1,7 @@
 package net.filebot.similarity;
 
 import static net.filebot.similarity.CommonSequenceMatcher.*;
-import static net.filebot.similarity.Normalization.*;
+import static net.filebot.similarity.NormalizationCache.*;
 
 import java.util.Locale;
 
@@ -35,14 +35,10 @@ public class SequenceMatchSimilarity implements SimilarityMetric {
 	}
 
 	protected String normalize(Object object) {
-		// use string representation
-		String name = object.toString();
-
-		// normalize separators
-		name = normalizePunctuation(name);
-
-		// normalize case and trim
-		return name.trim().toLowerCase();
+		// 1. use string representation
+		// 2. normalize separators
+		// 3. normalize case and trim
+		return normalizeSequence(object.toString());
 	}
 
 	protected String match(String s1, String s2) {
@@ -9,7 +9,8 @@ import static net.filebot.util.FileUtilities.*;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.CancellationException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import javax.swing.JScrollPane;
 import javax.swing.JTable;
@@ -49,38 +50,56 @@ class AttributeTool extends Tool<TableModel> {
 	}
 
 	@Override
-	protected TableModel createModelInBackground(List<File> root) {
-		FileAttributesTableModel model = new FileAttributesTableModel();
+	protected TableModel createModelInBackground(List<File> root) throws Exception {
+		return createModelInBackground(root, model -> {});
+	}
 
+	@Override
+	protected TableModel createModelInBackground(List<File> root, Consumer<Supplier<TableModel>> publish) throws Exception {
 		if (root.isEmpty()) {
-			return model;
+			return new FileAttributesTableModel();
 		}
 
 		List<File> files = listFiles(root, filter(VIDEO_FILES, SUBTITLE_FILES), HUMAN_NAME_ORDER);
+		Object[][] rows = new Object[files.size()][];
 
-		for (File file : files) {
-			Object metaObject = xattr.getMetaInfo(file);
-			String originalName = xattr.getOriginalName(file);
-
-			if (metaObject instanceof Episode) {
-				SeriesInfo seriesInfo = ((Episode) metaObject).getSeriesInfo();
-				if (seriesInfo != null) {
-					model.addRow(String.format("%s::%d", seriesInfo.getDatabase(), seriesInfo.getId()), metaObject, originalName, file);
-				}
-			} else if (metaObject instanceof Movie) {
-				Movie movie = (Movie) metaObject;
-				if (movie.getTmdbId() > 0) {
-					model.addRow(String.format("%s::%d", "TheMovieDB", movie.getTmdbId()), metaObject, originalName, file);
-				} else if (movie.getImdbId() > 0) {
-					model.addRow(String.format("%s::%d", "OMDb", movie.getImdbId()), metaObject, originalName, file);
-				}
-			}
+		// read extended attributes in parallel but keep the original order
+		forEachParallel(files, this::getRow, (row, index) -> {
+			rows[index] = row;
+			publish.accept(() -> createModel(rows));
+		});
+
+		return createModel(rows);
+	}
+
+	private Object[] getRow(File file) {
+		Object metaObject = xattr.getMetaInfo(file);
+		String originalName = xattr.getOriginalName(file);
 
-			if (Thread.interrupted()) {
-				throw new CancellationException();
+		if (metaObject instanceof Episode) {
+			SeriesInfo seriesInfo = ((Episode) metaObject).getSeriesInfo();
+			if (seriesInfo != null) {
+				return new Object[] { String.format("%s::%d", seriesInfo.getDatabase(), seriesInfo.getId()), metaObject, originalName, file };
+			}
+		} else if (metaObject instanceof Movie) {
+			Movie movie = (Movie) metaObject;
+			if (movie.getTmdbId() > 0) {
+				return new Object[] { String.format("%s::%d", "TheMovieDB", movie.getTmdbId()), metaObject, originalName, file };
+			} else if (movie.getImdbId() > 0) {
+				return new Object[] { String.format("%s::%d", "OMDb", movie.getImdbId()), metaObject, originalName, file };
 			}
 		}
 
+		return null;
+	}
+
+	private FileAttributesTableModel createModel(Object[][] rows) {
+		FileAttributesTableModel model = new FileAttributesTableModel();
+		for (Object[] row : rows) {
+			if (row != null) {
+				model.addRow(row);
+			}
+		}
 		return model;
 	}
 
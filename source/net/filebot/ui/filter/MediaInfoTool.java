@@ -1,6 +1,8 @@
 package net.filebot.ui.filter;
 
+import static java.util.Arrays.*;
 import static java.util.Collections.*;
+import static java.util.stream.Collectors.*;
 import static javax.swing.BorderFactory.*;
 import static net.filebot.Logging.*;
 import static net.filebot.MediaTypes.*;
@@ -8,11 +10,16 @@ import static net.filebot.ui.ThemeSupport.*;
 import static net.filebot.util.FileUtilities.*;
 
 import java.io.File;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.TreeMap;
-import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.regex.Pattern;
 import java.util.stream.IntStream;
 
@@ -23,7 +30,7 @@ import javax.swing.table.AbstractTableModel;
 import javax.swing.table.TableColumnModel;
 import javax.swing.table.TableModel;
 
-import net.filebot.mediainfo.MediaInfo;
+import net.filebot.media.MediaCharacteristicsStore;
 import net.filebot.mediainfo.MediaInfo.StreamKind;
 import net.filebot.util.ui.LoadingOverlayPane;
 import net.miginfocom.swing.MigLayout;
@@ -54,43 +61,66 @@ class MediaInfoTool extends Tool<TableModel> {
 	}
 
 	@Override
-	protected TableModel createModelInBackground(List<File> root) {
+	protected TableModel createModelInBackground(List<File> root) throws Exception {
+		return createModelInBackground(root, model -> {});
+	}
+
+	@Override
+	protected TableModel createModelInBackground(List<File> root, Consumer<Supplier<TableModel>> publish) throws Exception {
 		if (root.isEmpty()) {
 			return new MediaInfoTableModel();
 		}
 
 		List<File> files = listFiles(root, filter(VIDEO_FILES, AUDIO_FILES, IMAGE_FILES), HUMAN_NAME_ORDER);
 		Map<MediaInfoKey, String[]> data = new TreeMap<MediaInfoKey, String[]>();
+		BitSet completed = new BitSet(files.size());
 
-		try (MediaInfo mi = new MediaInfo()) {
-			IntStream.range(0, files.size()).forEach(fileIndex -> {
-				File f = files.get(fileIndex);
-
-				if ((VIDEO_FILES.accept(f) && f.length() > ONE_MEGABYTE) || (AUDIO_FILES.accept(f) && f.length() > ONE_KILOBYTE) || (IMAGE_FILES.accept(f) && f.length() > 0)) {
-					try {
-						mi.open(f);
-						mi.snapshot().forEach((kind, streams) -> {
-							IntStream.range(0, streams.size()).forEach(streamIndex -> {
-								streams.get(streamIndex).forEach((name, value) -> {
-									String[] values = data.computeIfAbsent(new MediaInfoKey(kind, streamIndex, name), k -> new String[files.size()]);
-									values[fileIndex] = value;
-								});
-							});
+		// read files in parallel but merge values on the current thread
+		forEachParallel(files, this::getMediaInfo, (values, fileIndex) -> {
+			values.forEach((key, value) -> {
+				data.computeIfAbsent(key, k -> new String[files.size()])[fileIndex] = value;
+			});
+
+			completed.set(fileIndex);
+			publish.accept(() -> createModel(files, completed, data));
+		});
+
+		return new MediaInfoTableModel(data.isEmpty() ? emptyList() : files, data);
+	}
+
+	private Map<MediaInfoKey, String> getMediaInfo(File f) {
+		Map<MediaInfoKey, String> values = new HashMap<MediaInfoKey, String>();
+
+		if ((VIDEO_FILES.accept(f) && f.length() > ONE_MEGABYTE) || (AUDIO_FILES.accept(f) && f.length() > ONE_KILOBYTE) || (IMAGE_FILES.accept(f) && f.length() > 0)) {
+			try {
+				MediaCharacteristicsStore.getInstance().getMediaInfo(f).forEach((kind, streams) -> {
+					for (int streamIndex = 0; streamIndex < streams.size(); streamIndex++) {
+						int stream = streamIndex;
+						streams.get(streamIndex).forEach((name, value) -> {
+							values.put(MediaInfoKey.of(kind, stream, name), value);
 						});
-					} catch (IllegalArgumentException e) {
-						debug.finest(e::toString);
-					} catch (Exception e) {
-						debug.warning(e::toString);
 					}
-				}
-
-				if (Thread.interrupted()) {
-					throw new CancellationException();
-				}
-			});
+				});
+			} catch (IllegalArgumentException e) {
+				debug.finest(e::toString);
+			} catch (Exception e) {
+				debug.warning(e::toString);
+			}
 		}
 
-		return new MediaInfoTableModel(data.isEmpty() ? emptyList() : files, data);
+		return values;
+	}
+
+	private MediaInfoTableModel createModel(List<File> files, BitSet completed, Map<MediaInfoKey, String[]> data) {
+		// intermediate model with all files that have been processed so far
+		int[] rows = completed.stream().toArray();
+		Map<MediaInfoKey, String[]> values = new LinkedHashMap<MediaInfoKey, String[]>(data.size());
+
+		data.forEach((key, column) -> {
+			values.put(key, stream(rows).mapToObj(i -> column[i]).toArray(String[]::new));
+		});
+
+		return new MediaInfoTableModel(stream(rows).mapToObj(files::get).collect(toList()), values);
 	}
 
 	@Override
@@ -108,12 +138,22 @@ class MediaInfoTool extends Tool<TableModel> {
 		public final int stream;
 		public final String name;
 
+		private final int hashCode;
+
 		private static final Pattern strip = Pattern.compile("[^a-z]", Pattern.CASE_INSENSITIVE);
 
-		public MediaInfoKey(StreamKind kind, int stream, String name) {
+		// normalize each distinct parameter name only once
+		private static final Map<String, String> names = new ConcurrentHashMap<String, String>();
+
+		public static MediaInfoKey of(StreamKind kind, int stream, String name) {
+			return new MediaInfoKey(kind, stream, names.computeIfAbsent(name, n -> strip.matcher(n).replaceAll("").intern()));
+		}
+
+		private MediaInfoKey(StreamKind kind, int stream, String name) {
 			this.kind = kind;
 			this.stream = stream;
-			this.name = strip.matcher(name).replaceAll("");
+			this.name = name;
+			this.hashCode = kind.ordinal() + (stream << 8) + name.hashCode();
 		}
 
 		@Override
@@ -127,7 +167,7 @@ class MediaInfoTool extends Tool<TableModel> {
 
 		@Override
 		public int hashCode() {
-			return kind.ordinal() + (stream << 8) + name.hashCode();
+			return hashCode;
 		}
 
 		@Override
@@ -1,15 +1,26 @@
 package net.filebot.ui.filter;
 
 import static java.util.Collections.*;
+import static java.util.concurrent.TimeUnit.*;
 import static java.util.stream.Collectors.*;
 import static net.filebot.Logging.*;
+import static net.filebot.Settings.*;
 import static net.filebot.util.ExceptionUtilities.*;
 import static net.filebot.util.FileUtilities.*;
 
 import java.io.File;
+import java.util.AbstractMap.SimpleImmutableEntry;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map.Entry;
 import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.ObjIntConsumer;
+import java.util.function.Supplier;
 import java.util.logging.Level;
 
 import javax.swing.JComponent;
@@ -20,6 +31,7 @@ import org.apache.commons.io.FileUtils;
 
 import net.filebot.ui.filter.FileTree.FileNode;
 import net.filebot.ui.filter.FileTree.FolderNode;
+import net.filebot.util.DefaultThreadFactory;
 import net.filebot.util.ui.LoadingOverlayPane;
 
 abstract class Tool<M> extends JComponent {
@@ -55,19 +67,77 @@ abstract class Tool<M> extends JComponent {
 
 	protected abstract M createModelInBackground(List<File> root) throws Exception;
 
+	/**
+	 * Same as {@link #createModelInBackground(List)} but may also publish intermediate models while the final model is still being created
+	 */
+	protected M createModelInBackground(List<File> root, Consumer<Supplier<M>> publish) throws Exception {
+		return createModelInBackground(root);
+	}
+
 	protected abstract void setModel(M model);
 
-	private class UpdateModelTask extends SwingWorker<M, Void> {
+	/**
+	 * Process the given files in parallel and pass each result to the given consumer in the order of completion
+	 */
+	protected <T> void forEachParallel(List<File> files, FileTask<T> task, ObjIntConsumer<T> consumer) throws Exception {
+		ExecutorService workerThreadPool = Executors.newFixedThreadPool(getPreferredThreadPoolSize(), new DefaultThreadFactory(getName(), Thread.NORM_PRIORITY, true));
+
+		try {
+			CompletionService<Entry<Integer, T>> completionService = new ExecutorCompletionService<Entry<Integer, T>>(workerThreadPool);
+
+			for (int i = 0; i < files.size(); i++) {
+				int index = i;
+				completionService.submit(() -> new SimpleImmutableEntry<Integer, T>(index, task.apply(files.get(index))));
+			}
+
+			for (int i = 0; i < files.size(); i++) {
+				try {
+					Entry<Integer, T> result = completionService.take().get();
+					consumer.accept(result.getValue(), result.getKey());
+				} catch (InterruptedException e) {
+					throw new CancellationException();
+				}
+			}
+		} finally {
+			workerThreadPool.shutdownNow();
+		}
+	}
+
+	@FunctionalInterface
+	protected interface FileTask<T> {
+		T apply(File file) throws Exception;
+	}
+
+	private class UpdateModelTask extends SwingWorker<M, M> {
 
 		private final List<File> root;
 
+		// publish intermediate models at most once per second, and don't spend more than a tenth of the time on creating intermediate models (each of which is a copy of all data so far)
+		private long nextPublish = System.nanoTime() + SECONDS.toNanos(1);
+
 		public UpdateModelTask(List<File> root) {
 			this.root = root;
 		}
 
 		@Override
 		protected M doInBackground() throws Exception {
-			return createModelInBackground(root);
+			return createModelInBackground(root, model -> {
+				long start = System.nanoTime();
+				if (start - nextPublish >= 0) {
+					publish(model.get());
+
+					long time = System.nanoTime() - start;
+					nextPublish = start + time + Math.max(SECONDS.toNanos(1), time * 10);
+				}
+			});
+		}
+
+		@Override
+		protected void process(List<M> chunks) {
+			// intermediate models may be processed after the final model has already been set
+			if (this == updateTask && !isCancelled() && !isDone()) {
+				setModel(chunks.get(chunks.size() - 1));
+			}
 		}
 
 		@Override
@@ -49,8 +49,9 @@ import javax.swing.table.TableRowSorter;
 
 import net.filebot.ResourceManager;
 import net.filebot.format.ExpressionFormat;
+import net.filebot.format.ExpressionFormat.Compilation;
 import net.filebot.format.MediaBindingBean;
-import net.filebot.mediainfo.MediaInfo;
+import net.filebot.media.MediaCharacteristicsStore;
 import net.filebot.mediainfo.MediaInfo.StreamKind;
 import net.filebot.util.DefaultThreadFactory;
 import net.filebot.util.FileUtilities.ExtensionFileFilter;
@@ -230,7 +231,7 @@ class BindingDialog extends JDialog {
 
 		private Map<StreamKind, List<Map<String, String>>> getMediaInfo(File file) {
 			try {
-				return MediaInfo.snapshot(file);
+				return MediaCharacteristicsStore.getInstance().getMediaInfo(file);
 			} catch (Exception e) {
 				log.log(Level.SEVERE, e.getMessage(), e);
 				return null;
@@ -330,7 +331,7 @@ class BindingDialog extends JDialog {
 
 		@Override
 		protected String doInBackground() throws Exception {
-			ExpressionFormat format = new ExpressionFormat(expression) {
+			ExpressionFormat format = new ExpressionFormat(expression, Compilation.scriptlet) {
 
 				@Override
 				protected Object[] compile(String expression) throws ScriptException {
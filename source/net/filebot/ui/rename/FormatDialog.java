@@ -65,6 +65,7 @@ import net.filebot.UserFiles;
 import net.filebot.format.BindingException;
 import net.filebot.format.ExpressionFileFormat;
 import net.filebot.format.ExpressionFormat;
+import net.filebot.format.ExpressionFormat.Result;
 import net.filebot.format.MediaBindingBean;
 import net.filebot.format.SuppressedThrowables;
 import net.filebot.media.MetaAttributes;
@@ -94,7 +95,7 @@ public class FormatDialog extends JDialog {
 	private MediaBindingBean sample = null;
 
 	private ExecutorService executor = createExecutor();
-	private RunnableFuture<String> currentPreviewFuture;
+	private RunnableFuture<Result> currentPreviewFuture;
 
 	private JLabel preview = new JLabel();
 	private JLabel status = new JLabel();
@@ -454,24 +455,25 @@ public class FormatDialog extends JDialog {
 			Timer progressIndicatorTimer = invokeLater(400, () -> progressIndicator.setVisible(true));
 
 			// cancel old worker later
-			Future<String> obsoletePreviewFuture = currentPreviewFuture;
+			Future<Result> obsoletePreviewFuture = currentPreviewFuture;
 
 			// create new worker
-			currentPreviewFuture = new SwingWorker<String, Void>() {
+			currentPreviewFuture = new SwingWorker<Result, Void>() {
 
 				@Override
-				protected String doInBackground() throws Exception {
-					return format.format(sample);
+				protected Result doInBackground() throws Exception {
+					return format.evaluate(sample);
 				}
 
 				@Override
 				protected void done() {
 					try {
-						preview.setText(get());
+						Result result = get();
+						preview.setText(result.getValue());
 
 						// check internal script exception
-						if (format.suppressed() != null) {
-							throw format.suppressed();
+						if (result.getSuppressed() != null) {
+							throw result.getSuppressed();
 						}
 
 						// no warning or error
@@ -1,17 +1,14 @@
 package net.filebot.ui.sfv;
 
-import static net.filebot.util.FileUtilities.*;
+import static java.util.Collections.*;
 
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.InputStream;
-import java.util.Collections;
 import java.util.Map;
 import java.util.concurrent.CancellationException;
 
 import javax.swing.SwingWorker;
 
-import net.filebot.hash.Hash;
+import net.filebot.hash.HashEngine;
 import net.filebot.hash.HashType;
 
 class ChecksumComputationTask extends SwingWorker<Map<HashType, String>, Void> {
@@ -26,39 +23,18 @@ class ChecksumComputationTask extends SwingWorker<Map<HashType, String>, Void> {
 
 	@Override
 	protected Map<HashType, String> doInBackground() throws Exception {
-		// create hash instance
-		Hash hash = hashType.newHash();
-
 		// cache length for speed
 		long length = file.length();
 
-		// open file
-		InputStream in = new FileInputStream(file);
-
-		try {
-			byte[] buffer = new byte[BUFFER_SIZE];
-
-			long position = 0;
-			int len = 0;
-
-			while ((len = in.read(buffer)) >= 0) {
-				position += len;
+		return HashEngine.getInstance().computeHashes(file, singleton(hashType), position -> {
+			// update progress
+			setProgress(length == 0 ? 100 : (int) ((position * 100) / length));
 
-				hash.update(buffer, 0, len);
-
-				// update progress
-				setProgress((int) ((position * 100) / length));
-
-				// check abort status
-				if (isCancelled() || Thread.interrupted()) {
-					throw new CancellationException();
-				}
+			// check abort status
+			if (isCancelled()) {
+				throw new CancellationException();
 			}
-		} finally {
-			in.close();
-		}
-
-		return Collections.singletonMap(hashType, hash.digest());
+		});
 	}
 
 }
@@ -0,0 +1,210 @@
+package net.filebot.util;
+
+import static java.util.Arrays.*;
+
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * Immutable Aho-Corasick automaton for finding all occurrences of a fixed set of patterns in a text in a single pass. Instances are thread-safe once constructed.
+ */
+public class AhoCorasickMatcher {
+
+	private static final int ROOT = 0;
+	private static final int NONE = -1;
+
+	private final Transitions transitions = new Transitions();
+
+	private int size = 1;
+	private char[] label = new char[64];
+	private int[] firstChild = new int[64];
+	private int[] nextSibling = new int[64];
+	private int[] fail = new int[64];
+	private int[] output = new int[64];
+	private int[] firstPattern = new int[64];
+
+	private final int[] nextPattern;
+
+	/**
+	 * @param patterns
+	 *            patterns identified by their list index (null or empty patterns are ignored)
+	 */
+	public AhoCorasickMatcher(List<String> patterns) {
+		nextPattern = new int[patterns.size()];
+		fill(firstChild, NONE);
+		fill(firstPattern, NONE);
+
+		for (int i = 0; i < patterns.size(); i++) {
+			String p = patterns.get(i);
+			if (p == null || p.isEmpty()) {
+				continue;
+			}
+
+			int node = ROOT;
+			for (int j = 0; j < p.length(); j++) {
+				int child = transitions.get(node, p.charAt(j));
+				if (child == NONE) {
+					child = addNode(node, p.charAt(j));
+				}
+				node = child;
+			}
+			nextPattern[i] = firstPattern[node];
+			firstPattern[node] = i;
+		}
+
+		// trim node arrays
+		label = copyOf(label, size);
+		firstChild = copyOf(firstChild, size);
+		nextSibling = copyOf(nextSibling, size);
+		fail = copyOf(fail, size);
+		output = copyOf(output, size);
+		firstPattern = copyOf(firstPattern, size);
+
+		computeFailureLinks();
+	}
+
+	private int addNode(int parent, char c) {
+		if (size == label.length) {
+			int n = size * 2;
+			label = copyOf(label, n);
+			firstChild = copyOf(firstChild, n);
+			nextSibling = copyOf(nextSibling, n);
+			fail = copyOf(fail, n);
+			output = copyOf(output, n);
+			firstPattern = copyOf(firstPattern, n);
+			fill(firstChild, size, n, NONE);
+			fill(firstPattern, size, n, NONE);
+		}
+
+		int node = size++;
+		label[node] = c;
+		nextSibling[node] = firstChild[parent];
+		firstChild[parent] = node;
+		transitions.put(parent, c, node);
+		return node;
+	}
+
+	private void computeFailureLinks() {
+		// breadth-first traversal so that failure links always point to already processed nodes
+		int[] queue = new int[size];
+		int head = 0, tail = 0;
+
+		for (int child = firstChild[ROOT]; child != NONE; child = nextSibling[child]) {
+			fail[child] = ROOT;
+			output[child] = ROOT;
+			queue[tail++] = child;
+		}
+
+		while (head < tail) {
+			int node = queue[head++];
+			for (int child = firstChild[node]; child != NONE; child = nextSibling[child]) {
+				int f = next(fail[node], label[child]);
+				fail[child] = f;
+				output[child] = firstPattern[f] != NONE ? f : output[f];
+				queue[tail++] = child;
+			}
+		}
+	}
+
+	private int next(int state, char c) {
+		while (true) {
+			int child = transitions.get(state, c);
+			if (child != NONE) {
+				return child;
+			}
+			if (state == ROOT) {
+				return ROOT;
+			}
+			state = fail[state];
+		}
+	}
+
+	/**
+	 * Report the pattern index of every pattern occurrence in the given text. Patterns that occur multiple times are reported multiple times.
+	 */
+	public void match(CharSequence text, IntConsumer consumer) {
+		int state = ROOT;
+		for (int i = 0; i < text.length(); i++) {
+			state = next(state, text.charAt(i));
+			for (int node = firstPattern[state] != NONE ? state : output[state]; node != ROOT; node = output[node]) {
+				for (int p = firstPattern[node]; p != NONE; p = nextPattern[p]) {
+					consumer.accept(p);
+				}
+			}
+		}
+	}
+
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Open addressing hash table mapping (node, char) transitions to child nodes
+	 */
+	private static class Transitions {
+
+		private long[] keys = new long[64];
+		private int[] values = new int[64];
+		private int size = 0;
+
+		public Transitions() {
+			fill(keys, NONE);
+		}
+
+		private static long key(int node, char c) {
+			return ((long) node << 16) | c;
+		}
+
+		private static int hash(long key, int mask) {
+			long h = key * 0x9E3779B97F4A7C15L;
+			return (int) (h ^ (h >>> 32)) & mask;
+		}
+
+		public int get(int node, char c) {
+			long key = key(node, c);
+			int mask = keys.length - 1;
+			for (int i = hash(key, mask);; i = (i + 1) & mask) {
+				if (keys[i] == key) {
+					return values[i];
+				}
+				if (keys[i] == NONE) {
+					return NONE;
+				}
+			}
+		}
+
+		public void put(int node, char c, int child) {
+			if (size * 2 >= keys.length) {
+				rehash(keys.length * 2);
+			}
+			insert(key(node, c), child);
+			size++;
+		}
+
+		private void insert(long key, int value) {
+			int mask = keys.length - 1;
+			int i = hash(key, mask);
+			while (keys[i] != NONE) {
+				i = (i + 1) & mask;
+			}
+			keys[i] = key;
+			values[i] = value;
+		}
+
+		private void rehash(int capacity) {
+			long[] k = keys;
+			int[] v = values;
+
+			keys = new long[capacity];
+			values = new int[capacity];
+			fill(keys, NONE);
+
+			for (int i = 0; i < k.length; i++) {
+				if (k[i] != NONE) {
+					insert(k[i], v[i]);
+				}
+			}
+		}
+	}
+
+}
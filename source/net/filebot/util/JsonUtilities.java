@@ -4,8 +4,12 @@ import static java.util.Arrays.*;
 import static java.util.Collections.*;
 import static net.filebot.Logging.*;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
+import java.nio.ByteBuffer;
 import java.util.EnumMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.function.Function;
 import java.util.stream.Stream;
@@ -25,6 +29,39 @@ public class JsonUtilities {
 		return JsonReader.jsonToJava(json.toString(), singletonMap(JsonReader.USE_MAPS, true));
 	}
 
+	public static Object readJson(ByteBuffer json) throws IOException {
+		if (!json.hasRemaining()) {
+			return EMPTY_MAP;
+		}
+
+		// decode straight from the given bytes (JSON is always UTF-8)
+		try (InputStream in = new ByteBufferInputStream(json.duplicate())) {
+			return JsonReader.jsonToJava(in, singletonMap(JsonReader.USE_MAPS, true));
+		}
+	}
+
+	/**
+	 * Copy of the given JSON tree with unmodifiable maps, so that the same tree can be shared by many readers. Arrays are copied as well, but must not be modified.
+	 */
+	public static Object asImmutable(Object node) {
+		if (node instanceof JsonObject && ((JsonObject<?, ?>) node).isArray()) {
+			return asImmutable(((JsonObject<?, ?>) node).getArray());
+		}
+
+		if (node instanceof Map) {
+			Map<?, ?> map = (Map<?, ?>) node;
+			Map<Object, Object> copy = new LinkedHashMap<Object, Object>(map.size());
+			map.forEach((k, v) -> copy.put(k, asImmutable(v)));
+			return unmodifiableMap(copy);
+		}
+
+		if (node instanceof Object[]) {
+			return stream((Object[]) node).map(JsonUtilities::asImmutable).toArray();
+		}
+
+		return node;
+	}
+
 	public static String json(Object object, boolean pretty) {
 		return JsonWriter.objectToJson(object, singletonMap(JsonWriter.PRETTY_PRINT, pretty));
 	}
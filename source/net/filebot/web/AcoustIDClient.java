@@ -30,7 +30,7 @@ import net.filebot.ResourceManager;
 
 public class AcoustIDClient implements MusicIdentificationService {
 
-	private static final FloodLimit REQUEST_LIMIT = new FloodLimit(3, 1, TimeUnit.SECONDS);
+	private static final RateLimit REQUEST_LIMIT = new RateLimit("AcoustID", 3, 1, TimeUnit.SECONDS);
 
 	private String apikey;
 
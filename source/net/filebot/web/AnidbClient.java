@@ -39,7 +39,7 @@ import net.filebot.ResourceManager;
 
 public class AnidbClient extends AbstractEpisodeListProvider implements ArtworkProvider {
 
-	private static final FloodLimit REQUEST_LIMIT = new FloodLimit(1, 5, TimeUnit.SECONDS); // no more than 1 requests within a 5 second window
+	private static final RateLimit REQUEST_LIMIT = new RateLimit("AniDB", 1, 5, TimeUnit.SECONDS); // no more than 1 requests within a 5 second window
 
 	private final String client;
 	private final int clientver;
@@ -176,7 +176,7 @@ public class AnidbClient extends AbstractEpisodeListProvider implements ArtworkP
 
 	private Document getXmlResource(int aid) throws Exception {
 		Cache cache = Cache.getCache(getName(), CacheType.Monthly);
-		return cache.xml(aid, this::getResource).fetch(withPermit(fetchIfModified(), r -> REQUEST_LIMIT.acquirePermit())).expire(Cache.ONE_WEEK).get();
+		return cache.xml(aid, this::getResource).fetch(withPermit(fetchIfModified(), REQUEST_LIMIT)).expire(Cache.ONE_WEEK).get();
 	}
 
 	private URL getResource(int aid) throws Exception {
@@ -9,10 +9,16 @@ import static org.simmetrics.builders.StringMetricBuilder.*;
 import static org.simmetrics.tokenizers.Tokenizers.*;
 
 import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
+import java.util.PriorityQueue;
 import java.util.Set;
 import java.util.concurrent.ExecutionException;
 import java.util.function.Function;
@@ -20,12 +26,17 @@ import java.util.stream.IntStream;
 
 import org.simmetrics.StringMetric;
 import org.simmetrics.metrics.BlockDistance;
+import org.simmetrics.tokenizers.Tokenizer;
 
 import com.ibm.icu.text.Transliterator;
 
 public class LocalSearch<T> {
 
-	private final StringMetric metric = with(new BlockDistance<String>()).tokenize(qGramWithPadding(3)).build();
+	private static final int Q = 3;
+
+	private final Tokenizer tokenizer = qGramWithPadding(Q);
+
+	private final StringMetric metric = with(new BlockDistance<String>()).tokenize(tokenizer).build();
 
 	private final Transliterator transliterator = Transliterator.getInstance("Any-Latin;Latin-ASCII;[:Diacritic:]remove");
 
@@ -35,14 +46,126 @@ public class LocalSearch<T> {
 	private final T[] objects;
 	private final Set<String>[] fields;
 
+	// all fields of all objects in object order, i.e. the fields of object i are fieldOffset[i] until fieldOffset[i + 1]
+	private final String[] fieldValue;
+	private final int[] fieldObject;
+	private final int[] fieldOffset;
+	private final int[] fieldSize;
+
+	// q-gram postings (fields with multiple occurrences of the same q-gram are listed multiple times in a row)
+	private final Map<String, int[]> postings;
+
+	private final ThreadLocal<int[]> accumulator;
+
 	public LocalSearch(T[] data, Function<T, Collection<String>> keywords) {
 		objects = data.clone();
 		fields = stream(objects).map(keywords).map(this::normalize).toArray(Set[]::new);
+
+		fieldOffset = new int[objects.length + 1];
+		for (int i = 0; i < objects.length; i++) {
+			fieldOffset[i + 1] = fieldOffset[i] + fields[i].size();
+		}
+
+		int n = fieldOffset[objects.length];
+		fieldValue = new String[n];
+		fieldObject = new int[n];
+		fieldSize = new int[n];
+
+		Map<String, List<Integer>> index = new HashMap<String, List<Integer>>();
+		for (int i = 0, f = 0; i < objects.length; i++) {
+			for (String value : fields[i]) {
+				List<String> tokens = tokenizer.tokenizeToList(value);
+
+				fieldValue[f] = value;
+				fieldObject[f] = i;
+				fieldSize[f] = tokens.size();
+
+				for (String token : tokens) {
+					index.computeIfAbsent(token, k -> new ArrayList<Integer>(1)).add(f);
+				}
+				f++;
+			}
+		}
+
+		postings = new HashMap<String, int[]>(index.size());
+		index.forEach((k, v) -> postings.put(k, v.stream().mapToInt(Integer::intValue).toArray()));
+
+		accumulator = ThreadLocal.withInitial(() -> new int[n]);
 	}
 
 	public List<T> search(String q) throws ExecutionException, InterruptedException {
 		String query = normalize(q);
 
+		// short queries may be contained in fields without sharing any q-gram
+		if (query.length() < Q) {
+			return searchByFullScan(query);
+		}
+
+		Map<String, Integer> queryTokens = new HashMap<String, Integer>();
+		for (String token : tokenizer.tokenizeToList(query)) {
+			queryTokens.merge(token, 1, Integer::sum);
+		}
+		int querySize = queryTokens.values().stream().mapToInt(Integer::intValue).sum();
+
+		// count common q-grams per field
+		int[] common = accumulator.get();
+		BitSet touched = new BitSet();
+
+		try {
+			queryTokens.forEach((token, count) -> {
+				int[] p = postings.get(token);
+				if (p != null) {
+					for (int j = 0; j < p.length;) {
+						int f = p[j], k = j;
+						while (k < p.length && p[k] == f) {
+							k++;
+						}
+						touched.set(f);
+						common[f] += Math.min(count, k - j);
+						j = k;
+					}
+				}
+			});
+
+			// select objects with at least one field that may match, i.e. 2c / (|q| + |f|) > 0.5
+			BitSet candidates = new BitSet(objects.length);
+			for (int f = touched.nextSetBit(0); f >= 0; f = touched.nextSetBit(f + 1)) {
+				if (4 * common[f] >= querySize + fieldSize[f] || fieldValue[f].contains(query)) {
+					candidates.set(fieldObject[f]);
+				}
+			}
+
+			// keep best results in a bounded heap (worst result on top)
+			Comparator<Result> order = comparing((Result r) -> r.similarity).thenComparing(r -> -r.index);
+			PriorityQueue<Result> results = new PriorityQueue<Result>(resultSetSize + 1, order);
+
+			for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+				boolean match = false;
+				double similarity = 0;
+
+				for (int f = fieldOffset[i]; f < fieldOffset[i + 1]; f++) {
+					match |= fieldValue[f].contains(query);
+					similarity = Math.max(similarity, similarity(common[f], querySize, fieldSize[f]));
+				}
+
+				if (match || similarity > resultMinimumSimilarity) {
+					results.add(new Result(i, similarity));
+					if (results.size() > resultSetSize) {
+						results.poll();
+					}
+				}
+			}
+
+			return results.stream().sorted(order.reversed()).map(r -> objects[r.index]).collect(toList());
+		} finally {
+			// reset accumulator for the next query on this thread, even if this query failed
+			for (int f = touched.nextSetBit(0); f >= 0; f = touched.nextSetBit(f + 1)) {
+				common[f] = 0;
+			}
+		}
+	}
+
+	List<T> searchByFullScan(String query) {
 		return IntStream.range(0, objects.length).mapToObj(i -> {
 			T object = objects[i];
 			Set<String> field = fields[i];
@@ -54,6 +177,20 @@ public class LocalSearch<T> {
 		}).filter(Objects::nonNull).sorted(reverseOrder(comparing(Entry::getValue))).limit(resultSetSize).map(Entry::getKey).collect(toList());
 	}
 
+	private static float similarity(int common, int a, int b) {
+		// same as BlockDistance similarity for q-gram multisets of size a and b with common q-grams
+		if (a == 0 && b == 0) {
+			return 1.0f;
+		}
+		if (a == 0 || b == 0) {
+			return 0.0f;
+		}
+
+		float distance = a + b - 2 * common;
+		float maxDistance = a + b;
+		return 1.0f - distance / maxDistance;
+	}
+
 	protected Set<String> normalize(Collection<String> values) {
 		return values.stream().map(this::normalize).collect(toSet());
 	}
@@ -63,4 +200,15 @@ public class LocalSearch<T> {
 		return normalizePunctuation(transliterator.transform(value)).toLowerCase();
 	}
 
+	private static class Result {
+
+		public final int index;
+		public final double similarity;
+
+		public Result(int index, double similarity) {
+			this.index = index;
+			this.similarity = similarity;
+		}
+	}
+
 }
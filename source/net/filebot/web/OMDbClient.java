@@ -37,7 +37,7 @@ import net.filebot.ResourceManager;
 
 public class OMDbClient implements MovieIdentificationService {
 
-	private static final FloodLimit REQUEST_LIMIT = new FloodLimit(2, 1, TimeUnit.SECONDS);
+	private static final RateLimit REQUEST_LIMIT = new RateLimit("OMDb", 2, 1, TimeUnit.SECONDS);
 
 	private String apikey;
 
@@ -138,7 +138,7 @@ public class OMDbClient implements MovieIdentificationService {
 
 		return cache.json(encodeParameters(parameters, true), s -> {
 			return getResource('?' + s + "&apikey=" + apikey);
-		}).fetch(withPermit(fetchIfModified(), r -> REQUEST_LIMIT.acquirePermit())).expire(Cache.ONE_WEEK).get();
+		}).fetch(withPermit(fetchIfModified(), REQUEST_LIMIT)).expire(Cache.ONE_WEEK).get();
 	}
 
 	public URL getResource(String file) throws Exception {
@@ -0,0 +1,239 @@
+package net.filebot.web;
+
+import static java.util.concurrent.TimeUnit.*;
+import static net.filebot.Logging.*;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Token bucket request limit for a single {@link Datasource}. Permits are reserved in advance, so waiting callers don't hold any resources, and permits that haven't been used for a while are kept as burst credit (up to the given number of permits). Callers can either wait for a permit or get a {@link CompletableFuture} that completes once the permit is available.
+ */
+public class RateLimit {
+
+	private final String name;
+
+	private final double capacity;
+	private final long interval;
+	private final long window;
+
+	private final Clock clock;
+
+	private double tokens;
+	private long lastRefill;
+
+	// total amount of time that existing reservations have been pushed back by forced pauses
+	private long pauseOffset;
+
+	private final AtomicInteger queued = new AtomicInteger();
+	private final LongAdder permits = new LongAdder();
+	private final LongAdder waitTime = new LongAdder();
+	private final LongAdder throttled = new LongAdder();
+
+	/**
+	 * Evenly spaced requests (i.e. no burst credit)
+	 */
+	public RateLimit(String name, int permitLimit, long window, TimeUnit timeUnit) {
+		this(name, permitLimit, window, timeUnit, 1);
+	}
+
+	/**
+	 * Grant the given number of permits per time window, plus up to the given number of permits at once if there haven't been any requests for a while (i.e. no more than {@code permitLimit + burstLimit - 1} permits within any given time window)
+	 */
+	public RateLimit(String name, int permitLimit, long window, TimeUnit timeUnit, int burstLimit) {
+		this(name, permitLimit, window, timeUnit, burstLimit, Clock.SYSTEM);
+	}
+
+	RateLimit(String name, int permitLimit, long window, TimeUnit timeUnit, int burstLimit, Clock clock) {
+		this.name = name;
+		this.capacity = burstLimit;
+		this.interval = timeUnit.toNanos(window) / permitLimit;
+		this.window = timeUnit.toNanos(window);
+		this.clock = clock;
+		this.tokens = burstLimit;
+		this.lastRefill = clock.nanoTime();
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Wait until a permit is available
+	 */
+	public void acquirePermit() throws InterruptedException {
+		Reservation reservation = reserve();
+		long delay = reservation.getDelay();
+
+		if (delay > 0) {
+			queued.incrementAndGet();
+			try {
+				debug.finest(format("[%s] Wait %d ms for permit", name, NANOSECONDS.toMillis(delay)));
+				while (delay > 0) {
+					clock.sleep(delay);
+					delay = reservation.getDelay();
+				}
+			} finally {
+				queued.decrementAndGet();
+			}
+		}
+
+		permits.increment();
+	}
+
+	/**
+	 * Get a permit without blocking the calling thread
+	 */
+	public CompletableFuture<Void> acquirePermitAsync() {
+		Reservation reservation = reserve();
+		long delay = reservation.getDelay();
+
+		if (delay <= 0) {
+			permits.increment();
+			return CompletableFuture.completedFuture(null);
+		}
+
+		queued.incrementAndGet();
+		return delay(reservation, delay).whenComplete((v, error) -> {
+			queued.decrementAndGet();
+			if (error == null) {
+				permits.increment();
+			}
+		});
+	}
+
+	private CompletableFuture<Void> delay(Reservation reservation, long delay) {
+		// wait on the shared timer thread instead of blocking a thread per caller
+		return clock.delay(delay).thenCompose(v -> {
+			long next = reservation.getDelay();
+			return next > 0 ? delay(reservation, next) : CompletableFuture.completedFuture(null);
+		});
+	}
+
+	/**
+	 * Don't grant any permits for the given amount of time (e.g. HTTP 429 Too Many Requests or Retry-After)
+	 */
+	public synchronized void pause(Duration duration) {
+		long now = clock.nanoTime();
+		long until = now + duration.toNanos();
+		if (until - lastRefill > 0) {
+			debug.fine(format("[%s] Pause requests for %d seconds", name, duration.getSeconds()));
+
+			// no burst credit after a forced pause
+			refill(now);
+			tokens = Math.min(tokens, 0);
+
+			// reservations that have already been made need to queue up again after the pause
+			pauseOffset += until - lastRefill;
+			lastRefill = until;
+		}
+		throttled.increment();
+	}
+
+	/**
+	 * Back off for the requested amount of time or for the full time window if the server didn't tell us how long to wait
+	 */
+	public void pause(TooManyRequestsException e) {
+		pause(e.getRetryAfter() != null ? e.getRetryAfter() : Duration.ofNanos(window));
+	}
+
+	private synchronized Reservation reserve() {
+		long now = clock.nanoTime();
+		refill(now);
+		tokens -= 1;
+
+		// wait for the end of the forced pause and then until enough tokens have been refilled
+		long delay = Math.max(0, lastRefill - now) + (tokens < 0 ? (long) Math.ceil(-tokens * interval) : 0);
+		waitTime.add(delay);
+		return new Reservation(now + delay, pauseOffset);
+	}
+
+	private void refill(long now) {
+		if (now - lastRefill > 0) {
+			tokens = Math.min(capacity, tokens + (double) (now - lastRefill) / interval);
+			lastRefill = now;
+		}
+	}
+
+	/**
+	 * Token that has been taken from the bucket and the time when it can be used
+	 */
+	private class Reservation {
+
+		private long time;
+		private long offset;
+
+		public Reservation(long time, long offset) {
+			this.time = time;
+			this.offset = offset;
+		}
+
+		public long getDelay() {
+			synchronized (RateLimit.this) {
+				// keep the token but move the reservation back by the amount of time that requests have been paused since
+				if (offset != pauseOffset) {
+					waitTime.add(pauseOffset - offset);
+					time += pauseOffset - offset;
+					offset = pauseOffset;
+				}
+				return time - clock.nanoTime();
+			}
+		}
+	}
+
+	public int getQueueLength() {
+		return queued.get();
+	}
+
+	public long getPermitCount() {
+		return permits.sum();
+	}
+
+	public long getTotalWaitTime() {
+		return waitTime.sum();
+	}
+
+	public long getThrottledCount() {
+		return throttled.sum();
+	}
+
+	/**
+	 * Time source and timer
+	 */
+	interface Clock {
+
+		long nanoTime();
+
+		void sleep(long nanos) throws InterruptedException;
+
+		CompletableFuture<Void> delay(long nanos);
+
+		Clock SYSTEM = new Clock() {
+
+			@Override
+			public long nanoTime() {
+				return System.nanoTime();
+			}
+
+			@Override
+			public void sleep(long nanos) throws InterruptedException {
+				NANOSECONDS.sleep(nanos);
+			}
+
+			@Override
+			public CompletableFuture<Void> delay(long nanos) {
+				return CompletableFuture.runAsync(() -> {
+				}, CompletableFuture.delayedExecutor(nanos, NANOSECONDS));
+			}
+		};
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s [permits = %,d, queued = %,d, wait time = %,d ms, throttled = %,d]", name, getPermitCount(), getQueueLength(), NANOSECONDS.toMillis(getTotalWaitTime()), getThrottledCount());
+	}
+
+}
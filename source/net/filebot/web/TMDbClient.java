@@ -50,7 +50,7 @@ public class TMDbClient implements MovieIdentificationService, ArtworkProvider {
 	}
 
 	// X-RateLimit: 40 requests per 10 seconds => https://developers.themoviedb.org/3/getting-started/request-rate-limiting
-	private static final FloodLimit REQUEST_LIMIT = new FloodLimit(35, 10, TimeUnit.SECONDS);
+	private static final RateLimit REQUEST_LIMIT = new RateLimit("TheMovieDB", 35, 10, TimeUnit.SECONDS, 5);
 
 	private final URL api;
 	private final String apikey;
@@ -388,7 +388,7 @@ public class TMDbClient implements MovieIdentificationService, ArtworkProvider {
 		String cacheName = language == null ? getName() : getName() + "_" + language;
 
 		Cache cache = Cache.getCache(cacheName, CacheType.Monthly);
-		Object json = cache.json(key, k -> getResource(k, language)).fetch(withPermit(fetchIfNoneMatch(url -> key, cache), r -> REQUEST_LIMIT.acquirePermit())).expire(Cache.ONE_WEEK).get();
+		Object json = cache.json(key, k -> getResource(k, language)).fetch(withPermit(fetchIfNoneMatch(url -> key, cache), REQUEST_LIMIT)).expire(Cache.ONE_WEEK).get();
 
 		if (asMap(json).isEmpty()) {
 			throw new FileNotFoundException(String.format("Resource is empty: %s => %s", json, getResource(key, language)));
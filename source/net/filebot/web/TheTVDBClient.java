@@ -17,18 +17,22 @@ import java.nio.ByteBuffer;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.stream.Stream;
 
 import javax.swing.Icon;
 
 import net.filebot.Cache;
 import net.filebot.CacheType;
+import net.filebot.Resource;
 import net.filebot.ResourceManager;
 
 public class TheTVDBClient extends AbstractEpisodeListProvider implements ArtworkProvider {
@@ -85,8 +89,15 @@ public class TheTVDBClient extends AbstractEpisodeListProvider implements Artwor
 	}
 
 	protected Object requestJson(String path, Locale locale, Duration expirationTime) throws Exception {
-		Cache cache = Cache.getCache(locale == null || locale == Locale.ROOT ? getName() : getName() + "_" + locale.getLanguage(), CacheType.Monthly);
-		return cache.json(path, this::getEndpoint).fetch(fetchIfModified(() -> getRequestHeader(locale))).expire(expirationTime).get();
+		return getCache(locale).json(path, this::getEndpoint).fetch(fetchIfModified(() -> getRequestHeader(locale))).expire(expirationTime).get();
+	}
+
+	protected CompletableFuture<Object> requestJsonAsync(String path, Locale locale, Duration expirationTime) {
+		return getCache(locale).json(path, this::getEndpoint).fetch(fetchIfModified(() -> getRequestHeader(locale))).expire(expirationTime).getAsync();
+	}
+
+	private Cache getCache(Locale locale) {
+		return Cache.getCache(locale == null || locale == Locale.ROOT ? getName() : getName() + "_" + locale.getLanguage(), CacheType.Monthly);
 	}
 
 	protected URL getEndpoint(String path) throws Exception {
@@ -229,14 +240,10 @@ public class TheTVDBClient extends AbstractEpisodeListProvider implements Artwor
 		List<Episode> episodes = new ArrayList<Episode>();
 		List<Episode> specials = new ArrayList<Episode>();
 
-		for (int i = 1, n = 1; i <= n; i++) {
-			Object json = requestJson("series/" + series.getId() + "/episodes?page=" + i, locale, Cache.ONE_DAY);
-
-			Integer lastPage = getInteger(getMap(json, "links"), "last");
-			if (lastPage != null) {
-				n = lastPage;
-			}
+		// default episode titles are only fetched if necessary, and then only once for all episodes
+		Resource<Map<Integer, String>> defaultEpisodeNames = Resource.lazy(() -> getEpisodeNames(series, DEFAULT_LOCALE));
 
+		for (Object json : getEpisodePages(series, locale)) {
 			streamJsonObjects(json, "data").forEach(it -> {
 				Integer id = getInteger(it, "id");
 				String episodeName = getString(it, "episodeName");
@@ -244,7 +251,7 @@ public class TheTVDBClient extends AbstractEpisodeListProvider implements Artwor
 				// default to English episode title if the preferred language is not available
 				if (episodeName == null && !locale.equals(DEFAULT_LOCALE)) {
 					try {
-						episodeName = getEpisodeList(series, sortOrder, DEFAULT_LOCALE).stream().filter(e -> id.equals(e.getId())).findFirst().map(Episode::getTitle).orElse(null);
+						episodeName = defaultEpisodeNames.get().get(id);
 					} catch (Exception e) {
 						debug.warning(cause("Failed to retrieve default episode title", e));
 					}
@@ -299,6 +306,48 @@ public class TheTVDBClient extends AbstractEpisodeListProvider implements Artwor
 		return new SeriesData(info, episodes);
 	}
 
+	protected List<Object> getEpisodePages(SearchResult series, Locale locale) throws Exception {
+		Object firstPage = requestJson("series/" + series.getId() + "/episodes?page=1", locale, Cache.ONE_DAY);
+
+		// request all remaining pages at once
+		Integer lastPage = getInteger(getMap(firstPage, "links"), "last");
+		List<CompletableFuture<Object>> requests = new ArrayList<CompletableFuture<Object>>();
+
+		for (int i = 2; lastPage != null && i <= lastPage; i++) {
+			requests.add(requestJsonAsync("series/" + series.getId() + "/episodes?page=" + i, locale, Cache.ONE_DAY));
+		}
+
+		List<Object> pages = new ArrayList<Object>(requests.size() + 1);
+		pages.add(firstPage);
+
+		for (CompletableFuture<Object> request : requests) {
+			try {
+				pages.add(request.get());
+			} catch (ExecutionException e) {
+				throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+			}
+		}
+
+		return pages;
+	}
+
+	protected Map<Integer, String> getEpisodeNames(SearchResult series, Locale locale) throws Exception {
+		Map<Integer, String> episodeNames = new HashMap<Integer, String>();
+
+		for (Object json : getEpisodePages(series, locale)) {
+			streamJsonObjects(json, "data").forEach(it -> {
+				Integer id = getInteger(it, "id");
+				String episodeName = getString(it, "episodeName");
+
+				if (id != null && episodeName != null) {
+					episodeNames.put(id, episodeName);
+				}
+			});
+		}
+
+		return episodeNames;
+	}
+
 	public SearchResult lookupByID(int id, Locale locale) throws Exception {
 		if (id <= 0) {
 			throw new IllegalArgumentException("Illegal TheTVDB ID: " + id);
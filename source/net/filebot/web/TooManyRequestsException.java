@@ -0,0 +1,26 @@
+package net.filebot.web;
+
+import java.io.IOException;
+import java.net.URL;
+import java.time.Duration;
+
+/**
+ * HTTP 429 Too Many Requests
+ */
+public class TooManyRequestsException extends IOException {
+
+	private final Duration retryAfter;
+
+	public TooManyRequestsException(URL url, Duration retryAfter) {
+		super("Server returned HTTP response code: 429 for URL: " + url);
+		this.retryAfter = retryAfter;
+	}
+
+	/**
+	 * @return requested delay as specified by the Retry-After header or {@code null}
+	 */
+	public Duration getRetryAfter() {
+		return retryAfter;
+	}
+
+}
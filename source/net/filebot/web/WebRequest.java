@@ -4,7 +4,9 @@ import static java.nio.charset.StandardCharsets.*;
 import static net.filebot.Logging.*;
 import static net.filebot.util.FileUtilities.*;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
@@ -14,13 +16,19 @@ import java.io.StringReader;
 import java.io.StringWriter;
 import java.io.UnsupportedEncodingException;
 import java.net.HttpURLConnection;
+import java.net.ProxySelector;
 import java.net.URL;
 import java.net.URLConnection;
 import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
 import java.nio.ByteBuffer;
 import java.nio.CharBuffer;
 import java.nio.charset.Charset;
 import java.nio.charset.CodingErrorAction;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
@@ -30,6 +38,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 import java.util.logging.Level;
@@ -37,6 +47,7 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
+import java.util.zip.InflaterInputStream;
 
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
@@ -54,6 +65,8 @@ import org.xml.sax.SAXException;
 import org.xml.sax.XMLReader;
 import org.xml.sax.helpers.DefaultHandler;
 
+import net.filebot.Resource;
+import net.filebot.util.ByteBufferInputStream;
 import net.filebot.util.ByteBufferOutputStream;
 
 public final class WebRequest {
@@ -61,8 +74,11 @@ public final class WebRequest {
 	private static final boolean LOG_RESPONSE_CONTENT = Boolean.parseBoolean(System.getProperty("net.filebot.web.WebRequest.log.response"));
 
 	private static final String ENCODING_GZIP = "gzip";
+	private static final String ENCODING_DEFLATE = "deflate";
 	private static final String CHARSET_UTF8 = "UTF-8";
 
+	private static final int HTTP_TOO_MANY_REQUESTS = 429;
+
 	public static Reader getReader(URLConnection connection) throws IOException {
 		try {
 			connection.addRequestProperty("Accept-Encoding", ENCODING_GZIP);
@@ -99,6 +115,17 @@ public final class WebRequest {
 		return getDocument(new InputSource(new StringReader(xml)));
 	}
 
+	public static Document getDocument(ByteBuffer xml) throws Exception {
+		if (!xml.hasRemaining()) {
+			return DocumentBuilderFactory.newInstance().newDocumentBuilder().newDocument();
+		}
+
+		// decode straight from the given bytes
+		try (Reader reader = new InputStreamReader(new ByteBufferInputStream(xml.duplicate()), UTF_8)) {
+			return getDocument(new InputSource(reader));
+		}
+	}
+
 	public static Document getDocument(InputSource source) throws Exception {
 		DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
 		factory.setValidating(false);
@@ -136,6 +163,11 @@ public final class WebRequest {
 			requestParameters.forEach(connection::addRequestProperty);
 		}
 
+		// HTTP 429 Too Many Requests
+		if (connection instanceof HttpURLConnection && ((HttpURLConnection) connection).getResponseCode() == HTTP_TOO_MANY_REQUESTS) {
+			throw new TooManyRequestsException(url, getRetryAfter(connection.getHeaderField("Retry-After")));
+		}
+
 		int contentLength = connection.getContentLength();
 		String encoding = connection.getContentEncoding();
 
@@ -171,6 +203,86 @@ public final class WebRequest {
 		return buffer.getByteBuffer();
 	}
 
+	// shared HTTP client for all asynchronous requests, so that connections are reused and HTTP/2 requests to the same host are multiplexed
+	private static final Resource<HttpClient> http = Resource.lazy(() -> HttpClient.newBuilder().version(HttpClient.Version.HTTP_2).followRedirects(HttpClient.Redirect.NORMAL).proxy(ProxySelector.getDefault()).build());
+
+	public static CompletableFuture<ByteBuffer> fetchAsync(URL url, long ifModifiedSince, Object etag, Map<String, String> requestParameters, Consumer<Map<String, List<String>>> responseParameters) {
+		try {
+			HttpRequest.Builder request = HttpRequest.newBuilder(url.toURI());
+
+			if (ifModifiedSince > 0) {
+				request.header("If-Modified-Since", DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.ofInstant(Instant.ofEpochMilli(ifModifiedSince), ZoneOffset.UTC)));
+			} else if (etag != null) {
+				// If-Modified-Since must not be set if If-None-Match is set and vice versa
+				request.header("If-None-Match", etag.toString());
+			}
+
+			request.header("Accept-Encoding", ENCODING_GZIP + ", " + ENCODING_DEFLATE);
+			request.header("Accept-Charset", CHARSET_UTF8);
+
+			if (requestParameters != null) {
+				requestParameters.forEach(request::header);
+			}
+
+			return http.get().sendAsync(request.build(), BodyHandlers.ofByteArray()).thenApply(response -> {
+				try {
+					return getResponseData(url, response, responseParameters);
+				} catch (IOException e) {
+					throw new CompletionException(e);
+				}
+			});
+		} catch (Exception e) {
+			return CompletableFuture.failedFuture(e);
+		}
+	}
+
+	private static ByteBuffer getResponseData(URL url, HttpResponse<byte[]> response, Consumer<Map<String, List<String>>> responseParameters) throws IOException {
+		int status = response.statusCode();
+
+		// same exceptions as HttpURLConnection
+		if (status == HttpURLConnection.HTTP_NOT_FOUND || status == HttpURLConnection.HTTP_GONE) {
+			throw new FileNotFoundException(url.toString());
+		}
+		if (status == HTTP_TOO_MANY_REQUESTS) {
+			throw new TooManyRequestsException(url, getRetryAfter(response.headers().firstValue("Retry-After").orElse(null)));
+		}
+		if (status >= HttpURLConnection.HTTP_BAD_REQUEST) {
+			throw new IOException("Server returned HTTP response code: " + status + " for URL: " + url);
+		}
+
+		// store response headers
+		if (responseParameters != null) {
+			responseParameters.accept(response.headers().map());
+		}
+
+		// no data, e.g. If-Modified-Since requests
+		if (status == HttpURLConnection.HTTP_NOT_MODIFIED) {
+			return null;
+		}
+
+		byte[] data = response.body();
+		String encoding = response.headers().firstValue("Content-Encoding").orElse(null);
+
+		if (ENCODING_GZIP.equalsIgnoreCase(encoding)) {
+			return decompress(new GZIPInputStream(new ByteArrayInputStream(data)), data.length);
+		}
+		if (ENCODING_DEFLATE.equalsIgnoreCase(encoding)) {
+			return decompress(new InflaterInputStream(new ByteArrayInputStream(data)), data.length);
+		}
+
+		return ByteBuffer.wrap(data);
+	}
+
+	private static ByteBuffer decompress(InputStream inputStream, int size) throws IOException {
+		ByteBufferOutputStream buffer = new ByteBufferOutputStream(Math.max(size, BUFFER_SIZE));
+		try {
+			buffer.transferFully(inputStream);
+		} finally {
+			inputStream.close();
+		}
+		return buffer.getByteBuffer();
+	}
+
 	public static ByteBuffer post(URL url, Map<String, ?> parameters, Map<String, String> requestParameters) throws IOException {
 		byte[] postData = encodeParameters(parameters, true).getBytes("UTF-8");
 		if (requestParameters != null && ENCODING_GZIP.equals(requestParameters.get("Content-Encoding"))) {
@@ -262,6 +374,25 @@ public final class WebRequest {
 		}
 	}
 
+	/**
+	 * @param value
+	 *            Retry-After header value, i.e. delay in seconds or HTTP date
+	 */
+	public static Duration getRetryAfter(String value) {
+		if (value != null && value.length() > 0) {
+			try {
+				if (value.chars().allMatch(Character::isDigit)) {
+					return Duration.ofSeconds(Long.parseLong(value));
+				}
+				Duration delay = Duration.between(Instant.now(), ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME));
+				return delay.isNegative() ? Duration.ZERO : delay;
+			} catch (Exception e) {
+				debug.warning("Illegal Retry-After: " + value);
+			}
+		}
+		return null;
+	}
+
 	public static Optional<String> getETag(Map<String, List<String>> responseHeaders) {
 		List<String> header = responseHeaders.get("ETag");
 		if (header != null && header.size() > 0) {
@@ -5,7 +5,12 @@ import org.junit.runners.Suite;
 import org.junit.runners.Suite.SuiteClasses;
 
 import net.filebot.format.ExpressionFormatTest;
+import net.filebot.format.GroovyClassCacheTest;
+import net.filebot.hash.ChecksumStoreTest;
+import net.filebot.hash.HashEngineTest;
 import net.filebot.hash.VerificationFormatTest;
+import net.filebot.media.ContainerProbeTest;
+import net.filebot.media.MediaCharacteristicsStoreTest;
 import net.filebot.media.MediaDetectionTest;
 import net.filebot.media.ReleaseInfoTest;
 import net.filebot.media.VideoFormatTest;
@@ -18,7 +23,7 @@ import net.filebot.util.UtilTestSuite;
 import net.filebot.web.WebTestSuite;
 
 @RunWith(Suite.class)
-@SuiteClasses({ ExpressionFormatTest.class, VerificationFormatTest.class, MatchModelTest.class, EpisodeMetricsTest.class, ReleaseInfoTest.class, VideoFormatTest.class, MediaDetectionTest.class, MediaInfoTest.class, SimilarityTestSuite.class, WebTestSuite.class, SubtitleReaderTestSuite.class, UtilTestSuite.class })
+@SuiteClasses({ SegmentFileCacheStoreTest.class, CachedResourceTest.class, ExpressionFormatTest.class, GroovyClassCacheTest.class, VerificationFormatTest.class, HashEngineTest.class, ChecksumStoreTest.class, MatchModelTest.class, EpisodeMetricsTest.class, ReleaseInfoTest.class, VideoFormatTest.class, ContainerProbeTest.class, MediaDetectionTest.class, MediaCharacteristicsStoreTest.class, MediaInfoTest.class, SimilarityTestSuite.class, WebTestSuite.class, SubtitleReaderTestSuite.class, UtilTestSuite.class })
 public class AllTests {
 
 }
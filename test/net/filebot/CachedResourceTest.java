@@ -0,0 +1,204 @@
+package net.filebot;
+
+import static java.nio.charset.StandardCharsets.*;
+import static net.filebot.CachedResource.*;
+import static org.junit.Assert.*;
+
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.w3c.dom.Document;
+
+import net.filebot.web.RateLimit;
+
+public class CachedResourceTest {
+
+	Cache cache = new Cache(new OptimizedCache("test", CacheType.Daily), CacheType.Daily, new CacheStats("test"));
+
+	AtomicInteger fetchCount = new AtomicInteger();
+
+	CachedResource.Fetch fetch(String content) {
+		return (url, lastModified) -> {
+			fetchCount.incrementAndGet();
+			return UTF_8.encode(content);
+		};
+	}
+
+	@Test
+	public void jsonParseOnce() throws Exception {
+		Object json = cache.json("a", k -> new URL("http://localhost/" + k)).fetch(fetch("{\"name\":\"Firefly\",\"episodes\":[1,2]}")).get();
+		Map<?, ?> map = (Map<?, ?>) json;
+
+		assertEquals("Firefly", map.get("name"));
+		assertArrayEquals(new Object[] { 1L, 2L }, (Object[]) map.get("episodes"));
+		assertEquals("{\"name\":\"Firefly\",\"episodes\":[1,2]}", cache.get("a"));
+
+		// same parsed tree for the same cached value
+		assertSame(json, cache.json("a", k -> new URL("http://localhost/" + k)).fetch(fetch("{}")).get());
+		assertEquals(1, fetchCount.get());
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void jsonImmutable() throws Exception {
+		Map<Object, Object> map = (Map<Object, Object>) cache.json("a", k -> new URL("http://localhost/" + k)).fetch(fetch("{\"name\":\"Firefly\"}")).get();
+		map.put("name", "Serenity");
+	}
+
+	@Test
+	public void jsonInvalidate() throws Exception {
+		Object json = cache.json("a", k -> new URL("http://localhost/" + k)).fetch(fetch("{\"name\":\"Firefly\"}")).get();
+		cache.put("a", "{\"name\":\"Serenity\"}");
+
+		Object update = cache.json("a", k -> new URL("http://localhost/" + k)).fetch(fetch("{}")).get();
+		assertNotSame(json, update);
+		assertEquals("Serenity", ((Map<?, ?>) update).get("name"));
+	}
+
+	@Test(expected = InvalidResponseException.class)
+	public void jsonInvalid() throws Exception {
+		cache.json("a", k -> new URL("http://localhost/" + k)).fetch(fetch("{\"name\":")).get();
+	}
+
+	@Test
+	public void xmlParseOnce() throws Exception {
+		Document dom = cache.xml("b", k -> new URL("http://localhost/" + k)).fetch(fetch("<series><name>Firefly</name></series>")).get();
+		Document copy = cache.xml("b", k -> new URL("http://localhost/" + k)).fetch(fetch("<series/>")).get();
+
+		assertEquals("Firefly", dom.getDocumentElement().getTextContent());
+		assertEquals("Firefly", copy.getDocumentElement().getTextContent());
+		assertNotSame(dom, copy);
+		assertEquals(1, fetchCount.get());
+	}
+
+	@Test
+	public void coalesce() throws Exception {
+		CountDownLatch fetching = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+
+		CachedResource.Fetch fetch = (url, lastModified) -> {
+			fetchCount.incrementAndGet();
+			fetching.countDown();
+			release.await();
+			return UTF_8.encode("{\"name\":\"Firefly\"}");
+		};
+
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<Object>> results = new ArrayList<Future<Object>>();
+			results.add(executor.submit(() -> cache.json("d", k -> new URL("http://localhost/" + k)).fetch(fetch).get()));
+			fetching.await();
+
+			for (int i = 0; i < 7; i++) {
+				results.add(executor.submit(() -> cache.json("d", k -> new URL("http://localhost/" + k)).fetch(fetch).get()));
+			}
+
+			// wait for all other requests to be coalesced
+			while (cache.getStats().getCoalescedCount() < 7) {
+				Thread.sleep(10);
+			}
+			release.countDown();
+
+			for (Future<Object> it : results) {
+				assertEquals("Firefly", ((Map<?, ?>) it.get()).get("name"));
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		assertEquals(1, fetchCount.get());
+		assertEquals(7, cache.getStats().getCoalescedCount());
+	}
+
+	@Test
+	public void getAsync() throws Exception {
+		CompletableFuture<Object> series = cache.json("e", k -> new URL("http://localhost/" + k)).fetch(fetch("{\"name\":\"Firefly\"}")).getAsync();
+		CompletableFuture<Document> episodes = cache.xml("f", k -> new URL("http://localhost/" + k)).fetch(fetch("<episodes><episode>Serenity</episode></episodes>")).getAsync();
+
+		String value = series.thenCombine(episodes, (s, e) -> ((Map<?, ?>) s).get("name") + " - " + e.getDocumentElement().getTextContent()).get();
+		assertEquals("Firefly - Serenity", value);
+
+		// cached values are not fetched again
+		assertEquals("Firefly", ((Map<?, ?>) cache.json("e", k -> new URL("http://localhost/" + k)).fetch(fetch("{}")).getAsync().get()).get("name"));
+		assertEquals(2, fetchCount.get());
+	}
+
+	@Test
+	public void coalesceSyncAndAsync() throws Exception {
+		CountDownLatch fetching = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+
+		CachedResource.Fetch fetch = (url, lastModified) -> {
+			fetchCount.incrementAndGet();
+			fetching.countDown();
+			release.await();
+			return UTF_8.encode("{\"name\":\"Firefly\"}");
+		};
+
+		CompletableFuture<Object> async = cache.json("h", k -> new URL("http://localhost/" + k)).fetch(fetch).getAsync();
+		fetching.await();
+
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Future<Object> sync = executor.submit(() -> cache.json("h", k -> new URL("http://localhost/" + k)).fetch(fetch).get());
+
+			// wait for the blocking request to join the asynchronous request
+			while (cache.getStats().getCoalescedCount() < 1) {
+				Thread.sleep(10);
+			}
+			release.countDown();
+
+			assertEquals("Firefly", ((Map<?, ?>) sync.get()).get("name"));
+			assertEquals("Firefly", ((Map<?, ?>) async.get()).get("name"));
+		} finally {
+			executor.shutdownNow();
+		}
+
+		assertEquals(1, fetchCount.get());
+	}
+
+	@Test
+	public void getAsyncWithPermit() throws Exception {
+		// next permit is not available for a very long time
+		RateLimit limit = new RateLimit("test", 1, 1, TimeUnit.HOURS);
+		limit.acquirePermit();
+
+		List<CompletableFuture<Object>> limited = new ArrayList<CompletableFuture<Object>>();
+		for (int i = 0; i < Settings.getPreferredThreadPoolSize() * 2; i++) {
+			limited.add(cache.json("limit" + i, k -> new URL("http://localhost/" + k)).fetch(withPermit(fetch("{}"), limit)).getAsync());
+		}
+
+		// callers waiting for a permit must not hold any background threads that are needed for other requests
+		assertEquals("Firefly", ((Map<?, ?>) cache.json("i", k -> new URL("http://localhost/" + k)).fetch(fetch("{\"name\":\"Firefly\"}")).getAsync().get(10, TimeUnit.SECONDS)).get("name"));
+		assertEquals(limited.size(), limit.getQueueLength());
+		assertTrue(limited.stream().noneMatch(CompletableFuture::isDone));
+
+		limited.forEach(it -> it.cancel(false));
+	}
+
+	@Test(expected = InvalidResponseException.class)
+	public void getAsyncInvalid() throws Throwable {
+		try {
+			cache.json("g", k -> new URL("http://localhost/" + k)).fetch(fetch("{\"name\":")).getAsync().get();
+		} catch (ExecutionException e) {
+			throw e.getCause();
+		}
+	}
+
+	@Test
+	public void empty() throws Exception {
+		assertTrue(((Map<?, ?>) cache.json("c", k -> new URL("http://localhost/" + k)).fetch((url, lastModified) -> ByteBuffer.allocate(0)).get()).isEmpty());
+	}
+
+}
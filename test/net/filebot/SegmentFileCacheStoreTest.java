@@ -0,0 +1,174 @@
+package net.filebot;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class SegmentFileCacheStoreTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	static void put(CacheStore store, Object key, Object value) throws Exception {
+		long now = System.currentTimeMillis();
+		store.put(key, value, now, now);
+	}
+
+	String[] listFiles() {
+		String[] files = folder.getRoot().list();
+		Arrays.sort(files);
+		return files;
+	}
+
+	@Test
+	public void putGetRemove() throws Exception {
+		SegmentFileCacheStore store = new SegmentFileCacheStore("test", folder.getRoot(), CacheType.Daily);
+		put(store, "a", "1");
+		put(store, "b", new byte[] { 1, 2, 3 });
+		put(store, "a", "2");
+		store.remove("b");
+
+		assertEquals("2", store.get("a").getValue());
+		assertNull(store.get("b"));
+		assertNull(store.get("c"));
+		store.shutdown();
+	}
+
+	@Test
+	public void reopen() throws Exception {
+		File root = folder.getRoot();
+		long time = System.currentTimeMillis() - 60000;
+
+		SegmentFileCacheStore store = new SegmentFileCacheStore("test", root, CacheType.Daily);
+		put(store, "a", "1");
+		put(store, "b", "2");
+		store.put("a", "3", time, time + 1000);
+		store.remove("b");
+		store.shutdown();
+
+		store = new SegmentFileCacheStore("test", root, CacheType.Daily);
+		assertEquals("3", store.get("a").getValue());
+		assertEquals(time, store.get("a").getCreationTime());
+		assertEquals(time + 1000, store.get("a").getUpdateTime());
+		assertNull(store.get("b"));
+		store.shutdown();
+	}
+
+	@Test
+	public void expired() throws Exception {
+		File root = folder.getRoot();
+		long time = System.currentTimeMillis() - CacheType.Daily.getTimeToLive().toMillis() - 1000;
+
+		SegmentFileCacheStore store = new SegmentFileCacheStore("test", root, CacheType.Daily);
+		store.put("a", "1", time, time);
+		assertNull(store.get("a"));
+		store.shutdown();
+
+		store = new SegmentFileCacheStore("test", root, CacheType.Daily);
+		assertNull(store.get("a"));
+		store.shutdown();
+	}
+
+	@Test
+	public void clear() throws Exception {
+		File root = folder.getRoot();
+
+		SegmentFileCacheStore store = new SegmentFileCacheStore("test", root, CacheType.Daily);
+		put(store, "a", "1");
+		store.clear();
+		put(store, "b", "2");
+
+		assertNull(store.get("a"));
+		assertArrayEquals(new String[] { "test.1.base", "test.2.segment" }, listFiles());
+		store.shutdown();
+
+		store = new SegmentFileCacheStore("test", root, CacheType.Daily);
+		assertNull(store.get("a"));
+		assertEquals("2", store.get("b").getValue());
+		store.shutdown();
+	}
+
+	@Test
+	public void compact() throws Exception {
+		File root = folder.getRoot();
+		byte[] value = new byte[SegmentFileCacheStore.SEGMENT_SIZE / 4];
+
+		// fill two segments with mostly garbage
+		SegmentFileCacheStore store = new SegmentFileCacheStore("test", root, CacheType.Daily);
+		for (int i = 0; i < 6; i++) {
+			put(store, "a", value);
+		}
+		put(store, "b", "2");
+		store.shutdown();
+
+		assertArrayEquals(new String[] { "test.0.segment", "test.1.segment" }, listFiles());
+
+		store = new SegmentFileCacheStore("test", root, CacheType.Daily);
+		assertArrayEquals(new String[] { "test.2.base" }, listFiles());
+		assertArrayEquals(value, (byte[]) store.get("a").getValue());
+		assertEquals("2", store.get("b").getValue());
+		put(store, "c", "3");
+		store.shutdown();
+
+		store = new SegmentFileCacheStore("test", root, CacheType.Daily);
+		assertArrayEquals(new String[] { "test.2.base", "test.3.segment" }, listFiles());
+		assertEquals("2", store.get("b").getValue());
+		assertEquals("3", store.get("c").getValue());
+		store.shutdown();
+	}
+
+	@Test
+	public void compactOnRollover() throws Exception {
+		File root = folder.getRoot();
+		byte[] value = new byte[SegmentFileCacheStore.SEGMENT_SIZE / 4];
+
+		// the third segment is only created after the first two segments have been compacted
+		SegmentFileCacheStore store = new SegmentFileCacheStore("test", root, CacheType.Daily);
+		put(store, "b", "2");
+		for (int i = 0; i < 9; i++) {
+			put(store, "a", value);
+		}
+
+		assertArrayEquals(new String[] { "test.2.base", "test.3.segment" }, listFiles());
+		assertArrayEquals(value, (byte[]) store.get("a").getValue());
+		assertEquals("2", store.get("b").getValue());
+		store.shutdown();
+
+		store = new SegmentFileCacheStore("test", root, CacheType.Daily);
+		assertArrayEquals(value, (byte[]) store.get("a").getValue());
+		assertEquals("2", store.get("b").getValue());
+		store.shutdown();
+	}
+
+	@Test
+	public void deleteSupersededSegments() throws Exception {
+		File root = folder.getRoot();
+
+		SegmentFileCacheStore store = new SegmentFileCacheStore("test", root, CacheType.Daily);
+		put(store, "a", "1");
+		store.shutdown();
+
+		// segment that could not be deleted after the last compaction
+		File superseded = new File(root, "test.0.segment");
+		byte[] data = Arrays.copyOf(Files.readAllBytes(superseded.toPath()), 1024);
+
+		store = new SegmentFileCacheStore("test", root, CacheType.Daily);
+		store.clear();
+		store.shutdown();
+
+		Files.write(superseded.toPath(), data);
+		Files.write(new File(root, "test.part").toPath(), data);
+
+		store = new SegmentFileCacheStore("test", root, CacheType.Daily);
+		assertNull(store.get("a"));
+		assertArrayEquals(new String[] { "test.1.base" }, listFiles());
+		store.shutdown();
+	}
+
+}
@@ -1,8 +1,18 @@
 
 package net.filebot.format;
 
+import static java.util.Arrays.*;
+import static java.util.stream.Collectors.*;
 import static org.junit.Assert.*;
 
+import java.io.File;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
 import javax.script.Bindings;
 import javax.script.CompiledScript;
 import javax.script.ScriptException;
@@ -112,12 +122,151 @@ public class ExpressionFormatTest {
 		assertEquals("Suppressed: Binding \"xyz\": undefined", format.suppressed().getMessage());
 	}
 
+	@Test
+	public void templateCompilation() throws Exception {
+		String[] expressions = { "X5-{value}", "[{value.pad(3)}]", "{value.upper()} {value.lower()}", "{x = value.size(); ''}{x}-{value}", "{def f(s) { s }; f(value)}", "{{ -> value * 2 }}", "Hello {value.xyz} {xyz}" };
+
+		for (String expression : expressions) {
+			TestScriptFormat scriptlet = new TestScriptFormat(expression, ExpressionFormat.Compilation.scriptlet);
+			TestScriptFormat template = new TestScriptFormat(expression, ExpressionFormat.Compilation.template);
+
+			assertEquals(expression, scriptlet.format("7"), template.format("7"));
+			assertEquals(expression, String.valueOf(scriptlet.suppressed()), String.valueOf(template.suppressed()));
+		}
+	}
+
+	@Test
+	public void evaluateConcurrently() throws Exception {
+		TestScriptFormat format = new TestScriptFormat("{value.pad(3)}{value.size() > 1 ? value.xyz : ''}");
+
+		List<String> values = IntStream.range(0, 100).mapToObj(String::valueOf).parallel().map(it -> {
+			ExpressionFormat.Result result = format.evaluate(it);
+			return result.getValue() + (result.getSuppressed() == null ? "" : "*");
+		}).collect(toList());
+
+		assertEquals("000", values.get(0));
+		assertEquals("009", values.get(9));
+		assertEquals("010*", values.get(10));
+		assertEquals("099*", values.get(99));
+	}
+
+	@Test
+	public void expressionBindings() throws Exception {
+		ExpressionBindings bindings = new ExpressionBindings(new TestBindingBean());
+
+		assertEquals("[n, name, s]", bindings.keySet().toString());
+		assertEquals("Doctor Who", bindings.get("n"));
+		assertEquals("Doctor Who", bindings.get("NAME"));
+		assertEquals(1, bindings.get("s"));
+		assertTrue(bindings.containsKey("Name"));
+		assertFalse(bindings.containsKey("xyz"));
+		assertNull(bindings.get("xyz"));
+	}
+
+	@Test(expected = BindingException.class)
+	public void expressionBindingsUndefined() throws Exception {
+		new ExpressionBindings(new TestBindingBean() {
+
+			@Override
+			public Integer getSeason() {
+				return null;
+			}
+		}).get("s");
+	}
+
+	@Test
+	public void compileOverride() throws Exception {
+		for (ExpressionFormat.Compilation mode : ExpressionFormat.Compilation.values()) {
+			ExpressionFormat format = new TestScriptFormat("{value}{value}", mode) {
+
+				@Override
+				protected Object[] compile(String expression) throws ScriptException {
+					return new Object[] { "X", compileScriptlet("value") };
+				}
+			};
+
+			assertEquals("X452", format.format("452"));
+		}
+	}
+
+	@Test
+	public void mediaBindingBeanMemo() throws Exception {
+		AtomicInteger count = new AtomicInteger();
+		MediaBindingBean bean = new MediaBindingBean("Doctor Who", new File("Doctor Who.txt")) {
+
+			@Define("count")
+			public Integer getCount() {
+				return count.incrementAndGet();
+			}
+		};
+
+		assertEquals(1, new ExpressionBindings(bean).get("count"));
+		assertEquals(1, new ExpressionBindings(bean).get("count"));
+		assertEquals(1, count.get());
+	}
+
+	@Test
+	public void mediaBindingBeanMemoCopy() throws Exception {
+		MediaBindingBean bean = new MediaBindingBean("Doctor Who", new File("Doctor Who.txt")) {
+
+			@Define("list")
+			public List<String> getList() {
+				return new ArrayList<String>(asList("b", "a"));
+			}
+		};
+
+		// mutating the value in one expression does not affect the value seen by another expression
+		((List<?>) new ExpressionBindings(bean).get("list")).clear();
+		assertEquals(asList("b", "a"), new ExpressionBindings(bean).get("list"));
+	}
+
+	@Test
+	public void mediaBindingBeanMemoScriptObject() throws Exception {
+		MediaBindingBean bean = new MediaBindingBean("Doctor Who", new File("Doctor Who.txt")) {
+
+			@Define("place")
+			public AssociativeEnumObject getPlace() {
+				Map<String, String> values = new LinkedHashMap<String, String>();
+				values.put("City", "Cardiff");
+				values.put("Country", "Wales");
+				return new AssociativeEnumObject(values);
+			}
+		};
+
+		// script objects that implement collection interfaces must not be replaced with plain collections
+		assertTrue(new ExpressionBindings(bean).get("place") instanceof AssociativeEnumObject);
+		assertEquals("Cardiff, Wales", new ExpressionFormat("{place.city}, {place.country}").format(bean));
+		assertEquals("Cardiff", new ExpressionFormat("{place[0]}").format(bean));
+	}
+
+	public static class TestBindingBean {
+
+		@Define({ "n", "name" })
+		public String getName() {
+			return "Doctor Who";
+		}
+
+		@Define("s")
+		public Integer getSeason() {
+			return 1;
+		}
+
+		@Define(Define.undefined)
+		public <T> T undefined(String name) {
+			throw new BindingException(name, "undefined");
+		}
+	}
+
 	protected static class TestScriptFormat extends ExpressionFormat {
 
 		public TestScriptFormat(String format) throws ScriptException {
 			super(format);
 		}
 
+		public TestScriptFormat(String format, Compilation mode) throws ScriptException {
+			super(format, mode);
+		}
+
 		@Override
 		public Bindings getBindings(Object value) {
 			Bindings bindings = new SimpleBindings();
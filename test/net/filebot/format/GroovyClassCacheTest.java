@@ -0,0 +1,101 @@
+package net.filebot.format;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+import javax.script.ScriptException;
+
+import org.codehaus.groovy.control.CompilerConfiguration;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class GroovyClassCacheTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	static final String SOURCE_1 = "class Sample { def value() { 1 } }";
+	static final String SOURCE_2 = "class Sample { def value() { 2 } }";
+
+	GroovyClassCache newCache(File folder) {
+		return new GroovyClassCache(folder, new CompilerConfiguration(), "");
+	}
+
+	Object value(Class<?> type) throws Exception {
+		return type.getMethod("value").invoke(type.getDeclaredConstructor().newInstance());
+	}
+
+	File[] listFiles(File folder) {
+		return folder.listFiles((dir, name) -> name.endsWith(".classes"));
+	}
+
+	@Test
+	public void cacheHit() throws Exception {
+		GroovyClassCache cache = newCache(folder.getRoot());
+
+		Class<?> type = cache.getClass("Sample", SOURCE_1);
+		assertSame(type, cache.getClass("Sample", SOURCE_1));
+		assertEquals(1, value(type));
+		assertEquals(1, listFiles(folder.getRoot()).length);
+	}
+
+	@Test
+	public void restart() throws Exception {
+		File a = folder.newFolder("a");
+		File b = folder.newFolder("b");
+
+		newCache(a).getClass("Sample", SOURCE_1);
+		newCache(b).getClass("Sample", SOURCE_2);
+
+		// replace class files of SOURCE_2 with the class files of SOURCE_1 to make sure that class files are loaded from disk after a restart
+		File classFile = listFiles(b)[0];
+		Files.copy(listFiles(a)[0].toPath(), classFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+
+		assertEquals(1, value(newCache(b).getClass("Sample", SOURCE_2)));
+	}
+
+	@Test
+	public void corrupt() throws Exception {
+		newCache(folder.getRoot()).getClass("Sample", SOURCE_1);
+
+		File classFile = listFiles(folder.getRoot())[0];
+		Files.write(classFile.toPath(), new byte[] { 0, 7, 'C', 'O', 'R', 'R', 'U', 'P', 'T', 0x7F, 0x7F, 0x7F, 0x7F });
+
+		// recompile and replace corrupt class files
+		assertEquals(1, value(newCache(folder.getRoot()).getClass("Sample", SOURCE_1)));
+		assertEquals(1, value(newCache(folder.getRoot()).getClass("Sample", SOURCE_1)));
+		assertEquals(1, listFiles(folder.getRoot()).length);
+	}
+
+	@Test
+	public void prune() throws Exception {
+		newCache(folder.getRoot()).getClass("Sample", SOURCE_1);
+
+		File classFile = listFiles(folder.getRoot())[0];
+		classFile.setLastModified(System.currentTimeMillis() - GroovyClassCache.MAX_DISK_AGE.toMillis() - 60000);
+
+		newCache(folder.getRoot());
+		assertFalse(classFile.exists());
+	}
+
+	@Test
+	public void compilerError() throws Exception {
+		GroovyClassCache cache = newCache(folder.getRoot());
+
+		for (int i = 0; i < 2; i++) {
+			try {
+				cache.getClass("Sample", "class Sample {");
+				fail("ScriptException expected");
+			} catch (ScriptException e) {
+				// expected
+			}
+		}
+
+		assertEquals(0, listFiles(folder.getRoot()).length);
+	}
+
+}
@@ -0,0 +1,107 @@
+package net.filebot.hash;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import net.filebot.Cache;
+import net.filebot.CacheStats;
+import net.filebot.CacheType;
+import net.filebot.OptimizedCache;
+
+public class ChecksumStoreTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	AtomicInteger writeCount = new AtomicInteger();
+
+	Cache cache = new Cache(new OptimizedCache("test", CacheType.Persistent) {
+
+		@Override
+		public void put(Object key, Object value, long creationTime, long updateTime) {
+			writeCount.incrementAndGet();
+			super.put(key, value, creationTime, updateTime);
+		}
+	}, CacheType.Persistent, new CacheStats("test"));
+
+	ChecksumStore store = new ChecksumStore(false, () -> cache);
+
+	File createFile(String name, String content, long lastModified) throws Exception {
+		File f = folder.newFile(name);
+		Files.write(f.toPath(), content.getBytes("UTF-8"));
+		f.setLastModified(lastModified);
+		return f;
+	}
+
+	@Test
+	public void computeIfAbsent() throws Exception {
+		File f = createFile("a.txt", "Hello World", 1500000000000L);
+
+		assertNull(store.get(f, HashType.SFV));
+		assertEquals("4A17B156", store.computeIfAbsent(f, HashType.SFV, false));
+		assertEquals("4A17B156", store.get(f, HashType.SFV));
+
+		// same size and same last-modified date so the stored checksum is used without reading the file
+		Files.write(f.toPath(), "Hello Earth".getBytes("UTF-8"));
+		f.setLastModified(1500000000000L);
+		assertEquals("4A17B156", store.computeIfAbsent(f, HashType.SFV, false));
+
+		// force rehash
+		assertNotEquals("4A17B156", store.computeIfAbsent(f, HashType.SFV, true));
+	}
+
+	@Test
+	public void staleSize() throws Exception {
+		File f = createFile("a.txt", "Hello World", 1500000000000L);
+		store.put(f, HashType.SFV, "4A17B156");
+
+		Files.write(f.toPath(), "Hello World!".getBytes("UTF-8"));
+		f.setLastModified(1500000000000L);
+		assertNull(store.get(f, HashType.SFV));
+	}
+
+	@Test
+	public void staleLastModified() throws Exception {
+		File f = createFile("a.txt", "Hello World", 1500000000000L);
+		store.put(f, HashType.SFV, "4A17B156");
+
+		f.setLastModified(1600000000000L);
+		assertNull(store.get(f, HashType.SFV));
+	}
+
+	@Test
+	public void writeOnlyIfChanged() throws Exception {
+		File f = createFile("a.txt", "Hello World", 1500000000000L);
+
+		store.computeIfAbsent(f, HashType.SFV, true);
+		store.computeIfAbsent(f, HashType.SFV, true);
+		store.computeIfAbsent(f, HashType.SFV, false);
+		assertEquals(1, writeCount.get());
+
+		f.setLastModified(1600000000000L);
+		store.computeIfAbsent(f, HashType.SFV, false);
+		assertEquals(2, writeCount.get());
+
+		// checking files never changes the last-modified date
+		assertEquals(1600000000000L, f.lastModified());
+	}
+
+	@Test
+	public void remove() throws Exception {
+		File f = createFile("a.txt", "Hello World", 1500000000000L);
+		store.put(f, HashType.SFV, "4A17B156");
+		store.put(f, HashType.MD5, "b10a8db164e0754105b7a99be72e3fe5");
+		store.remove(f, HashType.SFV);
+
+		assertNull(store.get(f, HashType.SFV));
+		assertEquals("b10a8db164e0754105b7a99be72e3fe5", store.get(f, HashType.MD5));
+	}
+
+}
@@ -0,0 +1,86 @@
+package net.filebot.hash;
+
+import static java.util.Arrays.*;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Future;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class HashEngineTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	HashEngine engine = new HashEngine(4, 2);
+
+	File createFile(String name, int size) throws Exception {
+		byte[] bytes = new byte[size];
+		new Random(size).nextBytes(bytes);
+
+		File f = folder.newFile(name);
+		Files.write(f.toPath(), bytes);
+		return f;
+	}
+
+	String hash(File f, HashType type) throws Exception {
+		byte[] bytes = Files.readAllBytes(f.toPath());
+		Hash hash = type.newHash();
+		hash.update(bytes, 0, bytes.length);
+		return hash.digest();
+	}
+
+	@Test
+	public void computeHashesSinglePass() throws Exception {
+		File f = createFile("a.bin", 3 * HashEngine.BUFFER_SIZE + 17);
+		Map<HashType, String> hashes = engine.computeHashes(f, EnumSet.allOf(HashType.class), null);
+
+		for (HashType type : HashType.values()) {
+			assertEquals(type.toString(), hash(f, type), hashes.get(type));
+		}
+	}
+
+	@Test
+	public void computeHashEmptyFile() throws Exception {
+		File f = createFile("empty.bin", 0);
+		assertEquals("00000000", engine.computeHash(f, HashType.SFV));
+	}
+
+	@Test
+	public void computeHashesInInputOrder() throws Exception {
+		List<File> files = new ArrayList<File>();
+		for (int i = 0; i < 20; i++) {
+			files.add(createFile(i + ".bin", i * 10_000));
+		}
+
+		List<Future<String>> hashes = engine.computeHashes(files, HashType.MD5);
+		for (int i = 0; i < files.size(); i++) {
+			assertEquals(hash(files.get(i), HashType.MD5), hashes.get(i).get());
+		}
+	}
+
+	@Test
+	public void updateByteBuffer() throws Exception {
+		byte[] bytes = "Hello World".getBytes("UTF-8");
+		for (HashType type : asList(HashType.SFV, HashType.SHA256)) {
+			Hash a = type.newHash();
+			a.update(bytes, 0, bytes.length);
+
+			Hash b = type.newHash();
+			b.update(ByteBuffer.wrap(bytes));
+
+			assertEquals(a.digest(), b.digest());
+		}
+	}
+
+}
@@ -0,0 +1,213 @@
+package net.filebot.media;
+
+import static java.nio.charset.StandardCharsets.*;
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.Instant;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ContainerProbeTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	File createFile(String name, byte[]... data) throws Exception {
+		File f = folder.newFile(name);
+		Files.write(f.toPath(), concat(data));
+		return f;
+	}
+
+	@Test
+	public void matroska() throws Exception {
+		byte[] tracks = ebml(0x1654AE6B, videoTrack("V_MPEG4/ISO/AVC", 1920, 800, 41708333), audioTrack("A_AC3", "jpn"), audioTrack("A_AAC/MPEG4/LC", null), subtitleTrack("S_TEXT/ASS", "eng"));
+		File f = createFile("Sample.mkv", ebmlHeader("matroska"), segment(info(1000000, 1320000.0, "Sample Title", 0), tracks, cluster(1000)));
+
+		ContainerProbe mi = ContainerProbe.open(f);
+
+		assertEquals("AVC", mi.getVideoCodec());
+		assertEquals("AC-3 / AAC", mi.getAudioCodec());
+		assertEquals("jpn / eng", mi.getAudioLanguage());
+		assertEquals("ASS", mi.getSubtitleCodec());
+		assertEquals("eng", mi.getSubtitleLanguage());
+		assertEquals(Duration.ofMinutes(22), mi.getDuration());
+		assertEquals(1920, mi.getWidth().intValue());
+		assertEquals(800, mi.getHeight().intValue());
+		assertEquals(23.976f, mi.getFrameRate(), 0);
+		assertEquals(f.length() * 8 / 1320d, mi.getBitRate(), 0.001);
+		assertEquals("Sample Title", mi.getTitle());
+		assertEquals(Instant.parse("2001-01-01T00:00:00Z"), mi.getCreationTime());
+	}
+
+	@Test
+	public void matroskaTracksAtTheEnd() throws Exception {
+		byte[] info = info(1000000, 60000.0, null, -1);
+		byte[] cluster = cluster(256 * 1024);
+		byte[] tracks = ebml(0x1654AE6B, videoTrack("V_MPEGH/ISO/HEVC", 3840, 2160, 40000000));
+
+		// seek positions are relative to the start of the segment data (seek head with fixed size entries comes first)
+		byte[] seekHead = seekHead(0, 0);
+		byte[] data = segment(seekHead(seekHead.length, seekHead.length + info.length + cluster.length), info, cluster, tracks);
+		File f = createFile("Sample.webm", ebmlHeader("webm"), data);
+
+		ContainerProbe mi = ContainerProbe.open(f, 64 * 1024);
+
+		assertEquals("HEVC", mi.getVideoCodec());
+		assertEquals(3840, mi.getWidth().intValue());
+		assertEquals(25, mi.getFrameRate(), 0);
+		assertEquals(Duration.ofMinutes(1), mi.getDuration());
+	}
+
+	@Test
+	public void mp4() throws Exception {
+		byte[] moov = box("moov", mvhd(1000, 90000), trak("vide", "avc1", 90000, 8100000, 2158, 1280, 720, "und"), trak("soun", "mp4a", 48000, 4320000, 4219, 0, 0, "eng"), udta("Sample Title"));
+		File f = createFile("Sample.mp4", ftyp(), moov, box("mdat", new byte[1000]));
+
+		ContainerProbe mi = ContainerProbe.open(f);
+
+		assertEquals("AVC", mi.getVideoCodec());
+		assertEquals("AAC", mi.getAudioCodec());
+		assertEquals("eng", mi.getAudioLanguage());
+		assertEquals("", mi.getSubtitleCodec());
+		assertEquals(Duration.ofSeconds(90), mi.getDuration());
+		assertEquals(1280, mi.getWidth().intValue());
+		assertEquals(720, mi.getHeight().intValue());
+		assertEquals(23.978f, mi.getFrameRate(), 0);
+		assertEquals("Sample Title", mi.getTitle());
+		assertEquals(Instant.parse("1904-01-01T00:00:00Z").plusSeconds(3600), mi.getCreationTime());
+	}
+
+	@Test
+	public void mp4MovieBoxAtTheEnd() throws Exception {
+		byte[] moov = box("moov", mvhd(600, 6000), trak("vide", "hvc1", 600, 6000, 250, 1920, 1080, "und"));
+		File f = createFile("Sample.m4v", ftyp(), box("mdat", new byte[256 * 1024]), moov);
+
+		ContainerProbe mi = ContainerProbe.open(f, 64 * 1024);
+
+		assertEquals("HEVC", mi.getVideoCodec());
+		assertEquals(25, mi.getFrameRate(), 0);
+		assertEquals(Duration.ofSeconds(10), mi.getDuration());
+	}
+
+	@Test(expected = IOException.class)
+	public void mp4MovieBoxInTheMiddle() throws Exception {
+		byte[] moov = box("moov", mvhd(600, 6000), trak("vide", "hvc1", 600, 6000, 250, 1920, 1080, "und"));
+		File f = createFile("Sample.mp4", ftyp(), box("mdat", new byte[256 * 1024]), moov, box("mdat", new byte[256 * 1024]));
+
+		ContainerProbe.open(f, 64 * 1024);
+	}
+
+	@Test(expected = IOException.class)
+	public void unsupportedFormat() throws Exception {
+		ContainerProbe.open(createFile("Sample.avi", "RIFF....AVI LIST".getBytes(US_ASCII)));
+	}
+
+	static byte[] concat(byte[]... data) {
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		for (byte[] it : data) {
+			buffer.write(it, 0, it.length);
+		}
+		return buffer.toByteArray();
+	}
+
+	/**
+	 * EBML elements with 8 byte size fields
+	 */
+	static byte[] ebml(int id, byte[]... children) {
+		byte[] data = concat(children);
+		int idLength = 4 - Integer.numberOfLeadingZeros(id) / 8;
+		ByteBuffer buffer = ByteBuffer.allocate(idLength + 8 + data.length);
+
+		for (int i = idLength - 1; i >= 0; i--) {
+			buffer.put((byte) (id >>> (i * 8)));
+		}
+
+		return buffer.putLong(data.length | 0x0100000000000000L).put(data).array();
+	}
+
+	static byte[] ebml(int id, long value) {
+		return ebml(id, ByteBuffer.allocate(8).putLong(value).array());
+	}
+
+	static byte[] ebml(int id, double value) {
+		return ebml(id, ByteBuffer.allocate(8).putDouble(value).array());
+	}
+
+	static byte[] ebml(int id, String value) {
+		return ebml(id, value.getBytes(UTF_8));
+	}
+
+	static byte[] ebmlHeader(String docType) {
+		return ebml(0x1A45DFA3, ebml(0x4286, 1), ebml(0x4282, docType));
+	}
+
+	static byte[] segment(byte[]... children) {
+		return ebml(0x18538067, children);
+	}
+
+	static byte[] seekHead(long info, long tracks) {
+		return ebml(0x114D9B74, ebml(0x4DBB, ebml(0x53AB, 0x1549A966L), ebml(0x53AC, info)), ebml(0x4DBB, ebml(0x53AB, 0x1654AE6BL), ebml(0x53AC, tracks)));
+	}
+
+	static byte[] info(long timecodeScale, double duration, String title, long date) {
+		return ebml(0x1549A966, ebml(0x2AD7B1, timecodeScale), ebml(0x4489, duration), title == null ? new byte[0] : ebml(0x7BA9, title), date < 0 ? new byte[0] : ebml(0x4461, date));
+	}
+
+	static byte[] cluster(int size) {
+		return ebml(0x1F43B675, new byte[size]);
+	}
+
+	static byte[] videoTrack(String codec, int width, int height, long defaultDuration) {
+		return ebml(0xAE, ebml(0x83, 1), ebml(0x86, codec), ebml(0x23E383, defaultDuration), ebml(0xE0, ebml(0xB0, width), ebml(0xBA, height)));
+	}
+
+	static byte[] audioTrack(String codec, String language) {
+		return ebml(0xAE, ebml(0x83, 2), ebml(0x86, codec), language == null ? new byte[0] : ebml(0x22B59C, language));
+	}
+
+	static byte[] subtitleTrack(String codec, String language) {
+		return ebml(0xAE, ebml(0x83, 0x11), ebml(0x86, codec), ebml(0x22B59C, language));
+	}
+
+	/**
+	 * MP4 boxes
+	 */
+	static byte[] box(String type, byte[]... children) {
+		byte[] data = concat(children);
+		return ByteBuffer.allocate(8 + data.length).putInt(8 + data.length).put(type.getBytes(ISO_8859_1)).put(data).array();
+	}
+
+	static byte[] ftyp() {
+		return box("ftyp", "isom".getBytes(US_ASCII), new byte[4], "isomavc1".getBytes(US_ASCII));
+	}
+
+	static byte[] mvhd(int timescale, int duration) {
+		return box("mvhd", ByteBuffer.allocate(100).putInt(0).putInt(3600).putInt(3600).putInt(timescale).putInt(duration).array());
+	}
+
+	static byte[] trak(String handler, String format, int timescale, int duration, int samples, int width, int height, String language) {
+		int code = ((language.charAt(0) - 0x60) << 10) | ((language.charAt(1) - 0x60) << 5) | (language.charAt(2) - 0x60);
+
+		byte[] mdhd = box("mdhd", ByteBuffer.allocate(24).putInt(0).putInt(0).putInt(0).putInt(timescale).putInt(duration).putShort((short) code).array());
+		byte[] hdlr = box("hdlr", ByteBuffer.allocate(24).putInt(0).putInt(0).put(handler.getBytes(US_ASCII)).array());
+		byte[] entry = box(format, ByteBuffer.allocate(70).position(24).putShort((short) width).putShort((short) height).array());
+		byte[] stsd = box("stsd", ByteBuffer.allocate(8).putInt(0).putInt(1).array(), entry);
+		byte[] stsz = box("stsz", ByteBuffer.allocate(12).putInt(0).putInt(0).putInt(samples).array());
+
+		return box("trak", box("tkhd", new byte[84]), box("mdia", mdhd, hdlr, box("minf", box("stbl", stsd, stsz))));
+	}
+
+	static byte[] udta(String title) {
+		byte[] data = box("data", ByteBuffer.allocate(8).putInt(1).putInt(0).array(), title.getBytes(UTF_8));
+		return box("udta", box("meta", new byte[4], box("hdlr", new byte[25]), box("ilst", box("\u00A9nam", data))));
+	}
+
+}
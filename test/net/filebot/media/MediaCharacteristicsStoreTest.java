@@ -0,0 +1,142 @@
+package net.filebot.media;
+
+import static java.util.Collections.*;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import net.filebot.Cache;
+import net.filebot.CacheStats;
+import net.filebot.CacheType;
+import net.filebot.OptimizedCache;
+import net.filebot.mediainfo.MediaInfo.StreamKind;
+
+public class MediaCharacteristicsStoreTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	Cache cache = new Cache(new OptimizedCache("test", CacheType.Bounded), CacheType.Bounded, new CacheStats("test"));
+
+	AtomicInteger parseCount = new AtomicInteger();
+
+	MediaCharacteristicsStore newStore() {
+		return new MediaCharacteristicsStore(() -> cache, f -> {
+			parseCount.incrementAndGet();
+			return createSnapshot(f.getName(), f.length());
+		});
+	}
+
+	static Map<StreamKind, List<Map<String, String>>> createSnapshot(String name, long size) {
+		Map<String, String> general = new LinkedHashMap<String, String>();
+		general.put("CompleteName", name);
+		general.put("FileSize", String.valueOf(size));
+		general.put("Encoded_Library_Name", "x264");
+
+		Map<String, String> video = new LinkedHashMap<String, String>();
+		video.put("Format", "AVC");
+		video.put("Title", "Firefly \u2013 Serenity \u00E9\u00E8");
+
+		List<Map<String, String>> audio = new ArrayList<Map<String, String>>();
+		for (String language : new String[] { "en", "de" }) {
+			audio.add(singletonMap("Language", language));
+		}
+
+		Map<StreamKind, List<Map<String, String>>> snapshot = new EnumMap<StreamKind, List<Map<String, String>>>(StreamKind.class);
+		snapshot.put(StreamKind.General, singletonList(general));
+		snapshot.put(StreamKind.Video, singletonList(video));
+		snapshot.put(StreamKind.Audio, audio);
+		return snapshot;
+	}
+
+	File createFile(String name, String content, long lastModified) throws Exception {
+		File f = folder.newFile(name);
+		Files.write(f.toPath(), content.getBytes("UTF-8"));
+		f.setLastModified(lastModified);
+		return f;
+	}
+
+	@Test
+	public void encodeDecode() throws Exception {
+		Map<StreamKind, List<Map<String, String>>> snapshot = createSnapshot("Firefly.mkv", 1000);
+
+		// values larger than 64 KB
+		Map<String, String> menu = new LinkedHashMap<String, String>();
+		menu.put("Cover_Data", String.join("", nCopies(100_000, "A")));
+		menu.put("Empty", "");
+		snapshot.put(StreamKind.Menu, singletonList(menu));
+
+		Map<StreamKind, List<Map<String, String>>> copy = MediaCharacteristicsStore.decodeMediaInfo(MediaCharacteristicsStore.encodeMediaInfo(snapshot));
+		assertEquals(snapshot, copy);
+		assertEquals(new ArrayList<StreamKind>(snapshot.keySet()), new ArrayList<StreamKind>(copy.keySet()));
+		assertEquals(new ArrayList<String>(menu.keySet()), new ArrayList<String>(copy.get(StreamKind.Menu).get(0).keySet()));
+	}
+
+	@Test
+	public void getMediaInfo() throws Exception {
+		File f = createFile("Firefly.mkv", "Hello World", 1500000000000L);
+
+		Map<StreamKind, List<Map<String, String>>> snapshot = newStore().getMediaInfo(f);
+		assertEquals(createSnapshot("Firefly.mkv", 11), snapshot);
+		assertEquals("x264", snapshot.get(StreamKind.General).get(0).get("Encoded_Library_Name"));
+
+		// restored from the persistent cache
+		assertEquals(snapshot, newStore().getMediaInfo(f));
+		assertEquals(1, parseCount.get());
+	}
+
+	@Test
+	public void staleSize() throws Exception {
+		File f = createFile("Firefly.mkv", "Hello World", 1500000000000L);
+		MediaCharacteristicsStore store = newStore();
+		store.getMediaInfo(f);
+
+		Files.write(f.toPath(), "Hello World!".getBytes("UTF-8"));
+		f.setLastModified(1500000000000L);
+		assertEquals("12", store.getMediaInfo(f).get(StreamKind.General).get(0).get("FileSize"));
+		assertEquals(2, parseCount.get());
+	}
+
+	@Test
+	public void staleLastModified() throws Exception {
+		File f = createFile("Firefly.mkv", "Hello World", 1500000000000L);
+		MediaCharacteristicsStore store = newStore();
+		store.getMediaInfo(f);
+
+		f.setLastModified(1600000000000L);
+		store.getMediaInfo(f);
+		assertEquals(2, parseCount.get());
+	}
+
+	@Test
+	public void rename() throws Exception {
+		File f = createFile("Firefly.mkv", "Hello World", 1500000000000L);
+		newStore().getMediaInfo(f);
+
+		File renamed = new File(folder.getRoot(), "Serenity.mkv");
+		assertTrue(f.renameTo(renamed));
+
+		// file key (i.e. device and inode) is the same, so the record is found even though the file has been renamed
+		Map<StreamKind, List<Map<String, String>>> snapshot = newStore().getMediaInfo(renamed);
+		if (Files.readAttributes(renamed.toPath(), BasicFileAttributes.class).fileKey() != null) {
+			assertEquals("Firefly.mkv", snapshot.get(StreamKind.General).get(0).get("CompleteName"));
+			assertEquals(1, parseCount.get());
+		} else {
+			assertEquals("Serenity.mkv", snapshot.get(StreamKind.General).get(0).get("CompleteName"));
+			assertEquals(2, parseCount.get());
+		}
+	}
+
+}
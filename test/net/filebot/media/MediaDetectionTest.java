@@ -4,10 +4,14 @@ import static java.util.Collections.*;
 import static org.junit.Assert.*;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Locale;
 
 import org.junit.Test;
 
+import net.filebot.web.Movie;
+
 public class MediaDetectionTest {
 
 	@Test
@@ -40,6 +44,30 @@ public class MediaDetectionTest {
 		assertEquals("[78874]", MediaDetection.grepTheTvdbId("@see https://www.thetvdb.com/?tab=seasonall&id=78874&lid=14").toString());
 	}
 
+	@Test
+	public void matchMovieName() throws Exception {
+		List<IndexEntry<Movie>> index = MediaDetection.getMovieIndex();
+		List<String> names = new ArrayList<String>();
+
+		// sample movie names from the movie index and put them into typical file and folder name contexts
+		for (int i = 0; i < index.size(); i += 97) {
+			IndexEntry<Movie> it = index.get(i);
+			names.add(it.getStrictName());
+			names.add(it.getLenientName() + " 1080p BluRay x264");
+			names.add("The " + it.getLenientName() + " " + index.get((i * 31) % index.size()).getLenientName());
+			names.add("[Group] " + it.getStrictName() + " (Extended Cut)");
+		}
+
+		for (int maxStartIndex : new int[] { -1, 0, 2, 4 }) {
+			for (boolean strict : new boolean[] { true, false }) {
+				for (int i = 0; i < names.size(); i += 2) {
+					List<String> files = names.subList(i, Math.min(i + 2, names.size()));
+					assertEquals(files.toString(), MediaDetection.matchMovieNameByFullIndexScan(files, strict, maxStartIndex), MediaDetection.matchMovieName(files, strict, maxStartIndex));
+				}
+			}
+		}
+	}
+
 	@Test
 	public void stripReleaseInfo() throws Exception {
 		assertEquals("Avatar 2009", MediaDetection.stripReleaseInfo("Avatar.2009.DTS.MA.5.1"));
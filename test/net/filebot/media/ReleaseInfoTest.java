@@ -2,6 +2,7 @@
 package net.filebot.media;
 
 import static java.util.Collections.*;
+import static net.filebot.similarity.Normalization.*;
 import static org.junit.Assert.*;
 
 import java.util.regex.Pattern;
@@ -50,6 +51,21 @@ public class ReleaseInfoTest {
 		assertEquals("John [2016]  ", clean(info.getClutterBracketPattern(false), "John [2016] [Action, Drama] (ENG)"));
 	}
 
+	@Test
+	public void cleanReleaseTokenPattern() throws Exception {
+		String[] names = { "Jurassic.Park[1993]DvDrip-aXXo", "Jurassic.Park[1993]DvDrip-aXXo[RARBG]", "The.aXXo.Movie.2005", "[HorribleSubs]_Infinite_Stratos_2_-_01_[HorribleSubs]", "HorribleSubs_Infinite_Stratos_2_-_01_HorribleSubs", "[Legend].The.Legend.of.the.Blue.Sea.E01-Legend", "John [2016] [Action, Drama] (ENG)", "Avatar (2009) Extended Collectors Edition [1080p] [YTS.AG]", "Avatar.2009.EXTENDED.1080p.BluRay.x264-SPARKS", "The.Walking.Dead.S05E03.720p.HDTV.x264-KILLERS[ettv]", "Game.of.Thrones.S08E06.1080p.WEB-DL.DD5.1.H.264-GoT", "[SubsPlease] Spy x Family - 01 (1080p) [B0AB6B6D]", "Blade.Runner.1982.The.Final.Cut.REMASTERED.2160p.UHD.BluRay.x265.HDR.DTS-HD.MA.5.1-SWTYBLZ", "Inception (2010) 1080p BrRip x264 - YIFY", "Breaking.Bad.S01E01.Pilot.eng.forced", "Amelie.2001.FRENCH.720p.BluRay.x264-EVO", "Das.Boot.1981.GERMAN.DC.1080p.BluRay.x264-DETAiLS [de]", "The.Matrix.1999.3D.HSBS.1080p.BluRay.x264-PSA", "Mad.Max.Fury.Road.2015.1920x800.BluRay.x264-CtrlHD", "The Shining 1980 Extended US Cut R5.LINE TS XviD-QxR", "Se7en.1995.Directors.Cut.Unrated.720p.eng.ita", "Ça.2017.FRENCH.BDRip.XviD-EXTREME" };
+
+		for (boolean strict : new boolean[] { true, false }) {
+			Pattern[] stopwords = { info.getSubtitleLanguageTagPattern(), info.getLanguageTagPattern(strict), info.getVideoSourcePattern(), info.getVideoTagPattern(), info.getVideoFormatPattern(strict), info.getResolutionPattern(), info.getStereoscopic3DPattern() };
+			Pattern[] blacklist = { EMBEDDED_CHECKSUM, info.getSubtitleLanguageTagPattern(), info.getReleaseGroupTrimPattern(), info.getBlacklistPattern(), info.getLanguageTagPattern(strict), info.getClutterBracketPattern(strict), info.getReleaseGroupPattern(strict), info.getVideoSourcePattern(), info.getVideoTagPattern(), info.getVideoFormatPattern(strict), info.getResolutionPattern(), info.getStereoscopic3DPattern() };
+
+			for (String name : names) {
+				String head = strict ? info.clean(name, stopwords) : info.substringBefore(name, stopwords);
+				assertEquals(name, singletonList(normalizePunctuation(info.clean(head, blacklist))).toString(), info.cleanRelease(singleton(name), strict).toString());
+			}
+		}
+	}
+
 	private static String clean(Pattern p, String s) {
 		return p.matcher(s).replaceAll("");
 	}
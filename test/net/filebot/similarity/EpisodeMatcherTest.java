@@ -0,0 +1,77 @@
+package net.filebot.similarity;
+
+import static java.util.Arrays.*;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import net.filebot.similarity.SeasonEpisodeMatcher.SxE;
+import net.filebot.web.Episode;
+import net.filebot.web.SimpleDate;
+
+public class EpisodeMatcherTest {
+
+	static List<Episode> createEpisodes(String series, int seasons, int episodesPerSeason) {
+		List<Episode> episodes = new ArrayList<Episode>();
+		for (int s = 1; s <= seasons; s++) {
+			for (int e = 1; e <= episodesPerSeason; e++) {
+				int absolute = (s - 1) * episodesPerSeason + e;
+				episodes.add(new Episode(series, s, e, "Episode Title " + absolute, absolute, null, new SimpleDate(2000 + s, 1 + e % 12, 1 + e), absolute, null));
+			}
+		}
+		episodes.add(new Episode(series, null, null, "Christmas Special", null, 1, new SimpleDate(2003, 12, 25), 1000, null));
+		return episodes;
+	}
+
+	static List<File> createFiles() {
+		List<File> files = new ArrayList<File>();
+		files.add(new File("Doctor Who/Season 1/Doctor Who - S01E01 - Episode Title 1.mkv"));
+		files.add(new File("Doctor Who/Season 1/Doctor.Who.1x02.Episode.Title.2.720p.HDTV.x264-GROUP.mkv"));
+		files.add(new File("Doctor Who/Season 1/Doctor Who - S01E03E04 - Episode Title 3 & 4.mkv"));
+		files.add(new File("Doctor Who/Season 2/Doctor Who - 2x05 - Episode Title 17.avi"));
+		files.add(new File("Doctor Who/Season 2/Doctor.Who.S02E12.HDTV.XviD-GROUP.avi"));
+		files.add(new File("Doctor Who/Season 3/Doctor Who - 3x01-3x02 - Episode Title 25.mkv"));
+		files.add(new File("Doctor Who/Specials/Doctor Who - S00E01 - Christmas Special.mkv"));
+		files.add(new File("Doctor Who/Anime/[GROUP] Doctor Who - 30 [720p].mkv"));
+		files.add(new File("Doctor Who/Anime/[GROUP] Doctor Who - S03E31 [720p].mkv"));
+		files.add(new File("Doctor Who/Doctor Who 2002.04.04 Episode Title 15.mkv"));
+		files.add(new File("Doctor Who/Doctor Who - Episode Title 20.mkv"));
+		return files;
+	}
+
+	@Test
+	public void matchWithBlocking() throws Exception {
+		List<Episode> episodes = createEpisodes("Doctor Who", 3, 12);
+
+		for (boolean strict : new boolean[] { true, false }) {
+			List<Match<File, Object>> crossProduct = new EpisodeMatcher(createFiles(), episodes, strict, false).match();
+			List<Match<File, Object>> blocking = new EpisodeMatcher(createFiles(), episodes, strict, true).match();
+
+			assertFalse(crossProduct.isEmpty());
+			assertEquals(crossProduct.toString(), blocking.toString());
+		}
+	}
+
+	@Test
+	public void candidateIndex() {
+		List<Episode> episodes = createEpisodes("Doctor Who", 3, 12);
+		EpisodeCandidateIndex<Episode> index = new EpisodeCandidateIndex<Episode>(episodes);
+
+		assertEquals("[Doctor Who - 1x02 - Episode Title 2]", index.getCandidates(asList(new SxE(1, 2)), null).toString());
+		assertEquals("[Doctor Who - 1x01 - Episode Title 1, Doctor Who - Special 1 - Christmas Special]", index.getCandidates(asList(new SxE(0, 1)), null).toString());
+		assertEquals("[Doctor Who - 2x03 - Episode Title 15]", index.getCandidates(null, new SimpleDate(2002, 4, 4)).toString());
+
+		// absolute numbers in SxE patterns
+		assertEquals("[Doctor Who - 3x07 - Episode Title 31]", index.getCandidates(asList(new SxE(3, 31)), null).toString());
+		assertEquals("[Doctor Who - 3x06 - Episode Title 30]", index.getCandidates(asList(new SxE(null, 30)), null).toString());
+
+		// nothing to narrow down
+		assertEquals(episodes, index.getCandidates(asList(new SxE(9, 99)), null));
+		assertEquals(episodes, index.getCandidates(null, null));
+	}
+
+}
@@ -0,0 +1,55 @@
+package net.filebot.similarity;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class MatcherTest {
+
+	static List<String> createNames(String prefix, int size) {
+		List<String> names = new ArrayList<String>(size);
+		for (int i = 0; i < size; i++) {
+			names.add(prefix + " " + (i % 7) + "x" + (i % 13) + " " + (i * 7919 % 100));
+		}
+		return names;
+	}
+
+	@Test
+	public void matchParallel() throws Exception {
+		SimilarityMetric[] metrics = { new NumericSimilarityMetric(), new SequenceMatchSimilarity(), (o1, o2) -> -0.0f, new NameSimilarityMetric() };
+
+		List<String> values = createNames("file", 120);
+		List<String> candidates = createNames("episode", 150);
+
+		List<Match<String, String>> sequential = new Matcher<String, String>(values, candidates, false, metrics, false).match();
+		List<Match<String, String>> parallel = new Matcher<String, String>(values, candidates, false, metrics, true).match();
+
+		assertEquals(values.size(), sequential.size());
+		assertEquals(sequential.toString(), parallel.toString());
+	}
+
+	@Test(expected = InterruptedException.class)
+	public void matchParallelInterrupted() throws Exception {
+		AtomicInteger count = new AtomicInteger();
+		Thread caller = Thread.currentThread();
+
+		SimilarityMetric[] metrics = { (o1, o2) -> {
+			// cancel matching after a few comparisons
+			if (count.incrementAndGet() == 100) {
+				caller.interrupt();
+			}
+			return 0;
+		} };
+
+		try {
+			new Matcher<String, String>(createNames("file", 120), createNames("episode", 150), false, metrics, true).match();
+		} finally {
+			assertTrue(count.get() < 120 * 150);
+		}
+	}
+
+}
@@ -3,8 +3,12 @@ package net.filebot.similarity;
 
 
 import static org.junit.Assert.*;
+import static org.simmetrics.builders.StringMetricBuilder.*;
+import static org.simmetrics.tokenizers.Tokenizers.*;
 
 import org.junit.Test;
+import org.simmetrics.StringMetric;
+import org.simmetrics.metrics.BlockDistance;
 
 
 public class NameSimilarityMetricTest {
@@ -21,4 +25,24 @@ public class NameSimilarityMetricTest {
 		assertEquals(1, metric.getSimilarity("test s01e04 four", "test   s01e04     four"), 0);
 	}
 
+
+	@Test
+	public void getSimilarityTransliterate() {
+		assertEquals(1, metric.getSimilarity("Shōgun", "shogun"), 0);
+		assertEquals(1, metric.getSimilarity("Pokémon", "Pokemon"), 0);
+	}
+
+
+	@Test
+	public void getQGramSimilarity() {
+		StringMetric blockDistance = with(new BlockDistance<String>()).tokenize(qGramWithPadding(3)).build();
+		String[] names = { "", "a", "ab", "abc", "aaaa", "the office", "the office us", "office", "doctor who 2005", "who", "aaa bbb aaa bbb" };
+
+		for (String s1 : names) {
+			for (String s2 : names) {
+				assertEquals(s1 + " / " + s2, blockDistance.compare(s1, s2), NormalizationCache.getQGramSimilarity(s1, s2), 0);
+			}
+		}
+	}
+
 }
@@ -4,9 +4,13 @@ import static java.util.Arrays.*;
 import static net.filebot.similarity.SeasonEpisodeMatcher.SxE.*;
 import static org.junit.Assert.*;
 
+import java.util.Random;
+
 import org.junit.Test;
 
 import net.filebot.media.MediaDetection;
+import net.filebot.similarity.SeasonEpisodeMatcher.Mode;
+import net.filebot.similarity.SeasonEpisodeMatcher.SeasonEpisodeFilter;
 import net.filebot.similarity.SeasonEpisodeMatcher.SxE;
 
 public class SeasonEpisodeMatcherTest {
@@ -125,6 +129,30 @@ public class SeasonEpisodeMatcherTest {
 		assertEquals("[1x01, 01, 12]", matcher.match("Complete Season 01 (EP 01-12)/12").toString());
 	}
 
+	@Test
+	public void regexAndLexer() {
+		String[] tokens = { "S", "s", "E", "e", "x", "ep", "EP", "p", "Part", "Episode", "Season", "series", "of", "1", "0", "2", "01", "12", "101", "2013", "1080", "720p", "-", ".", "_", " ", "[", "]", "(", ")", "+", "a", "Z", "\u00E9", "x264", "..." };
+		Random random = new Random(42);
+
+		for (SeasonEpisodeFilter sanity : new SeasonEpisodeFilter[] { null, SeasonEpisodeMatcher.DEFAULT_SANITY, SeasonEpisodeMatcher.STRICT_SANITY }) {
+			for (boolean strict : new boolean[] { true, false }) {
+				SeasonEpisodeMatcher regex = new SeasonEpisodeMatcher(sanity, strict, Mode.regex);
+				SeasonEpisodeMatcher lexer = new SeasonEpisodeMatcher(sanity, strict, Mode.lexer);
+
+				for (int i = 0; i < 10000; i++) {
+					StringBuilder name = new StringBuilder();
+					for (int j = random.nextInt(10); j >= 0; j--) {
+						name.append(tokens[random.nextInt(tokens.length)]);
+					}
+
+					assertEquals(name.toString(), regex.match(name), lexer.match(name));
+					assertEquals(name.toString(), regex.find(name, 0), lexer.find(name, 0));
+					assertEquals(name.toString(), regex.find(name, name.length() / 2), lexer.find(name, name.length() / 2));
+				}
+			}
+		}
+	}
+
 	@Test
 	public void withReleaseInfo() {
 		assertEquals("[7x20]", matcher.match("720p").toString());
@@ -0,0 +1,61 @@
+package net.filebot.util;
+
+import static java.util.Arrays.*;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class AhoCorasickMatcherTest {
+
+	@Test
+	public void match() {
+		AhoCorasickMatcher matcher = new AhoCorasickMatcher(asList("he", "she", "his", "hers", "", null, "she"));
+
+		List<Integer> matches = new ArrayList<Integer>();
+		matcher.match("ushers", matches::add);
+
+		matches.sort(null);
+		assertEquals("[0, 1, 3, 6]", matches.toString());
+	}
+
+	@Test
+	public void matchRandom() {
+		Random random = new Random(42);
+		List<String> patterns = new ArrayList<String>();
+		for (int i = 0; i < 2000; i++) {
+			patterns.add(randomString(random, 1 + random.nextInt(5), 4));
+		}
+
+		AhoCorasickMatcher matcher = new AhoCorasickMatcher(patterns);
+
+		for (int i = 0; i < 1000; i++) {
+			String text = randomString(random, random.nextInt(20), 5);
+
+			BitSet expected = new BitSet();
+			for (int p = 0; p < patterns.size(); p++) {
+				if (text.contains(patterns.get(p))) {
+					expected.set(p);
+				}
+			}
+
+			BitSet actual = new BitSet();
+			matcher.match(text, actual::set);
+
+			assertEquals(text, expected, actual);
+		}
+	}
+
+	private static String randomString(Random random, int length, int alphabet) {
+		StringBuilder s = new StringBuilder(length);
+		for (int i = 0; i < length; i++) {
+			s.append((char) ('a' + random.nextInt(alphabet)));
+		}
+		return s.toString();
+	}
+
+}
@@ -0,0 +1,61 @@
+package net.filebot.web;
+
+import static java.util.Arrays.*;
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class LocalSearchTest {
+
+	static final String[] WORDS = { "the", "a", "of", "dragon", "ball", "ghost", "in", "shell", "neon", "genesis", "evangelion", "cowboy", "bebop", "death", "note", "one", "piece", "naruto", "shippuden", "attack", "on", "titan", "x", "z", "gt", "2", "ii", "kai" };
+
+	static SearchResult[] createDataset(Random random, int size) {
+		SearchResult[] data = new SearchResult[size];
+		for (int i = 0; i < size; i++) {
+			String[] aliases = new String[random.nextInt(3)];
+			for (int j = 0; j < aliases.length; j++) {
+				aliases[j] = createName(random);
+			}
+			data[i] = new SearchResult(i, createName(random), aliases);
+		}
+		return data;
+	}
+
+	static String createName(Random random) {
+		StringBuilder s = new StringBuilder();
+		for (int i = 0, n = 1 + random.nextInt(4); i < n; i++) {
+			if (s.length() > 0) {
+				s.append(random.nextBoolean() ? " " : ": ");
+			}
+			s.append(WORDS[random.nextInt(WORDS.length)]);
+		}
+		return s.toString();
+	}
+
+	@Test
+	public void search() throws Exception {
+		LocalSearch<SearchResult> index = new LocalSearch<SearchResult>(new SearchResult[] { new SearchResult(1, "Dragon Ball Z"), new SearchResult(2, "Dragon Ball"), new SearchResult(3, "Ghost in the Shell", new String[] { "Koukaku Kidoutai" }) }, SearchResult::getEffectiveNames);
+
+		assertEquals("[Dragon Ball, Dragon Ball Z]", index.search("dragon ball").toString());
+		assertEquals("[Ghost in the Shell]", index.search("Koukaku-Kidoutai").toString());
+		assertEquals("[]", index.search("Naruto").toString());
+	}
+
+	@Test
+	public void searchSameAsFullScan() throws Exception {
+		Random random = new Random(42);
+		LocalSearch<SearchResult> index = new LocalSearch<SearchResult>(createDataset(random, 5000), SearchResult::getEffectiveNames);
+
+		for (int i = 0; i < 500; i++) {
+			String query = createName(random);
+			assertEquals(query, index.searchByFullScan(index.normalize(query)), index.search(query));
+		}
+
+		for (String query : asList("", "x", "z2", "gt ", "kai")) {
+			assertEquals(query, index.searchByFullScan(index.normalize(query)), index.search(query));
+		}
+	}
+
+}
@@ -0,0 +1,166 @@
+package net.filebot.web;
+
+import static java.util.concurrent.TimeUnit.*;
+import static org.junit.Assert.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.Test;
+
+public class RateLimitTest {
+
+	/**
+	 * Virtual time that only moves forward when a caller sleeps or when the test advances it
+	 */
+	static class TestClock implements RateLimit.Clock {
+
+		long time = 0;
+		List<Timer> timers = new ArrayList<Timer>();
+
+		@Override
+		public long nanoTime() {
+			return time;
+		}
+
+		@Override
+		public void sleep(long nanos) {
+			time += nanos;
+		}
+
+		@Override
+		public CompletableFuture<Void> delay(long nanos) {
+			Timer timer = new Timer(time + nanos);
+			timers.add(timer);
+			return timer.future;
+		}
+
+		void advance(long millis) {
+			time += MILLISECONDS.toNanos(millis);
+
+			// timers may add new timers when they fire
+			List<Timer> due = new ArrayList<Timer>();
+			do {
+				due.forEach(it -> it.future.complete(null));
+				due.clear();
+				timers.removeIf(it -> it.time <= time && due.add(it));
+			} while (!due.isEmpty());
+		}
+
+		void cancel() {
+			List<Timer> pending = new ArrayList<Timer>(timers);
+			timers.clear();
+			pending.forEach(it -> it.future.cancel(false));
+		}
+
+		long millis() {
+			return NANOSECONDS.toMillis(time);
+		}
+	}
+
+	static class Timer {
+
+		long time;
+		CompletableFuture<Void> future = new CompletableFuture<Void>();
+
+		Timer(long time) {
+			this.time = time;
+		}
+	}
+
+	TestClock clock = new TestClock();
+
+	@Test
+	public void burst() throws Exception {
+		RateLimit limit = new RateLimit("test", 10, 1, SECONDS, 3, clock);
+
+		for (int i = 0; i < 5; i++) {
+			limit.acquirePermit();
+		}
+
+		// 3 permits at once and then 1 permit every 100 ms
+		assertEquals(200, clock.millis());
+		assertEquals(5, limit.getPermitCount());
+		assertEquals(0, limit.getQueueLength());
+	}
+
+	@Test
+	public void acquirePermitAsync() throws Exception {
+		RateLimit limit = new RateLimit("test", 20, 1, SECONDS, 1, clock);
+
+		CompletableFuture<?>[] permits = new CompletableFuture[5];
+		for (int i = 0; i < permits.length; i++) {
+			permits[i] = limit.acquirePermitAsync();
+		}
+
+		// first permit is granted right away and other callers are queued without blocking
+		assertTrue(permits[0].isDone());
+		assertFalse(permits[1].isDone());
+		assertEquals(4, limit.getQueueLength());
+		assertEquals(1, limit.getPermitCount());
+
+		clock.advance(50);
+		assertTrue(permits[1].isDone());
+		assertFalse(permits[2].isDone());
+
+		clock.advance(150);
+		assertTrue(CompletableFuture.allOf(permits).isDone());
+		assertEquals(0, limit.getQueueLength());
+		assertEquals(5, limit.getPermitCount());
+	}
+
+	@Test
+	public void acquirePermitAsyncFailed() throws Exception {
+		RateLimit limit = new RateLimit("test", 20, 1, SECONDS, 1, clock);
+		limit.acquirePermitAsync();
+
+		CompletableFuture<Void> permit = limit.acquirePermitAsync();
+		clock.cancel();
+
+		assertTrue(permit.isCompletedExceptionally());
+		assertEquals(0, limit.getQueueLength());
+		assertEquals(1, limit.getPermitCount());
+	}
+
+	@Test
+	public void pause() throws Exception {
+		RateLimit limit = new RateLimit("test", 100, 1, SECONDS, 10, clock);
+		limit.pause(new TooManyRequestsException(null, Duration.ofMillis(300)));
+		limit.acquirePermit();
+
+		// no burst credit after a forced pause
+		assertEquals(310, clock.millis());
+		assertEquals(1, limit.getThrottledCount());
+	}
+
+	@Test
+	public void pauseKeepsReservation() throws Exception {
+		RateLimit limit = new RateLimit("test", 10, 1, SECONDS, 1, clock);
+		limit.acquirePermit();
+
+		// reserved before the server tells us to back off
+		CompletableFuture<Void> permit = limit.acquirePermitAsync();
+		limit.pause(Duration.ofSeconds(1));
+
+		clock.advance(100);
+		assertFalse(permit.isDone());
+
+		clock.advance(1000);
+		assertTrue(permit.isDone());
+
+		// queued reservation is moved back but doesn't take another token
+		limit.acquirePermit();
+		assertEquals(1200, clock.millis());
+		assertEquals(3, limit.getPermitCount());
+	}
+
+	@Test
+	public void retryAfter() {
+		assertEquals(Duration.ofSeconds(120), WebRequest.getRetryAfter("120"));
+		assertEquals(Duration.ZERO, WebRequest.getRetryAfter("Wed, 21 Oct 2015 07:28:00 GMT"));
+		assertNull(WebRequest.getRetryAfter(null));
+	}
+
+}
@@ -0,0 +1,98 @@
+package net.filebot.web;
+
+import static java.nio.charset.StandardCharsets.*;
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FileNotFoundException;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sun.net.httpserver.HttpServer;
+
+public class WebRequestTest {
+
+	HttpServer server;
+	String etag = "\"ca0072135d8a475a716e6595f577ae8b\"";
+
+	@Before
+	public void start() throws Exception {
+		// local stub server
+		server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		server.createContext("/", exchange -> {
+			String path = exchange.getRequestURI().getPath();
+
+			if (path.equals("/404")) {
+				exchange.sendResponseHeaders(404, -1);
+			} else if (exchange.getRequestHeaders().containsKey("If-Modified-Since") || etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+				exchange.sendResponseHeaders(304, -1);
+			} else {
+				byte[] data = path.substring(1).getBytes(UTF_8);
+
+				if (exchange.getRequestHeaders().getFirst("Accept-Encoding").contains("gzip")) {
+					ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+					try (GZIPOutputStream gzip = new GZIPOutputStream(buffer)) {
+						gzip.write(data);
+					}
+					data = buffer.toByteArray();
+					exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+				}
+
+				exchange.getResponseHeaders().add("ETag", etag);
+				exchange.sendResponseHeaders(200, data.length);
+				exchange.getResponseBody().write(data);
+			}
+			exchange.close();
+		});
+		server.start();
+	}
+
+	@After
+	public void stop() {
+		server.stop(0);
+	}
+
+	URL getResource(String path) throws Exception {
+		return new URL("http://localhost:" + server.getAddress().getPort() + "/" + path);
+	}
+
+	@Test
+	public void fetchAsync() throws Exception {
+		List<String> etags = new ArrayList<String>();
+		ByteBuffer data = WebRequest.fetchAsync(getResource("Firefly"), 0, null, null, headers -> WebRequest.getETag(headers).ifPresent(etags::add)).get();
+
+		assertEquals("Firefly", UTF_8.decode(data).toString());
+		assertEquals("[" + etag + "]", etags.toString());
+	}
+
+	@Test
+	public void fetchAsyncIfModified() throws Exception {
+		assertNull(WebRequest.fetchAsync(getResource("Firefly"), System.currentTimeMillis(), null, null, null).get());
+	}
+
+	@Test
+	public void fetchAsyncIfNoneMatch() throws Exception {
+		assertNull(WebRequest.fetchAsync(getResource("Firefly"), 0, etag, null, null).get());
+		assertNotNull(WebRequest.fetchAsync(getResource("Firefly"), 0, "\"0\"", null, null).get());
+	}
+
+	@Test
+	public void fetchAsyncNotFound() throws Exception {
+		try {
+			WebRequest.fetchAsync(getResource("404"), 0, null, null, null).get();
+			fail("exception expected");
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof FileNotFoundException);
+		}
+	}
+
+}